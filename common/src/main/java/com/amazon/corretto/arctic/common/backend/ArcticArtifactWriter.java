@@ -0,0 +1,70 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.backend;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+
+import com.amazon.corretto.arctic.common.backend.impl.QueuedArtifactWriter;
+import com.google.inject.ImplementedBy;
+
+/**
+ * Writes artifacts, like the images of failed screenshot checks, without blocking the caller. The encoding and the
+ * writing to disk happen in the background, so it does not interfere with the timing of the test being replayed.
+ *
+ * This interface has a default implementation on {@link QueuedArtifactWriter}
+ */
+@ImplementedBy(QueuedArtifactWriter.class)
+public interface ArcticArtifactWriter {
+    /**
+     * Queues an image to be saved into disk. The image must not be modified after calling this method. If too many
+     * images are waiting to be written, this method blocks until there is room for one more.
+     * @param image Image to save.
+     * @param folder Folder where the image is saved. Folder tree will be created if needed.
+     * @param relativeName Name of the file to save, without extension.
+     * @return path and name the file will have, including extension, relative to the folder parameter.
+     */
+    Path saveImage(BufferedImage image, Path folder, Path relativeName);
+
+    /**
+     * Blocks until all the artifacts queued so far have been written.
+     */
+    void flush();
+
+    /**
+     * Number of artifacts waiting to be written.
+     * @return Number of pending artifacts.
+     */
+    int getQueueDepth();
+
+    /**
+     * Number of artifacts that have been written since the start.
+     * @return Number of artifacts written.
+     */
+    long getWrittenCount();
+
+    /**
+     * Average time it took to encode and write an artifact.
+     * @return Time in milliseconds. 0 if nothing has been written yet.
+     */
+    double getAverageWriteMillis();
+
+    /**
+     * Longest time it took to encode and write an artifact.
+     * @return Time in milliseconds. 0 if nothing has been written yet.
+     */
+    double getMaxWriteMillis();
+}
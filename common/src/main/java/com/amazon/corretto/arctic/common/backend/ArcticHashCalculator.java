@@ -23,7 +23,9 @@ import com.google.inject.ImplementedBy;
 
 /**
  * Calculates a hash based on the contents of an image. This hash will be different than the hash of an image file, as
- * only the contents of the image raster are taken into account.
+ * only the contents of the image raster are taken into account. Algorithms are identified by name, like the ones
+ * supported by {@link java.security.MessageDigest}. Implementations may support additional algorithms, see
+ * {@link MessageDigestHashCalculator#CRC32C}.
  *
  * This interface has a default implementation on {@link MessageDigestHashCalculator}
  */
@@ -42,4 +42,10 @@ public interface ArcticImageSaver {
      * @return String representing the format.
      */
     String getFormat();
+
+    /**
+     * Returns the extension, including the dot, added to the name of the files this instance saves.
+     * @return String representing the extension.
+     */
+    String getExtension();
 }
@@ -15,8 +15,11 @@
  */
 package com.amazon.corretto.arctic.common.backend;
 
+import java.util.List;
+
 import com.amazon.corretto.arctic.common.backend.impl.AwtRobotScreenRecorder;
 import com.amazon.corretto.arctic.common.model.event.ScreenshotCheck;
+import com.amazon.corretto.arctic.common.model.gui.ArcticFrame;
 import com.amazon.corretto.arctic.common.model.gui.ScreenArea;
 import com.google.inject.ImplementedBy;
 
@@ -39,4 +42,26 @@ public interface ArcticScreenRecorder {
      * @return ScreenshotCheck with basic fields initialized (image, timestamp)
      */
     ScreenshotCheck capture(ScreenArea area);
+
+    /**
+     * Generates a ScreenshotCheck for a specific area, reading from the screen only the part that is not covered by the
+     * shades. The image still has the size of the whole area, and the pixels under the shades are filled with the
+     * color of the shade. Implementations that can't restrict the capture return the whole area.
+     * @param area Area we will capture relative to the base area.
+     * @param shades Shades covering the area, in screen coordinates.
+     * @return ScreenshotCheck with basic fields initialized (image, timestamp). If only part of the area was read from
+     *         the screen, {@link ScreenshotCheck#isPartial()} is true.
+     */
+    default ScreenshotCheck captureUnshaded(final ScreenArea area, final List<ArcticFrame> shades) {
+        return capture(area);
+    }
+
+    /**
+     * Returns the image of a ScreenshotCheck that is no longer needed, so it can be reused by a later capture. Whether
+     * it is actually reused depends on the implementation and on how the image was captured. The ScreenshotCheck and
+     * its image must not be used after this.
+     * @param sc ScreenshotCheck created by this recorder.
+     */
+    default void recycle(final ScreenshotCheck sc) {
+    }
 }
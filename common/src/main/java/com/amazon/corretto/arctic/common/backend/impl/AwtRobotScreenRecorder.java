@@ -15,14 +15,22 @@
  */
 package com.amazon.corretto.arctic.common.backend.impl;
 
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.Robot;
+import java.awt.geom.Area;
 import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 
 import com.amazon.corretto.arctic.common.backend.ArcticScreenRecorder;
 import com.amazon.corretto.arctic.common.gui.ShadeManager;
 import com.amazon.corretto.arctic.common.gui.WorkbenchManager;
 import com.amazon.corretto.arctic.common.inject.CommonInjectionKeys;
 import com.amazon.corretto.arctic.common.model.event.ScreenshotCheck;
+import com.amazon.corretto.arctic.common.model.gui.ArcticFrame;
 import com.amazon.corretto.arctic.common.model.gui.ScreenArea;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
@@ -31,13 +39,24 @@ import jakarta.inject.Named;
  * Captures a {@link ScreenshotCheck} using {@link Robot}. The ScreenshotCheck contains not only the image with the
  * captured screen, but also de position of the workbench and all the shades, so they can be positioned in the same
  * location during playback.
+ *
+ * When capturing only the unshaded part of an area, the screen is read for the smallest rectangle that contains all the
+ * pixels not covered by shades, and the rest of the image is painted with the colors of the shades. The image these
+ * captures are composed into is taken from a small pool that is refilled by {@link #recycle(ScreenshotCheck)}.
+ *
+ * {@link Robot#createScreenCapture(Rectangle)} can't write into an existing image, so every read of the screen still
+ * allocates a new one, for regular captures and for the unshaded bounds alike. Reading only the unshaded bounds keeps
+ * that allocation smaller, and the pool avoids allocating the composed image too, but neither removes it.
  */
 public class AwtRobotScreenRecorder implements ArcticScreenRecorder {
+    private static final int POOL_SIZE = 2;
+
     private final Robot robot;
     private final WorkbenchManager wbManager;
     private final ShadeManager shadeManager;
     private final int xMargin;
     private final int yMargin;
+    private final Deque<BufferedImage> pool = new ArrayDeque<>(POOL_SIZE);
 
     /**
      * Creates a new instance of an AwtRobotScreenRecorder.
@@ -79,9 +98,70 @@ public class AwtRobotScreenRecorder implements ArcticScreenRecorder {
      */
     @Override
     public ScreenshotCheck capture(final ScreenArea area) {
-        final BufferedImage image = robot.createScreenCapture(area.asRectangle());
+        return newScreenshotCheck(robot.createScreenCapture(area.asRectangle()), area, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ScreenshotCheck captureUnshaded(final ScreenArea area, final List<ArcticFrame> shades) {
+        if (shades == null || shades.isEmpty()) {
+            return capture(area);
+        }
+        final Rectangle target = area.asRectangle();
+        final Area unshaded = new Area(target);
+        shades.forEach(it -> unshaded.subtract(new Area(it.getSa().asRectangle())));
+        final Rectangle bounds = unshaded.getBounds();
+        if (bounds.equals(target)) {
+            // Shades don't reduce what we need to read, a regular capture is cheaper than composing the image
+            return capture(area);
+        }
+        final BufferedImage image = acquire(target.width, target.height);
+        final Graphics2D g = image.createGraphics();
+        try {
+            // Everything outside of the bounds is covered by at least one shade, so the whole image gets painted
+            for (final ArcticFrame shade : shades) {
+                final ScreenArea sa = shade.getSa();
+                g.setColor(new Color(shade.getColor()));
+                g.fillRect(sa.getX() - target.x, sa.getY() - target.y, sa.getW(), sa.getH());
+            }
+            if (!bounds.isEmpty()) {
+                g.drawImage(robot.createScreenCapture(bounds), bounds.x - target.x, bounds.y - target.y, null);
+            }
+        } finally {
+            g.dispose();
+        }
+        return newScreenshotCheck(image, area, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void recycle(final ScreenshotCheck sc) {
+        // Only composed images are recycled. Regular captures are allocated by the Robot, which can't reuse them
+        if (sc.isPartial() && sc.getImage() != null && pool.size() < POOL_SIZE) {
+            pool.push(sc.getImage());
+            sc.setImage(null);
+        }
+    }
+
+    private synchronized BufferedImage acquire(final int width, final int height) {
+        while (!pool.isEmpty()) {
+            final BufferedImage image = pool.pop();
+            if (image.getWidth() == width && image.getHeight() == height) {
+                return image;
+            }
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private ScreenshotCheck newScreenshotCheck(final BufferedImage image, final ScreenArea area,
+                                               final boolean partial) {
         final ScreenshotCheck sc = new ScreenshotCheck();
         sc.setImage(image);
+        sc.setPartial(partial);
         sc.setWorkbench(wbManager.getWorkbench());
         sc.setShades(shadeManager.getShades());
         sc.setSa(area);
@@ -20,26 +20,60 @@ import java.io.File;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
 import javax.imageio.ImageIO;
 
 import com.amazon.corretto.arctic.common.backend.ArcticHashCalculator;
 import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.util.PixelRaster;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * This implementation relies on {@link MessageDigest} to calculate the hash of an image.
+ * This implementation relies on {@link MessageDigest} to calculate the hash of an image. Additionally, the
+ * {@link #CRC32C} algorithm can be used for a much faster, but non-cryptographic, hash.
+ *
+ * The hash is calculated over the ARGB value of each pixel, as returned by {@link BufferedImage#getRGB(int, int)}, in
+ * row order. Pixels are read directly from the image raster one row at a time, so no copy of the full image is created.
+ * Each pixel is written as big endian bytes, except for {@link #CRC32C}, which uses little endian so converting the
+ * pixels to bytes is a plain copy on most platforms.
  */
 @Slf4j
 public class MessageDigestHashCalculator implements ArcticHashCalculator {
+    /**
+     * Name of the algorithm that uses {@link CRC32C}. It is several times faster than any {@link MessageDigest}, as it
+     * is implemented with dedicated CPU instructions on most platforms, but it only produces 32 bits.
+     */
+    public static final String CRC32C = "CRC32C";
+    private static final ByteOrder CRC32C_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * Rows are converted to bytes in chunks of this many pixels, so the buffers stay small even for big images.
+     */
+    private static final int CHUNK_PIXELS = 16 * 1024;
+
+    private final ThreadLocal<Map<String, MessageDigest>> digests = ThreadLocal.withInitial(HashMap::new);
+
     /**
      * {@inheritDoc}
      */
     @Override
     public String calculateHash(final BufferedImage image, final String algorithm) throws NoSuchAlgorithmException {
-        final int[] rgbData = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
-        return calculateHash(rgbData, algorithm);
+        final PixelRaster raster = PixelRaster.of(image);
+        final int width = raster.getWidth();
+        final int[] row = new int[width];
+        return hash(algorithm, width, (sink, bytes) -> {
+            for (int y = 0; y < raster.getHeight(); y++) {
+                raster.readRow(y, row);
+                update(sink, row, width, bytes);
+            }
+        });
     }
 
     /**
@@ -47,13 +81,7 @@ public class MessageDigestHashCalculator implements ArcticHashCalculator {
      */
     @Override
     public String calculateHash(final int[] data, final String algorithm) throws NoSuchAlgorithmException {
-        final ByteBuffer bb = ByteBuffer.allocate(data.length * 4);
-        bb.asIntBuffer().put(data);
-
-        final MessageDigest md = MessageDigest.getInstance(algorithm);
-        md.update(bb);
-        final BigInteger bigInt = new BigInteger(1, md.digest());
-        return bigInt.toString(16);
+        return hash(algorithm, data.length, (sink, bytes) -> update(sink, data, data.length, bytes));
     }
 
     @Override
@@ -67,4 +95,57 @@ public class MessageDigestHashCalculator implements ArcticHashCalculator {
             throw new ArcticException("Error reading image file " + path, ex);
         }
     }
+
+    private String hash(final String algorithm, final int rowPixels, final Feeder feeder)
+            throws NoSuchAlgorithmException {
+        final ByteBuffer bytes = ByteBuffer.allocate(Math.min(rowPixels, CHUNK_PIXELS) * Integer.BYTES);
+        if (CRC32C.equalsIgnoreCase(algorithm)) {
+            final Checksum checksum = new CRC32C();
+            feeder.feed(checksum::update, bytes.order(CRC32C_ORDER));
+            return Long.toHexString(checksum.getValue());
+        }
+        final MessageDigest md = getDigest(algorithm);
+        feeder.feed(md::update, bytes);
+        final BigInteger bigInt = new BigInteger(1, md.digest());
+        return bigInt.toString(16);
+    }
+
+    private MessageDigest getDigest(final String algorithm) throws NoSuchAlgorithmException {
+        // MessageDigest.getInstance goes through the security providers every time, so we keep one instance per
+        // algorithm and thread. digest() resets the instance, leaving it ready for the next image.
+        final Map<String, MessageDigest> threadDigests = digests.get();
+        MessageDigest md = threadDigests.get(algorithm);
+        if (md == null) {
+            md = MessageDigest.getInstance(algorithm);
+            threadDigests.put(algorithm, md);
+        }
+        return md;
+    }
+
+    private static void update(final Sink sink, final int[] pixels, final int length, final ByteBuffer bytes) {
+        final IntBuffer ints = bytes.asIntBuffer();
+        final int chunk = ints.capacity();
+        for (int from = 0; from < length; from += chunk) {
+            final int count = Math.min(chunk, length - from);
+            ints.clear();
+            ints.put(pixels, from, count);
+            sink.update(bytes.array(), 0, count * Integer.BYTES);
+        }
+    }
+
+    /**
+     * Receives the bytes to hash, either a {@link MessageDigest} or a {@link Checksum}.
+     */
+    @FunctionalInterface
+    private interface Sink {
+        void update(byte[] data, int offset, int length);
+    }
+
+    /**
+     * Writes the content to hash into a sink, using the buffer to convert the pixels into bytes.
+     */
+    @FunctionalInterface
+    private interface Feeder {
+        void feed(Sink sink, ByteBuffer bytes);
+    }
 }
@@ -0,0 +1,384 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.backend.impl;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.backend.ArcticImageSaver;
+import com.amazon.corretto.arctic.common.util.PixelRaster;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Saves images as PNG files without going through ImageIO. {@link JavaImageIoSaver} creates a new ImageIO writer for
+ * each image and always uses its own compression settings. This saver reads the pixels straight from the raster, lets
+ * the deflate level and the PNG row filter be configured, and reuses one {@link Deflater} per thread.
+ *
+ * Large images can be compressed by several threads at the same time. The rows are split in strips that are filtered
+ * and deflated independently, each strip using the end of the previous one as dictionary, and the results are
+ * concatenated into a single zlib stream. The files are regular PNG files that any reader can decode.
+ */
+@Slf4j
+public final class PngImageSaver implements ArcticImageSaver {
+    public static final String FORMAT = "png";
+    public static final List<String> FILTERS = Arrays.stream(Filter.values())
+            .map(it -> it.name().toLowerCase(Locale.ROOT))
+            .collect(Collectors.toList());
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int IHDR = 0x49484452;
+    private static final int IDAT = 0x49444154;
+    private static final int IEND = 0x49454E44;
+    private static final int IHDR_LENGTH = 13;
+    private static final byte BIT_DEPTH = 8;
+    private static final byte COLOR_RGB = 2;
+    private static final byte COLOR_RGBA = 6;
+    private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9C};
+    private static final int ADLER_LENGTH = 4;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int MIN_STRIP_ROWS = 64;
+    private static final int BYTE_MASK = 0xFF;
+
+    private final String extension;
+    private final Filter filter;
+    private final int threads;
+    private final ExecutorService executor;
+    private final ThreadLocal<Deflater> deflaters;
+
+    /**
+     * Row filters defined by the PNG specification. {@link #ADAPTIVE} tries all of them on each row and keeps the one
+     * with the smallest sum of absolute values, which is the heuristic most encoders use.
+     */
+    public enum Filter {
+        NONE, SUB, UP, AVERAGE, PAETH, ADAPTIVE
+    }
+
+    /**
+     * Creates a new saver.
+     * @param extension Extension added to the names of the saved files, including the dot.
+     * @param level Deflate compression level, from 0 (no compression) to 9 (best compression).
+     * @param filter Name of the {@link Filter} to apply to the rows, case insensitive.
+     * @param threads Number of threads used to compress a single image. 1 compresses on the caller thread.
+     */
+    public PngImageSaver(final String extension, final int level, final String filter, final int threads) {
+        this.extension = extension;
+        this.filter = Filter.valueOf(filter.toUpperCase(Locale.ROOT));
+        this.threads = threads;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));
+        if (threads > 1) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(threads, r -> {
+                final Thread thread = new Thread(r, "arctic-png-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+        log.debug("PNG saver using level {}, filter {} and {} threads", level, this.filter, threads);
+    }
+
+    @Override
+    public Path saveImage(final BufferedImage image, final Path baseFolder, final Path relativeName) {
+        final Path fileName = relativeName.resolveSibling(relativeName.getFileName() + extension);
+        final Path fullPath = baseFolder.resolve(fileName);
+        try {
+            Files.createDirectories(fullPath.getParent());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(fullPath))) {
+                write(image, out);
+            }
+            return fileName;
+        } catch (final IOException e) {
+            log.warn("Unable to store image {}. Format was {}", fullPath, FORMAT);
+            throw new ArcticException("Unable to save image", e);
+        }
+    }
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Encodes an image as PNG.
+     * @param image Image to encode. Images with an alpha channel are saved as RGBA, any other image as RGB.
+     * @param out Stream where the PNG file is written. It is not closed by this method.
+     * @throws IOException If there is a problem writing to the stream.
+     */
+    public void write(final BufferedImage image, final OutputStream out) throws IOException {
+        final PixelRaster raster = PixelRaster.of(image);
+        final int bpp = image.getColorModel().hasAlpha() ? 4 : 3;
+        final int width = raster.getWidth();
+        final int height = raster.getHeight();
+        final int stride = width * bpp + 1;
+        final byte[] filtered = new byte[stride * height];
+        final int strips = executor == null ? 1 : Math.max(1, Math.min(threads, height / MIN_STRIP_ROWS));
+        final int[] bounds = new int[strips + 1];
+        for (int i = 0; i <= strips; i++) {
+            bounds[i] = (int) ((long) height * i / strips);
+        }
+
+        final List<Callable<byte[]>> filterTasks = new ArrayList<>(strips);
+        for (int i = 0; i < strips; i++) {
+            final int from = bounds[i];
+            final int to = bounds[i + 1];
+            filterTasks.add(() -> {
+                filterRows(raster, bpp, from, to, filtered);
+                return null;
+            });
+        }
+        run(filterTasks);
+
+        final List<Callable<byte[]>> deflateTasks = new ArrayList<>(strips);
+        for (int i = 0; i < strips; i++) {
+            final int offset = bounds[i] * stride;
+            final int length = (bounds[i + 1] - bounds[i]) * stride;
+            final boolean last = i == strips - 1;
+            deflateTasks.add(() -> deflate(filtered, offset, length, last));
+        }
+        final List<byte[]> compressed = run(deflateTasks);
+        final Adler32 adler = new Adler32();
+        adler.update(filtered, 0, filtered.length);
+
+        final DataOutputStream data = new DataOutputStream(out);
+        data.write(SIGNATURE);
+        final ByteBuffer header = ByteBuffer.allocate(IHDR_LENGTH)
+                .putInt(width)
+                .putInt(height)
+                .put(BIT_DEPTH)
+                .put(bpp == 4 ? COLOR_RGBA : COLOR_RGB)
+                .put((byte) 0)
+                .put((byte) 0)
+                .put((byte) 0);
+        writeChunk(data, IHDR, header.array());
+        final byte[] checksum = ByteBuffer.allocate(ADLER_LENGTH).putInt((int) adler.getValue()).array();
+        final List<byte[]> idat = new ArrayList<>(compressed.size() + 2);
+        idat.add(ZLIB_HEADER);
+        idat.addAll(compressed);
+        idat.add(checksum);
+        writeChunk(data, IDAT, idat.toArray(new byte[0][]));
+        writeChunk(data, IEND);
+        data.flush();
+    }
+
+    private <T> List<T> run(final List<Callable<T>> tasks) throws IOException {
+        final List<T> results = new ArrayList<>(tasks.size());
+        try {
+            if (executor == null) {
+                for (final Callable<T> task : tasks) {
+                    results.add(task.call());
+                }
+                return results;
+            }
+            for (final Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ArcticException("Interrupted while encoding image", e);
+        } catch (final ExecutionException e) {
+            throw new ArcticException("Unable to encode image", e.getCause());
+        } catch (final IOException | RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new ArcticException("Unable to encode image", e);
+        }
+    }
+
+    private void filterRows(final PixelRaster raster, final int bpp, final int from, final int to,
+                            final byte[] filtered) {
+        final int length = raster.getWidth() * bpp;
+        final int[] argb = new int[raster.getWidth()];
+        byte[] previous = new byte[length];
+        byte[] current = new byte[length];
+        final byte[][] candidates = filter == Filter.ADAPTIVE ? new byte[Filter.ADAPTIVE.ordinal()][length] : null;
+        if (from > 0) {
+            readRow(raster, from - 1, bpp, argb, previous);
+        }
+        for (int y = from; y < to; y++) {
+            readRow(raster, y, bpp, argb, current);
+            final int offset = y * (length + 1);
+            if (candidates == null) {
+                filtered[offset] = (byte) filter.ordinal();
+                applyFilter(filter, current, previous, bpp, filtered, offset + 1);
+            } else {
+                int best = 0;
+                long bestSum = Long.MAX_VALUE;
+                for (final Filter candidate : Filter.values()) {
+                    if (candidate == Filter.ADAPTIVE) {
+                        continue;
+                    }
+                    final byte[] out = candidates[candidate.ordinal()];
+                    applyFilter(candidate, current, previous, bpp, out, 0);
+                    final long sum = sumOfAbs(out);
+                    if (sum < bestSum) {
+                        bestSum = sum;
+                        best = candidate.ordinal();
+                    }
+                }
+                filtered[offset] = (byte) best;
+                System.arraycopy(candidates[best], 0, filtered, offset + 1, length);
+            }
+            final byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+    }
+
+    private static void readRow(final PixelRaster raster, final int y, final int bpp, final int[] argb,
+                                final byte[] row) {
+        raster.readRow(y, argb);
+        int index = 0;
+        for (final int pixel : argb) {
+            row[index++] = (byte) (pixel >>> 16);
+            row[index++] = (byte) (pixel >>> 8);
+            row[index++] = (byte) pixel;
+            if (bpp == 4) {
+                row[index++] = (byte) (pixel >>> 24);
+            }
+        }
+    }
+
+    private static void applyFilter(final Filter filter, final byte[] row, final byte[] previous, final int bpp,
+                                    final byte[] out, final int offset) {
+        final int length = row.length;
+        switch (filter) {
+            case NONE:
+                System.arraycopy(row, 0, out, offset, length);
+                break;
+            case SUB:
+                System.arraycopy(row, 0, out, offset, bpp);
+                for (int i = bpp; i < length; i++) {
+                    out[offset + i] = (byte) (row[i] - row[i - bpp]);
+                }
+                break;
+            case UP:
+                for (int i = 0; i < length; i++) {
+                    out[offset + i] = (byte) (row[i] - previous[i]);
+                }
+                break;
+            case AVERAGE:
+                for (int i = 0; i < length; i++) {
+                    final int left = i < bpp ? 0 : row[i - bpp] & BYTE_MASK;
+                    out[offset + i] = (byte) (row[i] - ((left + (previous[i] & BYTE_MASK)) >>> 1));
+                }
+                break;
+            case PAETH:
+                for (int i = 0; i < length; i++) {
+                    final int left = i < bpp ? 0 : row[i - bpp] & BYTE_MASK;
+                    final int upLeft = i < bpp ? 0 : previous[i - bpp] & BYTE_MASK;
+                    out[offset + i] = (byte) (row[i] - paeth(left, previous[i] & BYTE_MASK, upLeft));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported filter " + filter);
+        }
+    }
+
+    private static int paeth(final int left, final int up, final int upLeft) {
+        final int estimate = left + up - upLeft;
+        final int distanceLeft = Math.abs(estimate - left);
+        final int distanceUp = Math.abs(estimate - up);
+        final int distanceUpLeft = Math.abs(estimate - upLeft);
+        if (distanceLeft <= distanceUp && distanceLeft <= distanceUpLeft) {
+            return left;
+        }
+        return distanceUp <= distanceUpLeft ? up : upLeft;
+    }
+
+    private static long sumOfAbs(final byte[] row) {
+        long sum = 0;
+        for (final byte value : row) {
+            sum += Math.abs(value);
+        }
+        return sum;
+    }
+
+    /**
+     * Compresses a strip of filtered rows as raw deflate data. Strips other than the last one end with a sync flush, so
+     * they finish on a byte boundary and the next strip can be appended to them.
+     */
+    private byte[] deflate(final byte[] data, final int offset, final int length, final boolean last) {
+        final Deflater deflater = deflaters.get();
+        deflater.reset();
+        if (offset > 0) {
+            final int dictionary = Math.min(offset, DICTIONARY_SIZE);
+            deflater.setDictionary(data, offset - dictionary, dictionary);
+        }
+        deflater.setInput(data, offset, length);
+        if (last) {
+            deflater.finish();
+        }
+        byte[] out = new byte[Math.max(length / 4, DICTIONARY_SIZE)];
+        int size = 0;
+        while (true) {
+            if (size == out.length) {
+                out = Arrays.copyOf(out, out.length * 2);
+            }
+            final int space = out.length - size;
+            final int written = deflater.deflate(out, size, space, Deflater.SYNC_FLUSH);
+            size += written;
+            if (last ? deflater.finished() : written < space) {
+                return Arrays.copyOf(out, size);
+            }
+        }
+    }
+
+    private static void writeChunk(final DataOutputStream out, final int type, final byte[]... parts)
+            throws IOException {
+        int length = 0;
+        for (final byte[] part : parts) {
+            length += part.length;
+        }
+        final CRC32 crc = new CRC32();
+        final byte[] typeBytes = ByteBuffer.allocate(Integer.BYTES).putInt(type).array();
+        crc.update(typeBytes);
+        out.writeInt(length);
+        out.write(typeBytes);
+        for (final byte[] part : parts) {
+            crc.update(part);
+            out.write(part);
+        }
+        out.writeInt((int) crc.getValue());
+    }
+}
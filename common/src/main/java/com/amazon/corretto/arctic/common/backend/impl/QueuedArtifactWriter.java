@@ -0,0 +1,169 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.backend.impl;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.backend.ArcticArtifactWriter;
+import com.amazon.corretto.arctic.common.backend.ArcticImageSaver;
+import com.amazon.corretto.arctic.common.inject.CommonInjectionKeys;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An {@link ArcticArtifactWriter} that hands the artifacts to a single background thread through a bounded queue. When
+ * the queue is full, callers wait for the writer to catch up, so memory usage stays bounded even if the disk is slow.
+ * A queue size of 0 disables the background thread, and artifacts are written directly by the caller. How many
+ * artifacts were written and how long they took is logged when Arctic is closed.
+ */
+@Slf4j
+@Singleton
+public final class QueuedArtifactWriter implements ArcticArtifactWriter {
+    private final ArcticImageSaver imageSaver;
+    private final BlockingQueue<Runnable> queue;
+    private int pending;
+    private long written;
+    private long totalWriteNanos;
+    private long maxWriteNanos;
+
+    /**
+     * Creates a new instance. Usually called by the dependency injector.
+     * @param imageSaver Used to encode and save the images.
+     * @param queueSize Maximum number of artifacts waiting to be written. 0 to write them synchronously.
+     */
+    @Inject
+    public QueuedArtifactWriter(final ArcticImageSaver imageSaver,
+                                @Named(CommonInjectionKeys.ARTIFACT_QUEUE_SIZE) final int queueSize) {
+        this.imageSaver = imageSaver;
+        if (queueSize > 0) {
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            final Thread worker = new Thread(this::processQueue, "arctic-artifact-writer");
+            worker.setDaemon(true);
+            worker.start();
+        } else {
+            this.queue = null;
+        }
+        // Don't lose the last artifacts if Arctic is closed while they are still being written
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    @Override
+    public Path saveImage(final BufferedImage image, final Path folder, final Path relativeName) {
+        final Path fileName = relativeName.resolveSibling(relativeName.getFileName() + imageSaver.getExtension());
+        final Runnable write = () -> imageSaver.saveImage(image, folder, relativeName);
+        if (queue == null) {
+            timed(write);
+            return fileName;
+        }
+        synchronized (this) {
+            pending++;
+        }
+        try {
+            queue.put(write);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done();
+            throw new ArcticException("Interrupted while queueing image " + folder.resolve(fileName), e);
+        }
+        return fileName;
+    }
+
+    @Override
+    public synchronized void flush() {
+        final long start = System.nanoTime();
+        final int waiting = pending;
+        while (pending > 0) {
+            try {
+                wait();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ArcticException("Interrupted while waiting for artifacts to be written", e);
+            }
+        }
+        log.debug("Flushed {} artifacts in {}ms", waiting, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    public synchronized int getQueueDepth() {
+        return pending;
+    }
+
+    @Override
+    public synchronized long getWrittenCount() {
+        return written;
+    }
+
+    @Override
+    public synchronized double getAverageWriteMillis() {
+        return written == 0 ? 0 : totalWriteNanos / (double) written / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public synchronized double getMaxWriteMillis() {
+        return maxWriteNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private synchronized void close() {
+        flush();
+        if (written > 0) {
+            log.info("Wrote {} artifacts, average {}ms, max {}ms", written,
+                    String.format("%.3f", getAverageWriteMillis()), String.format("%.3f", getMaxWriteMillis()));
+        }
+    }
+
+    private void processQueue() {
+        while (true) {
+            final Runnable write;
+            try {
+                write = queue.take();
+            } catch (final InterruptedException e) {
+                log.warn("Artifact writer interrupted, {} artifacts will not be written", getQueueDepth());
+                return;
+            }
+            try {
+                timed(write);
+            } catch (final RuntimeException e) {
+                log.error("Unable to write artifact", e);
+            } finally {
+                done();
+            }
+        }
+    }
+
+    private void timed(final Runnable write) {
+        final long start = System.nanoTime();
+        write.run();
+        final long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            written++;
+            totalWriteNanos += elapsed;
+            maxWriteNanos = Math.max(maxWriteNanos, elapsed);
+        }
+        log.trace("Artifact written in {}ms, {} pending", TimeUnit.NANOSECONDS.toMillis(elapsed), getQueueDepth());
+    }
+
+    private synchronized void done() {
+        pending--;
+        notifyAll();
+    }
+}
@@ -30,10 +30,12 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import com.amazon.corretto.arctic.common.backend.ArcticArtifactWriter;
 import com.amazon.corretto.arctic.common.command.ArcticCommand;
 import com.amazon.corretto.arctic.common.inject.CommonInjectionKeys;
 import com.amazon.corretto.arctic.common.repository.TestRepository;
 import com.amazon.corretto.arctic.common.session.ArcticSessionKeeper;
+import com.amazon.corretto.arctic.common.session.SessionJournal;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import jakarta.inject.Inject;
@@ -58,6 +60,8 @@ public final class SessionCommand extends ArcticCommand {
     private final String defaultSessionFilename;
     private final String scope;
     private final TestRepository.Mode scopeMode;
+    private final ArcticArtifactWriter artifactWriter;
+    private final Set<SessionJournal> journals;
 
     /**
      * Creates a new instance of SessionCommand. Called by the DI injector.
@@ -67,24 +71,30 @@ public final class SessionCommand extends ArcticCommand {
      * @param defaultSessionFilename Default name of the session file
      * @param scope The scope Arctic is running on.
      * @param scopeMode The scope mode Arctic is currently running on.
+     * @param artifactWriter Used to wait for pending artifacts before saving a session that references them.
+     * @param journals Journals recording the changes to the session. Empty if the session is not journaled.
      */
     @Inject
     public SessionCommand(final Set<ArcticSessionKeeper<?, ?>> sessionKeepers, @Named(SESSION_GSON) final Gson gson,
                           @Named(CommonInjectionKeys.SESSION_DEFAULT) final String defaultSessionFilename,
                           @Named(CommonInjectionKeys.REPOSITORY_SCOPE) final String scope,
-                          final TestRepository.Mode scopeMode) {
+                          final TestRepository.Mode scopeMode, final ArcticArtifactWriter artifactWriter,
+                          final Set<SessionJournal> journals) {
         this.sessionKeepers = sessionKeepers.stream()
                 .collect(Collectors.toMap(it -> it.getClass().getName(), Function.identity()));
         this.gson = gson;
         this.defaultSessionFilename = defaultSessionFilename;
         this.scope = scope;
+        this.artifactWriter = artifactWriter;
         this.scopeMode = scopeMode;
+        this.journals = journals;
     }
 
     /**
      * Executes the command. There are four modes of execution:
      * - save [FILENAME]     stores the current session in FILENAME or the defaultSessionFilename if omitted
      * - load [FILENAME]     loads the session stored on FILENAME or the defaultSessionFilename if omitted
+     * - restore journal     loads the session recorded in the session journal
      * - print               prints the json file representing the current session
      * - clear               removes all session information in the current running instance of Arctic
      * @param args Exact arguments used to call the ArcticCommand
@@ -120,6 +130,9 @@ public final class SessionCommand extends ArcticCommand {
                 return "Unable to restore session as there is already session data stored";
             }
         }
+        if (args.length > 2 && "journal".equalsIgnoreCase(args[2])) {
+            return loadJournal();
+        }
         final Path sessionName = Path.of(defaultSessionFilename);
         try (Reader reader = new FileReader(sessionName.toFile())) {
             final Map<String, ArcticSessionKeeper.SessionObject> session = gson.fromJson(reader, GSON_TYPE);
@@ -136,6 +149,8 @@ public final class SessionCommand extends ArcticCommand {
                         sessionKeepers.get(k).restoreSession(v);
                     }
                 });
+                // Restored values are not recorded one by one, start the journal again from the restored session
+                journals.forEach(SessionJournal::compact);
                 return "Session " + sessionName + " restored";
             }
             return "Session " + sessionName + " could not be loaded";
@@ -145,6 +160,15 @@ public final class SessionCommand extends ArcticCommand {
         }
     }
 
+    private String loadJournal() {
+        final SessionJournal journal = journals.stream().filter(SessionJournal::canReplay).findFirst().orElse(null);
+        if (journal == null) {
+            return "Unable to restore session as there is no session journal";
+        }
+        final int records = journal.replay();
+        return "Session restored from journal, " + records + " changes replayed";
+    }
+
     private boolean validateSession(final BasicSessionObject info, final boolean force) {
         String currentVersion = SessionCommand.class.getPackage().getImplementationVersion();
         if (info == null) {
@@ -168,6 +192,8 @@ public final class SessionCommand extends ArcticCommand {
             return "Unable to save session as there is no session data stored";
         }
         final Path sessionName = Path.of(args.length > 2 ? args[2] : defaultSessionFilename);
+        // The session references the images of the failures, make sure all of them have been written
+        artifactWriter.flush();
         try (Writer writer = new FileWriter(sessionName.toFile())) {
             gson.toJson(getSession(), GSON_TYPE, writer);
         } catch (final IOException e) {
@@ -202,6 +228,8 @@ public final class SessionCommand extends ArcticCommand {
                 + "SUBCOMMAND:" + System.lineSeparator()
                 + String.format("  %-20s%s", "save", "Persist the current session") + System.lineSeparator()
                 + String.format("  %-20s%s", "restore", "Restore the last persisted session") + System.lineSeparator()
+                + String.format("  %-20s%s", "restore journal", "Restore the session recorded in the journal")
+                + System.lineSeparator()
                 + String.format("  %-20s%s", "print", "Print session data") + System.lineSeparator()
                 + String.format("  %-20s%s", "clear", "Clear session data") + System.lineSeparator();
     }
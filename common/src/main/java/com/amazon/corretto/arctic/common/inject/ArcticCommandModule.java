@@ -46,6 +46,7 @@ import com.amazon.corretto.arctic.common.command.interpreter.impl.ArcticRmiInter
 import com.amazon.corretto.arctic.common.serialization.ArcticTypeAdapter;
 import com.amazon.corretto.arctic.common.serialization.GsonPathAdapter;
 import com.amazon.corretto.arctic.common.session.ArcticSessionKeeper;
+import com.amazon.corretto.arctic.common.session.SessionJournal;
 import com.amazon.corretto.arctic.common.tweak.ArcticTweakableComponent;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -208,6 +209,7 @@ public final class ArcticCommandModule extends ArcticModule {
                 .in(Singleton.class);
         bindFromConfig(String.class, CommonInjectionKeys.SESSION_DEFAULT, "Name of the default session");
         Multibinder.newSetBinder(binder(), new TypeLiteral<ArcticSessionKeeper<?, ?>>() {});
+        Multibinder.newSetBinder(binder(), SessionJournal.class);
     }
 
     private void configureConfigCommand() {
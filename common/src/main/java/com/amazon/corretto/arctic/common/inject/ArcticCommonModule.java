@@ -22,6 +22,8 @@ import com.amazon.corretto.arctic.common.backend.impl.AwtRobotWindowFocusManager
 import com.amazon.corretto.arctic.common.backend.impl.DummyWindowFocusManager;
 import org.apache.commons.configuration2.Configuration;
 
+import static com.google.inject.name.Names.named;
+
 /**
  * This Guice module injects relevant keys for the common components. These are the default values for Workbench and
  * Shades.
@@ -43,6 +45,7 @@ public final class ArcticCommonModule extends ArcticModule {
     public void configure() {
         configureFocusManager();
         configureScreenCapture();
+        configureArtifactWriter();
         configureWorkbench();
         configureShades();
     }
@@ -58,6 +61,15 @@ public final class ArcticCommonModule extends ArcticModule {
         bindFromConfig(Integer.class, CommonInjectionKeys.SCREEN_CAPTURE_MARGIN_Y, "any positive number");
     }
 
+    private void configureArtifactWriter() {
+        // Only the player writes artifacts. Without a queue size they are written directly, with no background thread
+        if (getConfig().containsKey(CommonInjectionKeys.ARTIFACT_QUEUE_SIZE)) {
+            bindFromConfig(Integer.class, CommonInjectionKeys.ARTIFACT_QUEUE_SIZE, "0 or any positive number");
+        } else {
+            bind(Integer.class).annotatedWith(named(CommonInjectionKeys.ARTIFACT_QUEUE_SIZE)).toInstance(0);
+        }
+    }
+
     private void configureWorkbench() {
         bindFromConfig(String.class, CommonInjectionKeys.WORKBENCH_DEFAULT_TITLE, "any String");
         bindFromConfig(Integer.class, CommonInjectionKeys.WORKBENCH_DEFAULT_WIDTH, "any width in pixels");
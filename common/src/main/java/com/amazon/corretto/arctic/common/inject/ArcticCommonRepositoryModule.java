@@ -29,6 +29,8 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.amazon.corretto.arctic.common.exception.ArcticConfigurationException;
+import com.amazon.corretto.arctic.common.repository.DecodedImageCache;
+import com.amazon.corretto.arctic.common.repository.RepositoryIndex;
 import com.amazon.corretto.arctic.common.repository.TestLoadRepository;
 import com.amazon.corretto.arctic.common.repository.TestRepository;
 import com.amazon.corretto.arctic.common.repository.TestSaveRepository;
@@ -75,16 +77,29 @@ public final class ArcticCommonRepositoryModule extends ArcticModule {
         bindFromConfig(String.class, CommonInjectionKeys.REPOSITORY_JSON_NAME, "valid file name");
         bindFromConfig(String.class, CommonInjectionKeys.REPOSITORY_SCOPE, "an arbitrary scope");
         bindFromConfig(Boolean.class, CommonInjectionKeys.REPOSITORY_WINDOWS_LEGACY_MODE, Arrays.asList(true, false));
+        bindFromConfig(Boolean.class, CommonInjectionKeys.REPOSITORY_IMAGE_STORE, Arrays.asList(true, false));
         String scopeMode = getConfig().getString(CommonInjectionKeys.SCOPE_MODE);
         String scope = getConfig().getString(CommonInjectionKeys.REPOSITORY_SCOPE);
         bind(TestSaveRepository.class).to(JsonFileTestSaveRepositoryImpl.class);
         if (loadRepository) {
             bindLoadScopes(scopeMode, scope);
             bind(TestRepository.class).to(TestRepositoryImpl.class);
+            bindFromConfig(Integer.class, CommonInjectionKeys.REPOSITORY_IMAGE_CACHE_MB, "megabytes, 0 to disable");
+            bindFromConfig(Integer.class, CommonInjectionKeys.REPOSITORY_IMAGE_CACHE_ENTRIES,
+                    "number of images, 0 to disable");
+            bind(DecodedImageCache.class).in(Singleton.class);
+            bindFromConfig(Boolean.class, CommonInjectionKeys.REPOSITORY_INDEX, Arrays.asList(true, false));
+            bindFromConfig(Integer.class, CommonInjectionKeys.REPOSITORY_INDEX_REFRESH, "seconds, 0 to disable");
+            if (getConfig().getInt(CommonInjectionKeys.REPOSITORY_INDEX_REFRESH) < 0) {
+                fail(CommonInjectionKeys.REPOSITORY_INDEX_REFRESH, "seconds, 0 to disable");
+            }
         } else {
             bind(TestRepository.Mode.class).toInstance(TestRepository.Mode.SINGLE);
             bind(new TypeLiteral<List<String>>(){}).annotatedWith(named(CommonInjectionKeys.SCOPES))
                     .toInstance(Collections.emptyList());
+            bind(DecodedImageCache.class).toInstance(new DecodedImageCache(0, 0));
+            bind(Boolean.class).annotatedWith(named(CommonInjectionKeys.REPOSITORY_INDEX)).toInstance(false);
+            bind(Integer.class).annotatedWith(named(CommonInjectionKeys.REPOSITORY_INDEX_REFRESH)).toInstance(0);
         }
     }
 
@@ -157,6 +172,8 @@ public final class ArcticCommonRepositoryModule extends ArcticModule {
      * @param repositoryFileName Name of the file for te test in the repository
      * @param scopes List of scopes that we need to check. List order determines priority
      * @param gson Instance of gson for deserialization
+     * @param imageCache Cache of decoded images, shared by all the scopes
+     * @param index Index used to know which scopes have each test, shared by all the scopes
      * @return An instance of TestLoadRepository that can read from all the scopes required.
      */
     @Provides
@@ -165,17 +182,44 @@ public final class ArcticCommonRepositoryModule extends ArcticModule {
             final @Named(CommonInjectionKeys.REPOSITORY_JSON_PATH) String repositoryPath,
             final @Named(CommonInjectionKeys.REPOSITORY_JSON_NAME) String repositoryFileName,
             final @Named(CommonInjectionKeys.SCOPES) List<String> scopes,
-            final Gson gson) {
+            final Gson gson,
+            final DecodedImageCache imageCache,
+            final RepositoryIndex index) {
         log.info("Scope load order: {}", String.join(" ", scopes));
         LinkedHashMap<String, TestLoadRepository> repos = scopes.stream().collect(Collectors.toMap(
                 Function.identity(),
-                scope -> new JsonFileTestLoadRepositoryImpl(repositoryPath, repositoryFileName, scope, gson),
+                scope -> new JsonFileTestLoadRepositoryImpl(repositoryPath, repositoryFileName, scope, gson,
+                        imageCache, index),
                 (x, y) -> y,
                 LinkedHashMap::new));
 
         return new CompositeLoadRepositoryImpl(repos);
     }
 
+    /**
+     * Provides method for the {@link RepositoryIndex}, shared by the load repositories of all the scopes and the save
+     * repository, which keeps it updated with the tests it saves. This method is not called directly, it's part of the
+     * dependency injection.
+     * @param repositoryPath Root path for the repositories
+     * @param repositoryFileName Name of the file for te test in the repository
+     * @param scopes List of scopes that we need to index
+     * @param useIndex Whether to use the index at all. If not, a disabled index is returned
+     * @param indexRefresh How often, in seconds, the index is validated again. 0 to validate it only once
+     * @return The index of the repository.
+     */
+    @Provides
+    @Singleton
+    public RepositoryIndex getRepositoryIndex(
+            final @Named(CommonInjectionKeys.REPOSITORY_JSON_PATH) String repositoryPath,
+            final @Named(CommonInjectionKeys.REPOSITORY_JSON_NAME) String repositoryFileName,
+            final @Named(CommonInjectionKeys.SCOPES) List<String> scopes,
+            final @Named(CommonInjectionKeys.REPOSITORY_INDEX) boolean useIndex,
+            final @Named(CommonInjectionKeys.REPOSITORY_INDEX_REFRESH) int indexRefresh) {
+        return useIndex && !scopes.isEmpty()
+                ? new RepositoryIndex(Path.of(repositoryPath), repositoryFileName, scopes, indexRefresh)
+                : RepositoryIndex.disabled();
+    }
+
     /**
      * Provides method for the instance of gson used when serializing and deserializing tests. This is a standard gson
      * instance, although some fields may define special adapters to control serialization. This method is not called
@@ -41,6 +41,31 @@ public final class CommonInjectionKeys {
 
     public static final String REPOSITORY_WINDOWS_LEGACY_MODE = PREFIX + "repository.windows.legacy.mode";
 
+    /**
+     * Maximum memory, in megabytes, used to keep decoded images of the repository.
+     */
+    public static final String REPOSITORY_IMAGE_CACHE_MB = PREFIX + "repository.image.cache.mb";
+
+    /**
+     * Maximum number of decoded images of the repository kept in memory.
+     */
+    public static final String REPOSITORY_IMAGE_CACHE_ENTRIES = PREFIX + "repository.image.cache.entries";
+
+    /**
+     * Whether to keep an index of the tests in the repository, instead of checking the filesystem for each scope.
+     */
+    public static final String REPOSITORY_INDEX = PREFIX + "repository.index";
+
+    /**
+     * How often, in seconds, the repository index is validated again to pick up tests added by other processes.
+     */
+    public static final String REPOSITORY_INDEX_REFRESH = PREFIX + "repository.index.refresh.seconds";
+
+    /**
+     * Whether to save the images of the tests into a content addressed store shared by all the scopes.
+     */
+    public static final String REPOSITORY_IMAGE_STORE = PREFIX + "repository.image.store";
+
     public static final String CMD_ENABLED = PREFIX + "cmd.enabled";
     public static final String CMD_CONSOLE_ENABLED = PREFIX + "cmd.console.enabled";
     public static final String CMD_ALLOWED_ENABLED = PREFIX + "cmd.allowed.enabled";
@@ -56,6 +81,15 @@ public final class CommonInjectionKeys {
     public static final String CMD_RMI_SECURITY_LOCAL_ONLY = PREFIX + "cmd.rmi.security.local_only";
 
     public static final String SESSION_DEFAULT = PREFIX + "session.default";
+    public static final String SESSION_JOURNAL_ENABLED = PREFIX + "session.journal.enabled";
+    public static final String SESSION_JOURNAL_SYNC_MS = PREFIX + "session.journal.sync.ms";
+    public static final String SESSION_JOURNAL_COMPACT = PREFIX + "session.journal.compact";
+
+    /**
+     * Maximum number of artifacts, like diff images, waiting to be written in the background. Optional, when missing
+     * artifacts are written directly.
+     */
+    public static final String ARTIFACT_QUEUE_SIZE = PREFIX + "artifact.queue.size";
 
     public static final String SCREEN_CAPTURE_MARGIN_X = PREFIX + "screen.capture.margin.x";
     public static final String SCREEN_CAPTURE_MARGIN_Y = PREFIX + "screen.capture.margin.y";
@@ -139,4 +139,9 @@ public final class ArcticTest {
      * demand.
      */
     private transient Events events = new Events();
+
+    /**
+     * True once the events have been loaded from the Events file, so they don't need to be loaded again.
+     */
+    private transient boolean eventsLoaded;
 }
@@ -19,8 +19,10 @@ package com.amazon.corretto.arctic.common.model.event;
 import java.awt.image.BufferedImage;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.amazon.corretto.arctic.common.model.gui.ArcticFrame;
@@ -38,6 +40,12 @@ public final class ScreenshotCheck implements ArcticEvent {
      */
     private transient BufferedImage image;
 
+    /**
+     * Whether only the part of the screen area not covered by shades was captured. Pixels under the shades were not
+     * read from the screen, but filled with the color of the shade. Not stored in the Json file.
+     */
+    private transient boolean partial;
+
     /**
      * When the event happened relative to the start of the recording.
      */
@@ -74,6 +82,17 @@ public final class ScreenshotCheck implements ArcticEvent {
      */
     private String hashValue;
 
+    /**
+     * A small signature of the image, see {@link com.amazon.corretto.arctic.common.util.ImageSignature}. Used to decide
+     * which of the images is more likely to match without loading them.
+     */
+    private String signature;
+
+    /**
+     * Signatures of the alternative images, by their path.
+     */
+    private Map<String, String> alternativeSignatures = new HashMap<>();
+
     /**
      * Area of the screen the ScreenCheck covers.
      */
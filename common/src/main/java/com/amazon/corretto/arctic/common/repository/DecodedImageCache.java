@@ -0,0 +1,241 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.repository;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazon.corretto.arctic.common.inject.CommonInjectionKeys;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps decoded images in memory, so the same file is not decoded again when a test is rerun or a failure is reviewed.
+ * Entries are identified by the scope and path of the image, and are only reused while the last modified time of the
+ * file has not changed. When the cache grows over its limits, the least recently used images are evicted.
+ *
+ * Images returned by the cache are shared between all the callers, so they must not be modified. How many requests
+ * were served from the cache is logged when Arctic is closed.
+ */
+@Slf4j
+public final class DecodedImageCache {
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    private final long maxBytes;
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long bytes;
+
+    /**
+     * Creates a new cache. Usually called by the dependency injector software.
+     * @param maxMegabytes Maximum memory the decoded images can use, in megabytes. 0 disables the cache.
+     * @param maxEntries Maximum number of images to keep. 0 disables the cache.
+     */
+    @Inject
+    public DecodedImageCache(@Named(CommonInjectionKeys.REPOSITORY_IMAGE_CACHE_MB) final int maxMegabytes,
+                             @Named(CommonInjectionKeys.REPOSITORY_IMAGE_CACHE_ENTRIES) final int maxEntries) {
+        this.maxBytes = maxMegabytes * BYTES_PER_MB;
+        this.maxEntries = maxEntries;
+        if (isEnabled()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::logSummary));
+        }
+    }
+
+    /**
+     * Returns the decoded image for a file, decoding it with the loader only if it is not already cached or the file
+     * changed since it was cached.
+     * @param scope Scope of the image. Images loaded by absolute path can use any fixed value.
+     * @param path Path to the image file.
+     * @param loader Used to decode the image when it is not in the cache.
+     * @return The decoded image. Null if the file does not exist or the loader was unable to decode it.
+     */
+    public BufferedImage get(final String scope, final Path path, final ImageLoader loader) {
+        final FileTime modified;
+        try {
+            modified = Files.getLastModifiedTime(path);
+        } catch (final IOException e) {
+            // Missing or unreadable file, there is nothing we can cache
+            return null;
+        }
+        final Key key = new Key(scope, path);
+        synchronized (this) {
+            final Entry entry = entries.get(key);
+            if (entry != null && entry.modified.equals(modified)) {
+                hits.incrementAndGet();
+                return entry.image;
+            }
+        }
+        misses.incrementAndGet();
+        // Decode outside the lock, so other images can be served while this one is being read
+        final BufferedImage image = loader.load(path);
+        if (image != null) {
+            put(key, new Entry(image, modified));
+        }
+        return image;
+    }
+
+    /**
+     * Whether the cache keeps any image at all.
+     * @return False if the cache was disabled by its limits.
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0 && maxEntries > 0;
+    }
+
+    /**
+     * Removes all the images from the cache. Metrics are not reset.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Number of requests that were served from the cache.
+     * @return Number of hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Number of requests that required decoding the image.
+     * @return Number of misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Number of images removed from the cache to keep it inside its limits.
+     * @return Number of evictions.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Number of images currently in the cache.
+     * @return Number of entries.
+     */
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Estimated memory used by the images currently in the cache.
+     * @return Size in bytes.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DecodedImageCache{entries=%d, bytes=%d, hits=%d, misses=%d, evictions=%d}", getSize(),
+                getBytes(), getHits(), getMisses(), getEvictions());
+    }
+
+    private void logSummary() {
+        log.info("Decoded image cache served {} hits and {} misses, {} evictions, {} images kept using {}MB", getHits(),
+                getMisses(), getEvictions(), getSize(), getBytes() / BYTES_PER_MB);
+    }
+
+    private synchronized void put(final Key key, final Entry entry) {
+        if (entry.bytes > maxBytes || maxEntries <= 0) {
+            return;
+        }
+        final Entry previous = entries.put(key, entry);
+        bytes += entry.bytes - (previous == null ? 0 : previous.bytes);
+        final Iterator<Entry> it = entries.values().iterator();
+        while (bytes > maxBytes || entries.size() > maxEntries) {
+            final Entry eldest = it.next();
+            it.remove();
+            bytes -= eldest.bytes;
+            evictions.incrementAndGet();
+        }
+        log.trace("{}", this);
+    }
+
+    private static long sizeOf(final BufferedImage image) {
+        final DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
+    /**
+     * Decodes an image file.
+     */
+    @FunctionalInterface
+    public interface ImageLoader {
+        /**
+         * Decodes the image.
+         * @param path Path to the image file.
+         * @return The decoded image, or null if it could not be decoded.
+         */
+        BufferedImage load(Path path);
+    }
+
+    private static final class Key {
+        private final String scope;
+        private final Path path;
+
+        private Key(final String scope, final Path path) {
+            this.scope = scope;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return scope.equals(key.scope) && path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, path);
+        }
+    }
+
+    private static final class Entry {
+        private final BufferedImage image;
+        private final FileTime modified;
+        private final long bytes;
+
+        private Entry(final BufferedImage image, final FileTime modified) {
+            this.image = image;
+            this.modified = modified;
+            this.bytes = sizeOf(image);
+        }
+    }
+}
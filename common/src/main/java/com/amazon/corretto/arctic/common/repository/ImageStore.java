@@ -0,0 +1,321 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.repository;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.backend.ArcticImageSaver;
+import com.amazon.corretto.arctic.common.inject.CommonInjectionKeys;
+import com.amazon.corretto.arctic.common.model.ArcticTest;
+import com.google.gson.Gson;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content addressed store for the images of the repository. Each distinct image file is kept once, in a folder at the
+ * root of the repository, named after the SHA-256 of its contents. Tests reference the images through the usual paths
+ * relative to their scope folder, which for stored images point into the store, so loading an image does not need to
+ * know about the store at all. Saving an image that is already stored, from any scope or as an alternative of any
+ * test, only adds a reference to it.
+ *
+ * The test files of all the scopes are the references to the images. Images no test references anymore are only
+ * removed by {@link #collectGarbage(boolean)}, which skips those stored recently, as the test referencing them may not
+ * have been saved yet.
+ */
+@Slf4j
+@Singleton
+public final class ImageStore {
+    /**
+     * Name of the folder, at the root of the repository, where the images are stored.
+     */
+    public static final String FOLDER = ".arctic-images";
+
+    private static final String TEMP_FOLDER = "tmp";
+    private static final String DIGEST = "SHA-256";
+    private static final int PREFIX_LENGTH = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long GRACE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int NIBBLE_BITS = 4;
+    private static final int NIBBLE_MASK = 0xF;
+
+    private final Path root;
+    private final Path folder;
+    private final Path tempFolder;
+    private final String testFileName;
+    private final Gson gson;
+
+    /**
+     * Creates a new store. Called by the dependency injection framework.
+     * @param rootPath Root folder of the repository.
+     * @param testFileName Name of the test files, used to find the references when collecting garbage.
+     * @param gson Used to read the test files.
+     */
+    @Inject
+    public ImageStore(@Named(CommonInjectionKeys.REPOSITORY_JSON_PATH) final String rootPath,
+                      @Named(CommonInjectionKeys.REPOSITORY_JSON_NAME) final String testFileName,
+                      final Gson gson) {
+        this.root = Path.of(rootPath).toAbsolutePath().normalize();
+        this.folder = root.resolve(FOLDER);
+        this.tempFolder = folder.resolve(TEMP_FOLDER);
+        this.testFileName = testFileName;
+        this.gson = gson;
+    }
+
+    /**
+     * Saves an image into the store, unless an identical file is already there.
+     * @param scope Scope of the test the image belongs to.
+     * @param image Image to save.
+     * @param saver Used to encode the image.
+     * @return Path of the stored image, relative to the scope folder.
+     */
+    public Path saveImage(final String scope, final BufferedImage image, final ArcticImageSaver saver) {
+        try {
+            Files.createDirectories(tempFolder);
+        } catch (final IOException e) {
+            throw new ArcticException("Unable to create image store folder " + tempFolder, e);
+        }
+        final Path saved = tempFolder.resolve(saver.saveImage(image, tempFolder,
+                Path.of(UUID.randomUUID().toString())));
+        return getReference(scope, store(saved, true));
+    }
+
+    /**
+     * Adds an existing image file to the store, unless an identical file is already there. The file itself is left
+     * untouched.
+     * @param scope Scope of the test that references the image.
+     * @param image Image file to add.
+     * @return Path of the stored image, relative to the scope folder.
+     */
+    public Path addImage(final String scope, final Path image) {
+        return getReference(scope, store(image, false));
+    }
+
+    /**
+     * Removes the images no test of the repository references anymore. Images stored during the last hour are kept
+     * even if they are not referenced, as they may belong to a test that is still being saved. If any test can't be
+     * read, nothing is removed.
+     * @param dryRun True to only report what would be removed.
+     * @return What was found and removed.
+     */
+    public GcResult collectGarbage(final boolean dryRun) {
+        final long start = System.nanoTime();
+        final Set<Path> referenced = findReferences();
+        final long limit = System.currentTimeMillis() - GRACE_MILLIS;
+        int kept = 0;
+        int removed = 0;
+        long freed = 0;
+        if (Files.isDirectory(folder)) {
+            final List<Path> images;
+            try (Stream<Path> files = Files.walk(folder)) {
+                images = files.filter(Files::isRegularFile).collect(Collectors.toList());
+            } catch (final IOException e) {
+                throw new ArcticException("Unable to list image store " + folder, e);
+            }
+            for (final Path image : images) {
+                try {
+                    if (referenced.contains(image) || Files.getLastModifiedTime(image).toMillis() > limit) {
+                        kept++;
+                        continue;
+                    }
+                    final long size = Files.size(image);
+                    if (!dryRun) {
+                        Files.delete(image);
+                    }
+                    removed++;
+                    freed += size;
+                } catch (final IOException e) {
+                    log.warn("Unable to collect image {}", image, e);
+                }
+            }
+        }
+        log.info("Image store: {} images kept, {} {} ({} bytes) in {}ms", kept, removed,
+                dryRun ? "can be removed" : "removed", freed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new GcResult(kept, removed, freed);
+    }
+
+    private Set<Path> findReferences() {
+        final List<Path> testFiles;
+        try (Stream<Path> files = Files.walk(root)) {
+            testFiles = files.filter(it -> !it.startsWith(folder))
+                    .filter(it -> it.getFileName() != null && testFileName.equals(it.getFileName().toString()))
+                    .collect(Collectors.toList());
+        } catch (final IOException e) {
+            throw new ArcticException("Unable to list tests in " + root, e);
+        }
+        final Set<Path> referenced = new HashSet<>();
+        for (final Path testFile : testFiles) {
+            final ArcticTest test;
+            try (Reader reader = Files.newBufferedReader(testFile, StandardCharsets.UTF_8)) {
+                test = gson.fromJson(reader, ArcticTest.class);
+            } catch (final IOException | RuntimeException e) {
+                throw new ArcticException("Unable to read " + testFile + ", no image will be collected", e);
+            }
+            final Path scopeFolder = getScopeFolder(testFile, test);
+            Stream.concat(Stream.of(test.getInitialSc()), test.getScreenChecks().stream())
+                    .filter(Objects::nonNull)
+                    .flatMap(sc -> Stream.concat(Stream.of(sc.getFilename()), sc.getAlternativeImages().stream()))
+                    .filter(Objects::nonNull)
+                    .map(it -> scopeFolder.resolve(it).normalize())
+                    .filter(it -> it.startsWith(folder))
+                    .forEach(referenced::add);
+        }
+        return referenced;
+    }
+
+    /**
+     * Finds the scope folder a test file belongs to, as the paths of the images are relative to it. Tests are saved in
+     * SCOPE/TEST_NAME/TEST_CASE, where the test name can have several levels.
+     */
+    private static Path getScopeFolder(final Path testFile, final ArcticTest test) {
+        final String[] tokens = test.getTestName().split("#");
+        Path scopeFolder = testFile.getParent();
+        for (int i = 0; i <= Path.of(tokens[tokens.length - 1]).getNameCount(); i++) {
+            scopeFolder = scopeFolder.getParent();
+        }
+        return scopeFolder;
+    }
+
+    /**
+     * Moves or copies a file into the store.
+     * @param file File to store.
+     * @param move True to move the file into the store, false to leave a copy of it.
+     * @return Absolute path of the stored file.
+     */
+    private Path store(final Path file, final boolean move) {
+        try {
+            final String hash = digest(file);
+            final String name = file.getFileName().toString();
+            final int dot = name.lastIndexOf('.');
+            final Path blob = folder.resolve(hash.substring(0, PREFIX_LENGTH))
+                    .resolve(dot < 0 ? hash : hash + name.substring(dot));
+            if (Files.exists(blob)) {
+                // Already stored. Refresh it, so it is not collected before the new reference is saved
+                Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis()));
+                if (move) {
+                    Files.delete(file);
+                }
+                log.debug("Image {} already stored as {}", file, blob);
+                return blob;
+            }
+            Files.createDirectories(blob.getParent());
+            Path source = file;
+            if (!move) {
+                Files.createDirectories(tempFolder);
+                source = tempFolder.resolve(UUID.randomUUID() + name.substring(Math.max(dot, 0)));
+                Files.copy(file, source);
+            }
+            try {
+                Files.move(source, blob, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(source, blob, StandardCopyOption.REPLACE_EXISTING);
+            }
+            log.debug("Image {} stored as {}", file, blob);
+            return blob;
+        } catch (final IOException e) {
+            throw new ArcticException("Unable to store image " + file, e);
+        }
+    }
+
+    private Path getReference(final String scope, final Path blob) {
+        return root.resolve(scope).normalize().relativize(blob);
+    }
+
+    private static String digest(final Path file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new ArcticException(DIGEST + " is not available", e);
+        }
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        final byte[] hash = digest.digest();
+        final char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX[(hash[i] >> NIBBLE_BITS) & NIBBLE_MASK];
+            hex[i * 2 + 1] = HEX[hash[i] & NIBBLE_MASK];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Outcome of a garbage collection of the store.
+     */
+    public static final class GcResult {
+        private final int kept;
+        private final int removed;
+        private final long freedBytes;
+
+        private GcResult(final int kept, final int removed, final long freedBytes) {
+            this.kept = kept;
+            this.removed = removed;
+            this.freedBytes = freedBytes;
+        }
+
+        /**
+         * Number of images kept, either because they are referenced or because they were stored recently.
+         * @return Number of images.
+         */
+        public int getKept() {
+            return kept;
+        }
+
+        /**
+         * Number of images removed, or that would have been removed on a dry run.
+         * @return Number of images.
+         */
+        public int getRemoved() {
+            return removed;
+        }
+
+        /**
+         * Disk space used by the removed images.
+         * @return Size in bytes.
+         */
+        public long getFreedBytes() {
+            return freedBytes;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.amazon.corretto.arctic.common.model.TestId;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Index of all the tests stored under the root of a repository, so a load repository can know whether a test exists in
+ * one of its scopes without probing the filesystem. This matters when several scopes are checked for each test, as
+ * most of those checks are for tests that are not there, and each one was a filesystem probe.
+ *
+ * The index is persisted in a file at the root of the repository, which is memory mapped to read it back. When the
+ * index is loaded, and periodically after that, it is validated against the modification time of the scope folders
+ * and the test folders. Only the folders that changed are listed again, but the test file of every indexed test is
+ * checked, as it can be removed or rewritten without changing the modification time of its folder. Tests saved or
+ * removed by this process are updated in the index right away, see {@link #update(String, TestId)}.
+ */
+@Slf4j
+public final class RepositoryIndex {
+    /**
+     * Name of the file used to persist the index, at the root of the repository.
+     */
+    public static final String FILE_NAME = ".arctic-index";
+
+    private static final int MAGIC = 0x41494458;
+    private static final int VERSION = 2;
+    private static final String SEPARATOR = "/";
+
+    private final Path root;
+    private final Path indexFile;
+    private final String testFileName;
+    private final Set<String> scopes;
+    private final long refreshNanos;
+    private final boolean enabled;
+
+    private Map<String, Long> folders = new HashMap<>();
+    private volatile Map<String, Entry> entries = new HashMap<>();
+    private volatile long lastRefresh;
+
+    /**
+     * Creates an index for some scopes of a repository. The persisted index is loaded and validated before returning.
+     * @param root Root folder of the repository.
+     * @param testFileName Name of the test files, usually `Test.json`.
+     * @param scopes Scopes to index. Other scopes in the persisted index are kept, but they are not validated.
+     * @param refreshSeconds How often to validate the index again to pick up tests added by other processes. 0 to
+     *                       validate it only once.
+     */
+    public RepositoryIndex(final Path root, final String testFileName, final List<String> scopes,
+                           final int refreshSeconds) {
+        this.root = root;
+        this.indexFile = root.resolve(FILE_NAME);
+        this.testFileName = testFileName;
+        this.scopes = new HashSet<>(scopes);
+        this.refreshNanos = TimeUnit.SECONDS.toNanos(refreshSeconds);
+        this.enabled = true;
+        load();
+        refresh();
+    }
+
+    private RepositoryIndex() {
+        this.root = null;
+        this.indexFile = null;
+        this.testFileName = null;
+        this.scopes = Collections.emptySet();
+        this.refreshNanos = 0;
+        this.enabled = false;
+    }
+
+    /**
+     * Returns an index that does not cover any scope, so repositories always check the filesystem.
+     * @return A disabled index.
+     */
+    public static RepositoryIndex disabled() {
+        return new RepositoryIndex();
+    }
+
+    /**
+     * Whether a scope is covered by the index. If it is not, the index can't be used to check the tests on that scope.
+     * @param scope Scope to check.
+     * @return True if the tests of the scope are indexed.
+     */
+    public boolean isIndexed(final String scope) {
+        return enabled && scopes.contains(scope);
+    }
+
+    /**
+     * Checks if a test exists in a scope.
+     * @param scope Scope of the test. It needs to be indexed.
+     * @param testId Id of the test.
+     * @return True if the test file of the test exists on that scope.
+     */
+    public boolean contains(final String scope, final TestId testId) {
+        final Entry entry = getEntries().get(key(scope, testId));
+        return entry != null && entry.present;
+    }
+
+    /**
+     * Checks the test file of a test again and updates its entry. Called after a test is saved or removed, so the
+     * change is visible without waiting for the next refresh. Scopes that are not indexed are ignored.
+     * @param scope Scope of the test.
+     * @param testId Id of the test.
+     */
+    public synchronized void update(final String scope, final TestId testId) {
+        if (!isIndexed(scope)) {
+            return;
+        }
+        final String key = key(scope, testId);
+        final Map<String, Entry> updated = new HashMap<>(entries);
+        updated.put(key, readEntry(root.resolve(key), updated.get(key)));
+        // Lookups don't lock, so they need to see either the old map or the complete new one
+        entries = updated;
+    }
+
+    /**
+     * Validates the index against the repository folders, picking up any test that was added or removed, and persists
+     * it if something changed.
+     */
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final Map<String, Entry> oldEntries = entries;
+        final Map<String, List<String>> oldChildren = new HashMap<>();
+        folders.keySet().forEach(it -> addChild(oldChildren, it));
+        oldEntries.keySet().forEach(it -> addChild(oldChildren, it));
+
+        final Map<String, Long> newFolders = new HashMap<>();
+        final Map<String, Entry> newEntries = new HashMap<>();
+        // Scopes we don't index are kept as they are
+        folders.forEach((k, v) -> {
+            if (!scopes.contains(firstSegment(k))) {
+                newFolders.put(k, v);
+            }
+        });
+        oldEntries.forEach((k, v) -> {
+            if (!scopes.contains(firstSegment(k))) {
+                newEntries.put(k, v);
+            }
+        });
+
+        int changedTests = 0;
+        for (final String scope : scopes) {
+            final Long scopeModified = getModified(root.resolve(scope));
+            if (scopeModified == null) {
+                continue;
+            }
+            newFolders.put(scope, scopeModified);
+            final List<String> testFolders = scopeModified.equals(folders.get(scope))
+                    ? oldChildren.getOrDefault(scope, Collections.emptyList())
+                    : listFolders(root.resolve(scope));
+            for (final String testFolder : testFolders) {
+                final String testKey = scope + SEPARATOR + testFolder;
+                final Long testModified = getModified(root.resolve(scope).resolve(testFolder));
+                if (testModified == null) {
+                    continue;
+                }
+                newFolders.put(testKey, testModified);
+                final List<String> testCases = testModified.equals(folders.get(testKey))
+                        ? oldChildren.getOrDefault(testKey, Collections.emptyList())
+                        : listFolders(root.resolve(scope).resolve(testFolder));
+                for (final String testCase : testCases) {
+                    final String key = testKey + SEPARATOR + testCase;
+                    final Entry old = oldEntries.get(key);
+                    // The test file can change without touching the folder, so it is always checked
+                    final Entry entry = readEntry(root.resolve(scope).resolve(testFolder).resolve(testCase), old);
+                    if (entry != old) {
+                        changedTests++;
+                    }
+                    newEntries.put(key, entry);
+                }
+            }
+        }
+
+        final boolean changed = changedTests > 0 || !newFolders.equals(folders) || !newEntries.keySet().equals(
+                oldEntries.keySet());
+        folders = newFolders;
+        entries = newEntries;
+        lastRefresh = System.nanoTime();
+        log.debug("Repository index validated in {}ms, {} tests, {} changed", TimeUnit.NANOSECONDS.toMillis(
+                lastRefresh - start), newEntries.size(), changedTests);
+        if (changed) {
+            save();
+        }
+    }
+
+    private Map<String, Entry> getEntries() {
+        if (refreshNanos > 0 && System.nanoTime() - lastRefresh > refreshNanos) {
+            refresh();
+        }
+        return entries;
+    }
+
+    private Entry readEntry(final Path testCaseFolder, final Entry old) {
+        final Path testFile = testCaseFolder.resolve(testFileName);
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(testFile, BasicFileAttributes.class);
+        } catch (final IOException e) {
+            return old != null && !old.present ? old : new Entry(false, 0, 0);
+        }
+        final long modified = attributes.lastModifiedTime().toMillis();
+        if (old != null && old.present && old.modified == modified && old.size == attributes.size()) {
+            return old;
+        }
+        return new Entry(true, modified, attributes.size());
+    }
+
+    private void load() {
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !testFileName.equals(readString(buffer))) {
+                log.info("Repository index {} is not compatible, it will be rebuilt", indexFile);
+                return;
+            }
+            final Map<String, Long> loadedFolders = new HashMap<>();
+            final int folderCount = buffer.getInt();
+            for (int i = 0; i < folderCount; i++) {
+                final String folder = readString(buffer);
+                loadedFolders.put(folder, buffer.getLong());
+            }
+            final Map<String, Entry> loadedEntries = new HashMap<>();
+            final int entryCount = buffer.getInt();
+            for (int i = 0; i < entryCount; i++) {
+                final String key = readString(buffer);
+                final boolean present = buffer.get() != 0;
+                final long modified = buffer.getLong();
+                final long size = buffer.getLong();
+                loadedEntries.put(key, new Entry(present, modified, size));
+            }
+            folders = loadedFolders;
+            entries = loadedEntries;
+            log.debug("Loaded repository index {} with {} tests", indexFile, loadedEntries.size());
+        } catch (final IOException | RuntimeException e) {
+            log.warn("Unable to load repository index {}, it will be rebuilt", indexFile, e);
+        }
+    }
+
+    private void save() {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(root, FILE_NAME, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeString(out, testFileName);
+                out.writeInt(folders.size());
+                for (final Map.Entry<String, Long> folder : folders.entrySet()) {
+                    writeString(out, folder.getKey());
+                    out.writeLong(folder.getValue());
+                }
+                out.writeInt(entries.size());
+                for (final Map.Entry<String, Entry> it : entries.entrySet()) {
+                    final Entry entry = it.getValue();
+                    writeString(out, it.getKey());
+                    out.writeByte(entry.present ? 1 : 0);
+                    out.writeLong(entry.modified);
+                    out.writeLong(entry.size);
+                }
+            }
+            try {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            // The index still works in memory, it will just need to be rebuilt next time
+            log.warn("Unable to save repository index {}", indexFile, e);
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (final IOException ignored) {
+                    // Nothing else we can do
+                }
+            }
+        }
+    }
+
+    private static Long getModified(final Path folder) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(folder, BasicFileAttributes.class);
+            return attributes.isDirectory() ? attributes.lastModifiedTime().toMillis() : null;
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    private static List<String> listFolders(final Path folder) {
+        final List<String> result = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder, Files::isDirectory)) {
+            stream.forEach(it -> result.add(it.getFileName().toString()));
+        } catch (final NoSuchFileException e) {
+            // Folder removed while we were indexing, nothing to add
+        } catch (final IOException e) {
+            log.warn("Unable to list {}", folder, e);
+        }
+        return result;
+    }
+
+    private static void addChild(final Map<String, List<String>> children, final String path) {
+        final int separator = path.lastIndexOf(SEPARATOR);
+        if (separator > 0) {
+            children.computeIfAbsent(path.substring(0, separator), k -> new ArrayList<>())
+                    .add(path.substring(separator + 1));
+        }
+    }
+
+    private static String firstSegment(final String path) {
+        final int separator = path.indexOf(SEPARATOR);
+        return separator < 0 ? path : path.substring(0, separator);
+    }
+
+    private static String key(final String scope, final TestId testId) {
+        final String[] tokens = testId.getTestClass().split("#");
+        return scope + SEPARATOR + tokens[tokens.length - 1] + SEPARATOR + testId.getTestCase();
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static final class Entry {
+        private final boolean present;
+        private final long modified;
+        private final long size;
+
+        private Entry(final boolean present, final long modified, final long size) {
+            this.present = present;
+            this.modified = modified;
+            this.size = size;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import java.nio.file.Path;
 import com.amazon.corretto.arctic.common.model.ArcticTest;
 import com.amazon.corretto.arctic.common.model.TestId;
 import com.amazon.corretto.arctic.common.model.event.ScreenshotCheck;
+import com.amazon.corretto.arctic.common.util.ImageSignature;
 import com.amazon.corretto.arctic.common.util.Pair;
 
 /**
@@ -58,6 +59,22 @@ public interface TestSaveRepository {
      */
     Pair<String, Path> saveImage(String testName, String testCase, String scope, String imgName, BufferedImage image);
 
+    /**
+     * Saves the current image of a ScreenshotCheck of a test, replacing the one it was recorded with. The format,
+     * filename and signature of the ScreenshotCheck are updated to match, as the image may be saved under a different
+     * name, like when using the image store. The test itself is not saved.
+     * @param test Test the ScreenshotCheck belongs to.
+     * @param sc ScreenshotCheck with the new image.
+     */
+    default void updateImage(final ArcticTest test, final ScreenshotCheck sc) {
+        final String imgName = sc.getFilename().getFileName().toString().split("\\.")[0];
+        final Pair<String, Path> savedImage = saveImage(test.getTestName(), test.getTestCase(), test.getScope(),
+                imgName, sc.getImage());
+        sc.setFormat(savedImage.getKey());
+        sc.setFilename(savedImage.getValue());
+        sc.setSignature(ImageSignature.of(sc.getImage()));
+    }
+
     /**
      * Save an image in an arbitrary path. This is used for images we don't want to be associated with a test. This is
      * the case of images we may save for failures. There may be useful for reviews, but they shouldn't be stored
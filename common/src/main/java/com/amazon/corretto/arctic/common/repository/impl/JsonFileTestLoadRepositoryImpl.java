@@ -16,10 +16,13 @@
 package com.amazon.corretto.arctic.common.repository.impl;
 
 import java.awt.image.BufferedImage;
-import java.io.FileInputStream;
-import java.io.FileReader;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
@@ -28,23 +31,35 @@ import javax.imageio.ImageIO;
 
 import com.amazon.corretto.arctic.common.model.ArcticTest;
 import com.amazon.corretto.arctic.common.model.TestId;
-import com.amazon.corretto.arctic.common.model.event.Events;
+import com.amazon.corretto.arctic.common.repository.DecodedImageCache;
+import com.amazon.corretto.arctic.common.repository.RepositoryIndex;
 import com.amazon.corretto.arctic.common.repository.TestLoadRepository;
+import com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat;
+import com.amazon.corretto.arctic.common.serialization.EventsBinaryReader;
+import com.amazon.corretto.arctic.common.serialization.EventsJsonReader;
+import com.amazon.corretto.arctic.common.serialization.EventsReader;
 import com.amazon.corretto.arctic.api.exception.ArcticException;
 import com.google.gson.Gson;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * This class implements the {@link TestLoadRepository} using json files to load the different tests and events. This
- * class should be paired with the {@link JsonFileTestSaveRepositoryImpl} that will save those files.
+ * class should be paired with the {@link JsonFileTestSaveRepositoryImpl} that will save those files. Events files can
+ * also be stored in the {@link EventsBinaryFormat}, which is detected from the name of the events file of each test.
  */
 @Slf4j
 public final class JsonFileTestLoadRepositoryImpl implements TestLoadRepository {
+    /**
+     * Scope used to cache images loaded by absolute path, as they don't belong to any scope of the repository.
+     */
+    private static final String ABSOLUTE_SCOPE = "";
 
     private final Path repositoryPath;
     private final String scope;
     private final Gson gson;
     private final String testFileName;
+    private final DecodedImageCache imageCache;
+    private final RepositoryIndex index;
 
     /**
      * Constructor for the load repository. This is being called by the dependency injection framework. Multiple
@@ -54,13 +69,18 @@ public final class JsonFileTestLoadRepositoryImpl implements TestLoadRepository
      * @param testFileName which name is used for the actual test file. By default, `Test.json`.
      * @param scope The scope this instance reads. The scope is represented as a subfolder inside the rootPath.
      * @param gson An instance of gson used to deserialize test and event files.
+     * @param imageCache Cache for the decoded images. Can be shared between the repositories of all the scopes.
+     * @param index Index of the tests in the repository. Can be shared between the repositories of all the scopes.
      */
     public JsonFileTestLoadRepositoryImpl(final String rootPath, final String testFileName, final String scope,
-                                          final Gson gson) {
+                                          final Gson gson, final DecodedImageCache imageCache,
+                                          final RepositoryIndex index) {
         this.repositoryPath = Path.of(rootPath).resolve(scope);
         this.scope = scope;
         this.gson = gson;
         this.testFileName = testFileName;
+        this.imageCache = imageCache;
+        this.index = index;
     }
 
     /**
@@ -73,7 +93,12 @@ public final class JsonFileTestLoadRepositoryImpl implements TestLoadRepository
     @Override
     public Optional<ArcticTest> getTestCase(final TestId testId) {
         Path testCasePath = getTestCasePath(testId);
-        if (Files.exists(testCasePath)) {
+        if (contains(testId)) {
+            if (index.isIndexed(scope) && !Files.exists(testCasePath)) {
+                // Removed since the index was last validated. Only the scope that has the test pays for this check
+                index.update(scope, testId);
+                return Optional.empty();
+            }
             final ArcticTest test = getTestCaseFromPath(testCasePath);
             if (test != null) {
                 // Stamp the test with the scope it was loaded from.
@@ -91,10 +116,12 @@ public final class JsonFileTestLoadRepositoryImpl implements TestLoadRepository
 
     @Override
     public void loadTestEvents(final ArcticTest test) {
-        if (test.isZip()) {
-            loadCompressed(test);
-        } else {
-            loadUncompressed(test);
+        try (EventsReader reader = openEvents(test)) {
+            test.setEvents(EventsReader.readAll(reader));
+            test.setEventsLoaded(true);
+        } catch (final IOException e) {
+            log.error("Unable to read events for {}:{}", test.getTestName(), test.getTestCase());
+            throw new ArcticException("Bad test recording, unable to load Events file", e);
         }
     }
 
@@ -104,19 +131,15 @@ public final class JsonFileTestLoadRepositoryImpl implements TestLoadRepository
             throw new ArcticException(String.format("Wrong load repository (%s) assigned to load image from %s", scope,
                     imageScope));
         }
-        Path fullPath = repositoryPath.resolve(imgPath);
-        try {
-            if (fullPath.toFile().exists()) {
-                return ImageIO.read(fullPath.toFile());
-            }
-        } catch (final IOException e) {
-            log.warn("Unable to read image {}", imgPath, e);
-        }
-        return null;
+        return imageCache.get(scope, repositoryPath.resolve(imgPath), this::readImage);
     }
 
     @Override
     public BufferedImage loadImageAbsolutePath(final Path imgPath) {
+        return imageCache.get(ABSOLUTE_SCOPE, imgPath.toAbsolutePath(), this::readImage);
+    }
+
+    private BufferedImage readImage(final Path imgPath) {
         try {
             if (imgPath.toFile().exists()) {
                 return ImageIO.read(imgPath.toFile());
@@ -129,13 +152,16 @@ public final class JsonFileTestLoadRepositoryImpl implements TestLoadRepository
 
     @Override
     public boolean contains(final TestId testId) {
+        if (index.isIndexed(scope)) {
+            return index.contains(scope, testId);
+        }
         return Files.exists(getTestCasePath(testId));
     }
 
     private ArcticTest getTestCaseFromPath(final Path testCasePath) {
         log.debug("Loading recording {}", testCasePath);
-        try (FileReader fr = new FileReader(testCasePath.toFile())) {
-            return gson.fromJson(fr, ArcticTest.class);
+        try (Reader reader = Files.newBufferedReader(testCasePath, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, ArcticTest.class);
         } catch (IOException e) {
             log.warn("IO Error when reading test case {}", testCasePath, e);
         } catch (RuntimeException e) {
@@ -144,19 +170,19 @@ public final class JsonFileTestLoadRepositoryImpl implements TestLoadRepository
         return null;
     }
 
-    private void loadUncompressed(final ArcticTest test) {
-        final Path eventsPath = getTestCaseFolderPath(test.getTestId())
-                .resolve(test.getEventsFile());
-        try (FileReader reader = new FileReader(eventsPath.toFile())) {
-            final Events events = gson.fromJson(reader, Events.class);
-            test.setEvents(events);
-        } catch (IOException e) {
-            log.error("Unable to read events for {}:{} in {}", test.getTestName(), test.getTestCase(), eventsPath);
-            throw new ArcticException("Bad test recording, unable to load Events file", e);
+    private EventsReader openEvents(final ArcticTest test) throws IOException {
+        final InputStream in = openEventsStream(test);
+        if (EventsBinaryFormat.isBinary(test.getEventsFile())) {
+            return new EventsBinaryReader(in);
         }
+        return new EventsJsonReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
     }
 
-    private void loadCompressed(final ArcticTest test) {
+    private InputStream openEventsStream(final ArcticTest test) throws IOException {
+        if (!test.isZip()) {
+            // Both readers buffer on their own
+            return Files.newInputStream(getTestCaseFolderPath(test.getTestId()).resolve(test.getEventsFile()));
+        }
         final Path eventsFilePath;
         if (test.getEventsFile().toLowerCase().endsWith(".zip")) {
             eventsFilePath = getTestCaseFolderPath(test.getTestId())
@@ -166,15 +192,14 @@ public final class JsonFileTestLoadRepositoryImpl implements TestLoadRepository
             eventsFilePath = getTestCaseFolderPath(test.getTestId())
                     .resolve(test.getEventsFile() + ".zip");
         }
-        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(eventsFilePath.toFile()));
-             InputStreamReader isr = new InputStreamReader(zis)) {
+        final ZipInputStream zis = new ZipInputStream(new BufferedInputStream(Files.newInputStream(eventsFilePath)));
+        try {
             zis.getNextEntry();
-            Events events = gson.fromJson(isr, Events.class);
-            test.setEvents(events);
-        } catch (IOException e) {
-            log.error("Unable to read events for {}:{} in {}", test.getTestName(), test.getTestCase(), eventsFilePath);
-            throw new ArcticException("Bad test recording, unable to load Events file", e);
+        } catch (final IOException e) {
+            zis.close();
+            throw e;
         }
+        return zis;
     }
 
     private Path getTestCaseFolderPath(final TestId testId) {
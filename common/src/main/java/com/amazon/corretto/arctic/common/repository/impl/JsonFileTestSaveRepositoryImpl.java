@@ -18,11 +18,13 @@ package com.amazon.corretto.arctic.common.repository.impl;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.FileWriter;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -36,8 +38,12 @@ import com.amazon.corretto.arctic.common.backend.ArcticImageSaver;
 import com.amazon.corretto.arctic.common.inject.CommonInjectionKeys;
 import com.amazon.corretto.arctic.common.model.ArcticTest;
 import com.amazon.corretto.arctic.common.model.TestId;
+import com.amazon.corretto.arctic.common.model.event.Events;
 import com.amazon.corretto.arctic.common.model.event.ScreenshotCheck;
+import com.amazon.corretto.arctic.common.repository.ImageStore;
+import com.amazon.corretto.arctic.common.repository.RepositoryIndex;
 import com.amazon.corretto.arctic.common.repository.TestSaveRepository;
+import com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat;
 import com.amazon.corretto.arctic.common.util.Pair;
 import com.google.gson.Gson;
 import jakarta.inject.Inject;
@@ -46,7 +52,9 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * This class implements the {@link TestSaveRepository} using json files to save the different tests and events. This
- * class should be paired with the {@link JsonFileTestLoadRepositoryImpl} that will load those files.
+ * class should be paired with the {@link JsonFileTestLoadRepositoryImpl} that will load those files. Events are saved
+ * in the {@link EventsBinaryFormat} instead when the name of the events file of the test uses its extension. When the
+ * {@link ImageStore} is enabled, images and alternatives are saved into it instead of the folder of each test.
  */
 @Slf4j
 public final class JsonFileTestSaveRepositoryImpl implements TestSaveRepository {
@@ -54,6 +62,8 @@ public final class JsonFileTestSaveRepositoryImpl implements TestSaveRepository
     private final Gson gson;
     private final String testFileName;
     private final ArcticImageSaver imageSaver;
+    private final ImageStore imageStore;
+    private final RepositoryIndex index;
 
     /**
      * Constructor for the instance, called by the dependency injection framework. There should be only one instance of
@@ -63,16 +73,25 @@ public final class JsonFileTestSaveRepositoryImpl implements TestSaveRepository
      * @param testFileName which name is used for the actual test file. By default, `Test.json`.
      * @param imageSaver used to save the BufferedImages into disk.
      * @param gson An instance of gson used to serialize test and event files.
+     * @param useImageStore Whether to save the images of the tests into the shared {@link ImageStore}.
+     * @param imageStore Store for the images, only used when enabled.
+     * @param index Index of the repository, updated when tests are saved or removed.
      */
     @Inject
     public JsonFileTestSaveRepositoryImpl(@Named(CommonInjectionKeys.REPOSITORY_JSON_PATH) final String rootPath,
                                           @Named(CommonInjectionKeys.REPOSITORY_JSON_NAME) final String testFileName,
                                           final ArcticImageSaver imageSaver,
-                                          final Gson gson) {
+                                          final Gson gson,
+                                          @Named(CommonInjectionKeys.REPOSITORY_IMAGE_STORE)
+                                          final boolean useImageStore,
+                                          final ImageStore imageStore,
+                                          final RepositoryIndex index) {
         this.rootPath = Path.of(rootPath);
         this.gson = gson;
         this.testFileName = testFileName;
         this.imageSaver = imageSaver;
+        this.imageStore = useImageStore ? imageStore : null;
+        this.index = index;
     }
 
     @Override
@@ -89,19 +108,30 @@ public final class JsonFileTestSaveRepositoryImpl implements TestSaveRepository
                 .resolve(test.getTestCase());
         testCaseFolder.toFile().mkdirs();
         if (includeEvents) {
-            if (test.isZip()) {
+            if (EventsBinaryFormat.isBinary(test.getEventsFile())) {
+                saveBinary(testCaseFolder, test.getEventsFile(), test.isZip(), test.getEvents());
+            } else if (test.isZip()) {
                 saveCompressed(testCaseFolder, test.getEventsFile(), test.getEvents());
             } else {
                 save(testCaseFolder, test.getEventsFile(), test.getEvents());
             }
         }
         save(testCaseFolder, testFileName, test);
+        index.update(test.getScope(), test.getTestId());
         return true;
     }
 
     @Override
     public Path copyAlternativeImage(final String scope, final ScreenshotCheck sc,
                                      final Path alternativeImageAbsolutePath) {
+        if (scope != null && imageStore != null) {
+            try {
+                return imageStore.addImage(scope, alternativeImageAbsolutePath);
+            } catch (final ArcticException e) {
+                log.warn("Unable to add {} to the image store", alternativeImageAbsolutePath, e);
+                return null;
+            }
+        }
         if (scope != null) {
             final Path destinationPath = rootPath.resolve(scope).resolve(getNextAlternativeImageName(sc));
             try {
@@ -119,12 +149,18 @@ public final class JsonFileTestSaveRepositoryImpl implements TestSaveRepository
     @Override
     public boolean removeTestCase(final TestId testId, final String scope) {
         final Path folderPath = rootPath.resolve(scope).resolve(testId.getTestClass()).resolve(testId.getTestCase());
-        return Arrays.stream(Objects.requireNonNull(folderPath.toFile().listFiles())).allMatch(File::delete);
+        final boolean removed = Arrays.stream(Objects.requireNonNull(folderPath.toFile().listFiles()))
+                .allMatch(File::delete);
+        index.update(scope, testId);
+        return removed;
     }
 
     @Override
     public Pair<String, Path> saveImage(final String testName, final String testCase, final String scope,
                                         final String imgName, final BufferedImage image) {
+        if (imageStore != null) {
+            return Pair.of(imageSaver.getFormat(), imageStore.saveImage(scope, image, imageSaver));
+        }
         final Path folder = rootPath.resolve(scope);
         final Path output = imageSaver.saveImage(image, folder, Path.of(testName, testCase, imgName));
         return Pair.of(imageSaver.getFormat(), output);
@@ -144,20 +180,32 @@ public final class JsonFileTestSaveRepositoryImpl implements TestSaveRepository
                 sc.getFormat()));
     }
 
-    private void saveCompressed(final Path path, final String fileName, final Object data) {
-        final String compressedFileName;
-        final String uncompressedFileName;
-        if (fileName.endsWith(".zip")) {
-            compressedFileName = fileName;
-            uncompressedFileName = fileName.substring(0, fileName.length() - 4);
-        } else {
-            compressedFileName = fileName + ".zip";
-            uncompressedFileName = fileName;
+    private void saveBinary(final Path path, final String fileName, final boolean zip, final Events events) {
+        if (!zip) {
+            final Path fullFileName = path.resolve(fileName);
+            try (OutputStream os = Files.newOutputStream(fullFileName)) {
+                EventsBinaryFormat.write(events, os);
+            } catch (final IOException e) {
+                log.error("Unable to save events in path {}", fullFileName);
+                throw new ArcticException("Unable to save tests data", e);
+            }
+            return;
         }
-        final Path fullFileName = path.resolve(compressedFileName);
-        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(fullFileName.toFile()));
-             OutputStreamWriter osw = new OutputStreamWriter(zos)) {
-            zos.putNextEntry(new ZipEntry(uncompressedFileName));
+        final Path fullFileName = path.resolve(getCompressedFileName(fileName));
+        try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(fullFileName)))) {
+            zos.putNextEntry(new ZipEntry(getUncompressedFileName(fileName)));
+            EventsBinaryFormat.write(events, zos);
+        } catch (final IOException e) {
+            log.error("Unable to save test data in path {}", fullFileName);
+            throw new ArcticException("Unable to save tests data", e);
+        }
+    }
+
+    private void saveCompressed(final Path path, final String fileName, final Object data) {
+        final Path fullFileName = path.resolve(getCompressedFileName(fileName));
+        try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(fullFileName)));
+             Writer osw = new BufferedWriter(new OutputStreamWriter(zos, StandardCharsets.UTF_8))) {
+            zos.putNextEntry(new ZipEntry(getUncompressedFileName(fileName)));
             gson.toJson(data, osw);
         } catch (final IOException e) {
             log.error("Unable to save test data in path {}", fullFileName);
@@ -167,7 +215,7 @@ public final class JsonFileTestSaveRepositoryImpl implements TestSaveRepository
 
     private void save(final Path path, final String fileName, final Object data) {
         final Path fullFileName = path.resolve(fileName);
-        try (Writer writer = new FileWriter(fullFileName.toFile())) {
+        try (Writer writer = Files.newBufferedWriter(fullFileName, StandardCharsets.UTF_8)) {
             gson.toJson(data, writer);
         } catch (final IOException e) {
             log.error("Unable to save test in path {}", fullFileName);
@@ -175,6 +223,14 @@ public final class JsonFileTestSaveRepositoryImpl implements TestSaveRepository
         }
     }
 
+    private String getCompressedFileName(final String fileName) {
+        return fileName.endsWith(".zip") ? fileName : fileName + ".zip";
+    }
+
+    private String getUncompressedFileName(final String fileName) {
+        return fileName.endsWith(".zip") ? fileName.substring(0, fileName.length() - 4) : fileName;
+    }
+
     private String getTestShortName(final String testName) {
         final String[] tokens = testName.split("#");
         return tokens[tokens.length - 1];
@@ -28,6 +28,7 @@ import com.amazon.corretto.arctic.common.model.event.ScreenshotCheck;
 import com.amazon.corretto.arctic.common.repository.TestLoadRepository;
 import com.amazon.corretto.arctic.common.repository.TestRepository;
 import com.amazon.corretto.arctic.common.repository.TestSaveRepository;
+import com.amazon.corretto.arctic.common.util.ImageSignature;
 import com.amazon.corretto.arctic.common.util.Pair;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
@@ -167,6 +168,11 @@ public final class TestRepositoryImpl implements TestRepository {
 
         sc.getAlternativeHashes().add(alternativeHash);
         sc.getAlternativeImages().add(destination);
+        // Lets the player decide which alternatives are worth loading first, see ImageSignature
+        final String signature = ImageSignature.of(loadRepository.loadImageAbsolutePath(alternativePath));
+        if (signature != null) {
+            sc.getAlternativeSignatures().put(ImageSignature.key(destination), signature);
+        }
         return saveRepository.saveTestCase(test.get(), false);
     }
 }
@@ -0,0 +1,254 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+
+import com.amazon.corretto.arctic.common.model.event.ArcticEvent;
+import com.amazon.corretto.arctic.common.model.event.Events;
+import com.amazon.corretto.arctic.common.model.event.KeyboardEvent;
+import com.amazon.corretto.arctic.common.model.event.MouseEvent;
+
+/**
+ * Compact binary format for the events of a recording. It holds exactly the same information as the json events file,
+ * but it is several times smaller and does not need any text parsing to be read back. Files are written by
+ * {@link #write(Events, OutputStream)} and read by {@link EventsBinaryReader}. The format of an events file is chosen
+ * from its name, so a test can be switched between formats just by changing {@link
+ * com.amazon.corretto.arctic.common.model.ArcticTest#getEventsFile()}. Files ending with {@link #EXTENSION} (before
+ * any .zip suffix) use this format, any other file is json.
+ *
+ * Version 1 of the format is:
+ * - The 4 magic bytes "AEVT" followed by the version byte.
+ * - The number of mouse events, followed by the mouse events.
+ * - The number of keyboard events, followed by the keyboard events.
+ *
+ * Each event starts with a head byte. The 5 lower bits hold the subtype, stored as the position of the bit that
+ * represents it in {@link ArcticEvent.SubType#getValue()}, or 31 for no subtype. If the highest bit is set, a byte
+ * follows with flags marking which of the optional fields of the event are present, as most of them are 0 for most
+ * events. Then comes the timestamp, as the difference with the previous event of the same type. Mouse events continue
+ * with the difference in x and y with the previous mouse event, followed by the optional fields that are present, in
+ * the order they are declared in {@link MouseEvent}. Keyboard events continue with their present optional fields in the
+ * order they are declared in {@link KeyboardEvent}. Counts and the key char are stored as unsigned varints, every
+ * other value is stored as a zig-zag encoded varint, so small negative values also take a single byte.
+ */
+public final class EventsBinaryFormat {
+    /**
+     * Extension used by events files in this format.
+     */
+    public static final String EXTENSION = ".bin";
+
+    /**
+     * Extension used by json events files.
+     */
+    public static final String JSON_EXTENSION = ".json";
+
+    /**
+     * Version of the format written by this class.
+     */
+    public static final int VERSION = 1;
+
+    static final byte[] MAGIC = {'A', 'E', 'V', 'T'};
+    static final int SUB_TYPE_MASK = 0x1F;
+    static final int NO_SUB_TYPE = 0x1F;
+    static final int HAS_FLAGS = 0x80;
+    static final int BYTE_MASK = 0xFF;
+    static final int VARINT_BITS = 7;
+    static final int VARINT_MASK = 0x7F;
+    static final int VARINT_MORE = 0x80;
+
+    static final int MOUSE_BUTTON = 1;
+    static final int MOUSE_CLICK_COUNT = 1 << 1;
+    static final int MOUSE_MODIFIERS = 1 << 2;
+    static final int MOUSE_SCROLL_AMOUNT = 1 << 3;
+    static final int MOUSE_SCROLL_TYPE = 1 << 4;
+    static final int MOUSE_WHEEL_ROTATION = 1 << 5;
+    static final int MOUSE_WHEEL_DIRECTION = 1 << 6;
+
+    static final int KEY_MODIFIERS = 1;
+    static final int KEY_CHAR = 1 << 1;
+    static final int KEY_CODE = 1 << 2;
+    static final int KEY_RAW_CODE = 1 << 3;
+    static final int KEY_LOCATION = 1 << 4;
+
+    private static final String ZIP_EXTENSION = ".zip";
+    private static final int BUFFER_SIZE = 8192;
+
+    private EventsBinaryFormat() {
+    }
+
+    /**
+     * Checks if an events file uses this format.
+     * @param eventsFile Name of the events file, as stored in the test. It may include the .zip suffix.
+     * @return True if the file is stored in this binary format, false if it is json.
+     */
+    public static boolean isBinary(final String eventsFile) {
+        return eventsFile != null && stripZip(eventsFile).toLowerCase(Locale.ROOT).endsWith(EXTENSION);
+    }
+
+    /**
+     * Changes the name of an events file to the one it would have in a different format. The .zip suffix, if present, is
+     * kept. If the current name does not have a known extension, the new one is just appended.
+     * @param eventsFile Current name of the events file.
+     * @param binary True to get the name for this binary format, false for json.
+     * @return Name of the events file in the requested format.
+     */
+    public static String toFormat(final String eventsFile, final boolean binary) {
+        final String unzipped = stripZip(eventsFile);
+        final String lower = unzipped.toLowerCase(Locale.ROOT);
+        String base = unzipped;
+        if (lower.endsWith(EXTENSION)) {
+            base = unzipped.substring(0, unzipped.length() - EXTENSION.length());
+        } else if (lower.endsWith(JSON_EXTENSION)) {
+            base = unzipped.substring(0, unzipped.length() - JSON_EXTENSION.length());
+        }
+        return base + (binary ? EXTENSION : JSON_EXTENSION) + eventsFile.substring(unzipped.length());
+    }
+
+    /**
+     * Writes all the events in this binary format.
+     * @param events Events to write.
+     * @param out Destination. It is not closed by this method, but it is flushed.
+     * @throws IOException If there is a problem writing to the destination.
+     */
+    public static void write(final Events events, final OutputStream out) throws IOException {
+        final Encoder encoder = new Encoder(out);
+        for (final byte b : MAGIC) {
+            encoder.writeByte(b);
+        }
+        encoder.writeByte(VERSION);
+        writeMouseEvents(encoder, events.getMouseEvents());
+        writeKeyboardEvents(encoder, events.getKeyboardEvents());
+        encoder.flush();
+        out.flush();
+    }
+
+    private static void writeMouseEvents(final Encoder encoder, final List<MouseEvent> mouseEvents) throws IOException {
+        encoder.writeUnsigned(mouseEvents.size());
+        long timestamp = 0;
+        int x = 0;
+        int y = 0;
+        for (final MouseEvent event : mouseEvents) {
+            final int flags = (event.getButton() != 0 ? MOUSE_BUTTON : 0)
+                    | (event.getClickCount() != 0 ? MOUSE_CLICK_COUNT : 0)
+                    | (event.getModifiers() != 0 ? MOUSE_MODIFIERS : 0)
+                    | (event.getScrollAmount() != 0 ? MOUSE_SCROLL_AMOUNT : 0)
+                    | (event.getScrollType() != 0 ? MOUSE_SCROLL_TYPE : 0)
+                    | (event.getWheelRotation() != 0 ? MOUSE_WHEEL_ROTATION : 0)
+                    | (event.getWheelDirection() != 0 ? MOUSE_WHEEL_DIRECTION : 0);
+            encoder.writeHead(event.getSubType(), flags);
+            encoder.writeSigned(event.getTimestamp() - timestamp);
+            encoder.writeSigned(event.getX() - x);
+            encoder.writeSigned(event.getY() - y);
+            encoder.writeOptional(flags, MOUSE_BUTTON, event.getButton());
+            encoder.writeOptional(flags, MOUSE_CLICK_COUNT, event.getClickCount());
+            encoder.writeOptional(flags, MOUSE_MODIFIERS, event.getModifiers());
+            encoder.writeOptional(flags, MOUSE_SCROLL_AMOUNT, event.getScrollAmount());
+            encoder.writeOptional(flags, MOUSE_SCROLL_TYPE, event.getScrollType());
+            encoder.writeOptional(flags, MOUSE_WHEEL_ROTATION, event.getWheelRotation());
+            encoder.writeOptional(flags, MOUSE_WHEEL_DIRECTION, event.getWheelDirection());
+            timestamp = event.getTimestamp();
+            x = event.getX();
+            y = event.getY();
+        }
+    }
+
+    private static void writeKeyboardEvents(final Encoder encoder, final List<KeyboardEvent> keyboardEvents)
+            throws IOException {
+        encoder.writeUnsigned(keyboardEvents.size());
+        long timestamp = 0;
+        for (final KeyboardEvent event : keyboardEvents) {
+            final int flags = (event.getModifiers() != 0 ? KEY_MODIFIERS : 0)
+                    | (event.getKeyChar() != null ? KEY_CHAR : 0)
+                    | (event.getKeyCode() != 0 ? KEY_CODE : 0)
+                    | (event.getRawCode() != 0 ? KEY_RAW_CODE : 0)
+                    | (event.getKeyLocation() != 0 ? KEY_LOCATION : 0);
+            encoder.writeHead(event.getSubType(), flags);
+            encoder.writeSigned(event.getTimestamp() - timestamp);
+            encoder.writeOptional(flags, KEY_MODIFIERS, event.getModifiers());
+            if ((flags & KEY_CHAR) != 0) {
+                encoder.writeUnsigned(event.getKeyChar());
+            }
+            encoder.writeOptional(flags, KEY_CODE, event.getKeyCode());
+            encoder.writeOptional(flags, KEY_RAW_CODE, event.getRawCode());
+            encoder.writeOptional(flags, KEY_LOCATION, event.getKeyLocation());
+            timestamp = event.getTimestamp();
+        }
+    }
+
+    private static String stripZip(final String eventsFile) {
+        if (eventsFile.toLowerCase(Locale.ROOT).endsWith(ZIP_EXTENSION)) {
+            return eventsFile.substring(0, eventsFile.length() - ZIP_EXTENSION.length());
+        }
+        return eventsFile;
+    }
+
+    /**
+     * Buffers the encoded bytes, as writing them one by one to the stream would be much slower.
+     */
+    private static final class Encoder {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+
+        private Encoder(final OutputStream out) {
+            this.out = out;
+        }
+
+        private void writeHead(final ArcticEvent.SubType subType, final int flags) throws IOException {
+            final int code = subType == null ? NO_SUB_TYPE : Integer.numberOfTrailingZeros(subType.getValue());
+            if (flags == 0) {
+                writeByte(code);
+            } else {
+                writeByte(code | HAS_FLAGS);
+                writeByte(flags);
+            }
+        }
+
+        private void writeOptional(final int flags, final int flag, final int value) throws IOException {
+            if ((flags & flag) != 0) {
+                writeSigned(value);
+            }
+        }
+
+        private void writeSigned(final long value) throws IOException {
+            writeUnsigned((value << 1) ^ (value >> (Long.SIZE - 1)));
+        }
+
+        private void writeUnsigned(final long value) throws IOException {
+            long remaining = value;
+            while ((remaining & ~VARINT_MASK) != 0) {
+                writeByte((int) (remaining & VARINT_MASK) | VARINT_MORE);
+                remaining >>>= VARINT_BITS;
+            }
+            writeByte((int) remaining);
+        }
+
+        private void writeByte(final int value) throws IOException {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void flush() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.serialization;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.model.event.ArcticEvent;
+import com.amazon.corretto.arctic.common.model.event.Events;
+import com.amazon.corretto.arctic.common.model.event.KeyboardEvent;
+import com.amazon.corretto.arctic.common.model.event.MouseEvent;
+
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.BYTE_MASK;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.HAS_FLAGS;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.KEY_CHAR;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.KEY_CODE;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.KEY_LOCATION;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.KEY_MODIFIERS;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.KEY_RAW_CODE;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.MAGIC;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.MOUSE_BUTTON;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.MOUSE_CLICK_COUNT;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.MOUSE_MODIFIERS;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.MOUSE_SCROLL_AMOUNT;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.MOUSE_SCROLL_TYPE;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.MOUSE_WHEEL_DIRECTION;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.MOUSE_WHEEL_ROTATION;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.NO_SUB_TYPE;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.SUB_TYPE_MASK;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.VARINT_BITS;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.VARINT_MASK;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.VARINT_MORE;
+import static com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat.VERSION;
+
+/**
+ * Reads an events file written in the {@link EventsBinaryFormat}, one event at a time. The header is validated when the
+ * first event is requested, and files written by a newer version of the format are rejected.
+ */
+public final class EventsBinaryReader implements EventsReader {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_VARINT_SHIFT = 63;
+    private static final ArcticEvent.SubType[] SUB_TYPES = new ArcticEvent.SubType[SUB_TYPE_MASK + 1];
+
+    static {
+        for (final ArcticEvent.SubType subType : ArcticEvent.SubType.values()) {
+            SUB_TYPES[Integer.numberOfTrailingZeros(subType.getValue())] = subType;
+        }
+    }
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private Section section = Section.HEADER;
+    private int remaining;
+    private long timestamp;
+    private int x;
+    private int y;
+
+    /**
+     * Creates a new reader. The stream does not need to be buffered, as the reader keeps its own buffer.
+     * @param in Source of the events file.
+     */
+    public EventsBinaryReader(final InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads all the events from an events file.
+     * @param in Source of the events file. It is not closed by this method.
+     * @return All the events in the file.
+     */
+    public static Events readEvents(final InputStream in) {
+        return EventsReader.readAll(new EventsBinaryReader(in));
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return advance();
+        } catch (final IOException e) {
+            throw new ArcticException("Unable to read events", e);
+        }
+    }
+
+    @Override
+    public ArcticEvent next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            remaining--;
+            return section == Section.MOUSE ? readMouseEvent() : readKeyboardEvent();
+        } catch (final IOException e) {
+            throw new ArcticException("Unable to read events", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Moves to the next section of the file until there is an event left to read or the file is finished.
+     * @return True if there is an event to read.
+     */
+    private boolean advance() throws IOException {
+        while (remaining == 0 && section != Section.DONE) {
+            switch (section) {
+                case HEADER:
+                    readHeader();
+                    section = Section.MOUSE;
+                    break;
+                case MOUSE:
+                    section = Section.KEYBOARD;
+                    break;
+                default:
+                    section = Section.DONE;
+            }
+            if (section != Section.DONE) {
+                remaining = readCount();
+                timestamp = 0;
+            }
+        }
+        return remaining > 0;
+    }
+
+    private void readHeader() throws IOException {
+        for (final byte b : MAGIC) {
+            if (readByte() != (b & BYTE_MASK)) {
+                throw new ArcticException("Events file is not in the binary events format");
+            }
+        }
+        final int version = readByte();
+        if (version < 1 || version > VERSION) {
+            throw new ArcticException(String.format("Unsupported binary events format version %d, expecting up to %d",
+                    version, VERSION));
+        }
+    }
+
+    private MouseEvent readMouseEvent() throws IOException {
+        final MouseEvent event = new MouseEvent();
+        final int head = readByte();
+        final int flags = readFlags(head);
+        event.setSubType(toSubType(head));
+        timestamp += readSigned();
+        x += (int) readSigned();
+        y += (int) readSigned();
+        event.setTimestamp(timestamp);
+        event.setX(x);
+        event.setY(y);
+        event.setButton(readOptional(flags, MOUSE_BUTTON));
+        event.setClickCount(readOptional(flags, MOUSE_CLICK_COUNT));
+        event.setModifiers(readOptional(flags, MOUSE_MODIFIERS));
+        event.setScrollAmount(readOptional(flags, MOUSE_SCROLL_AMOUNT));
+        event.setScrollType(readOptional(flags, MOUSE_SCROLL_TYPE));
+        event.setWheelRotation(readOptional(flags, MOUSE_WHEEL_ROTATION));
+        event.setWheelDirection(readOptional(flags, MOUSE_WHEEL_DIRECTION));
+        return event;
+    }
+
+    private KeyboardEvent readKeyboardEvent() throws IOException {
+        final KeyboardEvent event = new KeyboardEvent();
+        final int head = readByte();
+        final int flags = readFlags(head);
+        event.setSubType(toSubType(head));
+        timestamp += readSigned();
+        event.setTimestamp(timestamp);
+        event.setModifiers(readOptional(flags, KEY_MODIFIERS));
+        if ((flags & KEY_CHAR) != 0) {
+            event.setKeyChar((char) readUnsigned());
+        }
+        event.setKeyCode(readOptional(flags, KEY_CODE));
+        event.setRawCode(readOptional(flags, KEY_RAW_CODE));
+        event.setKeyLocation(readOptional(flags, KEY_LOCATION));
+        return event;
+    }
+
+    private int readFlags(final int head) throws IOException {
+        return (head & HAS_FLAGS) != 0 ? readByte() : 0;
+    }
+
+    private ArcticEvent.SubType toSubType(final int head) {
+        final int code = head & SUB_TYPE_MASK;
+        if (code == NO_SUB_TYPE) {
+            return null;
+        }
+        final ArcticEvent.SubType subType = SUB_TYPES[code];
+        if (subType == null) {
+            throw new ArcticException(String.format("Unknown event subtype %d in binary events file", code));
+        }
+        return subType;
+    }
+
+    private int readOptional(final int flags, final int flag) throws IOException {
+        return (flags & flag) != 0 ? (int) readSigned() : 0;
+    }
+
+    private int readCount() throws IOException {
+        final long count = readUnsigned();
+        if (count > Integer.MAX_VALUE) {
+            throw new ArcticException(String.format("Invalid number of events %d in binary events file", count));
+        }
+        return (int) count;
+    }
+
+    private long readSigned() throws IOException {
+        final long value = readUnsigned();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readUnsigned() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift <= MAX_VARINT_SHIFT; shift += VARINT_BITS) {
+            final int b = readByte();
+            value |= (long) (b & VARINT_MASK) << shift;
+            if ((b & VARINT_MORE) == 0) {
+                return value;
+            }
+        }
+        throw new ArcticException("Malformed varint in binary events file");
+    }
+
+    private int readByte() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                throw new EOFException("Unexpected end of binary events file");
+            }
+        }
+        return buffer[position++] & BYTE_MASK;
+    }
+
+    private enum Section {
+        HEADER,
+        MOUSE,
+        KEYBOARD,
+        DONE
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.serialization;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.model.event.ArcticEvent;
+import com.amazon.corretto.arctic.common.model.event.Events;
+import com.amazon.corretto.arctic.common.model.event.KeyboardEvent;
+import com.amazon.corretto.arctic.common.model.event.MouseEvent;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Reads an {@link Events} file one event at a time using a {@link JsonReader}. Compared to deserializing the whole file
+ * with Gson, this avoids reflection and the intermediate structures, which makes a big difference for recordings with
+ * hundreds of thousands of mouse movements.
+ *
+ * Events are returned in the same order they appear in the file, all the mouse events first and then all the keyboard
+ * events, so they can be consumed before the whole file has been read. {@link #readEvents(Reader)} can be used to read
+ * all of them at once. The result is the same as the one Gson would produce for the same file, except that a missing or
+ * null list of events is read as an empty list.
+ */
+public final class EventsJsonReader implements EventsReader {
+    private static final String MOUSE_EVENTS = "mouseEvents";
+    private static final String KEYBOARD_EVENTS = "keyboardEvents";
+    private static final Map<String, ArcticEvent.SubType> SUB_TYPES = Arrays.stream(ArcticEvent.SubType.values())
+            .collect(Collectors.toMap(Enum::name, Function.identity()));
+
+    private final JsonReader in;
+    private ArcticEvent.Type currentArray;
+    private boolean finished;
+
+    /**
+     * Creates a new reader. The reader should already be buffered.
+     * @param reader Source of the events file.
+     */
+    public EventsJsonReader(final Reader reader) {
+        this.in = new JsonReader(reader);
+        // Same leniency Gson uses when deserializing
+        in.setLenient(true);
+    }
+
+    /**
+     * Reads all the events from an events file.
+     * @param reader Source of the events file. It is not closed by this method.
+     * @return All the events in the file.
+     */
+    public static Events readEvents(final Reader reader) {
+        return EventsReader.readAll(new EventsJsonReader(reader));
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return advance();
+        } catch (final IOException | IllegalStateException | NumberFormatException e) {
+            throw new ArcticException("Unable to read events", e);
+        }
+    }
+
+    @Override
+    public ArcticEvent next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return currentArray == ArcticEvent.Type.MOUSE_EVENT ? readMouseEvent() : readKeyboardEvent();
+        } catch (final IOException | IllegalStateException | NumberFormatException e) {
+            throw new ArcticException("Unable to read events", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Moves the reader to the beginning of the next event, entering and leaving the event arrays as needed.
+     * @return True if the reader is positioned at an event.
+     */
+    private boolean advance() throws IOException {
+        while (!finished) {
+            if (currentArray != null) {
+                if (in.hasNext()) {
+                    return true;
+                }
+                in.endArray();
+                currentArray = null;
+            } else if (in.peek() == JsonToken.BEGIN_OBJECT) {
+                in.beginObject();
+            } else if (in.peek() == JsonToken.END_OBJECT || in.peek() == JsonToken.END_DOCUMENT) {
+                finished = true;
+            } else {
+                final String name = in.nextName();
+                if (in.peek() != JsonToken.BEGIN_ARRAY) {
+                    in.skipValue();
+                } else if (MOUSE_EVENTS.equals(name)) {
+                    in.beginArray();
+                    currentArray = ArcticEvent.Type.MOUSE_EVENT;
+                } else if (KEYBOARD_EVENTS.equals(name)) {
+                    in.beginArray();
+                    currentArray = ArcticEvent.Type.KEYBOARD_EVENT;
+                } else {
+                    in.skipValue();
+                }
+            }
+        }
+        return false;
+    }
+
+    private MouseEvent readMouseEvent() throws IOException {
+        final MouseEvent event = new MouseEvent();
+        in.beginObject();
+        while (in.hasNext()) {
+            final String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                // Like Gson, nulls leave the default value of the field
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "subType":
+                    event.setSubType(SUB_TYPES.get(in.nextString()));
+                    break;
+                case "timestamp":
+                    event.setTimestamp(in.nextLong());
+                    break;
+                case "x":
+                    event.setX(in.nextInt());
+                    break;
+                case "y":
+                    event.setY(in.nextInt());
+                    break;
+                case "button":
+                    event.setButton(in.nextInt());
+                    break;
+                case "clickCount":
+                    event.setClickCount(in.nextInt());
+                    break;
+                case "modifiers":
+                    event.setModifiers(in.nextInt());
+                    break;
+                case "scrollAmount":
+                    event.setScrollAmount(in.nextInt());
+                    break;
+                case "scrollType":
+                    event.setScrollType(in.nextInt());
+                    break;
+                case "wheelRotation":
+                    event.setWheelRotation(in.nextInt());
+                    break;
+                case "wheelDirection":
+                    event.setWheelDirection(in.nextInt());
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return event;
+    }
+
+    private KeyboardEvent readKeyboardEvent() throws IOException {
+        final KeyboardEvent event = new KeyboardEvent();
+        in.beginObject();
+        while (in.hasNext()) {
+            final String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "subType":
+                    event.setSubType(SUB_TYPES.get(in.nextString()));
+                    break;
+                case "timestamp":
+                    event.setTimestamp(in.nextLong());
+                    break;
+                case "modifiers":
+                    event.setModifiers(in.nextInt());
+                    break;
+                case "keyChar":
+                    event.setKeyChar(readCharacter());
+                    break;
+                case "keyCode":
+                    event.setKeyCode(in.nextInt());
+                    break;
+                case "rawCode":
+                    event.setRawCode(in.nextInt());
+                    break;
+                case "keyLocation":
+                    event.setKeyLocation(in.nextInt());
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return event;
+    }
+
+    private Character readCharacter() throws IOException {
+        final String value = in.nextString();
+        if (value.length() != 1) {
+            throw new ArcticException(String.format("Expecting a single character but got \"%s\" at %s", value,
+                    in.getPath()));
+        }
+        return value.charAt(0);
+    }
+}
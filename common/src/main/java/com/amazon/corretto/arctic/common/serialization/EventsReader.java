@@ -0,0 +1,51 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.serialization;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+import com.amazon.corretto.arctic.common.model.event.ArcticEvent;
+import com.amazon.corretto.arctic.common.model.event.Events;
+import com.amazon.corretto.arctic.common.model.event.KeyboardEvent;
+import com.amazon.corretto.arctic.common.model.event.MouseEvent;
+
+/**
+ * Reads the events of a recording one at a time, regardless of the format used to store them. All the mouse events
+ * are returned first and then all the keyboard events, in the same order they were saved. Errors while reading are
+ * reported as {@link com.amazon.corretto.arctic.api.exception.ArcticException}.
+ *
+ * Available implementations are {@link EventsJsonReader} and {@link EventsBinaryReader}.
+ */
+public interface EventsReader extends Iterator<ArcticEvent>, Closeable {
+    /**
+     * Reads all the remaining events from a reader. The reader is not closed by this method.
+     * @param reader Reader to consume.
+     * @return All the events that were left in the reader.
+     */
+    static Events readAll(final EventsReader reader) {
+        final Events events = new Events();
+        while (reader.hasNext()) {
+            final ArcticEvent event = reader.next();
+            if (event instanceof MouseEvent) {
+                events.getMouseEvents().add((MouseEvent) event);
+            } else {
+                events.getKeyboardEvents().add((KeyboardEvent) event);
+            }
+        }
+        return events;
+    }
+}
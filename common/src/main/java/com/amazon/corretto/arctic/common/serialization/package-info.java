@@ -15,6 +15,6 @@
  */
 
 /**
- * Adapters for Gson serialization.
+ * Adapters for Gson serialization and readers and writers for the events files of the recordings.
  */
 package com.amazon.corretto.arctic.common.serialization;
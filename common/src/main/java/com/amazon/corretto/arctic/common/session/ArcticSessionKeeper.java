@@ -16,6 +16,7 @@
 
 package com.amazon.corretto.arctic.common.session;
 
+import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.function.Consumer;
 
@@ -111,6 +112,20 @@ public interface ArcticSessionKeeper<I, T> {
      */
     Class<? extends SessionObject>  getSessionObjectClass();
 
+    /**
+     * Returns the full type of the tuples this keeper stores, including its type arguments. It is used by the
+     * {@link SessionJournal} to read the tuples back.
+     * @return Type of {@link ArcticResultTuple} with the id and value types of this keeper
+     */
+    Type getTupleType();
+
+    /**
+     * Stores a tuple that was read from the {@link SessionJournal}, replacing any tuple with the same id. Unlike
+     * {@link #addValue(Object, Object)}, the tuple is kept as it is, including the time it was last updated.
+     * @param tuple Tuple to restore
+     */
+    void restoreResult(ArcticResultTuple<I, T> tuple);
+
     /**
      * A common interface for SessionObjects. This interface does not define any method, but it is used to identify
      * serializable session objects.
@@ -0,0 +1,517 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.amazon.corretto.arctic.common.session;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.command.impl.SessionCommand;
+import com.amazon.corretto.arctic.common.inject.ArcticCommandModule;
+import com.amazon.corretto.arctic.common.inject.CommonInjectionKeys;
+import com.amazon.corretto.arctic.common.model.ArcticResultTuple;
+import com.amazon.corretto.arctic.common.serialization.ArcticTypeAdapter;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An append-only journal of all the changes made to the {@link ArcticSessionKeeper}s. Keepers record every value they
+ * add, update or remove, so the session can be recovered after the player stops unexpectedly, without having to save
+ * the whole session after every test.
+ *
+ * Each change is written as one json line to a file next to the default session, named like it with a
+ * {@link #JOURNAL_SUFFIX}. Lines are buffered and synced to disk in batches, at most every few milliseconds, so a crash
+ * loses at most the changes of that interval. After a number of changes, the journal is compacted: the whole session is
+ * written as a snapshot (using the same format as {@code session save}) and the journal starts again empty.
+ *
+ * Records always contain the full state of a value after the change, so replaying a record more than once is the same
+ * as replaying it once. This is what makes it safe to replay a journal on top of a snapshot that already contains some
+ * of its changes, which happens if Arctic stops in the middle of a compaction, or if changes are recorded while the
+ * snapshot is being taken.
+ *
+ * Keepers record their changes while holding their own lock. To avoid waiting on a keeper while holding the lock of
+ * the journal, the journal never calls the keepers while holding it: compactions run in the background thread of the
+ * journal, and the sessions of the keepers are collected before the journal is locked.
+ */
+@Slf4j
+@Singleton
+public final class SessionJournal {
+    public static final String JOURNAL_SUFFIX = ".journal";
+    public static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String PREVIOUS_SUFFIX = ".old";
+    private static final Type SESSION_TYPE = new TypeToken<Map<String, ArcticSessionKeeper.SessionObject>>() { }
+            .getType();
+    private static final String KEEPER = "keeper";
+    private static final String OP = "op";
+    private static final String DATA = "data";
+    private static final String OP_PUT = "put";
+    private static final String OP_REMOVE = "remove";
+    private static final String OP_CLEAR = "clear";
+
+    private final boolean enabled;
+    private final Path journalPath;
+    private final Path snapshotPath;
+    private final int syncMillis;
+    private final int compactRecords;
+    private final Provider<Set<ArcticSessionKeeper<?, ?>>> keepers;
+    private final Set<ArcticTypeAdapter<?>> adapters;
+
+    private Gson gson;
+    private FileChannel channel;
+    private Writer writer;
+    private ScheduledExecutorService syncExecutor;
+    private boolean dirty;
+    private boolean replaying;
+    private boolean failed;
+    private boolean compacting;
+    private int records;
+
+    /**
+     * Creates a new instance. Called by the dependency injection framework.
+     * @param enabled Whether changes are recorded at all. If false, all the methods do nothing.
+     * @param defaultSessionFilename Name of the default session file, used to name the journal and the snapshot.
+     * @param syncMillis Maximum time between a change being recorded and it being synced to disk. 0 to sync every
+     *                   change as soon as it is recorded.
+     * @param compactRecords Number of records after which the journal is compacted into a snapshot.
+     * @param keepers All the keepers whose changes are recorded. Only used to build snapshots and replay the journal,
+     *                as keepers depend on the journal themselves.
+     * @param adapters Type adapters registered for the session serialization.
+     */
+    @Inject
+    public SessionJournal(@Named(CommonInjectionKeys.SESSION_JOURNAL_ENABLED) final boolean enabled,
+                          @Named(CommonInjectionKeys.SESSION_DEFAULT) final String defaultSessionFilename,
+                          @Named(CommonInjectionKeys.SESSION_JOURNAL_SYNC_MS) final int syncMillis,
+                          @Named(CommonInjectionKeys.SESSION_JOURNAL_COMPACT) final int compactRecords,
+                          final Provider<Set<ArcticSessionKeeper<?, ?>>> keepers,
+                          @Named(SessionCommand.SESSION_GSON) final Set<ArcticTypeAdapter<?>> adapters) {
+        this.enabled = enabled;
+        this.journalPath = Path.of(defaultSessionFilename + JOURNAL_SUFFIX);
+        this.snapshotPath = Path.of(defaultSessionFilename + SNAPSHOT_SUFFIX);
+        this.syncMillis = syncMillis;
+        this.compactRecords = compactRecords;
+        this.keepers = keepers;
+        this.adapters = adapters;
+    }
+
+    /**
+     * Records that a value was added or updated. The tuple is serialized immediately, so later changes to the value are
+     * not included until they are recorded too.
+     * @param keeper Keeper that holds the value.
+     * @param tuple Tuple with the value, after the change.
+     */
+    public void put(final ArcticSessionKeeper<?, ?> keeper, final ArcticResultTuple<?, ?> tuple) {
+        if (enabled) {
+            append(keeper, OP_PUT, () -> getGson().toJsonTree(tuple, keeper.getTupleType()));
+        }
+    }
+
+    /**
+     * Records that a value was removed.
+     * @param keeper Keeper that held the value.
+     * @param id Id of the value.
+     */
+    public void remove(final ArcticSessionKeeper<?, ?> keeper, final Object id) {
+        if (enabled) {
+            append(keeper, OP_REMOVE, () -> getGson().toJsonTree(id, getIdType(keeper)));
+        }
+    }
+
+    /**
+     * Records that all the values of a keeper were removed.
+     * @param keeper Keeper that was cleared.
+     */
+    public void clear(final ArcticSessionKeeper<?, ?> keeper) {
+        if (enabled) {
+            append(keeper, OP_CLEAR, () -> null);
+        }
+    }
+
+    /**
+     * Whether there is a journal or a snapshot that can be replayed.
+     * @return True if the journal is enabled and any of its files exists.
+     */
+    public boolean canReplay() {
+        return enabled && (Files.exists(journalPath) || Files.exists(snapshotPath));
+    }
+
+    /**
+     * Restores the session recorded in the journal into the keepers. The snapshot is restored first, and then all the
+     * records in the journal are applied in order. Records that can't be read, like a last line that was only partially
+     * written, are skipped. New changes continue to be appended to the same journal.
+     * @return Number of records applied on top of the snapshot.
+     */
+    public int replay() {
+        if (!canReplay()) {
+            throw new ArcticException("No session journal found at " + journalPath.toAbsolutePath());
+        }
+        final long start = System.nanoTime();
+        final Map<String, ArcticSessionKeeper<?, ?>> byName = keepers.get().stream()
+                .collect(Collectors.toMap(it -> it.getClass().getName(), Function.identity()));
+        // Keepers are restored without holding the lock of the journal, the flag is enough to ignore their records
+        synchronized (this) {
+            replaying = true;
+        }
+        int applied = 0;
+        int skipped = 0;
+        try {
+            if (Files.exists(snapshotPath)) {
+                try (Reader reader = Files.newBufferedReader(snapshotPath, StandardCharsets.UTF_8)) {
+                    final Map<String, ArcticSessionKeeper.SessionObject> session = getGson().fromJson(reader,
+                            SESSION_TYPE);
+                    if (session != null) {
+                        session.forEach((k, v) -> {
+                            if (byName.containsKey(k)) {
+                                byName.get(k).restoreSession(v);
+                            }
+                        });
+                    }
+                }
+            }
+            if (Files.exists(journalPath)) {
+                try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        if (apply(line, byName)) {
+                            applied++;
+                        } else {
+                            skipped++;
+                        }
+                    }
+                }
+            }
+            synchronized (this) {
+                open(false);
+                failed = false;
+                records = applied + skipped;
+            }
+        } catch (final IOException | JsonParseException e) {
+            throw new ArcticException("Unable to replay session journal " + journalPath, e);
+        } finally {
+            synchronized (this) {
+                replaying = false;
+            }
+        }
+        if (skipped > 0) {
+            log.warn("Skipped {} records of the session journal that could not be read", skipped);
+        }
+        log.info("Replayed {} session journal records in {}ms", applied,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return applied;
+    }
+
+    /**
+     * Writes a snapshot of the whole session and removes from the journal the records it already contains. The snapshot
+     * replaces the previous one only once it has been completely written and synced. Must not be called while holding
+     * the lock of a keeper, as the session of all of them is collected.
+     */
+    public void compact() {
+        synchronized (this) {
+            if (compacting) {
+                return;
+            }
+            compacting = true;
+        }
+        compactAndRelease();
+    }
+
+    /**
+     * Compacts the journal once the caller has set {@link #compacting}, which is released when done. Keeping the flag
+     * set from the moment a compaction is requested stops another one from being requested in the meantime.
+     */
+    private void compactAndRelease() {
+        final long start = System.nanoTime();
+        final long mark;
+        synchronized (this) {
+            if (!enabled || failed) {
+                compacting = false;
+                return;
+            }
+            try {
+                open(true);
+                writer.flush();
+                mark = channel.size();
+            } catch (final IOException e) {
+                compacting = false;
+                disable("Unable to compact session journal " + journalPath, e);
+                return;
+            }
+        }
+        try {
+            // Every record before the mark was appended after its change was made, so the snapshot will contain it.
+            // Records appended from now on may or may not be in it, they are kept in the journal
+            final Map<String, ArcticSessionKeeper.SessionObject> session = new LinkedHashMap<>();
+            keepers.get().forEach(it -> session.put(it.getClass().getName(), it.getSession()));
+            writeSnapshot(session, mark);
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+        log.debug("Session journal compacted in {}ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private synchronized void writeSnapshot(final Map<String, ArcticSessionKeeper.SessionObject> session,
+                                            final long mark) {
+        if (failed) {
+            return;
+        }
+        final Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            try (FileChannel snapshotChannel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                final Writer snapshotWriter = new BufferedWriter(Channels.newWriter(snapshotChannel,
+                        StandardCharsets.UTF_8));
+                getGson().toJson(session, SESSION_TYPE, snapshotWriter);
+                snapshotWriter.flush();
+                snapshotChannel.force(true);
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writer.flush();
+            final ByteBuffer tail = ByteBuffer.allocate(Math.toIntExact(channel.size() - mark));
+            try (FileChannel in = FileChannel.open(journalPath, StandardOpenOption.READ)) {
+                while (tail.hasRemaining() && in.read(tail, mark + tail.position()) >= 0) {
+                    // Keep reading until the whole tail is in the buffer
+                }
+            }
+            tail.flip();
+            records = 0;
+            for (int i = 0; i < tail.limit(); i++) {
+                if (tail.get(i) == '\n') {
+                    records++;
+                }
+            }
+            channel.truncate(0);
+            while (tail.hasRemaining()) {
+                channel.write(tail);
+            }
+            channel.force(true);
+            dirty = false;
+        } catch (final IOException | ArithmeticException e) {
+            disable("Unable to compact session journal " + journalPath, e);
+        } finally {
+            try {
+                // Only left behind if the snapshot could not be written completely
+                Files.deleteIfExists(tmp);
+            } catch (final IOException e) {
+                log.debug("Unable to delete {}", tmp, e);
+            }
+        }
+    }
+
+    /**
+     * Writes and syncs to disk all the records appended so far.
+     */
+    public synchronized void sync() {
+        if (writer == null || !dirty) {
+            return;
+        }
+        try {
+            writer.flush();
+            channel.force(false);
+            dirty = false;
+        } catch (final IOException e) {
+            disable("Unable to sync session journal " + journalPath, e);
+        }
+    }
+
+    private synchronized void append(final ArcticSessionKeeper<?, ?> keeper, final String op,
+                                     final DataSupplier data) {
+        if (replaying || failed) {
+            return;
+        }
+        final JsonObject record = new JsonObject();
+        record.addProperty(KEEPER, keeper.getClass().getName());
+        record.addProperty(OP, op);
+        final JsonElement element = data.get();
+        if (element != null) {
+            record.add(DATA, element);
+        }
+        try {
+            open(true);
+            // JsonElement.toString is compact json, so each record is a single line
+            writer.write(record.toString());
+            writer.write('\n');
+            dirty = true;
+            records++;
+        } catch (final IOException e) {
+            disable("Unable to write session journal " + journalPath, e);
+            return;
+        }
+        if (records >= compactRecords && !compacting) {
+            // The caller may be holding the lock of its keeper, and compacting needs all of them
+            compacting = true;
+            syncExecutor.execute(this::scheduledCompact);
+        } else if (syncMillis == 0) {
+            sync();
+        }
+    }
+
+    private void scheduledCompact() {
+        try {
+            compactAndRelease();
+        } catch (final RuntimeException e) {
+            // The executor would swallow it. Wait for another batch of records before trying again
+            log.error("Unable to compact session journal {}", journalPath, e);
+            synchronized (this) {
+                records = 0;
+            }
+        }
+    }
+
+    private boolean apply(final String line, final Map<String, ArcticSessionKeeper<?, ?>> byName) {
+        try {
+            final JsonObject record = JsonParser.parseString(line).getAsJsonObject();
+            final ArcticSessionKeeper<?, ?> keeper = byName.get(record.get(KEEPER).getAsString());
+            if (keeper == null) {
+                return false;
+            }
+            switch (record.get(OP).getAsString()) {
+                case OP_PUT:
+                    replayPut(keeper, getGson().fromJson(record.get(DATA), keeper.getTupleType()));
+                    return true;
+                case OP_REMOVE:
+                    replayRemove(keeper, getGson().fromJson(record.get(DATA), getIdType(keeper)));
+                    return true;
+                case OP_CLEAR:
+                    keeper.clear();
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (final JsonParseException | IllegalStateException | NullPointerException e) {
+            log.debug("Unable to read session journal record: {}", line, e);
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I, T> void replayPut(final ArcticSessionKeeper<I, T> keeper, final Object tuple) {
+        keeper.restoreResult((ArcticResultTuple<I, T>) tuple);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I, T> void replayRemove(final ArcticSessionKeeper<I, T> keeper, final Object id) {
+        keeper.clear((I) id);
+    }
+
+    private static Type getIdType(final ArcticSessionKeeper<?, ?> keeper) {
+        return ((ParameterizedType) keeper.getTupleType()).getActualTypeArguments()[0];
+    }
+
+    /**
+     * Opens the journal for appending, if it is not open yet.
+     * @param rotate Whether files left by a previous run should be moved out of the way first. They are kept with an
+     *               {@link #PREVIOUS_SUFFIX}, as they may be the only copy of a session that was never restored.
+     */
+    private void open(final boolean rotate) throws IOException {
+        if (channel != null) {
+            return;
+        }
+        if (rotate) {
+            rotate(journalPath);
+            rotate(snapshotPath);
+        }
+        final Path parent = journalPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+        if (syncExecutor == null) {
+            syncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread thread = new Thread(r, "arctic-session-journal");
+                thread.setDaemon(true);
+                return thread;
+            });
+            if (syncMillis > 0) {
+                syncExecutor.scheduleWithFixedDelay(this::sync, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+            }
+            // Don't lose the last batch if Arctic is closed normally
+            Runtime.getRuntime().addShutdownHook(new Thread(this::sync));
+        }
+    }
+
+    private static void rotate(final Path path) throws IOException {
+        if (Files.exists(path)) {
+            final Path previous = path.resolveSibling(path.getFileName() + PREVIOUS_SUFFIX);
+            Files.move(path, previous, StandardCopyOption.REPLACE_EXISTING);
+            log.warn("Session journal from a previous run moved to {}", previous);
+        }
+    }
+
+    private void disable(final String message, final Exception e) {
+        // The journal is best effort, failing to write it must not stop the tests from running
+        log.error("{}. Session journal disabled", message, e);
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (final IOException closeException) {
+            log.debug("Unable to close session journal", closeException);
+        }
+        channel = null;
+        writer = null;
+        dirty = false;
+        failed = true;
+    }
+
+    private synchronized Gson getGson() {
+        if (gson == null) {
+            gson = new ArcticCommandModule.GsonSessionProvider(keepers.get(), adapters).get();
+        }
+        return gson;
+    }
+
+    @FunctionalInterface
+    private interface DataSupplier {
+        JsonElement get();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.amazon.corretto.arctic.common.util;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * A small signature of an image that can be compared without loading the image itself. The image is divided in a grid
+ * of {@link #GRID} x {@link #GRID} cells, and the signature holds the average luminance of each cell, sampled from a
+ * fixed number of pixels so it takes the same time for any image size. Images that look alike have signatures with a
+ * small {@link #distance(String, String)}, which is used to decide which recorded images are worth loading first.
+ *
+ * Signatures are only a hint. Two different images can have the same signature, so they never replace an actual
+ * comparison of the pixels.
+ */
+public final class ImageSignature {
+    /**
+     * Number of cells in each dimension of the grid.
+     */
+    public static final int GRID = 8;
+
+    private static final int SAMPLES = 16;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int RED_WEIGHT = 299;
+    private static final int GREEN_WEIGHT = 587;
+    private static final int BLUE_WEIGHT = 114;
+    private static final int WEIGHT_TOTAL = 1000;
+    private static final int HEX_RADIX = 16;
+    private static final int HEX_DIGITS = 2;
+
+    private ImageSignature() { }
+
+    /**
+     * Calculates the signature of an image.
+     * @param image Image to calculate the signature for. Can be null.
+     * @return The signature, as a hex string. Null if the image was null or empty.
+     */
+    public static String of(final BufferedImage image) {
+        if (image == null || image.getWidth() == 0 || image.getHeight() == 0) {
+            return null;
+        }
+        final PixelRaster raster = PixelRaster.of(image);
+        final int width = raster.getWidth();
+        final int height = raster.getHeight();
+        final StringBuilder signature = new StringBuilder(GRID * GRID * HEX_DIGITS);
+        for (int cellY = 0; cellY < GRID; cellY++) {
+            for (int cellX = 0; cellX < GRID; cellX++) {
+                long luma = 0;
+                for (int sy = 0; sy < SAMPLES; sy++) {
+                    final int y = (int) (((long) cellY * SAMPLES + sy) * height / (GRID * SAMPLES));
+                    for (int sx = 0; sx < SAMPLES; sx++) {
+                        final int x = (int) (((long) cellX * SAMPLES + sx) * width / (GRID * SAMPLES));
+                        luma += luma(raster.getRgb(x, y));
+                    }
+                }
+                final int average = (int) (luma / (SAMPLES * SAMPLES));
+                if (average < HEX_RADIX) {
+                    signature.append('0');
+                }
+                signature.append(Integer.toHexString(average));
+            }
+        }
+        return signature.toString();
+    }
+
+    /**
+     * Measures how different two signatures are, as the sum of the differences in luminance of all the cells.
+     * @param first A signature.
+     * @param second Another signature.
+     * @return 0 for identical signatures, bigger values for more different ones. {@link Integer#MAX_VALUE} if any of
+     *         the signatures is missing or invalid, so unknown images are ranked after all the known ones.
+     */
+    public static int distance(final String first, final String second) {
+        if (first == null || second == null || first.length() != second.length()) {
+            return Integer.MAX_VALUE;
+        }
+        try {
+            int distance = 0;
+            for (int i = 0; i < first.length(); i += HEX_DIGITS) {
+                distance += Math.abs(Integer.parseInt(first, i, i + HEX_DIGITS, HEX_RADIX)
+                        - Integer.parseInt(second, i, i + HEX_DIGITS, HEX_RADIX));
+            }
+            return distance;
+        } catch (final NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Key used to store the signature of an image by its path, which is the same for the paths of any OS.
+     * @param image Path of the image.
+     * @return The names of the path joined by /.
+     */
+    public static String key(final Path image) {
+        return StreamSupport.stream(image.spliterator(), false)
+                .map(Path::toString)
+                .collect(Collectors.joining("/"));
+    }
+
+    private static int luma(final int argb) {
+        final int red = (argb >>> 16) & BYTE_MASK;
+        final int green = (argb >>> 8) & BYTE_MASK;
+        final int blue = argb & BYTE_MASK;
+        return (red * RED_WEIGHT + green * GREEN_WEIGHT + blue * BLUE_WEIGHT) / WEIGHT_TOTAL;
+    }
+}
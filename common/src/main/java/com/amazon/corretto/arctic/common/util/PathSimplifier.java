@@ -0,0 +1,195 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.amazon.corretto.arctic.common.model.event.ArcticEvent;
+import com.amazon.corretto.arctic.common.model.event.MouseEvent;
+
+/**
+ * Reduces the number of mouse movements of a recording while keeping the path the mouse follows. Recordings contain
+ * thousands of moves that are only one or two pixels apart, and each one of them is injected separately when the test
+ * is replayed.
+ *
+ * Movements are split into runs of consecutive MOVE or DRAG events with the same modifiers. A run ends at any other
+ * mouse event, like a PRESS or a RELEASE, and at the timestamp of any boundary event, like a screenshot check or a key
+ * press, so the mouse is always where it was recorded when one of those happens. The first and last movement of each
+ * run are always kept, and the remaining ones are kept or dropped depending on the mode:
+ * <ul>
+ *     <li>{@link #RDP}: Ramer-Douglas-Peucker. Drops the movements that are closer than epsilon pixels to the path
+ *     formed by the movements that are kept.</li>
+ *     <li>{@link #BUCKET}: Splits the run in buckets of a fixed duration and keeps only the last movement of each
+ *     one.</li>
+ * </ul>
+ * Movements that are kept retain their timestamps, so the timeline of the test doesn't change.
+ */
+public final class PathSimplifier {
+    public static final String RDP = "rdp";
+    public static final String BUCKET = "bucket";
+    public static final Set<String> MODES = Set.of(RDP, BUCKET);
+
+    private static final int MOVEMENT_MASK = ArcticEvent.SubType.MOVE.getValue() | ArcticEvent.SubType.DRAG.getValue();
+
+    private final String mode;
+    private final double epsilon;
+    private final long bucketNs;
+
+    /**
+     * Creates a new simplifier.
+     * @param mode One of {@link #MODES}.
+     * @param epsilon Maximum distance, in pixels, a dropped movement can be from the simplified path. Used by
+     *                {@link #RDP}.
+     * @param bucketMs Duration of each bucket in milliseconds. Used by {@link #BUCKET}.
+     */
+    public PathSimplifier(final String mode, final double epsilon, final long bucketMs) {
+        if (!MODES.contains(mode)) {
+            throw new IllegalArgumentException("Unknown path simplification mode " + mode);
+        }
+        this.mode = mode;
+        this.epsilon = epsilon;
+        this.bucketNs = TimeUnit.MILLISECONDS.toNanos(bucketMs);
+    }
+
+    /**
+     * Simplifies the path of a list of mouse events. The list is not modified.
+     * @param mouseEvents Mouse events sorted by timestamp.
+     * @param boundaries Other events of the recording, each list sorted by timestamp. No movement is dropped across
+     *                   the timestamp of any of them.
+     * @return A new list with the mouse events that are kept, in the same order.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final List<MouseEvent> simplify(final List<MouseEvent> mouseEvents,
+                                           final List<? extends ArcticEvent>... boundaries) {
+        final long[] cuts = boundaries(boundaries);
+        final List<MouseEvent> result = new ArrayList<>(mouseEvents.size());
+        final List<MouseEvent> run = new ArrayList<>();
+        int nextCut = 0;
+        for (final MouseEvent ev : mouseEvents) {
+            boolean cut = false;
+            while (nextCut < cuts.length && cuts[nextCut] <= ev.getTimestamp()) {
+                // A boundary with the same timestamp is replayed before this movement, so the run ends here too
+                nextCut++;
+                cut = true;
+            }
+            if (!ev.getSubType().inMask(MOVEMENT_MASK)) {
+                flush(run, result);
+                result.add(ev);
+                continue;
+            }
+            if (cut || (!run.isEmpty() && !sameRun(run.get(0), ev))) {
+                flush(run, result);
+            }
+            run.add(ev);
+        }
+        flush(run, result);
+        return result;
+    }
+
+    private static long[] boundaries(final List<? extends ArcticEvent>[] boundaries) {
+        final long[] cuts = Arrays.stream(boundaries)
+                .flatMap(List::stream)
+                .mapToLong(ArcticEvent::getTimestamp)
+                .toArray();
+        Arrays.sort(cuts);
+        return cuts;
+    }
+
+    private static boolean sameRun(final MouseEvent first, final MouseEvent ev) {
+        return first.getSubType() == ev.getSubType() && first.getModifiers() == ev.getModifiers();
+    }
+
+    private void flush(final List<MouseEvent> run, final List<MouseEvent> result) {
+        if (run.size() <= 2) {
+            result.addAll(run);
+        } else {
+            final boolean[] keep = RDP.equals(mode) ? douglasPeucker(run) : buckets(run);
+            for (int i = 0; i < run.size(); i++) {
+                if (keep[i]) {
+                    result.add(run.get(i));
+                }
+            }
+        }
+        run.clear();
+    }
+
+    /**
+     * Ramer-Douglas-Peucker, with an explicit stack so long runs don't overflow the thread stack.
+     */
+    private boolean[] douglasPeucker(final List<MouseEvent> run) {
+        final boolean[] keep = new boolean[run.size()];
+        keep[0] = true;
+        keep[run.size() - 1] = true;
+        final Deque<int[]> pending = new ArrayDeque<>();
+        pending.push(new int[] {0, run.size() - 1});
+        while (!pending.isEmpty()) {
+            final int[] range = pending.pop();
+            final MouseEvent start = run.get(range[0]);
+            final MouseEvent end = run.get(range[1]);
+            double maxDistance = -1;
+            int farthest = -1;
+            for (int i = range[0] + 1; i < range[1]; i++) {
+                final double distance = distance(run.get(i), start, end);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+            if (farthest != -1 && maxDistance > epsilon) {
+                keep[farthest] = true;
+                pending.push(new int[] {range[0], farthest});
+                pending.push(new int[] {farthest, range[1]});
+            }
+        }
+        return keep;
+    }
+
+    private boolean[] buckets(final List<MouseEvent> run) {
+        final boolean[] keep = new boolean[run.size()];
+        keep[0] = true;
+        keep[run.size() - 1] = true;
+        final long start = run.get(0).getTimestamp();
+        for (int i = 1; i < run.size() - 1; i++) {
+            final long bucket = bucketNs <= 0 ? i : (run.get(i).getTimestamp() - start) / bucketNs;
+            final long nextBucket = bucketNs <= 0 ? i + 1 : (run.get(i + 1).getTimestamp() - start) / bucketNs;
+            keep[i] = bucket != nextBucket;
+        }
+        return keep;
+    }
+
+    /**
+     * Distance from a point to the segment between two other points. Using the segment instead of the whole line keeps
+     * the movements where the mouse goes back over its own path.
+     */
+    private static double distance(final MouseEvent point, final MouseEvent start, final MouseEvent end) {
+        final double dx = end.getX() - start.getX();
+        final double dy = end.getY() - start.getY();
+        final double lengthSq = dx * dx + dy * dy;
+        double t = 0;
+        if (lengthSq > 0) {
+            t = ((point.getX() - start.getX()) * dx + (point.getY() - start.getY()) * dy) / lengthSq;
+            t = Math.max(0, Math.min(1, t));
+        }
+        return Math.hypot(point.getX() - start.getX() - t * dx, point.getY() - start.getY() - t * dy);
+    }
+}
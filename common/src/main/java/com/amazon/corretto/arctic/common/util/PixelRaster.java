@@ -0,0 +1,226 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.amazon.corretto.arctic.common.util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * Gives direct access to the pixels of a {@link BufferedImage}, reading and writing the int[] or byte[] that backs the
+ * image instead of going through {@link BufferedImage#getRGB(int, int)} for each pixel. Values are always exchanged as
+ * ARGB ints, exactly as {@link BufferedImage#getRGB(int, int)} would return them, so checks get the same results.
+ *
+ * Images using {@link BufferedImage#TYPE_INT_RGB}, {@link BufferedImage#TYPE_INT_ARGB},
+ * {@link BufferedImage#TYPE_3BYTE_BGR} or {@link BufferedImage#TYPE_4BYTE_ABGR} are accessed directly. Any other image
+ * needs to be converted once with {@link #normalize(BufferedImage)}, which is done automatically by
+ * {@link #of(BufferedImage)}.
+ */
+public final class PixelRaster {
+    private static final int OPAQUE = 0xFF000000;
+    private static final int BYTE_MASK = 0xFF;
+
+    private final int width;
+    private final int height;
+    private final int[] ints;
+    private final byte[] bytes;
+    private final int offset;
+    private final int scanlineStride;
+    private final int pixelStride;
+    private final int alpha;
+    private final int red;
+    private final int green;
+    private final int blue;
+    private final int forcedAlpha;
+
+    private PixelRaster(final BufferedImage image) {
+        final WritableRaster raster = image.getRaster();
+        width = image.getWidth();
+        height = image.getHeight();
+        final int translate;
+        if (raster.getDataBuffer() instanceof DataBufferInt) {
+            final DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+            final SinglePixelPackedSampleModel sm = (SinglePixelPackedSampleModel) raster.getSampleModel();
+            ints = buffer.getData();
+            bytes = null;
+            scanlineStride = sm.getScanlineStride();
+            pixelStride = 1;
+            translate = -raster.getSampleModelTranslateY() * scanlineStride - raster.getSampleModelTranslateX();
+            offset = buffer.getOffset() + translate;
+            alpha = -1;
+            red = -1;
+            green = -1;
+            blue = -1;
+            forcedAlpha = image.getType() == BufferedImage.TYPE_INT_RGB ? OPAQUE : 0;
+        } else {
+            final DataBufferByte buffer = (DataBufferByte) raster.getDataBuffer();
+            final ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+            final int[] bandOffsets = sm.getBandOffsets();
+            ints = null;
+            bytes = buffer.getData();
+            scanlineStride = sm.getScanlineStride();
+            pixelStride = sm.getPixelStride();
+            translate = -raster.getSampleModelTranslateY() * scanlineStride
+                    - raster.getSampleModelTranslateX() * pixelStride;
+            offset = buffer.getOffset() + translate;
+            red = bandOffsets[0];
+            green = bandOffsets[1];
+            blue = bandOffsets[2];
+            alpha = bandOffsets.length > 3 ? bandOffsets[3] : -1;
+            forcedAlpha = alpha < 0 ? OPAQUE : 0;
+        }
+    }
+
+    /**
+     * Creates a raster for an image. If the image format is not supported directly, a normalized copy is created first.
+     * @param image Image to access.
+     * @return A raster that reads from (and writes to) the image, or its normalized copy.
+     */
+    public static PixelRaster of(final BufferedImage image) {
+        return new PixelRaster(normalize(image));
+    }
+
+    /**
+     * Whether the pixels of an image can be accessed directly without converting the image.
+     * @param image Image to check.
+     * @return True if the image type is one of the types supported directly.
+     */
+    public static boolean isSupported(final BufferedImage image) {
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_RGB:
+            case BufferedImage.TYPE_INT_ARGB:
+            case BufferedImage.TYPE_3BYTE_BGR:
+            case BufferedImage.TYPE_4BYTE_ABGR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Converts an image into a format that can be accessed directly. Images that are already supported are returned as
+     * they are. Others are copied into a {@link BufferedImage#TYPE_INT_ARGB} image, which keeps the exact values
+     * returned by {@link BufferedImage#getRGB(int, int)}, including alpha. This should be done once when the image is
+     * loaded or captured, so checks don't need to convert it again.
+     * @param image Image to convert. Can be null.
+     * @return The same image if supported, a normalized copy otherwise. Null if the image was null.
+     */
+    public static BufferedImage normalize(final BufferedImage image) {
+        if (image == null || isSupported(image)) {
+            return image;
+        }
+        final int w = image.getWidth();
+        final int h = image.getHeight();
+        final BufferedImage normalized = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        final int[] data = ((DataBufferInt) normalized.getRaster().getDataBuffer()).getData();
+        image.getRGB(0, 0, w, h, data, 0, w);
+        return normalized;
+    }
+
+    /**
+     * Width of the image.
+     * @return Width in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Height of the image.
+     * @return Height in pixels.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Reads a single pixel.
+     * @param x x coordinate of the pixel.
+     * @param y y coordinate of the pixel.
+     * @return The pixel as an ARGB int, the same value {@link BufferedImage#getRGB(int, int)} returns.
+     */
+    public int getRgb(final int x, final int y) {
+        if (ints != null) {
+            return ints[offset + y * scanlineStride + x] | forcedAlpha;
+        }
+        return readBytes(offset + y * scanlineStride + x * pixelStride);
+    }
+
+    /**
+     * Writes a single pixel. Alpha is ignored for images without an alpha channel.
+     * @param x x coordinate of the pixel.
+     * @param y y coordinate of the pixel.
+     * @param argb Value of the pixel as an ARGB int.
+     */
+    public void setRgb(final int x, final int y, final int argb) {
+        if (ints != null) {
+            ints[offset + y * scanlineStride + x] = argb;
+        } else {
+            final int index = offset + y * scanlineStride + x * pixelStride;
+            bytes[index + red] = (byte) (argb >>> 16);
+            bytes[index + green] = (byte) (argb >>> 8);
+            bytes[index + blue] = (byte) argb;
+            if (alpha >= 0) {
+                bytes[index + alpha] = (byte) (argb >>> 24);
+            }
+        }
+    }
+
+    /**
+     * Reads a full row of the image.
+     * @param y Row to read.
+     * @param row Destination array, it needs to hold at least {@link #getWidth()} elements. Each pixel is stored as an
+     *            ARGB int.
+     */
+    public void readRow(final int y, final int[] row) {
+        if (ints != null) {
+            System.arraycopy(ints, offset + y * scanlineStride, row, 0, width);
+            if (forcedAlpha != 0) {
+                for (int x = 0; x < width; x++) {
+                    row[x] |= forcedAlpha;
+                }
+            }
+        } else if (alpha < 0) {
+            // Recorded PNGs without alpha are decoded as 3BYTE_BGR, so this is the common path for saved images
+            int index = offset + y * scanlineStride;
+            for (int x = 0; x < width; x++) {
+                row[x] = forcedAlpha
+                        | (bytes[index + red] & BYTE_MASK) << 16
+                        | (bytes[index + green] & BYTE_MASK) << 8
+                        | (bytes[index + blue] & BYTE_MASK);
+                index += pixelStride;
+            }
+        } else {
+            int index = offset + y * scanlineStride;
+            for (int x = 0; x < width; x++) {
+                row[x] = readBytes(index);
+                index += pixelStride;
+            }
+        }
+    }
+
+    private int readBytes(final int index) {
+        final int a = alpha < 0 ? forcedAlpha : (bytes[index + alpha] & BYTE_MASK) << 24;
+        return a
+                | (bytes[index + red] & BYTE_MASK) << 16
+                | (bytes[index + green] & BYTE_MASK) << 8
+                | (bytes[index + blue] & BYTE_MASK);
+    }
+}
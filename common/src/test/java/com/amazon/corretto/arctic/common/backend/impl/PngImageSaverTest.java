@@ -0,0 +1,117 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.backend.impl;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PngImageSaverTest {
+    private static final int WIDTH = 97;
+    private static final int HEIGHT = 203;
+
+    static Stream<Arguments> encodings() {
+        return PngImageSaver.FILTERS.stream()
+                .flatMap(filter -> Stream.of(1, 4)
+                        .flatMap(threads -> Stream.of(BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB,
+                                BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR)
+                                .map(type -> Arguments.of(filter, threads, type))));
+    }
+
+    @ParameterizedTest
+    @MethodSource("encodings")
+    public void roundTrip(final String filter, final int threads, final int type) throws IOException {
+        final BufferedImage image = createImage(type);
+        final PngImageSaver saver = new PngImageSaver(".png", 6, filter, threads);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        saver.write(image, out);
+
+        final BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertNotNull(decoded);
+        assertEquals(image.getColorModel().hasAlpha(), decoded.getColorModel().hasAlpha());
+        assertSamePixels(image, decoded);
+    }
+
+    @Test
+    public void levelZeroStillDecodes() throws IOException {
+        final BufferedImage image = createImage(BufferedImage.TYPE_INT_RGB);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PngImageSaver(".png", 0, "none", 1).write(image, out);
+        assertSamePixels(image, ImageIO.read(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void saveImageAddsExtension(@TempDir final Path folder) throws IOException {
+        final BufferedImage image = createImage(BufferedImage.TYPE_INT_RGB);
+        final PngImageSaver saver = new PngImageSaver(".png", 6, "adaptive", 1);
+        final Path saved = saver.saveImage(image, folder, Paths.get("scope", "test", "0"));
+
+        assertEquals(Paths.get("scope", "test", "0.png"), saved);
+        final Path file = folder.resolve(saved);
+        assertTrue(Files.isRegularFile(file));
+        assertSamePixels(image, ImageIO.read(file.toFile()));
+    }
+
+    private static BufferedImage createImage(final int type) {
+        final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, type);
+        final Random random = new Random(type);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                // Mix flat areas, gradients and noise so every filter gets picked by the adaptive one at some point
+                final int argb;
+                if (y < HEIGHT / 3) {
+                    argb = 0xFF336699;
+                } else if (y < 2 * HEIGHT / 3) {
+                    argb = 0xFF000000 | (x * 2) << 16 | (y & 0xFF) << 8 | (x + y) & 0xFF;
+                } else {
+                    argb = random.nextInt();
+                }
+                image.setRGB(x, y, argb);
+            }
+        }
+        return image;
+    }
+
+    private static void assertSamePixels(final BufferedImage expected, final BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                final int pixel = x;
+                final int row = y;
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y),
+                        () -> String.format("Pixel %d,%d differs", pixel, row));
+            }
+        }
+    }
+}
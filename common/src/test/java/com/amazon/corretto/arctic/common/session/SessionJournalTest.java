@@ -0,0 +1,309 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.session;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.amazon.corretto.arctic.common.model.ArcticResultTuple;
+import com.amazon.corretto.arctic.common.model.TestId;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SessionJournalTest {
+    private static final int NO_COMPACTION = 1000;
+    private static final long WAIT_MILLIS = 10_000;
+
+    @TempDir
+    Path folder;
+
+    @Test
+    public void replayRestoresRecordedChanges() {
+        final ValueKeeper keeper = keeper(NO_COMPACTION);
+        keeper.addValue(1, "one");
+        keeper.addValue(2, "two");
+        keeper.updateValue(1, value -> value.append(" updated"));
+        keeper.clear(Integer.valueOf(2));
+        keeper.addValue(3, "three");
+
+        final ValueKeeper restored = keeper(NO_COMPACTION);
+        assertTrue(restored.journal.canReplay());
+        assertEquals(5, restored.journal.replay());
+        assertEquals(Map.of(1, "one updated", 3, "three"), restored.values());
+    }
+
+    @Test
+    public void replayAppliesClearInOrder() {
+        final ValueKeeper keeper = keeper(NO_COMPACTION);
+        keeper.addValue(1, "one");
+        keeper.clear();
+        keeper.addValue(2, "two");
+
+        final ValueKeeper restored = keeper(NO_COMPACTION);
+        restored.journal.replay();
+        assertEquals(Map.of(2, "two"), restored.values());
+    }
+
+    @Test
+    public void replayContinuesAppendingToTheSameJournal() {
+        final ValueKeeper keeper = keeper(NO_COMPACTION);
+        keeper.addValue(1, "one");
+
+        final ValueKeeper second = keeper(NO_COMPACTION);
+        assertEquals(1, second.journal.replay());
+        second.addValue(2, "two");
+
+        final ValueKeeper third = keeper(NO_COMPACTION);
+        assertEquals(2, third.journal.replay());
+        assertEquals(Map.of(1, "one", 2, "two"), third.values());
+    }
+
+    @Test
+    public void replaySkipsPartiallyWrittenRecords() throws IOException {
+        final ValueKeeper keeper = keeper(NO_COMPACTION);
+        keeper.addValue(1, "one");
+        keeper.addValue(2, "two");
+        // A crash in the middle of a write leaves an incomplete last line
+        Files.write(journalPath(), "{\"keeper\":\"".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        final ValueKeeper restored = keeper(NO_COMPACTION);
+        assertEquals(2, restored.journal.replay());
+        assertEquals(Map.of(1, "one", 2, "two"), restored.values());
+    }
+
+    @Test
+    public void compactionMovesTheSessionToTheSnapshot() throws IOException {
+        final ValueKeeper keeper = keeper(NO_COMPACTION);
+        keeper.addValue(1, "one");
+        keeper.addValue(2, "two");
+        keeper.journal.compact();
+
+        assertTrue(Files.exists(snapshotPath()));
+        assertEquals(0, Files.size(journalPath()));
+
+        keeper.addValue(3, "three");
+        final ValueKeeper restored = keeper(NO_COMPACTION);
+        assertEquals(1, restored.journal.replay());
+        assertEquals(Map.of(1, "one", 2, "two", 3, "three"), restored.values());
+    }
+
+    @Test
+    public void compactsAfterEnoughRecords() throws InterruptedException {
+        final ValueKeeper keeper = keeper(3);
+        for (int i = 0; i < 5; i++) {
+            keeper.addValue(i, "value " + i);
+        }
+        final long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!Files.exists(snapshotPath()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(Files.exists(snapshotPath()));
+        // Waits for the compaction to release the journal
+        keeper.journal.sync();
+
+        final ValueKeeper restored = keeper(3);
+        restored.journal.replay();
+        assertEquals(keeper.values(), restored.values());
+        assertEquals(5, restored.values().size());
+    }
+
+    @Test
+    public void newRunMovesThePreviousJournalAway() {
+        final ValueKeeper keeper = keeper(NO_COMPACTION);
+        keeper.addValue(1, "one");
+
+        final ValueKeeper next = keeper(NO_COMPACTION);
+        next.addValue(2, "two");
+        assertTrue(Files.exists(journalPath().resolveSibling(journalPath().getFileName() + ".old")));
+
+        final ValueKeeper restored = keeper(NO_COMPACTION);
+        assertEquals(1, restored.journal.replay());
+        assertEquals(Map.of(2, "two"), restored.values());
+    }
+
+    @Test
+    public void disabledJournalRecordsNothing() {
+        final ValueKeeper keeper = keeper(false, NO_COMPACTION);
+        keeper.addValue(1, "one");
+        keeper.journal.compact();
+
+        assertFalse(keeper.journal.canReplay());
+        assertFalse(Files.exists(journalPath()));
+        assertFalse(Files.exists(snapshotPath()));
+    }
+
+    /**
+     * Creates a keeper with its own journal, like a new run of Arctic would. All of them use the same files.
+     */
+    private ValueKeeper keeper(final boolean enabled, final int compactRecords) {
+        // The journal only asks for the keepers once it needs them, by then the keeper has been added
+        final Set<ArcticSessionKeeper<?, ?>> keepers = new HashSet<>();
+        final SessionJournal journal = new SessionJournal(enabled, folder.resolve("session").toString(), 0,
+                compactRecords, () -> keepers, Collections.emptySet());
+        final ValueKeeper keeper = new ValueKeeper(journal);
+        keepers.add(keeper);
+        return keeper;
+    }
+
+    private ValueKeeper keeper(final int compactRecords) {
+        return keeper(true, compactRecords);
+    }
+
+    private Path journalPath() {
+        return folder.resolve("session" + SessionJournal.JOURNAL_SUFFIX);
+    }
+
+    private Path snapshotPath() {
+        return folder.resolve("session" + SessionJournal.SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * A minimal keeper that records its changes in the journal the same way the player keepers do.
+     */
+    private static final class ValueKeeper implements ArcticSessionKeeper<Integer, StringBuilder> {
+        private static final Type TUPLE_TYPE = new TypeToken<ArcticResultTuple<Integer, StringBuilder>>() { }
+                .getType();
+
+        private final SessionJournal journal;
+        private final Map<Integer, ArcticResultTuple<Integer, StringBuilder>> results = new LinkedHashMap<>();
+
+        ValueKeeper(final SessionJournal journal) {
+            this.journal = journal;
+        }
+
+        synchronized Map<Integer, String> values() {
+            final Map<Integer, String> values = new LinkedHashMap<>();
+            results.forEach((k, v) -> values.put(k, v.getValue().toString()));
+            return values;
+        }
+
+        @Override
+        public String getName() {
+            return "values";
+        }
+
+        @Override
+        public synchronized boolean hasData() {
+            return !results.isEmpty();
+        }
+
+        @Override
+        public synchronized Collection<ArcticResultTuple<Integer, StringBuilder>> getResults() {
+            return new ArrayList<>(results.values());
+        }
+
+        @Override
+        public synchronized ArcticResultTuple<Integer, StringBuilder> getResult(final Integer id) {
+            return results.get(id);
+        }
+
+        @Override
+        public synchronized void clear() {
+            results.clear();
+            journal.clear(this);
+        }
+
+        @Override
+        public void clear(final String testName) {
+            // Values are not related to tests
+        }
+
+        @Override
+        public void clear(final TestId testId) {
+            // Values are not related to tests
+        }
+
+        @Override
+        public synchronized void clear(final Integer id) {
+            if (results.remove(id) != null) {
+                journal.remove(this, id);
+            }
+        }
+
+        public synchronized void addValue(final Integer id, final String value) {
+            addValue(id, new StringBuilder(value));
+        }
+
+        @Override
+        public synchronized void addValue(final Integer id, final StringBuilder value) {
+            final ArcticResultTuple<Integer, StringBuilder> tuple = new ArcticResultTuple<>(id, value);
+            results.put(id, tuple);
+            journal.put(this, tuple);
+        }
+
+        @Override
+        public synchronized void updateValue(final Integer id, final Consumer<StringBuilder> value) {
+            final ArcticResultTuple<Integer, StringBuilder> tuple = results.get(id);
+            if (tuple != null) {
+                tuple.updateValue(value);
+                journal.put(this, tuple);
+            }
+        }
+
+        @Override
+        public synchronized SessionObject getSession() {
+            return new Values(new LinkedHashMap<>(results));
+        }
+
+        @Override
+        public synchronized <S extends ArcticSessionKeeper.SessionObject> void restoreSession(final S sessionObject) {
+            if (sessionObject instanceof Values) {
+                results.clear();
+                results.putAll(((Values) sessionObject).results);
+            }
+        }
+
+        @Override
+        public Class<? extends ArcticSessionKeeper.SessionObject> getSessionObjectClass() {
+            return Values.class;
+        }
+
+        @Override
+        public Type getTupleType() {
+            return TUPLE_TYPE;
+        }
+
+        @Override
+        public synchronized void restoreResult(final ArcticResultTuple<Integer, StringBuilder> tuple) {
+            results.put(tuple.getId(), tuple);
+        }
+    }
+
+    private static final class Values implements ArcticSessionKeeper.SessionObject {
+        private final Map<Integer, ArcticResultTuple<Integer, StringBuilder>> results;
+
+        Values(final Map<Integer, ArcticResultTuple<Integer, StringBuilder>> results) {
+            this.results = results;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.amazon.corretto.arctic.common.model.event.ArcticEvent;
+import com.amazon.corretto.arctic.common.model.event.MouseEvent;
+import com.amazon.corretto.arctic.common.model.event.ScreenshotCheck;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PathSimplifierTest {
+    private final PathSimplifier rdp = new PathSimplifier(PathSimplifier.RDP, 1.0, 0);
+
+    @Test
+    public void rdpDropsMovesOnAStraightLine() {
+        final List<MouseEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(move(i, i * 10, i * 5));
+        }
+        assertEquals(List.of(0L, 9L), times(rdp.simplify(events)));
+    }
+
+    @Test
+    public void rdpKeepsCorners() {
+        final List<MouseEvent> events = new ArrayList<>();
+        for (int i = 0; i <= 5; i++) {
+            events.add(move(i, i * 10, 0));
+        }
+        for (int i = 1; i <= 5; i++) {
+            events.add(move(5 + i, 50, i * 10));
+        }
+        assertEquals(List.of(0L, 5L, 10L), times(rdp.simplify(events)));
+    }
+
+    @Test
+    public void rdpKeepsMovesFartherThanEpsilon() {
+        final List<MouseEvent> events = List.of(move(0, 0, 0), move(1, 10, 1), move(2, 20, 0));
+        final List<MouseEvent> wiggle = List.of(move(0, 0, 0), move(1, 10, 1), move(2, 20, 0), move(3, 30, 0));
+
+        assertEquals(List.of(0L, 2L), times(new PathSimplifier(PathSimplifier.RDP, 2.0, 0).simplify(events)));
+        assertEquals(List.of(0L, 1L, 3L), times(new PathSimplifier(PathSimplifier.RDP, 0.75, 0).simplify(wiggle)));
+    }
+
+    @Test
+    public void rdpKeepsMovesGoingBackOverThePath() {
+        // The middle move is on the line between the others, but beyond the end of the segment
+        final List<MouseEvent> events = List.of(move(0, 0, 0), move(1, 50, 0), move(2, 20, 0));
+        assertEquals(List.of(0L, 1L, 2L), times(rdp.simplify(events)));
+    }
+
+    @Test
+    public void otherMouseEventsEndTheRun() {
+        final List<MouseEvent> events = List.of(move(0, 0, 0), move(1, 10, 0), move(2, 20, 0),
+                mouse(ArcticEvent.SubType.PRESS, 3, 20, 0, 0),
+                drag(4, 30, 0), drag(5, 40, 0), drag(6, 50, 0),
+                mouse(ArcticEvent.SubType.RELEASE, 7, 50, 0, 0));
+
+        assertEquals(List.of(0L, 2L, 3L, 4L, 6L, 7L), times(rdp.simplify(events)));
+    }
+
+    @Test
+    public void changesOfTypeOrModifiersEndTheRun() {
+        final List<MouseEvent> events = List.of(move(0, 0, 0), move(1, 10, 0), move(2, 20, 0),
+                drag(3, 30, 0), drag(4, 40, 0), drag(5, 50, 0),
+                mouse(ArcticEvent.SubType.DRAG, 6, 60, 0, 1), mouse(ArcticEvent.SubType.DRAG, 7, 70, 0, 1),
+                mouse(ArcticEvent.SubType.DRAG, 8, 80, 0, 1));
+
+        assertEquals(List.of(0L, 2L, 3L, 5L, 6L, 8L), times(rdp.simplify(events)));
+    }
+
+    @Test
+    public void boundariesEndTheRun() {
+        final List<MouseEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(move(i, i * 10, 0));
+        }
+        // A boundary at the same time as a move is replayed before it, so the move starts a new run
+        final ScreenshotCheck check = new ScreenshotCheck();
+        check.setTimestamp(TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertEquals(List.of(0L, 4L, 5L, 9L), times(rdp.simplify(events, List.of(check))));
+    }
+
+    @Test
+    public void bucketKeepsTheLastMoveOfEachBucket() {
+        final List<MouseEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(move(i, i, i));
+        }
+        final PathSimplifier bucket = new PathSimplifier(PathSimplifier.BUCKET, 0, 3);
+
+        assertEquals(List.of(0L, 2L, 5L, 8L, 9L), times(bucket.simplify(events)));
+    }
+
+    @Test
+    public void shortRunsAreKept() {
+        final List<MouseEvent> events = List.of(move(0, 0, 0), move(1, 10, 0),
+                mouse(ArcticEvent.SubType.CLICK, 2, 10, 0, 0), move(3, 20, 0));
+        assertEquals(List.of(0L, 1L, 2L, 3L), times(rdp.simplify(events)));
+    }
+
+    @Test
+    public void inputIsNotModified() {
+        final List<MouseEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(move(i, i * 10, 0));
+        }
+        final List<MouseEvent> copy = new ArrayList<>(events);
+
+        rdp.simplify(events);
+        assertEquals(copy, events);
+    }
+
+    @Test
+    public void unknownModeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PathSimplifier("spline", 1.0, 10));
+    }
+
+    private static MouseEvent move(final long millis, final int x, final int y) {
+        return mouse(ArcticEvent.SubType.MOVE, millis, x, y, 0);
+    }
+
+    private static MouseEvent drag(final long millis, final int x, final int y) {
+        return mouse(ArcticEvent.SubType.DRAG, millis, x, y, 0);
+    }
+
+    private static MouseEvent mouse(final ArcticEvent.SubType subType, final long millis, final int x, final int y,
+                                    final int modifiers) {
+        final MouseEvent ev = new MouseEvent();
+        ev.setSubType(subType);
+        ev.setTimestamp(TimeUnit.MILLISECONDS.toNanos(millis));
+        ev.setX(x);
+        ev.setY(y);
+        ev.setModifiers(modifiers);
+        return ev;
+    }
+
+    private static List<Long> times(final List<MouseEvent> events) {
+        return events.stream()
+                .map(it -> TimeUnit.NANOSECONDS.toMillis(it.getTimestamp()))
+                .collect(Collectors.toList());
+    }
+}
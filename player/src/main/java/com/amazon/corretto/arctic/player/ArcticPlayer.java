@@ -15,10 +15,12 @@
  */
 package com.amazon.corretto.arctic.player;
 
+import com.amazon.corretto.arctic.common.backend.ArcticArtifactWriter;
 import com.amazon.corretto.arctic.common.control.TestController;
 import com.amazon.corretto.arctic.common.model.TestId;
 import com.amazon.corretto.arctic.common.repository.TestLoadRepository;
 import com.amazon.corretto.arctic.player.backend.MultiBackendPlayer;
+import com.amazon.corretto.arctic.player.control.impl.TestPrefetcher;
 import com.amazon.corretto.arctic.player.inject.InjectionKeys;
 import com.amazon.corretto.arctic.player.model.ArcticRunningTest;
 import com.amazon.corretto.arctic.player.model.TestStatusCode;
@@ -41,6 +43,8 @@ public final class ArcticPlayer implements TestController.Listener {
     private final MultiBackendPlayer backendPlayer;
     private final PreProcessingManager preProcessingManager;
     private final PostProcessingManager postProcessingManager;
+    private final ArcticArtifactWriter artifactWriter;
+    private final TestPrefetcher prefetcher;
     private final boolean confirmationMode;
     private ArcticRunningTest runningTest;
     private ArcticRunningTest previousTest;
@@ -53,18 +57,24 @@ public final class ArcticPlayer implements TestController.Listener {
      * @param postProcessingManager To execute the postprocessing pipeline after replaying a test
      * @param confirmationMode If true, the player will wait for a signal indicating the test has finished successfully
      *                         before marking it as a success.
+     * @param artifactWriter Writes the artifacts of failed checks, which need to be on disk when the test finishes.
+     * @param prefetcher Provides the tests that were loaded in advance.
      */
     @Inject
     public ArcticPlayer(final TestLoadRepository testRepository,
                         final MultiBackendPlayer backendPlayer,
                         final PreProcessingManager preProcessingManager,
                         final PostProcessingManager postProcessingManager,
-                        @Named(InjectionKeys.CONFIRMATION_MODE) final boolean confirmationMode, TestController testController) {
+                        @Named(InjectionKeys.CONFIRMATION_MODE) final boolean confirmationMode, TestController testController,
+                        final ArcticArtifactWriter artifactWriter,
+                        final TestPrefetcher prefetcher) {
         this.testLoadRepository = testRepository;
         this.backendPlayer = backendPlayer;
         this.preProcessingManager = preProcessingManager;
         this.postProcessingManager = postProcessingManager;
         this.confirmationMode = confirmationMode;
+        this.artifactWriter = artifactWriter;
+        this.prefetcher = prefetcher;
     }
 
    /**
@@ -78,7 +88,8 @@ public final class ArcticPlayer implements TestController.Listener {
         synchronized (this) {
             previousTest = runningTest;
             TestId id = new TestId(testClass, testCase);
-            runningTest = testLoadRepository.getTestCase(id)
+            runningTest = prefetcher.take(id)
+                    .or(() -> testLoadRepository.getTestCase(id))
                     .map(ArcticRunningTest::of)
                     .orElseGet(() -> ArcticRunningTest.noRecording(id));
             if (!runningTest.getStatus().getStatusCode().equals(TestStatusCode.NO_RECORDING)) {
@@ -130,6 +141,9 @@ public final class ArcticPlayer implements TestController.Listener {
             } else {
                 log.trace("Not applying test group {} to {}", testGroup, test.getTestId());
             }
+            // Artifacts of the finished test are written in the background. Wait for them, so they are available once
+            // the test is reported as finished.
+            artifactWriter.flush();
             if (confirmationMode) {
                 // We intentionally transition twice. We don't know if we are coming before or after the backend
                 // finishes, so the test can be in RUNNING or UNCONFIRMED at this moment.
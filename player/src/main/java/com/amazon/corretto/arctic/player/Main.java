@@ -24,6 +24,7 @@ import com.amazon.corretto.arctic.common.command.interpreter.impl.ArcticRmiInter
 import com.amazon.corretto.arctic.common.command.interpreter.impl.ConsoleCommandInterpreter;
 import com.amazon.corretto.arctic.common.control.TestController;
 import com.amazon.corretto.arctic.common.inject.CommonInjectionKeys;
+import com.amazon.corretto.arctic.player.control.impl.TestPrefetcher;
 import com.amazon.corretto.arctic.player.inject.ArcticPlayerModule;
 import com.amazon.corretto.arctic.api.exception.ArcticException;
 import com.google.inject.Guice;
@@ -50,6 +51,8 @@ public class Main extends BaseMain {
                 final Injector injector = Guice.createInjector(new ArcticPlayerModule(config));
                 ArcticPlayer player = injector.getInstance(ArcticPlayer.class);
                 TestController testController = injector.getInstance(TestController.class);
+                // The prefetcher goes first, as the player blocks while replaying the test
+                testController.register(injector.getInstance(TestPrefetcher.class));
                 testController.register(player);
                 final boolean enabledRmi = injector.getInstance(Key.get(Boolean.class, named(CommonInjectionKeys.CMD_RMI_ENABLED)));
                 if (enabledRmi) {
@@ -15,18 +15,29 @@
  */
 package com.amazon.corretto.arctic.player.backend.impl;
 
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
 import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.backend.ArcticHashCalculator;
 import com.amazon.corretto.arctic.common.backend.ArcticScreenRecorder;
 import com.amazon.corretto.arctic.common.gui.ShadeManager;
 import com.amazon.corretto.arctic.common.gui.WorkbenchManager;
 import com.amazon.corretto.arctic.common.model.TestId;
 import com.amazon.corretto.arctic.common.model.event.ArcticEvent;
 import com.amazon.corretto.arctic.common.model.event.ScreenshotCheck;
+import com.amazon.corretto.arctic.common.util.ImageSignature;
 import com.amazon.corretto.arctic.player.backend.ArcticBackendPlayer;
 import com.amazon.corretto.arctic.player.backend.ImageComparator;
 import com.amazon.corretto.arctic.player.control.TimeController;
+import com.amazon.corretto.arctic.player.inject.InjectionKeys;
 import com.amazon.corretto.arctic.player.model.ArcticRunningTest;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +45,14 @@ import org.slf4j.LoggerFactory;
  * A backend player that validates ScreenChecks. Given a recorded screenChecks, this player will attempt to replicate
  * the screen state, take a screenshot and compare the recorded and current screenshots to see if the contents on the
  * screen are equivalent.
+ *
+ * By default, the screen is captured once the screen delay of the test has passed. With adaptive capture, the screen
+ * is captured every few milliseconds from the start, and the wait ends as soon as the capture has the same hash as the
+ * recorded image, or the screen has not changed for a while. The screen delay is still the maximum time to wait.
+ *
+ * When capturing only the unshaded part of the screen, the area covered by the shades is not read from the screen, as
+ * the shades are placed there by Arctic itself. Captures discarded by the adaptive capture are handed back to the
+ * recorder, so their buffers can be reused for the next ones.
  */
 public final class ArcticImageCheckPlayer implements ArcticBackendPlayer {
     private static final Logger log = LoggerFactory.getLogger(ArcticImageCheckPlayer.class);
@@ -45,6 +64,10 @@ public final class ArcticImageCheckPlayer implements ArcticBackendPlayer {
     private final WorkbenchManager wbManager;
     private final ShadeManager shadeManager;
     private final TimeController timeController;
+    private final ArcticHashCalculator hashCalculator;
+    private final long pollMs;
+    private final long stableNs;
+    private final boolean unshaded;
     private TestId runningTestId;
     private String runningTestScope;
 
@@ -56,16 +79,28 @@ public final class ArcticImageCheckPlayer implements ArcticBackendPlayer {
      * @param shadeManager To handle the different shades and restore them to the original positions.
      * @param timeController Needed to control how much time we wait after the different screenshots to allow the system
      *                       time enough to redraw the screen.
+     * @param hashCalculator Used to check the captures against the recorded hash during the adaptive capture.
+     * @param pollMs Milliseconds between captures during the adaptive capture. 0 to capture only once, after the
+     *               screen delay.
+     * @param stableMs Milliseconds the screen needs to stay the same for the adaptive capture to stop early.
+     * @param unshaded True to capture only the part of the screen not covered by the shades.
      */
     @Inject
     public ArcticImageCheckPlayer(final ImageComparator imgComparator, final ArcticScreenRecorder recorder,
                                   final WorkbenchManager wbManager, final ShadeManager shadeManager,
-                                  final TimeController timeController) {
+                                  final TimeController timeController, final ArcticHashCalculator hashCalculator,
+                                  @Named(InjectionKeys.BACKEND_SC_ADAPTIVE_POLL_MS) final long pollMs,
+                                  @Named(InjectionKeys.BACKEND_SC_ADAPTIVE_STABLE_MS) final long stableMs,
+                                  @Named(InjectionKeys.BACKEND_SC_CAPTURE_UNSHADED) final boolean unshaded) {
         this.imgComparator = imgComparator;
         this.recorder = recorder;
         this.wbManager = wbManager;
         this.shadeManager = shadeManager;
         this.timeController = timeController;
+        this.hashCalculator = hashCalculator;
+        this.pollMs = pollMs;
+        this.stableNs = TimeUnit.MILLISECONDS.toNanos(stableMs);
+        this.unshaded = unshaded;
     }
 
     @Override
@@ -79,12 +114,23 @@ public final class ArcticImageCheckPlayer implements ArcticBackendPlayer {
         final ScreenshotCheck saved = (ScreenshotCheck) ev;
         wbManager.position(saved.getWorkbench());
         shadeManager.position(saved.getShades());
-        timeController.waitForScreen();
-        final ScreenshotCheck current = recorder.capture(saved.getSa());
+        final ScreenshotCheck current;
+        if (pollMs > 0) {
+            final ScreenProbe probe = new ScreenProbe(saved);
+            timeController.waitForScreen(pollMs, probe);
+            current = probe.capture;
+        } else {
+            timeController.waitForScreen();
+            current = capture(saved);
+        }
 
         return imgComparator.compare(current, saved, runningTestId, runningTestScope);
     }
 
+    private ScreenshotCheck capture(final ScreenshotCheck saved) {
+        return unshaded ? recorder.captureUnshaded(saved.getSa(), saved.getShades()) : recorder.capture(saved.getSa());
+    }
+
     private void validate(final ArcticEvent ev) {
         if (!(ev instanceof ScreenshotCheck)) {
             log.error("Received event with wrong class. Type was {}:{} while class was: {}", ev.getType(),
@@ -99,4 +145,78 @@ public final class ArcticImageCheckPlayer implements ArcticBackendPlayer {
         this.runningTestId = test.getTestId();
         this.runningTestScope = test.getRecording().getScope();
     }
+
+    /**
+     * Captures the screen each time it is called, and reports it as ready once the capture matches the hash of the
+     * recorded image or has not changed for the stable time. The last capture is the one compared with the recording.
+     *
+     * Hashing the whole capture can take longer than the poll interval for big screens, so each capture is probed
+     * with its {@link ImageSignature}, which only samples a fixed number of pixels. The full hash is only calculated
+     * when the signature changes and matches one of the recorded images, or for every change if the recording has no
+     * signatures. As the signature is sampled, a change that doesn't touch any sampled pixel doesn't reset the stable
+     * time. That only ends the wait early, the capture is still compared in full with the recording.
+     */
+    private final class ScreenProbe implements BooleanSupplier {
+        private final ScreenshotCheck saved;
+        private final Set<String> signatures = new HashSet<>();
+        private ScreenshotCheck capture;
+        private String lastSignature;
+        private long changed;
+        private int captures;
+
+        private ScreenProbe(final ScreenshotCheck saved) {
+            this.saved = saved;
+            if (saved.getSignature() != null) {
+                signatures.add(saved.getSignature());
+            }
+            if (saved.getAlternativeSignatures() != null) {
+                signatures.addAll(saved.getAlternativeSignatures().values());
+            }
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            if (capture != null) {
+                // Only the last capture is compared, the previous one can be reused
+                recorder.recycle(capture);
+            }
+            capture = capture(saved);
+            captures++;
+            final long now = System.nanoTime();
+            final String signature = ImageSignature.of(capture.getImage());
+            if (!Objects.equals(signature, lastSignature)) {
+                lastSignature = signature;
+                changed = now;
+                if (matchesHash(signature)) {
+                    log.debug("Screen matches the recording after {} captures", captures);
+                    return true;
+                }
+                return false;
+            }
+            if (now - changed >= stableNs) {
+                log.debug("Screen stopped changing after {} captures", captures);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean matchesHash(final String signature) {
+            if (saved.getHashValue() == null || saved.getHashMode() == null) {
+                return false;
+            }
+            if (!signatures.isEmpty() && !signatures.contains(signature)) {
+                // Same pixels always give the same signature, so this can't be any of the recorded images
+                return false;
+            }
+            final String hash;
+            try {
+                hash = hashCalculator.calculateHash(capture.getImage(), saved.getHashMode());
+            } catch (final NoSuchAlgorithmException e) {
+                log.warn("Unable to hash the screen with {}, waiting for it to stop changing", saved.getHashMode(), e);
+                return false;
+            }
+            return hash.equals(saved.getHashValue())
+                    || (saved.getAlternativeHashes() != null && saved.getAlternativeHashes().contains(hash));
+        }
+    }
 }
@@ -0,0 +1,274 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.amazon.corretto.arctic.player.backend.pixel;
+
+/**
+ * A compact representation of the pixels that failed a check. Each row of the image is stored as a bitset backed by
+ * longs, so a full screen of failures only needs one bit per pixel instead of one boxed Integer per failure.
+ *
+ * Rows are stored one after another in a single array. Two threads can safely mark failures at the same time as long as
+ * they work on different rows. Marking failures on the same row from different threads is not safe.
+ *
+ * Each row keeps its own count of failures, updated as failures are marked, so counting all the failures only needs to
+ * add up the rows. The total is cached until the next failure is marked, as the checks ask for it several times.
+ */
+public final class FailureMap {
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_BITS = 1 << WORD_SHIFT;
+    private static final long ALL_BITS = -1L;
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] words;
+    private final int[] rowCounts;
+    private int count = -1;
+
+    /**
+     * Creates an empty failure map.
+     * @param width Width of the image the map represents.
+     * @param height Height of the image the map represents.
+     */
+    public FailureMap(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + WORD_BITS - 1) >>> WORD_SHIFT;
+        this.words = new long[wordsPerRow * height];
+        this.rowCounts = new int[height];
+    }
+
+    /**
+     * Width of the image the map represents.
+     * @return Width in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Height of the image the map represents.
+     * @return Height in pixels.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Marks a pixel as failed.
+     * @param x x coordinate of the failure.
+     * @param y y coordinate of the failure.
+     * @return True if the pixel was not marked before.
+     */
+    public boolean add(final int x, final int y) {
+        final int index = y * wordsPerRow + (x >>> WORD_SHIFT);
+        final long bit = 1L << x;
+        final long previous = words[index];
+        if ((previous & bit) != 0) {
+            return false;
+        }
+        words[index] = previous | bit;
+        rowCounts[y]++;
+        count = -1;
+        return true;
+    }
+
+    /**
+     * Checks if a pixel has been marked as failed. Coordinates outside the image are never failed.
+     * @param x x coordinate of the pixel.
+     * @param y y coordinate of the pixel.
+     * @return True if the pixel is marked as failed.
+     */
+    public boolean contains(final int x, final int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return false;
+        }
+        return (words[y * wordsPerRow + (x >>> WORD_SHIFT)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Reads a pixel of the map as a number, without bounds checks. This is meant for tight loops that accumulate
+     * failures, where a branch per pixel would be too expensive.
+     * @param x x coordinate of the pixel, must be inside the image.
+     * @param y y coordinate of the pixel, must be inside the image.
+     * @return 1 if the pixel is marked as failed, 0 otherwise.
+     */
+    int bit(final int x, final int y) {
+        return (int) (words[y * wordsPerRow + (x >>> WORD_SHIFT)] >>> x) & 1;
+    }
+
+    /**
+     * Counts all the failed pixels in the map. This must not be called while other threads are still marking failures.
+     * @return Number of failed pixels.
+     */
+    public int count() {
+        if (count < 0) {
+            int total = 0;
+            for (final int rowCount : rowCounts) {
+                total += rowCount;
+            }
+            count = total;
+        }
+        return count;
+    }
+
+    /**
+     * Whether no pixel has been marked as failed.
+     * @return True if the map holds no failures.
+     */
+    public boolean isEmpty() {
+        return count() == 0;
+    }
+
+    /**
+     * Returns the x coordinate of the next failure in a row, starting at a specific position (inclusive). This allows
+     * iterating over the failures without allocating, in the same way as {@link java.util.BitSet#nextSetBit(int)}.
+     * @param y Row to look into.
+     * @param fromX First x coordinate to check.
+     * @return The x coordinate of the next failure, or -1 if there are no more failures in that row.
+     */
+    public int nextFailure(final int y, final int fromX) {
+        if (fromX >= width || y < 0 || y >= height) {
+            return -1;
+        }
+        final int from = Math.max(0, fromX);
+        final int rowStart = y * wordsPerRow;
+        int wordIndex = from >>> WORD_SHIFT;
+        long word = words[rowStart + wordIndex] & (ALL_BITS << from);
+        while (true) {
+            if (word != 0) {
+                return (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == wordsPerRow) {
+                return -1;
+            }
+            word = words[rowStart + wordIndex];
+        }
+    }
+
+    /**
+     * Counts the failures of a row between two x coordinates, both inclusive. The range is clipped to the image.
+     * @param y Row to look into.
+     * @param fromX First x coordinate of the range.
+     * @param toX Last x coordinate of the range.
+     * @return Number of failures in that range.
+     */
+    public int countRow(final int y, final int fromX, final int toX) {
+        if (y < 0 || y >= height) {
+            return 0;
+        }
+        final int from = Math.max(0, fromX);
+        final int to = Math.min(width - 1, toX);
+        if (from > to) {
+            return 0;
+        }
+        final int rowStart = y * wordsPerRow;
+        final int firstWord = from >>> WORD_SHIFT;
+        final int lastWord = to >>> WORD_SHIFT;
+        final long firstMask = ALL_BITS << from;
+        final long lastMask = ALL_BITS >>> (WORD_BITS - 1 - (to & (WORD_BITS - 1)));
+        if (firstWord == lastWord) {
+            return Long.bitCount(words[rowStart + firstWord] & firstMask & lastMask);
+        }
+        int count = Long.bitCount(words[rowStart + firstWord] & firstMask);
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            count += Long.bitCount(words[rowStart + i]);
+        }
+        return count + Long.bitCount(words[rowStart + lastWord] & lastMask);
+    }
+
+    /**
+     * Counts the failures in a square window centered on a pixel, including the pixel itself. A radius of 1 represents
+     * a 3x3 window and a radius of 2 a 5x5 window. The parts of the window outside the image are ignored.
+     * @param x x coordinate of the center of the window.
+     * @param y y coordinate of the center of the window.
+     * @param radius How many pixels the window extends in each direction.
+     * @return Number of failures in the window.
+     */
+    public int countAround(final int x, final int y, final int radius) {
+        int count = 0;
+        for (int j = y - radius; j <= y + radius; j++) {
+            count += countRow(j, x - radius, x + radius);
+        }
+        return count;
+    }
+
+    /**
+     * Calls the consumer for every failure in the map, in row order.
+     * @param consumer Consumer that will receive the coordinates of each failure.
+     */
+    public void forEach(final PixelConsumer consumer) {
+        forEachInRows(0, height, consumer);
+    }
+
+    /**
+     * Calls the consumer for every failure in a band of rows, in row order. This can be used to split the work between
+     * different threads.
+     * @param fromY First row of the band (inclusive).
+     * @param toY Last row of the band (exclusive).
+     * @param consumer Consumer that will receive the coordinates of each failure.
+     */
+    public void forEachInRows(final int fromY, final int toY, final PixelConsumer consumer) {
+        for (int y = Math.max(0, fromY); y < Math.min(height, toY); y++) {
+            final int rowStart = y * wordsPerRow;
+            for (int i = 0; i < wordsPerRow; i++) {
+                long word = words[rowStart + i];
+                while (word != 0) {
+                    consumer.accept((i << WORD_SHIFT) + Long.numberOfTrailingZeros(word), y);
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies all the rows of another map into this one, starting at a specific row. This is used to merge the results
+     * of workers that compared different bands of the same image. Existing failures in those rows are replaced.
+     * @param y Row of this map where the first row of the band will be placed.
+     * @param band Map with the failures of the band. Must have the same width as this map.
+     */
+    public void putRows(final int y, final FailureMap band) {
+        if (band.width != width) {
+            throw new IllegalArgumentException(String.format("Band width %d does not match map width %d", band.width,
+                    width));
+        }
+        System.arraycopy(band.words, 0, words, y * wordsPerRow, band.words.length);
+        System.arraycopy(band.rowCounts, 0, rowCounts, y, band.rowCounts.length);
+        count = -1;
+    }
+
+    /**
+     * Whether a row has any failure.
+     * @param y Row to check.
+     * @return True if at least one pixel of the row is marked as failed.
+     */
+    public boolean hasFailures(final int y) {
+        return y >= 0 && y < height && rowCounts[y] > 0;
+    }
+
+    /**
+     * Receives the coordinates of a failure.
+     */
+    @FunctionalInterface
+    public interface PixelConsumer {
+        /**
+         * Process one failed pixel.
+         * @param x x coordinate of the failure.
+         * @param y y coordinate of the failure.
+         */
+        void accept(int x, int y);
+    }
+}
@@ -18,11 +18,9 @@ package com.amazon.corretto.arctic.player.backend.pixel;
 
 import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -81,6 +79,17 @@ public interface PixelCheck {
      */
     List<Type> getDependencyChecks();
 
+    /**
+     * Maximum number of failed pixels this check can accept for a specific result. Only checks that are not sufficient
+     * should limit this, as failing them fails the whole comparison. Earlier checks can then stop counting failures once
+     * the budget is exceeded, as the verdict can no longer change.
+     * @param result Result of the pixel to pixel comparison, before any check has run.
+     * @return Number of failures that can be accepted. {@link Integer#MAX_VALUE} if the check does not limit them.
+     */
+    default int getFailureBudget(final PixelCheckResult result) {
+        return Integer.MAX_VALUE;
+    }
+
     /**
      * Default implementation that wraps the {@link PixelCheck#doCheck(PixelCheckResult, Path)} method. This
      * implementation validates dependencies between different checks, and compounds the results.
@@ -90,7 +99,7 @@ public interface PixelCheck {
      */
     default boolean check(final PixelCheckResult result, final Path alternative) {
         log.trace("Check {}", getType());
-        if (PixelCheckResult.Status.UNKNOWN.equals(result.getStatus())) {
+        if (PixelCheckResult.Status.UNKNOWN.equals(result.getStatus(alternative))) {
             boolean checkResult = false;
             final Optional<Type> failedDependency = getDependencyChecks().stream()
                     .filter(it -> !result.hasRun(alternative, it))
@@ -103,21 +112,21 @@ public interface PixelCheck {
             log.trace("{} result: {}", getType(), checkResult);
             if (checkResult == isSufficient()) {
                 log.trace("{} setting result {}", getType(), checkResult);
-                result.setStatus(checkResult);
-                log.trace("{} set result to {}", getType(), result.getStatus());
+                result.setStatus(alternative, checkResult);
+                log.trace("{} set result to {}", getType(), result.getStatus(alternative));
             }
             log.trace("{} recording result {}", getType(), checkResult);
             result.recordCheck(alternative, getType(), checkResult);
         } else {
-            log.trace("{} skipped as status is {}", getType(), result.getStatus());
+            log.trace("{} skipped as status is {}", getType(), result.getStatus(alternative));
             log.trace("{} result set to false", getType());
             result.recordCheck(alternative, getType(), false);
-            log.trace("{} set result to {}", getType(), result.getStatus());
+            log.trace("{} set result to {}", getType(), result.getStatus(alternative));
         }
-        log.trace("After {}, Status is {}", getType(), result.getStatus());
-        log.trace("After {}, Passed: {}", getType(), PixelCheckResult.Status.PASSED.equals(result.getStatus()));
+        log.trace("After {}, Status is {}", getType(), result.getStatus(alternative));
+        log.trace("After {}, Passed: {}", getType(), PixelCheckResult.Status.PASSED.equals(result.getStatus(alternative)));
 
-        return PixelCheckResult.Status.PASSED.equals(result.getStatus());
+        return PixelCheckResult.Status.PASSED.equals(result.getStatus(alternative));
     }
 
     /**
@@ -318,44 +327,39 @@ public interface PixelCheck {
     }
 
     /**
-     * A class that holds the Confidence check results. This includes a list of all the different pixels that were
+     * A class that holds the Confidence check results. This includes a map of all the different pixels that were
      * different, and this is used by future checks
      */
     final class PixelCheckSummary {
-        private final Set<Integer>[] failedPixels;
+        private final FailureMap failedPixels;
         private final int totalPixels;
-        private int totalFailedPixels = 0;
+        private boolean partial = false;
 
          /**
          * Creates a new PixelCheckSummary.
          * @param width Width of the image for the summary
          * @param height Height of the image for the summary
          */
-        @SuppressWarnings("unchecked")
         public PixelCheckSummary(final int width, final int height) {
             totalPixels = width * height;
-            failedPixels = new Set[width];
+            failedPixels = new FailureMap(width, height);
         }
 
         /**
          * All the points that were different between both images.
-         * @return A Set[], with the array index representing x and they different y values in the set.
+         * @return A FailureMap with one bit per pixel of the image.
          */
-        public Set<Integer>[] getFailedPixels() {
+        public FailureMap getFailedPixels() {
             return failedPixels;
         }
 
         /**
-         * Adds a failure to this summary.
+         * Adds a failure to this summary. Failures on different rows can be added concurrently.
          * @param x x coordinate of the failure
          * @param y y coordinate of the failure
          */
         public void addFailure(final int x, final int y) {
-            if (failedPixels[x] == null) {
-                failedPixels[x] = new HashSet<>();
-            }
-            failedPixels[x].add(y);
-            totalFailedPixels++;
+            failedPixels.add(x, y);
         }
 
         /**
@@ -371,7 +375,7 @@ public interface PixelCheck {
          * @return A number with the total number of pixels failed.
          */
         public int getTotalFailedPixels() {
-            return totalFailedPixels;
+            return failedPixels.count();
         }
 
         /**
@@ -379,7 +383,33 @@ public interface PixelCheck {
          * @return the ratio of valid pixels.
          */
         public float getConfidence() {
-            return 1 - ((float) totalFailedPixels / totalPixels);
+            return getConfidence(getTotalFailedPixels(), totalPixels);
+        }
+
+        /**
+         * Whether the comparison stopped before looking at the whole image. A partial summary holds enough failures to
+         * know the image can't pass, but not all of them.
+         * @return True if not all the failures have been recorded.
+         */
+        public boolean isPartial() {
+            return partial;
+        }
+
+        /**
+         * Marks the summary as partial, see {@link #isPartial()}.
+         */
+        public void markPartial() {
+            this.partial = true;
+        }
+
+        /**
+         * Calculates the confidence for a number of failures, which is the ratio of valid pixels.
+         * @param failedPixels Number of pixels that failed.
+         * @param totalPixels Number of pixels of the image.
+         * @return the ratio of valid pixels.
+         */
+        public static float getConfidence(final int failedPixels, final int totalPixels) {
+            return 1 - ((float) failedPixels / totalPixels);
         }
     }
 }
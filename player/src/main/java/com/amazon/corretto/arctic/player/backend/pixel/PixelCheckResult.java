@@ -18,19 +18,22 @@ package com.amazon.corretto.arctic.player.backend.pixel;
 
 import java.awt.image.BufferedImage;
 import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.amazon.corretto.arctic.common.model.TestId;
 import com.amazon.corretto.arctic.common.model.event.ScreenshotCheck;
 import com.amazon.corretto.arctic.common.model.gui.ArcticFrame;
 import com.amazon.corretto.arctic.common.model.gui.ScreenArea;
+import com.amazon.corretto.arctic.common.util.ImageSignature;
+import com.amazon.corretto.arctic.common.util.PixelRaster;
 
 /**
  * This class contains all the information related to pixel by pixel comparison of images during the reproduction of the
@@ -39,13 +42,17 @@ import com.amazon.corretto.arctic.common.model.gui.ScreenArea;
  * mark the result as passed, while one comparator that checks the dimensions will mark them as failed. Others may need
  * to work in tandem. A fuzzy comparator will not be enough alone to consider the images equals, but it will be enough
  * if other checks like the confidence also pass.
+ *
+ * Each alternative is compared independently and keeps its own status and summaries, so different alternatives can be
+ * checked concurrently. The comparison as a whole passes if any of the alternatives passes.
  */
 public final class PixelCheckResult {
-    private final transient Map<Path, BufferedImage> savedImages = new LinkedHashMap<>();
+    private final transient Map<Path, BufferedImage> savedImages = new ConcurrentHashMap<>();
     private final List<Path> savedImagePaths = new ArrayList<>();
     private final Path mainSavedImagePath;
     private final Set<String> savedHashes = new HashSet<>();
     private final String mainSavedHash;
+    private final Map<Path, String> savedSignatures = new HashMap<>();
 
     private final float requiredConfidence;
     private final String hashMode;
@@ -53,14 +60,18 @@ public final class PixelCheckResult {
     private final String scope;
 
     private final List<ScreenArea> shades;
+    private final boolean partialCapture;
 
     private final transient BufferedImage currentImage;
-    private String currentHash = null;
-    private PixelCheck.PixelCheckSummary strictSummary;
-    private PixelCheck.PixelCheckSummary fuzzySummary;
-    private final Map<Path, Map<PixelCheck.Type, Boolean>> performedChecks = new HashMap<>();
+    private volatile String currentHash = null;
+    private String currentSignature = null;
+    private final Map<Path, PixelCheck.PixelCheckSummary> strictSummaries = new ConcurrentHashMap<>();
+    private final Map<Path, PixelCheck.PixelCheckSummary> fuzzySummaries = new ConcurrentHashMap<>();
+    private final Map<Path, Map<PixelCheck.Type, Boolean>> performedChecks = new ConcurrentHashMap<>();
+
+    private int failureBudget = Integer.MAX_VALUE;
 
-    private Status status = Status.UNKNOWN;
+    private final Map<Path, Status> statuses = new ConcurrentHashMap<>();
 
     /**
      * Creates a new pixel check result. This is done before we know the final results, as this object will be passed as
@@ -74,12 +85,22 @@ public final class PixelCheckResult {
                             final String scope) {
         mainSavedImagePath = saved.getFilename();
         mainSavedHash = saved.getHashValue();
-        currentImage = current.getImage();
+        currentImage = PixelRaster.normalize(current.getImage());
+        partialCapture = current.isPartial();
         requiredConfidence = saved.getConfidenceLevel();
         savedImagePaths.add(saved.getFilename());
         savedImagePaths.addAll(saved.getAlternativeImages());
         savedHashes.add(saved.getHashValue());
         savedHashes.addAll(saved.getAlternativeHashes());
+        if (saved.getSignature() != null) {
+            savedSignatures.put(saved.getFilename(), saved.getSignature());
+        }
+        saved.getAlternativeImages().forEach(it -> {
+            final String signature = saved.getAlternativeSignatures().get(ImageSignature.key(it));
+            if (signature != null) {
+                savedSignatures.put(it, signature);
+            }
+        });
         hashMode = saved.getHashMode();
         ScreenArea wb = saved.getSa();
         shades = saved.getShades().stream()
@@ -90,6 +111,15 @@ public final class PixelCheckResult {
         this.scope = scope;
     }
 
+    /**
+     * Whether the current image was captured only for the part of the screen not covered by shades. The pixels under
+     * the shades were not read from the screen, so they can't be checked.
+     * @return True for a partial capture.
+     */
+    public boolean isPartialCapture() {
+        return partialCapture;
+    }
+
     /**
      * Gets the location of all the shades during the screen capture. This is useful, as we may want to skip those areas
      * from the pixel by pixel comparison, both for reliability and performance.
@@ -100,45 +130,65 @@ public final class PixelCheckResult {
     }
 
     /**
-     * Get the summary of the strict check. The result contains the total number of pixels, the total number of failed
-     * pixels and all the failed pixels.
-     * @return The summary of the strict check.
+     * Get the summary of the strict check for an alternative. The result contains the total number of pixels, the total
+     * number of failed pixels and all the failed pixels.
+     * @param alternative Alternative for which we want the summary.
+     * @return The summary of the strict check. Null if the check has not run for that alternative.
      */
-    public PixelCheck.PixelCheckSummary getStrictSummary() {
-        return strictSummary;
+    public PixelCheck.PixelCheckSummary getStrictSummary(final Path alternative) {
+        return strictSummaries.get(alternative);
     }
 
     /**
-     * Get the summary of the fuzzy check. The result contains the total number of pixels, the total number of failed
-     * pixels and all the failed pixels.
-     * @return The summary of the fuzzy check.
+     * Get the summary of the fuzzy check for an alternative. The result contains the total number of pixels, the total
+     * number of failed pixels and all the failed pixels.
+     * @param alternative Alternative for which we want the summary.
+     * @return The summary of the fuzzy check. Null if the check has not run for that alternative.
      */
-    public PixelCheck.PixelCheckSummary getFuzzySummary() {
-        return fuzzySummary;
+    public PixelCheck.PixelCheckSummary getFuzzySummary(final Path alternative) {
+        return fuzzySummaries.get(alternative);
     }
 
     /**
-     * Sets the summary of the strict check. This method should only be called by
+     * Sets the summary of the strict check for an alternative. This method should only be called by
      * {@link com.amazon.corretto.arctic.player.backend.pixel.check.StrictPixelCheck}, but it will be read by other
      * checks, specially the failures that were detected. Further checks may analyze those failures to see if they are
      * relevant or not, for example, the fuzzy check will consider a failed pixel to be ok if the different is only
      * within a small threshold.
+     * @param alternative Alternative the summary belongs to.
      * @param strictSummary The result of the strict check.
      */
-    public void setStrictSummary(final PixelCheck.PixelCheckSummary strictSummary) {
-        this.strictSummary = strictSummary;
+    public void setStrictSummary(final Path alternative, final PixelCheck.PixelCheckSummary strictSummary) {
+        strictSummaries.put(alternative, strictSummary);
     }
 
     /**
-     * Sets the summary of the fuzzy check. This method should only be called by
+     * Sets the summary of the fuzzy check for an alternative. This method should only be called by
      * {@link com.amazon.corretto.arctic.player.backend.pixel.check.FuzzyPixelCheck}, but it will be read by other
      * checks, specially the failures that were detected. Further checks may analyze those failures to see if they are
-     * relevant or not, for example, the fuzzy check will consider a failed pixel to be ok if the different is only
-     * within a small threshold.
-     * @param fuzzySummary The result of the strict check.
+     * relevant or not.
+     * @param alternative Alternative the summary belongs to.
+     * @param fuzzySummary The result of the fuzzy check.
      */
-    public void setFuzzySummary(final PixelCheck.PixelCheckSummary fuzzySummary) {
-        this.fuzzySummary = fuzzySummary;
+    public void setFuzzySummary(final Path alternative, final PixelCheck.PixelCheckSummary fuzzySummary) {
+        fuzzySummaries.put(alternative, fuzzySummary);
+    }
+
+    /**
+     * Maximum number of failed pixels that can be found before the comparison is known to fail. Checks that count
+     * failures can stop once this number is exceeded, as the remaining failures will not change the verdict.
+     * @return Number of failures that can be accepted. {@link Integer#MAX_VALUE} if there is no limit.
+     */
+    public int getFailureBudget() {
+        return failureBudget;
+    }
+
+    /**
+     * Sets the maximum number of failed pixels, see {@link #getFailureBudget()}.
+     * @param failureBudget Number of failures that can be accepted.
+     */
+    void setFailureBudget(final int failureBudget) {
+        this.failureBudget = failureBudget;
     }
 
     /**
@@ -175,27 +225,38 @@ public final class PixelCheckResult {
     }
 
     /**
-     * The current status of the pixel check. There are three possible values:
+     * The current status of the pixel check for one alternative. There are three possible values:
      * {@link Status#PASSED} The check has passed
      * {@link Status#FAILED} The check has failed
      * {@link Status#UNKNOWN} We haven't determined yet if the check passes.
-     * @return Status of the pixel check.
+     * @param alternative Alternative for which we want the status.
+     * @return Status of the pixel check for that alternative.
      */
-    public PixelCheckResult.Status getStatus() {
-        return status;
+    public PixelCheckResult.Status getStatus(final Path alternative) {
+        return statuses.getOrDefault(alternative, Status.UNKNOWN);
     }
 
     /**
-     * Sets the status of the check. Setting the status to true if the check is already in Failed will do nothing.
-     * @param result True if we want to attempt to mark the test as passed.
+     * Whether any of the alternatives has passed, which means the comparison as a whole has passed.
+     * @return True if at least one alternative passed.
      */
-    void setStatus(final boolean result) {
-        if (!result) {
-            status = PixelCheckResult.Status.FAILED;
-        }
-        if (result && PixelCheckResult.Status.UNKNOWN.equals(status)) {
-            status = PixelCheckResult.Status.PASSED;
-        }
+    public boolean isPassed() {
+        return statuses.containsValue(Status.PASSED);
+    }
+
+    /**
+     * Sets the status of the check for one alternative. Setting the status to true if the alternative is already in
+     * Failed will do nothing.
+     * @param alternative Alternative for which we are setting the status.
+     * @param result True if we want to attempt to mark the alternative as passed.
+     */
+    void setStatus(final Path alternative, final boolean result) {
+        statuses.compute(alternative, (k, status) -> {
+            if (!result) {
+                return Status.FAILED;
+            }
+            return status == null || Status.UNKNOWN.equals(status) ? Status.PASSED : status;
+        });
     }
 
     /**
@@ -215,7 +276,7 @@ public final class PixelCheckResult {
      * @return A map with all the checks that have run and their result.
      */
     public Map<PixelCheck.Type, Boolean> getRanChecks(final Path alternative) {
-        return performedChecks.computeIfAbsent(alternative, k -> new HashMap<>());
+        return performedChecks.computeIfAbsent(alternative, k -> new ConcurrentHashMap<>());
     }
 
     /**
@@ -225,7 +286,7 @@ public final class PixelCheckResult {
      * @param value Whether the specific pixel check type passed.
      */
     void recordCheck(final Path alternative, final PixelCheck.Type type, final boolean value) {
-        performedChecks.computeIfAbsent(alternative, k -> new HashMap<>()).put(type, value);
+        performedChecks.computeIfAbsent(alternative, k -> new ConcurrentHashMap<>()).put(type, value);
     }
 
     /**
@@ -289,6 +350,43 @@ public final class PixelCheckResult {
         this.currentHash = hash;
     }
 
+    /**
+     * Gets the hash of the image that has been captured during playback, calculating it only if it was not done
+     * before. Safe to call from the workers of different alternatives at the same time.
+     * @param calculator Calculates the hash if needed.
+     * @return String representing the hash of the image.
+     * @throws NoSuchAlgorithmException If the hash could not be calculated.
+     */
+    public synchronized String computeCurrentHashIfAbsent(final HashSupplier calculator)
+            throws NoSuchAlgorithmException {
+        if (currentHash == null) {
+            currentHash = calculator.get();
+        }
+        return currentHash;
+    }
+
+    /**
+     * Gets the signature of the image that has been captured during playback, calculating it only if it was not done
+     * before.
+     * @return The signature of the current image. Null if there is no current image.
+     */
+    public synchronized String getCurrentSignature() {
+        if (currentSignature == null) {
+            currentSignature = ImageSignature.of(currentImage);
+        }
+        return currentSignature;
+    }
+
+    /**
+     * The signature that was recorded for an alternative, which can be compared with {@link #getCurrentSignature()}
+     * without loading the image.
+     * @param alternative Alternative for which we want the signature.
+     * @return The recorded signature. Null if the alternative was recorded without one.
+     */
+    public String getSavedSignature(final Path alternative) {
+        return savedSignatures.get(alternative);
+    }
+
     /**
      * Whether a specific hash matches the hash of any of the alternatives.
      * @param hash String representing the hash of the image.
@@ -307,7 +405,20 @@ public final class PixelCheckResult {
     }
 
     /**
-     * Represents the status of the PixelCheck as a whole.
+     * Calculates the hash of the current image.
+     */
+    @FunctionalInterface
+    public interface HashSupplier {
+        /**
+         * Calculates the hash.
+         * @return String representing the hash of the image.
+         * @throws NoSuchAlgorithmException If the hash algorithm is not available.
+         */
+        String get() throws NoSuchAlgorithmException;
+    }
+
+    /**
+     * Represents the status of the PixelCheck for an alternative.
      */
     enum Status {
         /**
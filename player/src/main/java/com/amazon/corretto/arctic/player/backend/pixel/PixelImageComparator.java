@@ -22,11 +22,20 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.backend.ArcticArtifactWriter;
 import com.amazon.corretto.arctic.common.model.TestId;
 import com.amazon.corretto.arctic.common.model.event.ScreenshotCheck;
-import com.amazon.corretto.arctic.common.repository.TestSaveRepository;
+import com.amazon.corretto.arctic.common.util.ImageSignature;
 import com.amazon.corretto.arctic.player.backend.ImageComparator;
 import com.amazon.corretto.arctic.player.inject.InjectionKeys;
 import com.amazon.corretto.arctic.player.model.ArcticDiffImages;
@@ -40,40 +49,67 @@ import org.slf4j.LoggerFactory;
 import static java.util.function.Predicate.not;
 
 /**
- * A pixel level comparator. It can perform multiple checks to determine whether the two images are acceptable or not
+ * A pixel level comparator. It can perform multiple checks to determine whether the two images are acceptable or not.
+ *
+ * When a screenshot check has alternative images, they are compared concurrently on a bounded pool of threads. The
+ * comparison passes as soon as any of them passes, in which case the remaining ones stop at their next check when
+ * running in verdict-only mode. The result is only returned once all of them have stopped, so it doesn't change after
+ * the comparison is over. Alternatives only stop between checks, a check that is already running doesn't look at
+ * cancellation or interruption, so one slow check, like the cluster check on a big image, still has to finish before
+ * the comparison returns.
+ *
+ * Before any of the recorded images is loaded, the hash of the current image is checked against the hashes of all of
+ * them. If it matches any, the comparison passes without decoding a single image. Otherwise, alternatives are compared
+ * starting with the ones whose recorded {@link ImageSignature} is closer to the current image.
  */
 public final class PixelImageComparator implements ImageComparator {
     private static final Logger log = LoggerFactory.getLogger(PixelImageComparator.class);
     public static final String NAME = "pixel";
 
-    private final TestSaveRepository saveRepository;
+    private final ArcticArtifactWriter artifactWriter;
     private final boolean saveDiffs;
+    private final boolean verdictOnly;
     private final boolean clearFolder;
     private final ArcticScFailureKeeper pixelCheckFailureKeeper;
     private final Path outFolder;
     private final List<PixelCheck> checks;
+    private final ExecutorService alternativesExecutor;
+    private final PixelCheck hashCheck;
+    private final int prefilterCandidates;
 
     /**
      * Creates a new instance with injected dependencies.
      * @param checks The different PixelChecks that will be executed during the comparison
      * @param saveDiffs Whether we want to generate images containing the differences between saved and current images
      *                  for future review
-     * @param saveRepository Used to save the diff images into files
+     * @param artifactWriter Used to save the current image of failed checks in the background
      * @param outFolderName Where to store the diff images
      * @param clearFolder Clear the folder that contains diff images during start up
      * @param pixelCheckFailureKeeper Used to stored the different failures encountered during execution for future
      *                                review
+     * @param verdictOnly Stop the comparison as soon as the result is known, instead of recording every failure. Diff
+     *                    images are not affected, as they are always generated from scratch
+     * @param alternativeThreads Maximum number of alternatives to compare at the same time. 1 to compare them
+     *                           sequentially in the calling thread
+     * @param prefilterCandidates Maximum number of alternatives with a signature to compare, starting with the most
+     *                            similar ones. 0 to compare all of them
      */
     @Inject
     public PixelImageComparator(@Named(InjectionKeys.BACKEND_SC_PIXEL_CHECKS) final Set<PixelCheck> checks,
                                 @Named(InjectionKeys.BACKEND_SC_PIXEL_SAVE) final boolean saveDiffs,
-                                final TestSaveRepository saveRepository,
+                                final ArcticArtifactWriter artifactWriter,
                                 @Named(InjectionKeys.BACKEND_SC_PIXEL_SAVE_FOLDER) final String outFolderName,
                                 @Named(InjectionKeys.BACKEND_SC_PIXEL_SAVE_CLEAR) final boolean clearFolder,
-                                final ArcticScFailureKeeper pixelCheckFailureKeeper) {
+                                final ArcticScFailureKeeper pixelCheckFailureKeeper,
+                                @Named(InjectionKeys.BACKEND_SC_PIXEL_VERDICT_ONLY) final boolean verdictOnly,
+                                @Named(InjectionKeys.BACKEND_SC_PIXEL_ALTERNATIVES_THREADS)
+                                final int alternativeThreads,
+                                @Named(InjectionKeys.BACKEND_SC_PIXEL_PREFILTER_CANDIDATES)
+                                final int prefilterCandidates) {
 
-        this.saveRepository = saveRepository;
+        this.artifactWriter = artifactWriter;
         this.saveDiffs = saveDiffs;
+        this.verdictOnly = verdictOnly;
         this.clearFolder = clearFolder;
         this.pixelCheckFailureKeeper = pixelCheckFailureKeeper;
         this.outFolder = Path.of(outFolderName);
@@ -81,6 +117,24 @@ public final class PixelImageComparator implements ImageComparator {
         this.checks = checks.stream()
                 .sorted(Comparator.comparing(PixelCheck::getPriority))
                 .collect(Collectors.toList());
+        this.alternativesExecutor = alternativeThreads > 1 ? createExecutor(alternativeThreads) : null;
+        this.hashCheck = this.checks.stream()
+                .filter(it -> PixelCheck.Type.HASH.equals(it.getType()))
+                .findFirst()
+                .orElse(null);
+        this.prefilterCandidates = prefilterCandidates;
+    }
+
+    private static ExecutorService createExecutor(final int threads) {
+        final AtomicInteger count = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            final Thread thread = new Thread(r, "arctic-pixel-alternative-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The threads are daemons, but stop them with the player so no comparison is left running while it exits
+        Runtime.getRuntime().addShutdownHook(new Thread(executor::shutdownNow));
+        return executor;
     }
 
     private void clearDiffResults() {
@@ -104,18 +158,106 @@ public final class PixelImageComparator implements ImageComparator {
                            final String scope) {
         // Check the principal ScreenshotCheck image
         final PixelCheckResult result = new PixelCheckResult(current, saved, testId, scope);
+        if (verdictOnly) {
+            result.setFailureBudget(checks.stream()
+                    .mapToInt(it -> it.getFailureBudget(result))
+                    .min()
+                    .orElse(Integer.MAX_VALUE));
+        }
+        final boolean success;
+        if (matchesKnownHash(result)) {
+            log.debug("Current image for {} matches a known hash, skipping the pixel comparison", testId);
+            success = true;
+        } else {
+            final List<Path> candidates = rankAlternatives(result);
+            success = alternativesExecutor != null && candidates.size() > 1
+                    ? compareConcurrently(result, candidates)
+                    : compareSequentially(result, candidates);
+        }
+        saved.setImage(result.getCurrentImage());
+        saved.setHashValue(result.getCurrentHash());
+
+        if (!success) {
+            fail(result);
+        }
+        return success;
+    }
+
+    /**
+     * Runs the hash check once, before any image is loaded. The hash check passes if the current hash matches any of
+     * the alternatives, so there is no need to run it for each of them.
+     */
+    private boolean matchesKnownHash(final PixelCheckResult result) {
+        if (hashCheck == null) {
+            return false;
+        }
+        hashCheck.check(result, result.getMainSavedImagePath());
+        return result.isPassed();
+    }
+
+    /**
+     * Orders the alternatives by how close their recorded signature is to the signature of the current image, so the
+     * most promising ones are loaded first. Alternatives recorded without a signature keep their original order after
+     * the ones that have one, and are never left out by the candidate limit.
+     */
+    private List<Path> rankAlternatives(final PixelCheckResult result) {
+        final List<Path> paths = result.getSavedImagePaths();
+        final Map<Boolean, List<Path>> bySignature = paths.stream()
+                .collect(Collectors.partitioningBy(it -> result.getSavedSignature(it) != null));
+        if (bySignature.get(true).isEmpty() || paths.size() < 2) {
+            return paths;
+        }
+        final String currentSignature = result.getCurrentSignature();
+        final List<Path> ranked = bySignature.get(true).stream()
+                .sorted(Comparator.comparingInt(it -> ImageSignature.distance(currentSignature,
+                        result.getSavedSignature(it))))
+                .limit(prefilterCandidates > 0 ? prefilterCandidates : Long.MAX_VALUE)
+                .collect(Collectors.toList());
+        ranked.addAll(bySignature.get(false));
+        log.trace("Alternatives ranked by signature: {}", ranked);
+        return ranked;
+    }
+
+    private boolean compareSequentially(final PixelCheckResult result, final List<Path> alternatives) {
         boolean success = false;
-        for (final Path alternative : result.getSavedImagePaths()) {
+        for (final Path alternative : alternatives) {
             final PixelCheckResult.Status status = doCompare(result, alternative);
             if (PixelCheckResult.Status.PASSED.equals(status)) {
                 success = true;
+                if (verdictOnly) {
+                    break;
+                }
             }
         }
-        saved.setImage(result.getCurrentImage());
-        saved.setHashValue(result.getCurrentHash());
+        return success;
+    }
 
-        if (!success) {
-            fail(result);
+    private boolean compareConcurrently(final PixelCheckResult result, final List<Path> alternatives) {
+        final CompletionService<Boolean> completionService = new ExecutorCompletionService<>(alternativesExecutor);
+        final List<Future<Boolean>> futures = alternatives.stream()
+                .map(alternative -> completionService.submit(() ->
+                        PixelCheckResult.Status.PASSED.equals(doCompare(result, alternative))))
+                .collect(Collectors.toList());
+        boolean success = false;
+        try {
+            // Wait for all of them, even after one passed. The rest stop at their next check, see doCompare, but they
+            // still write into the result until then
+            for (int i = 0; i < futures.size(); i++) {
+                if (completionService.take().get()) {
+                    success = true;
+                }
+            }
+        } catch (final InterruptedException e) {
+            futures.forEach(it -> it.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ArcticException("Interrupted while comparing alternatives", e);
+        } catch (final ExecutionException e) {
+            // The result is discarded when we throw, so there is no need to wait for the rest
+            futures.forEach(it -> it.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ArcticException("Unable to compare alternatives", e.getCause());
         }
         return success;
     }
@@ -135,21 +277,45 @@ public final class PixelImageComparator implements ImageComparator {
             log.debug("Failed {} due to: {}", alternative, failReason);
         }
         if (saveDiffs) {
-            final Path absolutePath = outFolder.resolve(result.getMainSavedImagePath() + "."
+            final Path absolutePath = outFolder.resolve(getFailureName(result) + "."
                     + PixelCheck.Type.CURRENT.getName());
-            final Path currentImagePath = saveRepository.saveImageAbsolutePath(absolutePath,
-                    result.getCurrentImage()).getValue();
+            // Encoding and writing happens in the background, so the replay of the next events is not delayed
+            final Path folder = absolutePath.getParent();
+            final Path currentImagePath = folder.resolve(artifactWriter.saveImage(result.getCurrentImage(), folder,
+                    absolutePath.getFileName()));
             final PixelCheckFailure failure = new PixelCheckFailure(result, outFolder, currentImagePath);
             pixelCheckFailureKeeper.addValue(failure.getFailureId(), failure);
         }
     }
 
+    /**
+     * Name used for the images of a failure, relative to the output folder. It matches the name of the recorded image,
+     * unless the image is in the image store, outside the scope folder, which would place the failure outside the
+     * output folder too.
+     */
+    private static Path getFailureName(final PixelCheckResult result) {
+        final Path saved = result.getMainSavedImagePath();
+        if (!saved.normalize().startsWith("..")) {
+            return saved;
+        }
+        return Path.of(result.getTestId().getTestClass(), result.getTestId().getTestCase(),
+                saved.getFileName().toString());
+    }
+
 
     private PixelCheckResult.Status doCompare(final PixelCheckResult result, final Path alternative) {
         for (final PixelCheck check : checks) {
-            check.check(result, alternative);
+            if (verdictOnly && (!PixelCheckResult.Status.UNKNOWN.equals(result.getStatus(alternative))
+                    || result.isPassed())) {
+                // Either this alternative is decided, or another one already passed. The rest can't change the result
+                break;
+            }
+            if (!result.hasRun(alternative, check.getType())) {
+                // The hash check may have already run before the alternatives were dispatched
+                check.check(result, alternative);
+            }
         }
-        return result.getStatus();
+        return result.getStatus(alternative);
     }
 
     /**
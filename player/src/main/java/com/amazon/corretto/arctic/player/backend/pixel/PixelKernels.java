@@ -0,0 +1,150 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.amazon.corretto.arctic.player.backend.pixel;
+
+import com.amazon.corretto.arctic.common.util.PixelRaster;
+
+/**
+ * Per pixel arithmetic shared by the pixel checks, working on ARGB ints as returned by {@link PixelRaster}.
+ *
+ * Every kernel is written without branches, using only shifts, masks, additions and {@link Math#min(int, int)}/
+ * {@link Math#max(int, int)}. This allows the JIT to vectorize the row versions, processing several pixels per
+ * instruction on CPUs that support it, while still running as plain scalar code everywhere else. Scalar and row
+ * versions always produce the same values.
+ */
+public final class PixelKernels {
+    /**
+     * Value of each RGB component in a diff image when both pixels are equal.
+     */
+    public static final int NEUTRAL_COMPONENT = 0x80;
+
+    /**
+     * Color of a diff pixel when both pixels are equal. Pixels with this color are fully transparent.
+     */
+    public static final int NEUTRAL_COLOR = 0x808080;
+
+    private static final int ALPHA_MASK = 0xFF000000;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int RED_SHIFT = 16;
+    private static final int GREEN_SHIFT = 8;
+    private static final int HALF_MASK = 0x7F7F7F;
+
+    private PixelKernels() { }
+
+    /**
+     * Calculates the pixel of a strict diff image. Each component is the neutral value plus half of the difference
+     * between both pixels. If both pixels are equal, the result is fully transparent.
+     * @param px1 Pixel of the current image.
+     * @param px2 Pixel of the recorded image.
+     * @return The ARGB value of the diff pixel.
+     */
+    public static int strictDiff(final int px1, final int px2) {
+        // All three components are processed at once. Each halved component is at most 0x7F, so adding the neutral
+        // value is a plain OR, and the subtraction never borrows between components as each result is in [1, 255].
+        final int rgb = ((px1 >>> 1 & HALF_MASK) | NEUTRAL_COLOR) - (px2 >>> 1 & HALF_MASK);
+        return withAlpha(rgb);
+    }
+
+    /**
+     * Row version of {@link #strictDiff(int, int)}.
+     * @param current Pixels of the current image.
+     * @param saved Pixels of the recorded image.
+     * @param out Array that receives the diff pixels.
+     * @param length How many pixels to process, starting at index 0.
+     */
+    public static void strictDiff(final int[] current, final int[] saved, final int[] out, final int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = strictDiff(current[i], saved[i]);
+        }
+    }
+
+    /**
+     * Calculates the pixel of a fuzzy diff image. For each component, the part of the difference that exceeds the
+     * tolerance is halved and added to the neutral value. If no component exceeds the tolerance, the result is fully
+     * transparent, so a non-zero alpha means the pixel failed the fuzzy check.
+     * @param px1 Pixel of the current image.
+     * @param px2 Pixel of the recorded image.
+     * @param tolerance How much each component can deviate. Must not be negative.
+     * @return The ARGB value of the diff pixel.
+     */
+    public static int fuzzyDiff(final int px1, final int px2, final int tolerance) {
+        final int r = fuzzyComponent((px1 >>> RED_SHIFT & BYTE_MASK) - (px2 >>> RED_SHIFT & BYTE_MASK), tolerance);
+        final int g = fuzzyComponent((px1 >>> GREEN_SHIFT & BYTE_MASK) - (px2 >>> GREEN_SHIFT & BYTE_MASK), tolerance);
+        final int b = fuzzyComponent((px1 & BYTE_MASK) - (px2 & BYTE_MASK), tolerance);
+        return withAlpha(r << RED_SHIFT | g << GREEN_SHIFT | b);
+    }
+
+    /**
+     * Row version of {@link #fuzzyDiff(int, int, int)}.
+     * @param current Pixels of the current image.
+     * @param saved Pixels of the recorded image.
+     * @param tolerance How much each component can deviate. Must not be negative.
+     * @param out Array that receives the diff pixels.
+     * @param length How many pixels to process, starting at index 0.
+     */
+    public static void fuzzyDiff(final int[] current, final int[] saved, final int tolerance, final int[] out,
+                                 final int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = fuzzyDiff(current[i], saved[i], tolerance);
+        }
+    }
+
+    /**
+     * Whether a pixel calculated by {@link #strictDiff(int, int)} or {@link #fuzzyDiff(int, int, int)} represents a
+     * failure.
+     * @param diffPixel Pixel of a diff image.
+     * @return True if the pixel is not transparent.
+     */
+    public static boolean isFailure(final int diffPixel) {
+        return (diffPixel & ALPHA_MASK) != 0;
+    }
+
+    /**
+     * Sum of the absolute differences of the three RGB components.
+     * @param px1 First pixel.
+     * @param px2 Second pixel.
+     * @return A value between 0 and 765.
+     */
+    public static int globalDiff(final int px1, final int px2) {
+        return Math.abs((px1 >>> RED_SHIFT & BYTE_MASK) - (px2 >>> RED_SHIFT & BYTE_MASK))
+                + Math.abs((px1 >>> GREEN_SHIFT & BYTE_MASK) - (px2 >>> GREEN_SHIFT & BYTE_MASK))
+                + Math.abs((px1 & BYTE_MASK) - (px2 & BYTE_MASK));
+    }
+
+    /**
+     * Largest absolute difference of any of the three RGB components.
+     * @param px1 First pixel.
+     * @param px2 Second pixel.
+     * @return A value between 0 and 255.
+     */
+    public static int componentDiff(final int px1, final int px2) {
+        return Math.max(Math.max(Math.abs((px1 >>> RED_SHIFT & BYTE_MASK) - (px2 >>> RED_SHIFT & BYTE_MASK)),
+                Math.abs((px1 >>> GREEN_SHIFT & BYTE_MASK) - (px2 >>> GREEN_SHIFT & BYTE_MASK))),
+                Math.abs((px1 & BYTE_MASK) - (px2 & BYTE_MASK)));
+    }
+
+    private static int fuzzyComponent(final int diff, final int tolerance) {
+        // Same as (|diff| <= tolerance ? 0 : diff - sign(diff) * tolerance), written as a clamp to avoid branches
+        return NEUTRAL_COMPONENT + ((diff - Math.min(Math.max(diff, -tolerance), tolerance)) >> 1);
+    }
+
+    private static int withAlpha(final int rgb) {
+        // (x | -x) has the sign bit set for any non-zero x, so this adds the alpha only if rgb is not neutral
+        final int delta = rgb ^ NEUTRAL_COLOR;
+        return rgb | ((delta | -delta) >> 31) & ALPHA_MASK;
+    }
+}
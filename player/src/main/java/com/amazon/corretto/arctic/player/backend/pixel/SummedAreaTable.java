@@ -0,0 +1,103 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.amazon.corretto.arctic.player.backend.pixel;
+
+/**
+ * A summed-area table (also known as integral image) over a {@link FailureMap}. Once built, the number of failures in
+ * any rectangle can be obtained with four array reads, regardless of the size of the rectangle.
+ *
+ * To keep memory usage low when failures are concentrated in a small part of the image, the table only covers the rows
+ * between the first and the last failure. Queries are clipped to those rows, which is correct as there are no failures
+ * outside them.
+ */
+public final class SummedAreaTable {
+    private final int width;
+    private final int fromY;
+    private final int rows;
+    private final int stride;
+    private final int[] sums;
+
+    private SummedAreaTable(final FailureMap failures, final int fromY, final int toY) {
+        this.width = failures.getWidth();
+        this.fromY = fromY;
+        this.rows = Math.max(0, toY - fromY);
+        this.stride = width + 1;
+        this.sums = new int[(rows + 1) * stride];
+        for (int r = 0; r < rows; r++) {
+            final int y = fromY + r;
+            final int previous = r * stride;
+            final int current = previous + stride;
+            int running = 0;
+            for (int x = 0; x < width; x++) {
+                running += failures.bit(x, y);
+                sums[current + x + 1] = sums[previous + x + 1] + running;
+            }
+        }
+    }
+
+    /**
+     * Builds the table for a failure map.
+     * @param failures Failures to count.
+     * @return A new table.
+     */
+    public static SummedAreaTable of(final FailureMap failures) {
+        int first = 0;
+        while (first < failures.getHeight() && !failures.hasFailures(first)) {
+            first++;
+        }
+        int last = failures.getHeight() - 1;
+        while (last > first && !failures.hasFailures(last)) {
+            last--;
+        }
+        if (first == failures.getHeight()) {
+            return new SummedAreaTable(failures, 0, 0);
+        }
+        return new SummedAreaTable(failures, first, last + 1);
+    }
+
+    /**
+     * Counts the failures in a rectangle. Both corners are inclusive, and the rectangle is clipped to the image.
+     * @param x0 Left column.
+     * @param y0 Top row.
+     * @param x1 Right column.
+     * @param y1 Bottom row.
+     * @return Number of failures inside the rectangle.
+     */
+    public int count(final int x0, final int y0, final int x1, final int y1) {
+        final int left = Math.max(0, x0);
+        final int right = Math.min(width - 1, x1) + 1;
+        final int top = Math.max(0, y0 - fromY);
+        final int bottom = Math.min(rows - 1, y1 - fromY) + 1;
+        if (left >= right || top >= bottom) {
+            return 0;
+        }
+        return sums[bottom * stride + right] - sums[top * stride + right]
+                - sums[bottom * stride + left] + sums[top * stride + left];
+    }
+
+    /**
+     * Counts the failures in a square window centered on a pixel, including the pixel itself. A radius of 1 represents
+     * a 3x3 window and a radius of 2 a 5x5 window.
+     * @param x x coordinate of the center of the window.
+     * @param y y coordinate of the center of the window.
+     * @param radius How many pixels the window extends in each direction.
+     * @return Number of failures in the window.
+     */
+    public int countAround(final int x, final int y, final int radius) {
+        return count(x - radius, y - radius, x + radius, y + radius);
+    }
+}
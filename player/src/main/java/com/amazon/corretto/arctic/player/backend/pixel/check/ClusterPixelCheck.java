@@ -20,12 +20,14 @@ import java.awt.image.BufferedImage;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.IntStream;
 
 import com.amazon.corretto.arctic.common.util.Pair;
+import com.amazon.corretto.arctic.common.util.PixelRaster;
+import com.amazon.corretto.arctic.player.backend.pixel.FailureMap;
 import com.amazon.corretto.arctic.player.backend.pixel.PixelCheck;
 import com.amazon.corretto.arctic.player.backend.pixel.PixelCheckResult;
+import com.amazon.corretto.arctic.player.backend.pixel.SummedAreaTable;
 import com.amazon.corretto.arctic.player.inject.InjectionKeys;
 import com.amazon.corretto.arctic.player.model.ArcticDiffImages;
 import jakarta.inject.Inject;
@@ -38,8 +40,11 @@ import org.slf4j.LoggerFactory;
  * different are considered ok. This is based on the fact that a human will not detect (or consider relevant) a single
  * pixel or two pixel if the surrounding pixels still match.
  *
- * This PixelCheck looks around each failure, scanning a 3x3 area and a 5x5 one. How many pixels need to be on each area
- * so it is consider a failure is configurable.
+ * This PixelCheck looks around each failure, scanning one or more square windows centered on it (by default a 3x3 area
+ * and a 5x5 one). Both the size of the windows and how many failures need to be on each of them so it is considered a
+ * cluster are configurable. When failures are dense, counting is done over a {@link SummedAreaTable}, so each window
+ * costs four reads regardless of its size. Sparse failures are counted directly on the {@link FailureMap}, which is
+ * cheaper than building the table.
  *
  * When generating a diff image, there is a bailout once enough clusters are detected, defined by a constructor
  * parameter.
@@ -48,31 +53,32 @@ public final class ClusterPixelCheck implements PixelCheck {
     public static final Type NAME = Type.CLUSTER;
     public static final int PRIORITY = 60;
 
+    /**
+     * Building the summed-area table pays off once roughly one in five pixels has failed. Below that, counting the
+     * windows directly on the failure bitmap is faster.
+     */
+    private static final int TABLE_MIN_DENSITY_DIVISOR = 5;
 
     private static final Logger log = LoggerFactory.getLogger(ClusterPixelCheck.class);
 
-    private final int maxCluster9;
-    private final int maxCluster25;
+    private final List<Window> windows;
     private final int maxDrawn;
     private final boolean fuzzySource;
     private final HintMaskHelper hintMaskHelper;
 
     /**
      * Creates a new instance. Usually called by the dependency injector.
-     * @param maxCluster9 How many failures can we accept in a 3x3 area around the failure we are checking.
-     * @param maxCluster25 How many failures can we accept in a 5x5 area around the failure we are checking.
+     * @param windows Windows to check around each failure, with how many failures we can accept in each of them.
      * @param maxDrawn How many clusters we draw in the diff image before giving up.
      * @param fuzzySource whether to use the fuzzy check as source instead of the strict one.
      * @param hintMaskHelper Helper class to generate the hints/masks
      */
     @Inject
-    public ClusterPixelCheck(@Named(InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_9) final int maxCluster9,
-                             @Named(InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_25) final int maxCluster25,
+    public ClusterPixelCheck(@Named(InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_WINDOWS) final List<Window> windows,
                              @Named(InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_MAX_DRAW) final int maxDrawn,
                              @Named(InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_SOURCE_FUZZY) final boolean fuzzySource,
                              final HintMaskHelper hintMaskHelper) {
-        this.maxCluster9 = maxCluster9;
-        this.maxCluster25 = maxCluster25;
+        this.windows = windows;
         this.maxDrawn = maxDrawn;
         this.fuzzySource = fuzzySource;
         this.hintMaskHelper = hintMaskHelper;
@@ -102,7 +108,9 @@ public final class ClusterPixelCheck implements PixelCheck {
     @Override
     public boolean doCheck(final PixelCheckResult result, final Path alternative) {
         log.trace("doCheck");
-        PixelCheckSummary summary = fuzzySource ? result.getFuzzySummary() : result.getStrictSummary();
+        PixelCheckSummary summary = fuzzySource
+                ? result.getFuzzySummary(alternative)
+                : result.getStrictSummary(alternative);
         return (summary.getTotalFailedPixels() == 0 || !hasClusters(summary.getFailedPixels()));
     }
 
@@ -129,13 +137,11 @@ public final class ClusterPixelCheck implements PixelCheck {
         diffImages.addProperty(alternative, NAME, "ratio", summary.getConfidence());
     }
 
-    boolean hasClusters(final Set<Integer>[] failedPixels) {
-        for (int i = 0; i < failedPixels.length; i++) {
-            if (failedPixels[i] != null) {
-                final int x = i;
-                final boolean foundCluster = failedPixels[i].stream()
-                        .anyMatch(it -> isCluster(x, it, failedPixels));
-                if (foundCluster) {
+    boolean hasClusters(final FailureMap failedPixels) {
+        final WindowCounter counter = getCounter(failedPixels);
+        for (int y = 0; y < failedPixels.getHeight(); y++) {
+            for (int x = failedPixels.nextFailure(y, 0); x >= 0; x = failedPixels.nextFailure(y, x + 1)) {
+                if (isCluster(x, y, counter)) {
                     return true;
                 }
             }
@@ -143,41 +149,130 @@ public final class ClusterPixelCheck implements PixelCheck {
         return false;
     }
 
-    PixelCheckSummary getClusters(final Set<Integer>[] failedPixels, final BufferedImage clusterImage,
+    PixelCheckSummary getClusters(final FailureMap failedPixels, final BufferedImage clusterImage,
                                final BufferedImage strictImage) {
         PixelCheckSummary summary = new PixelCheckSummary(clusterImage.getWidth(), clusterImage.getHeight());
-        @SuppressWarnings("unchecked")
-        Set<Integer>[] clusterFailures = new Set[failedPixels.length];
-        IntStream.range(0, failedPixels.length)
-                .filter(x -> failedPixels[x] != null && !failedPixels[x].isEmpty())
+        final WindowCounter counter = getCounter(failedPixels);
+        final PixelRaster clusterRaster = PixelRaster.of(clusterImage);
+        final PixelRaster strictRaster = PixelRaster.of(strictImage);
+        IntStream.range(0, failedPixels.getHeight())
+                .filter(failedPixels::hasFailures)
                 .parallel()
-                .forEach(x -> failedPixels[x].stream()
-                        .filter(y -> isCluster(x, y, failedPixels))
-                        .forEach(y -> {
+                .forEach(y -> {
+                    for (int x = failedPixels.nextFailure(y, 0); x >= 0; x = failedPixels.nextFailure(y, x + 1)) {
+                        if (isCluster(x, y, counter)) {
                             summary.addFailure(x, y);
-                            clusterImage.setRGB(x, y, strictImage.getRGB(x, y));
-                        })
-                );
+                            clusterRaster.setRgb(x, y, strictRaster.getRgb(x, y));
+                        }
+                    }
+                });
         return summary;
     }
 
-    boolean isCluster(final int x, final int y, final Set<Integer>[] failedPixels) {
-        return isCluster(x, y, failedPixels, 1, maxCluster9) || isCluster(x, y, failedPixels, 2, maxCluster25);
+    boolean isCluster(final int x, final int y, final WindowCounter counter) {
+        for (final Window window : windows) {
+            if (counter.countAround(x, y, window.getRadius()) > window.getMaxFailures()) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    boolean isCluster(final int x, final int y, final Set<Integer>[] failures, final int mode, final int maxCount) {
-        int count = 0;
-        for (int i = x - mode; i <= x + mode; i++) {
-            if (i >= 0 && i < failures.length && failures[i] != null && !failures[i].isEmpty()) {
-                for (int j = y - mode; j <= y + mode; j++) {
-                    if (failures[i].contains(j)) {
-                        if (++count > maxCount) {
-                            return true;
-                        }
-                    }
-                }
+    private WindowCounter getCounter(final FailureMap failedPixels) {
+        final long totalPixels = (long) failedPixels.getWidth() * failedPixels.getHeight();
+        if ((long) failedPixels.count() * TABLE_MIN_DENSITY_DIVISOR >= totalPixels) {
+            return SummedAreaTable.of(failedPixels)::countAround;
+        }
+        return failedPixels::countAround;
+    }
+
+    /**
+     * Counts the failures in a square window centered on a pixel.
+     */
+    @FunctionalInterface
+    interface WindowCounter {
+        /**
+         * Counts the failures around a pixel.
+         * @param x x coordinate of the center of the window.
+         * @param y y coordinate of the center of the window.
+         * @param radius How many pixels the window extends in each direction.
+         * @return Number of failures in the window.
+         */
+        int countAround(int x, int y, int radius);
+    }
+
+    /**
+     * A square window centered on a failure, with the maximum number of failures it can hold before being considered a
+     * cluster. Windows are configured as {@code size:maxFailures}, for example {@code 3:2} for a 3x3 window that can
+     * hold up to two failures.
+     */
+    public static final class Window {
+        private static final String SEPARATOR = ":";
+
+        private final int size;
+        private final int maxFailures;
+
+        /**
+         * Creates a new window.
+         * @param size Length of the side of the window. Needs to be an odd number so the window can be centered.
+         * @param maxFailures How many failures the window can hold without being considered a cluster.
+         */
+        public Window(final int size, final int maxFailures) {
+            if (size < 1 || size % 2 == 0) {
+                throw new IllegalArgumentException("Cluster window size must be a positive odd number: " + size);
             }
+            if (maxFailures < 0) {
+                throw new IllegalArgumentException("Cluster window max failures can't be negative: " + maxFailures);
+            }
+            this.size = size;
+            this.maxFailures = maxFailures;
+        }
+
+        /**
+         * Parses a window in the {@code size:maxFailures} format.
+         * @param value String representation of the window.
+         * @return The window represented by the String.
+         * @throws IllegalArgumentException If the String does not represent a valid window.
+         */
+        public static Window fromString(final String value) {
+            final String[] parts = value.trim().split(SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Cluster window must be size:maxFailures: " + value);
+            }
+            try {
+                return new Window(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            } catch (final NumberFormatException e) {
+                throw new IllegalArgumentException("Cluster window must be size:maxFailures: " + value, e);
+            }
+        }
+
+        /**
+         * Length of the side of the window.
+         * @return Size of the window in pixels.
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * How many pixels the window extends in each direction from the failure.
+         * @return Radius of the window in pixels.
+         */
+        public int getRadius() {
+            return size / 2;
+        }
+
+        /**
+         * How many failures the window can hold without being considered a cluster.
+         * @return Maximum number of failures.
+         */
+        public int getMaxFailures() {
+            return maxFailures;
+        }
+
+        @Override
+        public String toString() {
+            return size + SEPARATOR + maxFailures;
         }
-        return false;
     }
 }
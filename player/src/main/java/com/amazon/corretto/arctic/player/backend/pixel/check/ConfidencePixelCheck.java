@@ -73,7 +73,7 @@ public final class ConfidencePixelCheck implements PixelCheck {
 
     @Override
     public boolean doCheck(final PixelCheckResult result, final Path alternative) {
-        final PixelCheckSummary summary = result.getStrictSummary();
+        final PixelCheckSummary summary = result.getStrictSummary(alternative);
 
         log.trace("Total pixels: {}", summary.getTotalPixels());
         log.trace("Failed pixels: {}", summary.getTotalFailedPixels());
@@ -92,6 +92,24 @@ public final class ConfidencePixelCheck implements PixelCheck {
         return true;
     }
 
+    @Override
+    public int getFailureBudget(final PixelCheckResult result) {
+        if (result.getCurrentImage() == null) {
+            return Integer.MAX_VALUE;
+        }
+        final int totalPixels = result.getCurrentImage().getWidth() * result.getCurrentImage().getHeight();
+        final float threshold = Math.max(globalConfidence, result.getTestConfidence());
+        // Start from the estimate and adjust it, so the budget matches exactly the float comparison done in doCheck
+        int budget = Math.max(0, Math.min(totalPixels, (int) ((1 - threshold) * totalPixels)));
+        while (budget < totalPixels && PixelCheckSummary.getConfidence(budget + 1, totalPixels) >= threshold) {
+            budget++;
+        }
+        while (budget >= 0 && PixelCheckSummary.getConfidence(budget, totalPixels) < threshold) {
+            budget--;
+        }
+        return budget < 0 ? 0 : budget;
+    }
+
     @Override
     public void doDiff(final Path alternative, final ArcticDiffImages diffImages) {
         final PixelCheckSummary summary = diffImages.getStrictSummary(alternative);
@@ -20,11 +20,13 @@ import java.awt.image.BufferedImage;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import com.amazon.corretto.arctic.common.util.Pair;
+import com.amazon.corretto.arctic.common.util.PixelRaster;
+import com.amazon.corretto.arctic.player.backend.pixel.FailureMap;
 import com.amazon.corretto.arctic.player.backend.pixel.PixelCheck;
 import com.amazon.corretto.arctic.player.backend.pixel.PixelCheckResult;
+import com.amazon.corretto.arctic.player.backend.pixel.PixelKernels;
 import com.amazon.corretto.arctic.player.inject.InjectionKeys;
 import com.amazon.corretto.arctic.player.model.ArcticDiffImages;
 import jakarta.inject.Inject;
@@ -40,8 +42,6 @@ public final class FuzzyPixelCheck implements PixelCheck {
     public static final Type NAME = Type.FUZZY;
     public static final int PRIORITY = 50;
 
-    private static final int ALPHA_MASK = 0xFF000000;
-
     private final int tolerance;
     private final HintMaskHelper hintMaskHelper;
 
@@ -79,14 +79,15 @@ public final class FuzzyPixelCheck implements PixelCheck {
 
     @Override
     public boolean doCheck(final PixelCheckResult result, final Path alternative) {
-        if (result.getStrictSummary().getTotalFailedPixels() == 0) {
-            result.setFuzzySummary(result.getStrictSummary());
+        final PixelCheckSummary strictSummary = result.getStrictSummary(alternative);
+        if (strictSummary.getTotalFailedPixels() == 0) {
+            result.setFuzzySummary(alternative, strictSummary);
             return true;
         }
-        final PixelCheckSummary summary = fuzzyCheck(result.getStrictSummary().getFailedPixels(),
+        final PixelCheckSummary summary = fuzzyCheck(strictSummary.getFailedPixels(),
                 result.getCurrentImage(), result.getSavedImage(alternative));
         log.trace("FuzzyCheck: {}", summary.getTotalFailedPixels() == 0);
-        result.setFuzzySummary(summary);
+        result.setFuzzySummary(alternative, summary);
         return (summary.getTotalFailedPixels() == 0);
     }
 
@@ -95,7 +96,13 @@ public final class FuzzyPixelCheck implements PixelCheck {
         final BufferedImage curr = diffImages.getCurrentImage();
         final BufferedImage recorded = diffImages.getImages(alternative).get(Type.RECORDED);
         final BufferedImage fuzzy = new BufferedImage(curr.getWidth(), curr.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        final Set<Integer>[] failures = diffImages.getStrictSummary(alternative).getFailedPixels();
+        final FailureMap failures = diffImages.getStrictSummary(alternative).getFailedPixels();
+        final PixelRaster currentRaster = PixelRaster.of(curr);
+        final PixelRaster recordedRaster = PixelRaster.of(recorded);
+        final PixelRaster fuzzyRaster = PixelRaster.of(fuzzy);
+        final int[] currentRow = new int[curr.getWidth()];
+        final int[] recordedRow = new int[curr.getWidth()];
+        final int[] fuzzyRow = new int[curr.getWidth()];
         PixelCheck.PixelCheckSummary summary = new PixelCheckSummary(curr.getWidth(), curr.getHeight());
 
         int maxPixelDifference = 0;
@@ -104,19 +111,24 @@ public final class FuzzyPixelCheck implements PixelCheck {
         int totalDeviation = 0;
         int failedPixelTotalDeviation = 0;
 
-        for (int x = 0; x < failures.length; x++) {
-            if (failures[x] != null && failures[x].size() != 0) {
-                for (final int y : failures[x]) {
-                    final PixelResult pixelDifference = getPixelResult(curr.getRGB(x, y), recorded.getRGB(x, y));
-                    maxPixelDifference = Math.max(maxPixelDifference, pixelDifference.globalDiff);
-                    maxComponentDifference = Math.max(maxComponentDifference, pixelDifference.componentDiff);
-                    totalDeviation += pixelDifference.globalDiff;
-                    nonEqualPixels++;
-                    if ((pixelDifference.pixelColor & ALPHA_MASK) != 0) {
-                        fuzzy.setRGB(x, y, pixelDifference.pixelColor);
-                        summary.addFailure(x, y);
-                        failedPixelTotalDeviation += pixelDifference.globalDiff;
-                    }
+        for (int y = 0; y < failures.getHeight(); y++) {
+            if (!failures.hasFailures(y)) {
+                continue;
+            }
+            currentRaster.readRow(y, currentRow);
+            recordedRaster.readRow(y, recordedRow);
+            PixelKernels.fuzzyDiff(currentRow, recordedRow, tolerance, fuzzyRow, fuzzyRow.length);
+            for (int x = failures.nextFailure(y, 0); x >= 0; x = failures.nextFailure(y, x + 1)) {
+                final int globalDiff = PixelKernels.globalDiff(currentRow[x], recordedRow[x]);
+                maxPixelDifference = Math.max(maxPixelDifference, globalDiff);
+                maxComponentDifference = Math.max(maxComponentDifference,
+                        PixelKernels.componentDiff(currentRow[x], recordedRow[x]));
+                totalDeviation += globalDiff;
+                nonEqualPixels++;
+                if (PixelKernels.isFailure(fuzzyRow[x])) {
+                    fuzzyRaster.setRgb(x, y, fuzzyRow[x]);
+                    summary.addFailure(x, y);
+                    failedPixelTotalDeviation += globalDiff;
                 }
             }
         }
@@ -147,21 +159,34 @@ public final class FuzzyPixelCheck implements PixelCheck {
         diffImages.addProperty(alternative, NAME, "averageFailDeviation", avgFailDeviation);
     }
 
-    PixelCheck.PixelCheckSummary fuzzyCheck(final Set<Integer>[] failedPixels, final BufferedImage current,
+    PixelCheck.PixelCheckSummary fuzzyCheck(final FailureMap failedPixels, final BufferedImage current,
                                             final BufferedImage saved) {
         PixelCheck.PixelCheckSummary summary = new PixelCheckSummary(current.getWidth(), current.getHeight());
+        final PixelRaster currentRaster = PixelRaster.of(current);
+        final PixelRaster savedRaster = PixelRaster.of(saved);
+        final int[] currentRow = new int[current.getWidth()];
+        final int[] savedRow = new int[current.getWidth()];
+        final int[] fuzzyRow = new int[current.getWidth()];
+        final boolean trace = log.isTraceEnabled();
         int maxPixelDifference = 0;
         int maxComponentDifference = 0;
 
-        for (int x = 0; x < saved.getWidth(); x++) {
-            if (failedPixels[x] != null) {
-                for (final int y : failedPixels[x]) {
-                    final PixelResult pixelDifference = getPixelResult(current.getRGB(x, y), saved.getRGB(x, y));
-                    maxPixelDifference = Math.max(maxPixelDifference, pixelDifference.globalDiff);
-                    maxComponentDifference = Math.max(maxComponentDifference, pixelDifference.componentDiff);
-                    if ((pixelDifference.pixelColor & ALPHA_MASK) != 0) {
-                        summary.addFailure(x, y);
-                    }
+        for (int y = 0; y < failedPixels.getHeight(); y++) {
+            if (!failedPixels.hasFailures(y)) {
+                continue;
+            }
+            currentRaster.readRow(y, currentRow);
+            savedRaster.readRow(y, savedRow);
+            PixelKernels.fuzzyDiff(currentRow, savedRow, tolerance, fuzzyRow, fuzzyRow.length);
+            for (int x = failedPixels.nextFailure(y, 0); x >= 0; x = failedPixels.nextFailure(y, x + 1)) {
+                if (trace) {
+                    maxPixelDifference = Math.max(maxPixelDifference, PixelKernels.globalDiff(currentRow[x],
+                            savedRow[x]));
+                    maxComponentDifference = Math.max(maxComponentDifference, PixelKernels.componentDiff(currentRow[x],
+                            savedRow[x]));
+                }
+                if (PixelKernels.isFailure(fuzzyRow[x])) {
+                    summary.addFailure(x, y);
                 }
             }
         }
@@ -169,32 +194,4 @@ public final class FuzzyPixelCheck implements PixelCheck {
         log.trace("Max component diff: {}", maxComponentDifference);
         return summary;
     }
-
-    private static final int NEUTRAL_COMPONENT = 0x80;
-    private static final int NEUTRAL_COLOR = 0x808080;
-    private static final int BYTE_MASK = 0xFF;
-    PixelResult getPixelResult(final int px1, final int px2) {
-        final PixelResult result = new PixelResult();
-        result.pixelColor = 0;
-        for (int i = 0; i < 3; i++) {
-            final int comp1 = px1 >>> i * 8 & BYTE_MASK;
-            final int comp2 = px2 >>> i * 8 & BYTE_MASK;
-            final int componentDiff = comp1 - comp2;
-            result.globalDiff += Math.abs(componentDiff);
-            result.componentDiff = Math.max(result.componentDiff, Math.abs(componentDiff));
-            final int componentColor = NEUTRAL_COMPONENT + ((tolerance >= Math.abs(componentDiff) ? 0 : componentDiff
-                    - (componentDiff > 0 ? tolerance : -tolerance)) >> 1);
-            result.pixelColor |= componentColor << i * 8;
-        }
-        if (result.pixelColor != NEUTRAL_COLOR) {
-            result.pixelColor |= ALPHA_MASK;
-        }
-        return result;
-    }
-
-    private static class PixelResult {
-        private int pixelColor = 0;
-        private int globalDiff = 0;
-        private int componentDiff = 0;
-    }
 }
@@ -72,12 +72,12 @@ public final class HashPixelCheck implements PixelCheck {
     @Override
     public boolean doCheck(final PixelCheckResult result, final Path alternative) {
         try {
-            if (result.getCurrentHash() != null || result.getCurrentImage() == null) {
-                // No need to check again
+            if (result.getCurrentImage() == null) {
                 return false;
             }
-            final String currentHash = hashCalculator.calculateHash(result.getCurrentImage(), result.getHashMode());
-            result.setCurrentHash(currentHash);
+            // The hash is calculated only once, even if several alternatives are being checked at the same time
+            final String currentHash = result.computeCurrentHashIfAbsent(
+                    () -> hashCalculator.calculateHash(result.getCurrentImage(), result.getHashMode()));
             log.trace("Calculated hash: {}", currentHash);
             return result.isValidHash(currentHash);
         } catch (final NoSuchAlgorithmException e) {
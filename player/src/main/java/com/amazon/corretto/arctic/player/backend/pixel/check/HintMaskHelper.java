@@ -21,10 +21,11 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.IntStream;
 
 import com.amazon.corretto.arctic.common.util.Pair;
+import com.amazon.corretto.arctic.common.util.PixelRaster;
+import com.amazon.corretto.arctic.player.backend.pixel.FailureMap;
 import com.amazon.corretto.arctic.player.inject.InjectionKeys;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
@@ -74,7 +75,7 @@ public final class HintMaskHelper {
      * @param h Height of the desired hint/mask image.
      * @return A pair of images. The mask image is optional.
      */
-    public Pair<BufferedImage, Optional<BufferedImage>> drawImages(final Set<Integer>[] failures,
+    public Pair<BufferedImage, Optional<BufferedImage>> drawImages(final FailureMap failures,
                                                                    final int w, final int h) {
         if (fastMode) {
             return drawImagesFastMode(failures, w, h);
@@ -83,7 +84,7 @@ public final class HintMaskHelper {
         }
     }
 
-    private Pair<BufferedImage, Optional<BufferedImage>> drawImagesSlowMode(final Set<Integer>[] failures, final int w,
+    private Pair<BufferedImage, Optional<BufferedImage>> drawImagesSlowMode(final FailureMap failures, final int w,
                                                                             final int h) {
         final BufferedImage hint = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
         final BufferedImage mask;
@@ -101,15 +102,18 @@ public final class HintMaskHelper {
         } else {
             mask = null;
         }
-        IntStream.range(0, failures.length)
-                .filter(x -> failures[x] != null && !failures[x].isEmpty())
+        IntStream.range(0, failures.getHeight())
+                .filter(failures::hasFailures)
                 .parallel()
-                .forEach(x -> failures[x].forEach(y -> safeDrawRect(hint, hintGraphics, x - MARGIN, y - MARGIN,
-                        MARGIN * 2, MARGIN * 2)));
-        IntStream.range(0, failures.length)
-                .filter(x -> failures[x] != null && !failures[x].isEmpty())
+                .forEach(y -> failures.forEachInRows(y, y + 1, (x, row) -> safeDrawRect(hint, hintGraphics,
+                        x - MARGIN, row - MARGIN, MARGIN * 2, MARGIN * 2)));
+        final PixelRaster hintRaster = PixelRaster.of(hint);
+        final PixelRaster maskRaster = generateMasks ? PixelRaster.of(mask) : null;
+        IntStream.range(0, failures.getHeight())
+                .filter(failures::hasFailures)
                 .parallel()
-                .forEach(x -> failures[x].forEach(y -> clearPixelAround(x, y, hint, mask, generateMasks)));
+                .forEach(y -> failures.forEachInRows(y, y + 1, (x, row) -> clearPixelAround(x, row, hintRaster,
+                        maskRaster)));
         return Pair.of(hint, Optional.ofNullable(mask));
     }
 
@@ -127,7 +131,7 @@ public final class HintMaskHelper {
         }
     }
 
-    private Pair<BufferedImage, Optional<BufferedImage>> drawImagesFastMode(final Set<Integer>[] failures, final int w,
+    private Pair<BufferedImage, Optional<BufferedImage>> drawImagesFastMode(final FailureMap failures, final int w,
                                                                             final int h) {
         final BufferedImage hint = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
         final BufferedImage mask;
@@ -151,14 +155,12 @@ public final class HintMaskHelper {
         int miny = Integer.MAX_VALUE;
         int maxx = 0;
         int maxy = 0;
-        for (int x = 0; x < failures.length; x++) {
-            if (failures[x] != null && !failures[x].isEmpty()) {
+        for (int y = 0; y < failures.getHeight(); y++) {
+            for (int x = failures.nextFailure(y, 0); x >= 0; x = failures.nextFailure(y, x + 1)) {
                 minx = Math.min(minx, x);
                 maxx = Math.max(maxx, x);
-                for (Integer y : failures[x]) {
-                    miny = Math.min(miny, y);
-                    maxy = Math.max(maxy, y);
-                }
+                miny = Math.min(miny, y);
+                maxy = Math.max(maxy, y);
             }
         }
         minx = Math.max(0, minx - MARGIN);
@@ -173,14 +175,13 @@ public final class HintMaskHelper {
         return Pair.of(hint, Optional.ofNullable(mask));
     }
 
-    private void clearPixelAround(final int x, final int y, final BufferedImage hint, final BufferedImage mask,
-                          final boolean doMask) {
+    private void clearPixelAround(final int x, final int y, final PixelRaster hint, final PixelRaster mask) {
         for (int i = x - (MARGIN - 1); i < x + (MARGIN); i++) {
             for (int j = y - (MARGIN - 1); j < y + (MARGIN); j++) {
                 if (i > 0 && i < hint.getWidth() && j > 0 && j < hint.getHeight()) {
-                    hint.setRGB(i, j, 0);
-                    if (doMask) {
-                        mask.setRGB(i, j, 0);
+                    hint.setRgb(i, j, 0);
+                    if (mask != null) {
+                        mask.setRgb(i, j, 0);
                     }
                 }
             }
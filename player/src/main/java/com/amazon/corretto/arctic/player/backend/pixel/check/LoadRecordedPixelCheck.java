@@ -23,6 +23,7 @@ import java.util.List;
 
 import com.amazon.corretto.arctic.api.exception.ArcticException;
 import com.amazon.corretto.arctic.common.repository.TestLoadRepository;
+import com.amazon.corretto.arctic.common.util.PixelRaster;
 import com.amazon.corretto.arctic.player.backend.pixel.PixelCheck;
 import com.amazon.corretto.arctic.player.backend.pixel.PixelCheckResult;
 import com.amazon.corretto.arctic.player.model.ArcticDiffImages;
@@ -78,7 +79,8 @@ public final class LoadRecordedPixelCheck implements PixelCheck {
             log.error("Error loading recording image {}", alternative);
             return false;
         }
-        result.putSavedImage(alternative, img);
+        // Normalize once here, so all the checks can read the pixels directly from the image raster
+        result.putSavedImage(alternative, PixelRaster.normalize(img));
         return true;
     }
 
@@ -94,7 +96,7 @@ public final class LoadRecordedPixelCheck implements PixelCheck {
                         diffImages.getCurrentImagePath()));
             }
 
-            diffImages.setCurrentImage(currentImage);
+            diffImages.setCurrentImage(PixelRaster.normalize(currentImage));
         }
 
         diffImages.getImages(alternative).put(Type.CURRENT, diffImages.getCurrentImage());
@@ -108,6 +110,6 @@ public final class LoadRecordedPixelCheck implements PixelCheck {
                     alternative));
         }
 
-        diffImages.getImages(alternative).put(Type.RECORDED, recordedImg);
+        diffImages.getImages(alternative).put(Type.RECORDED, PixelRaster.normalize(recordedImg));
     }
 }
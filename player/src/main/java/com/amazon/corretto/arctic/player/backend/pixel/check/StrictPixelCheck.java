@@ -18,14 +18,20 @@ package com.amazon.corretto.arctic.player.backend.pixel.check;
 
 import java.awt.image.BufferedImage;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import com.amazon.corretto.arctic.common.model.gui.ScreenArea;
 import com.amazon.corretto.arctic.common.util.Pair;
+import com.amazon.corretto.arctic.common.util.PixelRaster;
+import com.amazon.corretto.arctic.player.backend.pixel.FailureMap;
 import com.amazon.corretto.arctic.player.backend.pixel.PixelCheck;
 import com.amazon.corretto.arctic.player.backend.pixel.PixelCheckResult;
+import com.amazon.corretto.arctic.player.backend.pixel.PixelKernels;
 import com.amazon.corretto.arctic.player.inject.InjectionKeys;
 import com.amazon.corretto.arctic.player.model.ArcticDiffImages;
 import jakarta.inject.Inject;
@@ -43,7 +49,7 @@ public final class StrictPixelCheck implements PixelCheck {
 
     private static final Logger log = LoggerFactory.getLogger(LoadRecordedPixelCheck.class);
     private static final int PRIORITY = 30;
-    private static final int ALPHA_MASK = 0xFF000000;
+    private static final int BAND_HEIGHT = 32;
     private final boolean checkShades;
     private final int shadeMargin;
     private final HintMaskHelper hintMaskHelper;
@@ -83,8 +89,12 @@ public final class StrictPixelCheck implements PixelCheck {
     public boolean doCheck(final PixelCheckResult result, final Path alternative) {
         log.trace("doCheck");
         final PixelCheckSummary summary = compareImages(result.getCurrentImage(),
-                result.getSavedImage(alternative), result.getShades(), null);
-        result.setStrictSummary(summary);
+                result.getSavedImage(alternative), result.getShades(), result.isPartialCapture(), null,
+                result.getFailureBudget());
+        if (summary.isPartial()) {
+            log.trace("Comparison stopped after exceeding the failure budget of {}", result.getFailureBudget());
+        }
+        result.setStrictSummary(alternative, summary);
         return summary.getTotalFailedPixels() == 0;
     }
 
@@ -94,7 +104,8 @@ public final class StrictPixelCheck implements PixelCheck {
         final BufferedImage saved = diffImages.getImages(alternative).get(Type.RECORDED);
         final BufferedImage strict = new BufferedImage(current.getWidth(), current.getHeight(),
                 BufferedImage.TYPE_INT_ARGB);
-        final PixelCheckSummary summary = compareImages(current, saved, diffImages.getShades(), strict);
+        final PixelCheckSummary summary = compareImages(current, saved, diffImages.getShades(),
+                diffImages.isPartialCapture(), strict, Integer.MAX_VALUE);
         diffImages.setStrictSummary(alternative, summary);
 
         Pair<BufferedImage, Optional<BufferedImage>> images = hintMaskHelper.drawImages(summary.getFailedPixels(),
@@ -115,44 +126,112 @@ public final class StrictPixelCheck implements PixelCheck {
     }
 
 
+    /**
+     * Compares both images. If a budget is provided, the comparison stops as soon as more failures than the budget have
+     * been found, returning a partial summary. This is enough to know the image will not pass, and avoids scanning the
+     * rest of an image that is obviously wrong.
+     * @param current Image captured during playback.
+     * @param saved Recorded image.
+     * @param shades Position of the shades.
+     * @param partial Whether the current image is a partial capture. Shaded pixels are never checked for those, as
+     *                they were not read from the screen.
+     * @param diff Image where the differences are drawn. Can be null.
+     * @param budget Number of failures after which the comparison can stop. {@link Integer#MAX_VALUE} for no limit.
+     * @return Summary with the failures.
+     */
     private PixelCheckSummary compareImages(final BufferedImage current, final BufferedImage saved,
-                                            final List<ScreenArea> shades, final BufferedImage diff) {
-        final PixelCheckSummary summary = new PixelCheckSummary(current.getWidth(), current.getHeight());
-        IntStream.range(0, current.getWidth()).parallel().forEach(x -> {
-            for (int y = 0; y < current.getHeight(); y++) {
-                if ((checkShades || !isShaded(x, y, shades))
-                        && current.getRGB(x, y) != saved.getRGB(x, y)) {
-                    summary.addFailure(x, y);
+                                            final List<ScreenArea> shades, final boolean partial,
+                                            final BufferedImage diff, final int budget) {
+        final int width = current.getWidth();
+        final int height = current.getHeight();
+        final PixelCheckSummary summary = new PixelCheckSummary(width, height);
+        final PixelRaster currentRaster = PixelRaster.of(current);
+        final PixelRaster savedRaster = PixelRaster.of(saved);
+        final PixelRaster diffRaster = diff == null ? null : PixelRaster.of(diff);
+        final AtomicInteger found = budget == Integer.MAX_VALUE ? null : new AtomicInteger();
+        // Shaded pixels are only compared when configured to, and only if they were actually read from the screen
+        final boolean skipShades = !checkShades || partial;
+        // Bands are fixed by the image size, not by the number of workers, so the partitioning is always the same. Each
+        // band is compared into its own map, and they are merged once all of them have finished.
+        final int bands = (height + BAND_HEIGHT - 1) / BAND_HEIGHT;
+        final List<FailureMap> partitions = IntStream.range(0, bands)
+                .parallel()
+                .mapToObj(band -> compareBand(currentRaster, savedRaster, skipShades ? shades : null, diffRaster,
+                        band * BAND_HEIGHT, Math.min(height, (band + 1) * BAND_HEIGHT), found, budget))
+                .collect(Collectors.toList());
+        for (int band = 0; band < bands; band++) {
+            summary.getFailedPixels().putRows(band * BAND_HEIGHT, partitions.get(band));
+        }
+        if (found != null && found.get() > budget) {
+            summary.markPartial();
+        }
+        return summary;
+    }
+
+    private FailureMap compareBand(final PixelRaster current, final PixelRaster saved,
+                                   final List<ScreenArea> shades, final PixelRaster diff, final int fromY,
+                                   final int toY, final AtomicInteger found, final int budget) {
+        final int width = current.getWidth();
+        final FailureMap band = new FailureMap(width, toY - fromY);
+        final boolean[] shaded = new boolean[width];
+        final int[] currentRow = new int[width];
+        final int[] savedRow = new int[width];
+        final int[] diffRow = diff == null ? null : new int[width];
+        for (int y = fromY; y < toY; y++) {
+            if (found != null && found.get() > budget) {
+                break;
+            }
+            int rowFailures = 0;
+            current.readRow(y, currentRow);
+            saved.readRow(y, savedRow);
+            final boolean hasShades = shades != null && markShaded(y, shades, shaded);
+            // Arrays.mismatch compares the whole scanline in bulk, so identical runs of pixels are skipped quickly and
+            // we only stop at the pixels that differ.
+            int x = Arrays.mismatch(currentRow, 0, width, savedRow, 0, width);
+            if (x >= 0 && diff != null) {
+                PixelKernels.strictDiff(currentRow, savedRow, diffRow, width);
+            }
+            while (x >= 0) {
+                if (!(hasShades && shaded[x])) {
+                    band.add(x, y - fromY);
+                    rowFailures++;
                     if (diff != null) {
-                        diff.setRGB(x, y, getPixelDiff(current.getRGB(x, y), saved.getRGB(x, y)));
+                        diff.setRgb(x, y, diffRow[x]);
                     }
                 }
+                if (++x == width) {
+                    break;
+                }
+                final int next = Arrays.mismatch(currentRow, x, width, savedRow, x, width);
+                x = next < 0 ? -1 : x + next;
             }
-        });
-        return summary;
-    }
-
-    private boolean isShaded(final int x, final int y, final List<ScreenArea> shades) {
-        return shades.stream().anyMatch(it -> x >= it.getX() - shadeMargin
-                && x < it.getX() + it.getW() + shadeMargin
-                && y >= it.getY() - shadeMargin
-                && y < it.getY() + it.getH() + shadeMargin);
+            if (found != null && rowFailures > 0) {
+                found.addAndGet(rowFailures);
+            }
+        }
+        return band;
     }
 
-    private static final int NEUTRAL_COMPONENT = 0x80;
-    private static final int NEUTRAL_COLOR = 0x808080;
-    private static final int BYTE_MASK = 0xFF;
-    int getPixelDiff(final int px1, final int px2) {
-        int pixelDiff = 0;
-        for (int i = 0; i < 3; i++) {
-            final int comp1 = px1 >>> i * 8 & BYTE_MASK;
-            final int comp2 = px2 >>> i * 8 & BYTE_MASK;
-            final int componentDiff = NEUTRAL_COMPONENT + ((comp1 >> 1) - (comp2 >> 1));
-            pixelDiff |= componentDiff << i * 8;
-        }
-        if (pixelDiff != NEUTRAL_COLOR) {
-            pixelDiff |= ALPHA_MASK;
+    /**
+     * Marks which pixels of a row are covered by a shade (plus the shade margin).
+     * @param y Row to check.
+     * @param shades Position of the shades.
+     * @param shaded Array with one entry per pixel of the row, it is overwritten with the result.
+     * @return True if any pixel of the row is covered by a shade.
+     */
+    private boolean markShaded(final int y, final List<ScreenArea> shades, final boolean[] shaded) {
+        Arrays.fill(shaded, false);
+        boolean found = false;
+        for (final ScreenArea it : shades) {
+            if (y >= it.getY() - shadeMargin && y < it.getY() + it.getH() + shadeMargin) {
+                final int from = Math.max(0, it.getX() - shadeMargin);
+                final int to = Math.min(shaded.length, it.getX() + it.getW() + shadeMargin);
+                if (from < to) {
+                    Arrays.fill(shaded, from, to, true);
+                    found = true;
+                }
+            }
         }
-        return pixelDiff;
+        return found;
     }
 }
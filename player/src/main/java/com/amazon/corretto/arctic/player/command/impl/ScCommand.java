@@ -139,7 +139,7 @@ public final class ScCommand extends ArcticCommand {
         while ((currentFailure = failureManager.peek()) != null) {
             if (first == null) {
                 first = currentFailure;
-            } else if (currentFailure == first) {
+            } else if (currentFailure.getFailureId().equals(first.getFailureId())) {
                 // We have done a full round, end
                 return sb.toString();
             }
@@ -149,7 +149,8 @@ public final class ScCommand extends ArcticCommand {
                 // State of the queue may have changed and what we polled is not what we peeked in the last cycle. This
                 // means we will need to regenerate the ArcticDiffImages and call the generateDiff synchronously. This will
                 // also guarantee we wait for the images to be completed if needed.
-                ArcticDiffImages currentDiffImages = currentFailure == nextFailure ? nextDiffImages
+                ArcticDiffImages currentDiffImages = nextFailure != null
+                        && currentFailure.getFailureId().equals(nextFailure.getFailureId()) ? nextDiffImages
                         : new ArcticDiffImages(currentFailure);
                 imgComparator.generateDiff(currentDiffImages);
 
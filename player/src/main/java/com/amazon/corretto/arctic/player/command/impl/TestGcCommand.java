@@ -0,0 +1,87 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.player.command.impl;
+
+import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.command.ArcticCommand;
+import com.amazon.corretto.arctic.common.repository.ImageStore;
+import jakarta.inject.Inject;
+
+/**
+ * ArcticCommand to remove the images of the {@link ImageStore} that no test references anymore.
+ */
+public final class TestGcCommand extends ArcticCommand {
+    public static final String[] COMMAND_LINE = new String[]{"test", "gc"};
+    private static final String DRY_RUN = "dry";
+
+    private final ImageStore imageStore;
+
+    /**
+     * Creates a new TestGcCommand.
+     * @param imageStore Store to collect the images from.
+     */
+    @Inject
+    public TestGcCommand(final ImageStore imageStore) {
+        this.imageStore = imageStore;
+    }
+
+    @Override
+    public String run(final String... args) {
+        final boolean dryRun = args.length == 3 && DRY_RUN.equals(args[2]);
+        if (args.length > 3 || (args.length == 3 && !dryRun)) {
+            return getHelp();
+        }
+        final ImageStore.GcResult result;
+        try {
+            result = imageStore.collectGarbage(dryRun);
+        } catch (final ArcticException e) {
+            return "Unable to collect images: " + e.getMessage();
+        }
+        return String.format("%d images kept, %d images %s, %d bytes", result.getKept(), result.getRemoved(),
+                dryRun ? "can be removed" : "removed", result.getFreedBytes());
+    }
+
+    @Override
+    public String[] getCommandLine() {
+        return COMMAND_LINE;
+    }
+
+    @Override
+    public String getHelp() {
+        return getDescription() + System.lineSeparator()
+                + "Usage:" + System.lineSeparator()
+                + "  test gc" + System.lineSeparator()
+                + "  test gc dry" + System.lineSeparator()
+                + System.lineSeparator()
+                + "Parameters:" + System.lineSeparator()
+                + "  dry: Only report the images that would be removed" + System.lineSeparator()
+                + "Images stored during the last hour are always kept" + System.lineSeparator();
+    }
+
+    @Override
+    public String getDescription() {
+        return "Removes the images of the image store that are not used by any test";
+    }
+
+    /**
+     * TestGcCommand is not a local command.
+     * @return Always false
+     */
+    @Override
+    public boolean isLocal() {
+        return false;
+    }
+}
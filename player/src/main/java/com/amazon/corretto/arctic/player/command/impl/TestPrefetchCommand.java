@@ -0,0 +1,108 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.player.command.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.amazon.corretto.arctic.common.command.ArcticCommand;
+import com.amazon.corretto.arctic.common.model.TestId;
+import com.amazon.corretto.arctic.player.control.impl.TestPrefetcher;
+import jakarta.inject.Inject;
+
+/**
+ * ArcticCommand to tell the {@link TestPrefetcher} in which order the tests are going to run.
+ */
+public final class TestPrefetchCommand extends ArcticCommand {
+    public static final String[] COMMAND_LINE = new String[]{"test", "prefetch"};
+    private static final String CLEAR = "clear";
+
+    private final TestPrefetcher prefetcher;
+
+    /**
+     * Creates a new TestPrefetchCommand.
+     * @param prefetcher Prefetcher that will receive the order of the tests.
+     */
+    @Inject
+    public TestPrefetchCommand(final TestPrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
+    @Override
+    public String run(final String... args) {
+        if (args.length == 2) {
+            return getStatus();
+        }
+        if (args.length == 3 && CLEAR.equals(args[2])) {
+            prefetcher.setPlan(Collections.emptyList());
+            return "Test order cleared";
+        }
+        if (args.length % 2 != 0) {
+            return "Each test needs a TEST_CLASS and a TEST_CASE." + System.lineSeparator() + getHelp();
+        }
+        final List<TestId> tests = new ArrayList<>();
+        for (int i = 2; i < args.length; i += 2) {
+            tests.add(new TestId(args[i], args[i + 1]));
+        }
+        prefetcher.setPlan(tests);
+        return "Test order set with " + tests.size() + " tests";
+    }
+
+    private String getStatus() {
+        return "Tests in order: " + prefetcher.getPlan().size() + System.lineSeparator()
+                + "Prefetched: " + prefetcher.getPrefetched();
+    }
+
+    @Override
+    public String[] getCommandLine() {
+        return COMMAND_LINE;
+    }
+
+    @Override
+    public String getHelp() {
+        return getDescription() + System.lineSeparator()
+                + "Usage:" + System.lineSeparator()
+                + "  test prefetch" + System.lineSeparator()
+                + "  test prefetch clear" + System.lineSeparator()
+                + "  test prefetch TEST_CLASS TEST_CASE [TEST_CLASS TEST_CASE]..." + System.lineSeparator()
+                + System.lineSeparator()
+                + "Parameters:" + System.lineSeparator()
+                + "  clear: Forget the order of the tests and use the one from the previous run"
+                + System.lineSeparator()
+                + "  TEST_CLASS TEST_CASE: Tests in the order they are going to run" + System.lineSeparator()
+                + "Without parameters, prints the tests being prefetched" + System.lineSeparator()
+                + System.lineSeparator()
+                + "Without an order, tests are prefetched in the order they finished in the restored session."
+                + System.lineSeparator()
+                + "On a fresh run there is no such order, and nothing is prefetched until one is set."
+                + System.lineSeparator();
+    }
+
+    @Override
+    public String getDescription() {
+        return "Sets the order of the tests, so the next ones can be loaded in advance";
+    }
+
+    /**
+     * TestPrefetchCommand is not a local command.
+     * @return Always false
+     */
+    @Override
+    public boolean isLocal() {
+        return false;
+    }
+}
@@ -15,12 +15,39 @@
  */
 package com.amazon.corretto.arctic.player.control;
 
+import java.util.function.BooleanSupplier;
+
 import com.amazon.corretto.arctic.common.model.ArcticTest;
 import com.amazon.corretto.arctic.common.model.event.ArcticEvent;
+import com.amazon.corretto.arctic.player.model.ArcticRunningTest;
 
 public interface TimeController {
     void startTestCase(ArcticTest test);
+
+    /**
+     * Starts the replay of a running test. Time controllers that measure how precisely they replay the events report
+     * it in {@link ArcticRunningTest#getLateness()}.
+     * @param test Test that is going to be replayed.
+     */
+    default void startTestCase(final ArcticRunningTest test) {
+        startTestCase(test.getRecording());
+    }
+
     ArcticEvent getNextEvent();
     void waitForScreen();
+
+    /**
+     * Waits for the screen to be ready to be captured, like {@link #waitForScreen()}, but checking it periodically so
+     * the wait can end as soon as the screen is ready. The check is always called at least once, and unless it
+     * returns true, the last call happens once the whole screen delay has passed.
+     * @param pollMs Milliseconds between each check of the screen.
+     * @param ready Checks whether the screen is ready. Returns true to stop waiting.
+     * @return Whether the last check returned true.
+     */
+    default boolean waitForScreen(final long pollMs, final BooleanSupplier ready) {
+        waitForScreen();
+        return ready.getAsBoolean();
+    }
+
     void waitFor(long timeMs);
 }
@@ -15,10 +15,9 @@
  */
 package com.amazon.corretto.arctic.player.control.impl;
 
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.function.BooleanSupplier;
 
 import com.amazon.corretto.arctic.api.exception.ArcticException;
 import com.amazon.corretto.arctic.common.model.ArcticTest;
@@ -49,13 +48,9 @@ public final class AdvancedTimeController implements TimeController, ArcticTweak
     @Override
     public void startTestCase(final ArcticTest test) {
         runningTest = test;
-        this.events = Stream.concat(Stream.concat(
-                test.getScreenChecks().stream(),
-                test.getEvents().getMouseEvents().stream()),
-                test.getEvents().getKeyboardEvents().stream())
-                .filter(it -> it.getSubType().inMask(test.getPreferredPlayMode()))
-                .sorted(Comparator.comparing(ArcticEvent::getTimestamp))
-                .iterator();
+        // Each list is already sorted by timestamp, so they are merged as the events are requested
+        this.events = new EventMergeIterator(test.getPreferredPlayMode(), test.getScreenChecks(),
+                test.getEvents().getMouseEvents(), test.getEvents().getKeyboardEvents());
 
         lastEventReturned = System.nanoTime();
         lastEventTs = 0;
@@ -89,6 +84,14 @@ public final class AdvancedTimeController implements TimeController, ArcticTweak
         lastEventReturned = System.nanoTime();
     }
 
+    @Override
+    public boolean waitForScreen(final long pollMs, final BooleanSupplier ready) {
+        final boolean isReady = ScreenPoller.poll(runningTest.getTimings().getScDelayMs(), pollMs, ready,
+                this::waitFor);
+        lastEventReturned = System.nanoTime();
+        return isReady;
+    }
+
     @Override
     public void waitFor(final long timeMs) {
         try {
@@ -0,0 +1,102 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.player.control.impl;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.amazon.corretto.arctic.common.model.event.ArcticEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges several lists of events that are already sorted by timestamp into a single iterator, also sorted by timestamp.
+ * Recordings keep their screenshot checks, mouse events and keyboard events in separate lists, each one of them in the
+ * order they were recorded, so there is no need to copy and sort all of them before the first event can be replayed.
+ * Only the next event of each list is looked at, and events that don't match the play mode are skipped as they are
+ * reached.
+ *
+ * Events with the same timestamp are returned in the order of the lists, which is the same order a stable sort of the
+ * concatenated lists would produce.
+ */
+final class EventMergeIterator implements Iterator<ArcticEvent> {
+    private static final Logger log = LoggerFactory.getLogger(EventMergeIterator.class);
+
+    private final int playMode;
+    private final Iterator<? extends ArcticEvent>[] sources;
+    private final ArcticEvent[] heads;
+    private boolean unsortedWarned;
+
+    /**
+     * Creates a new iterator over the events of all the lists.
+     * @param playMode Mask of the {@link ArcticEvent.SubType} that need to be returned. Other events are skipped.
+     * @param sources Lists of events to merge, each one sorted by timestamp.
+     */
+    @SafeVarargs
+    EventMergeIterator(final int playMode, final List<? extends ArcticEvent>... sources) {
+        this.playMode = playMode;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Iterator<? extends ArcticEvent>[] iterators = new Iterator[sources.length];
+        this.sources = iterators;
+        this.heads = new ArcticEvent[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            this.sources[i] = sources[i].iterator();
+            heads[i] = advance(i, null);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        for (final ArcticEvent head : heads) {
+            if (head != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public ArcticEvent next() {
+        int next = -1;
+        for (int i = 0; i < heads.length; i++) {
+            // Strictly lower, so ties go to the first list
+            if (heads[i] != null && (next == -1 || heads[i].getTimestamp() < heads[next].getTimestamp())) {
+                next = i;
+            }
+        }
+        if (next == -1) {
+            throw new NoSuchElementException();
+        }
+        final ArcticEvent event = heads[next];
+        heads[next] = advance(next, event);
+        return event;
+    }
+
+    private ArcticEvent advance(final int source, final ArcticEvent previous) {
+        while (sources[source].hasNext()) {
+            final ArcticEvent event = sources[source].next();
+            if (event.getSubType().inMask(playMode)) {
+                if (previous != null && event.getTimestamp() < previous.getTimestamp() && !unsortedWarned) {
+                    log.warn("Events of the recording are not sorted by timestamp, they will be replayed out of order");
+                    unsortedWarned = true;
+                }
+                return event;
+            }
+        }
+        return null;
+    }
+}
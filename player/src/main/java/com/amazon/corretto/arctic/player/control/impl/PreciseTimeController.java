@@ -0,0 +1,231 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.player.control.impl;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.model.ArcticTest;
+import com.amazon.corretto.arctic.common.model.event.ArcticEvent;
+import com.amazon.corretto.arctic.common.tweak.ArcticTweakableComponent;
+import com.amazon.corretto.arctic.common.tweak.TweakKeys;
+import com.amazon.corretto.arctic.player.control.TimeController;
+import com.amazon.corretto.arctic.player.inject.InjectionKeys;
+import com.amazon.corretto.arctic.player.model.ArcticRunningTest;
+import com.amazon.corretto.arctic.player.model.EventLateness;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A time controller that schedules each event against an absolute deadline on the timeline of the recording, instead
+ * of against the moment the previous event was returned. Time spent replaying an event or oversleeping is recovered on
+ * the following events, so the delay does not accumulate over thousands of mouse movements.
+ *
+ * Waits are done with {@link Thread#sleep(long)} while the deadline is far away, then with
+ * {@link LockSupport#parkNanos(long)} when it gets close, and with a busy spin for the last microseconds. The minimum
+ * and maximum wait times of the recording are honored the same way {@link AdvancedTimeController} does. Skipping or
+ * shortening a wait moves the timeline forward, as that time was never meant to be waited for. Events that are late
+ * are caught up with by the following ones, but only up to a limit: an event later than that moves the timeline with
+ * it, so a long pause of the host doesn't make the rest of the events play back to back. How late each event was
+ * returned is recorded in the {@link EventLateness} of the running test.
+ */
+@Singleton
+public final class PreciseTimeController implements TimeController, ArcticTweakableComponent {
+    private static final Logger log = LoggerFactory.getLogger(PreciseTimeController.class);
+
+    public static final String NAME = "precise";
+
+    private final long parkNs;
+    private final long spinNs;
+    private final long catchUpNs;
+    private ArcticTest runningTest;
+    private EventLateness lateness;
+    private Iterator<ArcticEvent> events;
+    private boolean safeMode = false;
+    private long origin;
+    private long originTs;
+    private long lastEventTs;
+
+    /**
+     * Creates a new instance. Usually called by the dependency injector.
+     * @param parkUs Remaining microseconds to the deadline below which we stop sleeping and start parking the thread.
+     * @param spinUs Remaining microseconds to the deadline below which we stop parking and start spinning.
+     * @param catchUpMs Maximum milliseconds an event can be late for the following events to catch up with it.
+     */
+    @Inject
+    public PreciseTimeController(@Named(InjectionKeys.TIME_PRECISE_PARK_US) final int parkUs,
+                                 @Named(InjectionKeys.TIME_PRECISE_SPIN_US) final int spinUs,
+                                 @Named(InjectionKeys.TIME_PRECISE_CATCHUP_MS) final int catchUpMs) {
+        this.parkNs = TimeUnit.MICROSECONDS.toNanos(parkUs);
+        this.spinNs = TimeUnit.MICROSECONDS.toNanos(spinUs);
+        this.catchUpNs = TimeUnit.MILLISECONDS.toNanos(catchUpMs);
+    }
+
+    @Override
+    public void startTestCase(final ArcticRunningTest test) {
+        startTestCase(test.getRecording(), test.getLateness());
+    }
+
+    @Override
+    public void startTestCase(final ArcticTest test) {
+        startTestCase(test, new EventLateness());
+    }
+
+    private void startTestCase(final ArcticTest test, final EventLateness testLateness) {
+        runningTest = test;
+        lateness = testLateness;
+        lateness.clear();
+        // Each list is already sorted by timestamp, so they are merged as the events are requested
+        this.events = new EventMergeIterator(test.getPreferredPlayMode(), test.getScreenChecks(),
+                test.getEvents().getMouseEvents(), test.getEvents().getKeyboardEvents());
+
+        origin = System.nanoTime();
+        originTs = 0;
+        lastEventTs = 0;
+    }
+
+    @Override
+    public ArcticEvent getNextEvent() {
+        if (!events.hasNext()) {
+            if (lateness.getCount() > 0) {
+                log.debug("Event lateness: {}", lateness);
+            }
+            return null;
+        }
+        final ArcticEvent nextEvent = events.next();
+
+        final long now = System.nanoTime();
+        long deadline = origin + nextEvent.getTimestamp() - originTs;
+        long toWait = deadline - now;
+        if (runningTest.getTimings().getMaxWaitNs() > -1 && !safeMode) {
+            // As of 2022-06-27 there is a bug on the recordings, they have the time in ms, not ns
+            final long maxWait = runningTest.getTimings().getMaxWaitNs() * 1000000;
+            if (toWait > maxWait) {
+                toWait = maxWait;
+                deadline = now + maxWait;
+                rebase(deadline, nextEvent.getTimestamp());
+            }
+        }
+        final long late;
+        if (toWait > runningTest.getTimings().getMinWaitNs()) {
+            waitUntil(deadline);
+            late = System.nanoTime() - deadline;
+        } else if (toWait > 0) {
+            // Too short to be worth waiting for, the event is replayed now and the rest of the timeline moves with it
+            rebase(now, nextEvent.getTimestamp());
+            late = 0;
+        } else {
+            late = -toWait;
+        }
+        lateness.add(late);
+        if (late > catchUpNs) {
+            // Catching up would replay a burst of events, keep their spacing from the moment this one is returned
+            rebase(deadline + late, nextEvent.getTimestamp());
+        }
+        lastEventTs = nextEvent.getTimestamp();
+        return nextEvent;
+    }
+
+    @Override
+    public void waitForScreen() {
+        waitFor(runningTest.getTimings().getScDelayMs());
+        // Time spent checking the screen is not part of the recording, the next events are scheduled after it
+        rebase(System.nanoTime(), lastEventTs);
+    }
+
+    @Override
+    public boolean waitForScreen(final long pollMs, final BooleanSupplier ready) {
+        final boolean isReady = ScreenPoller.poll(runningTest.getTimings().getScDelayMs(), pollMs, ready,
+                this::waitFor);
+        rebase(System.nanoTime(), lastEventTs);
+        return isReady;
+    }
+
+    @Override
+    public void waitFor(final long timeMs) {
+        waitUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeMs));
+    }
+
+    private void rebase(final long nanoTime, final long timestamp) {
+        origin = nanoTime;
+        originTs = timestamp;
+    }
+
+    /**
+     * Blocks until the deadline has passed. The thread sleeps while the deadline is far away, as sleeping is cheap but
+     * can overshoot by more than a millisecond on a loaded host, then parks, and spins for the last few microseconds.
+     * @param deadline Value of {@link System#nanoTime()} at which to return.
+     */
+    private void waitUntil(final long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0) {
+            final long sleepMs = TimeUnit.NANOSECONDS.toMillis(remaining - parkNs);
+            if (sleepMs > 0) {
+                sleep(sleepMs);
+            } else if (remaining > spinNs) {
+                LockSupport.parkNanos(remaining - spinNs);
+                if (Thread.interrupted()) {
+                    interrupted(null);
+                }
+            } else {
+                Thread.onSpinWait();
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    private void sleep(final long timeMs) {
+        try {
+            Thread.sleep(timeMs);
+        } catch (final InterruptedException e) {
+            interrupted(e);
+        }
+    }
+
+    private void interrupted(final InterruptedException e) {
+        log.error("Time controller has been interrupted");
+        throw new ArcticException("TimeController has been interrupted", e);
+    }
+
+    @Override
+    public void setTweak(final String key, final String value) {
+        if (key.equalsIgnoreCase(TweakKeys.SAFE)) {
+            safeMode = !("false".equalsIgnoreCase(value) || "0".equalsIgnoreCase(value));
+            log.info("{} is now {}", key, safeMode);
+        }
+    }
+
+    @Override
+    public Set<String> getTweakKeys() {
+        return Set.of(TweakKeys.SAFE);
+    }
+
+    @Override
+    public String getTweakKeyDescription(final String key) {
+        if (key.equalsIgnoreCase(TweakKeys.SAFE)) {
+            return "Disable all time wait shortcuts";
+        } else {
+            return "Key not being used by this component";
+        }
+    }
+}
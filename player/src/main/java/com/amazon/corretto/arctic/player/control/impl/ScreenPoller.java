@@ -0,0 +1,49 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.player.control.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * Shared implementation of {@link com.amazon.corretto.arctic.player.control.TimeController#waitForScreen(long,
+ * BooleanSupplier)} for the time controllers.
+ */
+final class ScreenPoller {
+    private ScreenPoller() { }
+
+    /**
+     * Calls the ready check every pollMs, until it returns true or the delay has passed.
+     * @param delayMs Maximum time to wait for the screen.
+     * @param pollMs Milliseconds between each check.
+     * @param ready Checks whether the screen is ready.
+     * @param waitMs Used to wait between the checks.
+     * @return Whether the last check returned true.
+     */
+    static boolean poll(final long delayMs, final long pollMs, final BooleanSupplier ready, final LongConsumer waitMs) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+        final long oneMs = TimeUnit.MILLISECONDS.toNanos(1);
+        boolean isReady;
+        do {
+            // Rounded up, so the last check never happens before the deadline
+            final long remainingMs = Math.max(0, (deadline - System.nanoTime() + oneMs - 1) / oneMs);
+            waitMs.accept(Math.min(pollMs, remainingMs));
+            isReady = ready.getAsBoolean();
+        } while (!isReady && deadline - System.nanoTime() > 0);
+        return isReady;
+    }
+}
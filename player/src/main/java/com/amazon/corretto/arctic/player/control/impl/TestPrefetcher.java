@@ -0,0 +1,233 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.player.control.impl;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.control.TestController;
+import com.amazon.corretto.arctic.common.model.ArcticResultTuple;
+import com.amazon.corretto.arctic.common.model.ArcticTest;
+import com.amazon.corretto.arctic.common.model.TestId;
+import com.amazon.corretto.arctic.common.repository.DecodedImageCache;
+import com.amazon.corretto.arctic.common.repository.TestLoadRepository;
+import com.amazon.corretto.arctic.player.inject.InjectionKeys;
+import com.amazon.corretto.arctic.player.results.ArcticTestResultsKeeper;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads the next tests that are expected to run in the background, so the recording, the events and the recorded
+ * images are already in memory when the test starts. The order of the tests comes from an explicit list, set with
+ * {@link #setPlan(List)}, or if there is none, from the order in which the tests finished on the previous run, as kept
+ * by the {@link ArcticTestResultsKeeper}. When a test group starts, only the tests of that group are considered. On a
+ * fresh run, with no explicit list and no session restored, there is no order to follow and nothing is prefetched.
+ *
+ * Each time a test starts, the next tests in the order are prefetched. The prefetcher needs to be registered in the
+ * {@link TestController} before the {@link com.amazon.corretto.arctic.player.ArcticPlayer}, as the player blocks while
+ * the test is being replayed. Prefetched tests are handed to the player with {@link #take(TestId)} and can only be used
+ * once, as the running test is modified by the preprocessors.
+ */
+@Singleton
+public final class TestPrefetcher implements TestController.Listener {
+    private static final Logger log = LoggerFactory.getLogger(TestPrefetcher.class);
+
+    private final TestLoadRepository repository;
+    private final ArcticTestResultsKeeper resultsKeeper;
+    private final DecodedImageCache imageCache;
+    private final int depth;
+    private final ExecutorService executor;
+    private final Map<TestId, Future<Optional<ArcticTest>>> prefetched = new LinkedHashMap<>();
+    private List<TestId> plan = Collections.emptyList();
+    private boolean explicitPlan;
+
+    /**
+     * Creates a new instance. Usually called by the dependency injector.
+     * @param repository Repository to load the tests from.
+     * @param resultsKeeper Used to know the order in which tests ran before.
+     * @param imageCache Where the prefetched images are kept. Images are not prefetched if the cache is disabled.
+     * @param depth How many tests ahead to prefetch. 0 to disable prefetching.
+     */
+    @Inject
+    public TestPrefetcher(final TestLoadRepository repository, final ArcticTestResultsKeeper resultsKeeper,
+                          final DecodedImageCache imageCache,
+                          @Named(InjectionKeys.PREFETCH_DEPTH) final int depth) {
+        this.repository = repository;
+        this.resultsKeeper = resultsKeeper;
+        this.imageCache = imageCache;
+        this.depth = depth;
+        this.executor = depth > 0 ? Executors.newSingleThreadExecutor(r -> {
+            final Thread thread = new Thread(r, "arctic-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Sets the order in which the tests are going to run. This order is used instead of the one from the previous run
+     * until it is cleared. The first tests of the list are prefetched immediately.
+     * @param tests Tests in the order they will run. An empty list clears the order.
+     */
+    public synchronized void setPlan(final List<TestId> tests) {
+        plan = new ArrayList<>(tests);
+        explicitPlan = !tests.isEmpty();
+        prefetchAfter(null);
+    }
+
+    /**
+     * Returns the order of the tests currently used to prefetch.
+     * @return Tests in the order they are expected to run.
+     */
+    public synchronized List<TestId> getPlan() {
+        return Collections.unmodifiableList(plan);
+    }
+
+    /**
+     * Tests that have been prefetched, or are being prefetched, and have not been taken yet.
+     * @return Ids of the prefetched tests.
+     */
+    public synchronized List<TestId> getPrefetched() {
+        return new ArrayList<>(prefetched.keySet());
+    }
+
+    /**
+     * Returns a prefetched test, waiting for it if it is still being loaded. The test is removed from the prefetcher.
+     * @param testId Id of the test.
+     * @return The test, with its events loaded. Empty if the test was not prefetched or does not exist.
+     */
+    public Optional<ArcticTest> take(final TestId testId) {
+        final Future<Optional<ArcticTest>> future;
+        synchronized (this) {
+            future = prefetched.remove(testId);
+        }
+        if (future == null) {
+            return Optional.empty();
+        }
+        try {
+            final Optional<ArcticTest> test = future.get();
+            log.debug("Using prefetched test {}", testId);
+            return test;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            log.warn("Unable to prefetch test {}", testId, e.getCause());
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized void startTestGroup(final String testGroup) {
+        if (!explicitPlan) {
+            plan = getPreviousOrder(testGroup);
+            prefetchAfter(null);
+        }
+    }
+
+    @Override
+    public synchronized void startTestCase(final String testGroup, final String testClass, final String testCase) {
+        final TestId testId = new TestId(testClass, testCase);
+        if (!explicitPlan && !plan.contains(testId)) {
+            plan = getPreviousOrder(null);
+        }
+        prefetchAfter(testId);
+    }
+
+    /**
+     * Prefetches the tests that follow one in the plan, and discards any other prefetched test except that one.
+     * @param current Test that is starting, or null to prefetch from the start of the plan.
+     */
+    private void prefetchAfter(final TestId current) {
+        if (executor == null) {
+            return;
+        }
+        final int start = current == null ? 0 : plan.indexOf(current) + 1;
+        final List<TestId> next = start == 0 && current != null ? Collections.emptyList()
+                : plan.subList(start, Math.min(plan.size(), start + depth));
+        prefetched.entrySet().removeIf(it -> {
+            if (it.getKey().equals(current) || next.contains(it.getKey())) {
+                return false;
+            }
+            // Interrupting stops loading the images of a test that is no longer needed
+            it.getValue().cancel(true);
+            return true;
+        });
+        for (final TestId testId : next) {
+            if (!prefetched.containsKey(testId)) {
+                prefetched.put(testId, executor.submit(() -> load(testId)));
+            }
+        }
+    }
+
+    private List<TestId> getPreviousOrder(final String testGroup) {
+        return resultsKeeper.getResults().stream()
+                .map(ArcticResultTuple::getId)
+                .filter(it -> testGroup == null || testGroup.equals(it.getTestGroup()))
+                .collect(Collectors.toList());
+    }
+
+    private Optional<ArcticTest> load(final TestId testId) {
+        final long start = System.nanoTime();
+        final Optional<ArcticTest> test = repository.getTestCase(testId);
+        if (test.isEmpty()) {
+            return test;
+        }
+        final ArcticTest recording = test.get();
+        try {
+            repository.loadTestEvents(recording);
+        } catch (final ArcticException e) {
+            // The events loader will try again and fail the test properly
+            log.debug("Unable to prefetch events for {}", testId, e);
+            return test;
+        }
+        if (imageCache.isEnabled()) {
+            Stream.concat(Stream.of(recording.getInitialSc()), recording.getScreenChecks().stream())
+                    .filter(Objects::nonNull)
+                    .flatMap(sc -> Stream.concat(Stream.of(sc.getFilename()), sc.getAlternativeImages().stream()))
+                    .filter(Objects::nonNull)
+                    .forEach(image -> loadImage(recording.getScope(), image));
+        }
+        log.debug("Prefetched {} in {}ms", testId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return test;
+    }
+
+    private void loadImage(final String scope, final Path image) {
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        try {
+            repository.loadImage(scope, image);
+        } catch (final RuntimeException e) {
+            log.debug("Unable to prefetch image {}", image, e);
+        }
+    }
+}
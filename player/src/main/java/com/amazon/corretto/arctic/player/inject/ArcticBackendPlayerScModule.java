@@ -19,10 +19,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 
 import com.amazon.corretto.arctic.common.backend.ArcticImageSaver;
 import com.amazon.corretto.arctic.common.backend.impl.JavaImageIoSaver;
+import com.amazon.corretto.arctic.common.backend.impl.PngImageSaver;
 import com.amazon.corretto.arctic.common.inject.ArcticModule;
 import com.amazon.corretto.arctic.player.backend.ImageComparator;
 import com.amazon.corretto.arctic.player.backend.impl.HashImageComparator;
@@ -35,6 +37,7 @@ import com.amazon.corretto.arctic.player.backend.pixel.check.FuzzyPixelCheck;
 import com.amazon.corretto.arctic.player.backend.pixel.check.HashPixelCheck;
 import com.amazon.corretto.arctic.player.backend.pixel.check.LoadRecordedPixelCheck;
 import com.amazon.corretto.arctic.player.backend.pixel.check.StrictPixelCheck;
+import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.Multibinder;
 import org.apache.commons.configuration2.Configuration;
 import org.slf4j.Logger;
@@ -48,6 +51,7 @@ import static com.google.inject.name.Names.named;
  */
 public final class ArcticBackendPlayerScModule extends ArcticModule {
     private static final Logger log = LoggerFactory.getLogger(ArcticBackendPlayerScModule.class);
+    private static final String CLUSTER_WINDOWS_HELP = "comma separated list of size:maxFailures, with odd sizes";
 
     private static final Map<String, Consumer<ArcticBackendPlayerScModule>> COMPARATORS = Map.of(
             HashImageComparator.NAME, ArcticBackendPlayerScModule::configureHash,
@@ -86,6 +90,22 @@ public final class ArcticBackendPlayerScModule extends ArcticModule {
             fail(InjectionKeys.BACKEND_SC_COMPARATOR, COMPARATORS.keySet());
         }
         COMPARATORS.get(nameProvider).accept(this);
+        configureAdaptiveCapture();
+    }
+
+    private void configureAdaptiveCapture() {
+        bindFromConfig(Long.class, InjectionKeys.BACKEND_SC_ADAPTIVE_POLL_MS,
+                "milliseconds between captures, 0 to capture once after the screen delay");
+        if (getConfig().getLong(InjectionKeys.BACKEND_SC_ADAPTIVE_POLL_MS) < 0) {
+            fail(InjectionKeys.BACKEND_SC_ADAPTIVE_POLL_MS, "0 or more");
+        }
+        bindFromConfig(Long.class, InjectionKeys.BACKEND_SC_ADAPTIVE_STABLE_MS,
+                "milliseconds the screen needs to stay the same to stop waiting");
+        if (getConfig().getLong(InjectionKeys.BACKEND_SC_ADAPTIVE_STABLE_MS) < 0) {
+            fail(InjectionKeys.BACKEND_SC_ADAPTIVE_STABLE_MS, "0 or more");
+        }
+        bindFromConfig(Boolean.class, InjectionKeys.BACKEND_SC_CAPTURE_UNSHADED,
+                "true to capture only the part of the screen not covered by shades");
     }
 
     private void configureHash() {
@@ -96,6 +116,18 @@ public final class ArcticBackendPlayerScModule extends ArcticModule {
         configureChecks();
         configureScreenCheckSave();
         bind(ImageComparator.class).to(PixelImageComparator.class);
+        bindFromConfig(Boolean.class, InjectionKeys.BACKEND_SC_PIXEL_VERDICT_ONLY,
+                "true to stop comparing once the result is known");
+        bindFromConfig(Integer.class, InjectionKeys.BACKEND_SC_PIXEL_ALTERNATIVES_THREADS,
+                "number of alternatives to compare at the same time, 1 or more");
+        if (getConfig().getInt(InjectionKeys.BACKEND_SC_PIXEL_ALTERNATIVES_THREADS) < 1) {
+            fail(InjectionKeys.BACKEND_SC_PIXEL_ALTERNATIVES_THREADS, "1 or more");
+        }
+        bindFromConfig(Integer.class, InjectionKeys.BACKEND_SC_PIXEL_PREFILTER_CANDIDATES,
+                "number of most similar alternatives to compare, 0 for all of them");
+        if (getConfig().getInt(InjectionKeys.BACKEND_SC_PIXEL_PREFILTER_CANDIDATES) < 0) {
+            fail(InjectionKeys.BACKEND_SC_PIXEL_PREFILTER_CANDIDATES, "0 or more");
+        }
         bindFromConfig(Boolean.class, InjectionKeys.BACKEND_SC_PIXEL_HINT_FAST, "true for fast and ugly");
         bindFromConfig(Boolean.class, InjectionKeys.BACKEND_SC_PIXEL_HINT_MASK, "true to generate masks");
     }
@@ -125,16 +157,46 @@ public final class ArcticBackendPlayerScModule extends ArcticModule {
     }
 
     private void configureCluster() {
-        bindFromConfig(Integer.class, InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_9,
-                "number of pixels in 3x3");
-        bindFromConfig(Integer.class, InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_25,
-                "number of pixels in 5x5");
+        // Configurations that still use the legacy keys don't need to have the windows
+        if (!getConfig().containsKey(InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_9)
+                && !getConfig().containsKey(InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_25)) {
+            check(InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_WINDOWS, CLUSTER_WINDOWS_HELP);
+        }
+        final Map<Integer, ClusterPixelCheck.Window> windows = new TreeMap<>();
+        try {
+            getConfig().getList(String.class, InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_WINDOWS, Collections.emptyList())
+                    .stream()
+                    .map(ClusterPixelCheck.Window::fromString)
+                    .forEach(it -> windows.put(it.getSize(), it));
+            overrideClusterWindow(windows, InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_9, 3);
+            overrideClusterWindow(windows, InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_25, 5);
+        } catch (final IllegalArgumentException e) {
+            log.error("Unable to parse cluster windows", e);
+            fail(InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_WINDOWS, CLUSTER_WINDOWS_HELP);
+        }
+        if (windows.isEmpty()) {
+            fail(InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_WINDOWS, CLUSTER_WINDOWS_HELP);
+        }
+        log.debug("Cluster windows: {}", windows.values());
+        bind(new TypeLiteral<List<ClusterPixelCheck.Window>>() { })
+                .annotatedWith(named(InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_WINDOWS))
+                .toInstance(List.copyOf(windows.values()));
         bindFromConfig(Integer.class, InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_MAX_DRAW,
                 "limit number of pixels to draw for clusters");
         bindFromConfig(Boolean.class, InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_SOURCE_FUZZY,
                 "whether to use fuzzy as source for cluster check");
     }
 
+    private void overrideClusterWindow(final Map<Integer, ClusterPixelCheck.Window> windows, final String legacyKey,
+                                       final int size) {
+        if (getConfig().containsKey(legacyKey)) {
+            final int maxFailures = getConfig().getInt(legacyKey);
+            log.warn("{} is deprecated, use {} with {}:{} instead", legacyKey,
+                    InjectionKeys.BACKEND_SC_PIXEL_CLUSTER_WINDOWS, size, maxFailures);
+            windows.put(size, new ClusterPixelCheck.Window(size, maxFailures));
+        }
+    }
+
     private void configureFuzzy() {
         final int globalTolerance = getConfig().getInt(InjectionKeys.BACKEND_SC_PIXEL_FUZZY_TOLERANCE);
         if (globalTolerance < 0 || globalTolerance > FuzzyPixelCheck.MAX_TOLERANCE_VALUE) {
@@ -165,6 +227,25 @@ public final class ArcticBackendPlayerScModule extends ArcticModule {
         check(InjectionKeys.BACKEND_SC_PIXEL_SAVE_EXTENSION, "a valid java ImageIO format extension");
         final String imageFormat = getConfig().getString(InjectionKeys.BACKEND_SC_PIXEL_SAVE_FORMAT);
         final String imageExtension = getConfig().getString(InjectionKeys.BACKEND_SC_PIXEL_SAVE_EXTENSION);
-        bind(ArcticImageSaver.class).toInstance(new JavaImageIoSaver(imageFormat, imageExtension));
+        if (!PngImageSaver.FORMAT.equalsIgnoreCase(imageFormat)) {
+            bind(ArcticImageSaver.class).toInstance(new JavaImageIoSaver(imageFormat, imageExtension));
+            return;
+        }
+        check(InjectionKeys.BACKEND_SC_PIXEL_SAVE_PNG_LEVEL, "0 <= x <= 9");
+        check(InjectionKeys.BACKEND_SC_PIXEL_SAVE_PNG_FILTER, PngImageSaver.FILTERS);
+        check(InjectionKeys.BACKEND_SC_PIXEL_SAVE_PNG_THREADS, "1 or more threads");
+        final int level = getConfig().getInt(InjectionKeys.BACKEND_SC_PIXEL_SAVE_PNG_LEVEL);
+        final String filter = getConfig().getString(InjectionKeys.BACKEND_SC_PIXEL_SAVE_PNG_FILTER);
+        final int threads = getConfig().getInt(InjectionKeys.BACKEND_SC_PIXEL_SAVE_PNG_THREADS);
+        if (level < 0 || level > 9) {
+            fail(InjectionKeys.BACKEND_SC_PIXEL_SAVE_PNG_LEVEL, "0 <= x <= 9");
+        }
+        if (!PngImageSaver.FILTERS.contains(filter)) {
+            fail(InjectionKeys.BACKEND_SC_PIXEL_SAVE_PNG_FILTER, PngImageSaver.FILTERS);
+        }
+        if (threads < 1) {
+            fail(InjectionKeys.BACKEND_SC_PIXEL_SAVE_PNG_THREADS, "1 or more threads");
+        }
+        bind(ArcticImageSaver.class).toInstance(new PngImageSaver(imageExtension, level, filter, threads));
     }
 }
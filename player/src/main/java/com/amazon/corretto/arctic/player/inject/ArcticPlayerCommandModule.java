@@ -36,8 +36,10 @@ import com.amazon.corretto.arctic.player.command.impl.TapCommand;
 import com.amazon.corretto.arctic.player.command.impl.TapPrintCommand;
 import com.amazon.corretto.arctic.player.command.impl.TapSaveCommand;
 import com.amazon.corretto.arctic.player.command.impl.TestClearCommand;
+import com.amazon.corretto.arctic.player.command.impl.TestGcCommand;
 import com.amazon.corretto.arctic.common.command.impl.TestCommand;
 import com.amazon.corretto.arctic.player.command.impl.TestListCommand;
+import com.amazon.corretto.arctic.player.command.impl.TestPrefetchCommand;
 import com.amazon.corretto.arctic.common.command.impl.TestStartCommand;
 import com.google.inject.multibindings.Multibinder;
 import org.apache.commons.configuration2.Configuration;
@@ -63,6 +65,8 @@ public final class ArcticPlayerCommandModule extends ArcticModule {
             entry(TestClearCommand.COMMAND_LINE, TestClearCommand.class),
             entry(TestStartCommand.COMMAND_LINE, TestStartCommand.class),
             entry(TestListCommand.COMMAND_LINE, TestListCommand.class),
+            entry(TestPrefetchCommand.COMMAND_LINE, TestPrefetchCommand.class),
+            entry(TestGcCommand.COMMAND_LINE, TestGcCommand.class),
             entry(TestCommand.COMMAND_LINE, TestCommand.class),
             entry(ScCommand.COMMAND_LINE, ScCommand.class));
 
@@ -49,5 +49,9 @@ public final class ArcticPlayerModule extends ArcticModule {
 
         bindFromConfig(Boolean.class, InjectionKeys.CONFIRMATION_MODE, Arrays.asList(true, false));
         bindFromConfig(Boolean.class, InjectionKeys.FAST_MODE, Arrays.asList(true, false));
+        bindFromConfig(Integer.class, InjectionKeys.PREFETCH_DEPTH, "number of tests, 0 to disable");
+        if (getConfig().getInt(InjectionKeys.PREFETCH_DEPTH) < 0) {
+            fail(InjectionKeys.PREFETCH_DEPTH, "number of tests, 0 to disable");
+        }
     }
 }
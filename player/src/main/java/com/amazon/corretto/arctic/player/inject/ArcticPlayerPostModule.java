@@ -92,5 +92,11 @@ public final class ArcticPlayerPostModule extends ArcticModule {
 
     private void configureMigrator() {
         bindFromConfig(Boolean.class, InjectionKeys.POST_MIGRATE, Arrays.asList(true, false));
+        final List<String> formats = Arrays.asList(RecordingMigrator.EVENTS_FORMAT_KEEP,
+                RecordingMigrator.EVENTS_FORMAT_JSON, RecordingMigrator.EVENTS_FORMAT_BINARY);
+        bindFromConfig(String.class, InjectionKeys.POST_MIGRATE_EVENTS_FORMAT, formats);
+        if (!formats.contains(getConfig().getString(InjectionKeys.POST_MIGRATE_EVENTS_FORMAT))) {
+            fail(InjectionKeys.POST_MIGRATE_EVENTS_FORMAT, formats);
+        }
     }
 }
@@ -21,11 +21,13 @@ import java.util.Map;
 import java.util.function.Consumer;
 
 import com.amazon.corretto.arctic.common.inject.ArcticModule;
+import com.amazon.corretto.arctic.common.util.PathSimplifier;
 import com.amazon.corretto.arctic.player.preprocessing.ArcticPlayerPreProcessor;
 import com.amazon.corretto.arctic.player.preprocessing.impl.CleanUpPreProcessor;
 import com.amazon.corretto.arctic.player.preprocessing.impl.EventsLoaderPreProcessor;
 import com.amazon.corretto.arctic.player.preprocessing.impl.FirstTestDelayPreProcessor;
 import com.amazon.corretto.arctic.player.preprocessing.impl.OverridesPreProcessor;
+import com.amazon.corretto.arctic.player.preprocessing.impl.PathSimplificationPreProcessor;
 import com.amazon.corretto.arctic.player.preprocessing.impl.ScreenCheckValidatorPreProcessor;
 import com.amazon.corretto.arctic.player.preprocessing.impl.TestDelayPreProcessor;
 import com.amazon.corretto.arctic.player.preprocessing.impl.TimeControllerPreProcessor;
@@ -64,13 +66,15 @@ public final class ArcticPlayerPreModule extends ArcticModule {
             ScreenCheckValidatorPreProcessor.NAME, ScreenCheckValidatorPreProcessor.class,
             EventsLoaderPreProcessor.NAME, EventsLoaderPreProcessor.class,
             TruncationPreProcessor.NAME, TruncationPreProcessor.class,
+            PathSimplificationPreProcessor.NAME, PathSimplificationPreProcessor.class,
             TimeControllerPreProcessor.NAME, TimeControllerPreProcessor.class,
             CleanUpPreProcessor.NAME, CleanUpPreProcessor.class);
 
     private static final Map<String, Consumer<ArcticPlayerPreModule>> ADDITIONAL_CONFIGURATION = Map.of(
             FirstTestDelayPreProcessor.NAME, ArcticPlayerPreModule::configureFirstTestDelay,
             OverridesPreProcessor.NAME, ArcticPlayerPreModule::configureOverrides,
-            ScreenCheckValidatorPreProcessor.NAME, ArcticPlayerPreModule::configureScreenCheckValidator
+            ScreenCheckValidatorPreProcessor.NAME, ArcticPlayerPreModule::configureScreenCheckValidator,
+            PathSimplificationPreProcessor.NAME, ArcticPlayerPreModule::configurePathSimplification
     );
 
     @Override
@@ -104,6 +108,21 @@ public final class ArcticPlayerPreModule extends ArcticModule {
         bindFromConfig(Boolean.class, InjectionKeys.PRE_SC_VALIDATOR_BYPASS, "true to ignore the scValidator result");
     }
 
+    private void configurePathSimplification() {
+        bindFromConfig(String.class, InjectionKeys.PRE_PATH_SIMPLIFY_MODE, PathSimplifier.MODES);
+        if (!PathSimplifier.MODES.contains(getConfig().getString(InjectionKeys.PRE_PATH_SIMPLIFY_MODE))) {
+            fail(InjectionKeys.PRE_PATH_SIMPLIFY_MODE, PathSimplifier.MODES);
+        }
+        bindFromConfig(Double.class, InjectionKeys.PRE_PATH_SIMPLIFY_EPSILON, "a distance in pixels, 0 or more");
+        if (getConfig().getDouble(InjectionKeys.PRE_PATH_SIMPLIFY_EPSILON) < 0) {
+            fail(InjectionKeys.PRE_PATH_SIMPLIFY_EPSILON, "a distance in pixels, 0 or more");
+        }
+        bindFromConfig(Long.class, InjectionKeys.PRE_PATH_SIMPLIFY_BUCKET_MS, "a duration in ms, 0 or more");
+        if (getConfig().getLong(InjectionKeys.PRE_PATH_SIMPLIFY_BUCKET_MS) < 0) {
+            fail(InjectionKeys.PRE_PATH_SIMPLIFY_BUCKET_MS, "a duration in ms, 0 or more");
+        }
+    }
+
     private void configureOverrides() {
         install(new ArcticPlayerPreOverridesModule(getConfig()));
     }
@@ -16,13 +16,20 @@
 
 package com.amazon.corretto.arctic.player.inject;
 
+import java.util.Map;
+
 import com.amazon.corretto.arctic.common.command.impl.SessionCommand;
 import com.amazon.corretto.arctic.common.inject.ArcticModule;
+import com.amazon.corretto.arctic.common.inject.CommonInjectionKeys;
 import com.amazon.corretto.arctic.common.serialization.ArcticTypeAdapter;
 import com.amazon.corretto.arctic.common.serialization.TestIdTypeAdapter;
 import com.amazon.corretto.arctic.common.session.ArcticSessionKeeper;
+import com.amazon.corretto.arctic.common.session.SessionJournal;
+import com.amazon.corretto.arctic.player.results.ArcticLatenessKeeper;
 import com.amazon.corretto.arctic.player.results.ArcticScFailureKeeper;
 import com.amazon.corretto.arctic.player.results.ArcticTestResultsKeeper;
+import com.amazon.corretto.arctic.player.results.impl.DiskScFailureKeeper;
+import com.amazon.corretto.arctic.player.results.impl.InMemoryLatenessKeeper;
 import com.amazon.corretto.arctic.player.results.impl.InMemoryScFailureKeeper;
 import com.amazon.corretto.arctic.player.results.impl.InMemoryTestResultsKeeper;
 import com.amazon.corretto.arctic.player.serialization.FailureIdTypeAdapter;
@@ -38,6 +45,10 @@ import static com.google.inject.name.Names.named;
  * Due to their nature, they are injected as Singleton, as we want one single copy of each keeper to receive all data.
  */
 public final class ArcticPlayerResultsModule extends ArcticModule {
+    private static final Map<String, Class<? extends ArcticScFailureKeeper>> SC_FAILURE_KEEPERS = Map.of(
+            InMemoryScFailureKeeper.NAME, InMemoryScFailureKeeper.class,
+            DiskScFailureKeeper.NAME, DiskScFailureKeeper.class
+    );
 
     /**
      * Creates a new instance.
@@ -50,12 +61,15 @@ public final class ArcticPlayerResultsModule extends ArcticModule {
     @Override
     public void configure() {
         bind(ArcticTestResultsKeeper.class).to(InMemoryTestResultsKeeper.class).in(Singleton.class);
-        bind(ArcticScFailureKeeper.class).to(InMemoryScFailureKeeper.class).in(Singleton.class);
+        bind(ArcticLatenessKeeper.class).to(InMemoryLatenessKeeper.class).in(Singleton.class);
+        configureScFailureKeeper();
 
         final Multibinder<ArcticSessionKeeper<?, ?>> keepers =
                 Multibinder.newSetBinder(binder(), new TypeLiteral<>() {});
         keepers.addBinding().to(ArcticTestResultsKeeper.class);
         keepers.addBinding().to(ArcticScFailureKeeper.class);
+        keepers.addBinding().to(ArcticLatenessKeeper.class);
+        configureJournal();
 
         // Register specific TypeAdapters needed for session serialization of Player objects
         final Multibinder<ArcticTypeAdapter<?>> typeAdapters = Multibinder.newSetBinder(binder(),
@@ -63,4 +77,38 @@ public final class ArcticPlayerResultsModule extends ArcticModule {
         typeAdapters.addBinding().to(FailureIdTypeAdapter.class);
         typeAdapters.addBinding().to(TestIdTypeAdapter.class);
     }
+
+    private void configureScFailureKeeper() {
+        check(InjectionKeys.RESULTS_SC_KEEPER, SC_FAILURE_KEEPERS.keySet());
+        final String keeper = getConfig().getString(InjectionKeys.RESULTS_SC_KEEPER);
+        if (!SC_FAILURE_KEEPERS.containsKey(keeper)) {
+            fail(InjectionKeys.RESULTS_SC_KEEPER, SC_FAILURE_KEEPERS.keySet());
+        }
+        bind(ArcticScFailureKeeper.class).to(SC_FAILURE_KEEPERS.get(keeper)).in(Singleton.class);
+        if (DiskScFailureKeeper.NAME.equals(keeper)) {
+            bindFromConfig(String.class, InjectionKeys.RESULTS_SC_DISK_FOLDER, "folder to store the failures");
+            bindFromConfig(Integer.class, InjectionKeys.RESULTS_SC_DISK_CACHE,
+                    "number of failures to keep in memory, 0 or more");
+            if (getConfig().getInt(InjectionKeys.RESULTS_SC_DISK_CACHE) < 0) {
+                fail(InjectionKeys.RESULTS_SC_DISK_CACHE, "0 or more");
+            }
+        }
+    }
+
+    private void configureJournal() {
+        bindFromConfig(Boolean.class, CommonInjectionKeys.SESSION_JOURNAL_ENABLED,
+                "true to record all the changes to the session in a journal");
+        bindFromConfig(Integer.class, CommonInjectionKeys.SESSION_JOURNAL_SYNC_MS,
+                "milliseconds between syncs of the journal, 0 to sync every change");
+        if (getConfig().getInt(CommonInjectionKeys.SESSION_JOURNAL_SYNC_MS) < 0) {
+            fail(CommonInjectionKeys.SESSION_JOURNAL_SYNC_MS, "0 or more");
+        }
+        bindFromConfig(Integer.class, CommonInjectionKeys.SESSION_JOURNAL_COMPACT,
+                "number of changes before the journal is compacted, 1 or more");
+        if (getConfig().getInt(CommonInjectionKeys.SESSION_JOURNAL_COMPACT) < 1) {
+            fail(CommonInjectionKeys.SESSION_JOURNAL_COMPACT, "1 or more");
+        }
+        // Lets the session command restore the journal. Other modes don't have a journal, so their set is empty
+        Multibinder.newSetBinder(binder(), SessionJournal.class).addBinding().to(SessionJournal.class);
+    }
 }
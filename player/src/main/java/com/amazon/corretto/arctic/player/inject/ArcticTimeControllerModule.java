@@ -22,6 +22,7 @@ import com.amazon.corretto.arctic.common.inject.ArcticModule;
 import com.amazon.corretto.arctic.common.tweak.ArcticTweakableComponent;
 import com.amazon.corretto.arctic.player.control.TimeController;
 import com.amazon.corretto.arctic.player.control.impl.AdvancedTimeController;
+import com.amazon.corretto.arctic.player.control.impl.PreciseTimeController;
 import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.Multibinder;
 import jakarta.inject.Singleton;
@@ -33,10 +34,12 @@ import org.apache.commons.configuration2.Configuration;
  */
 public final class ArcticTimeControllerModule extends ArcticModule {
     private static final Map<String, Class<? extends TimeController>> CONTROLLERS = Map.of(
-            AdvancedTimeController.NAME, AdvancedTimeController.class);
+            AdvancedTimeController.NAME, AdvancedTimeController.class,
+            PreciseTimeController.NAME, PreciseTimeController.class);
 
     private static final Map<String, Consumer<ArcticTimeControllerModule>> ADDITIONAL_CONFIGURATION = Map.of(
-            AdvancedTimeController.NAME, ArcticTimeControllerModule::configureAdvTimeController);
+            AdvancedTimeController.NAME, ArcticTimeControllerModule::configureAdvTimeController,
+            PreciseTimeController.NAME, ArcticTimeControllerModule::configurePreciseTimeController);
 
 
 
@@ -67,4 +70,26 @@ public final class ArcticTimeControllerModule extends ArcticModule {
         Multibinder.newSetBinder(binder(), new TypeLiteral<ArcticTweakableComponent>(){})
                 .addBinding().to(AdvancedTimeController.class).in(Singleton.class);
     }
+
+    private void configurePreciseTimeController() {
+        bindFromConfig(Integer.class, InjectionKeys.TIME_PRECISE_PARK_US,
+                "microseconds before the deadline to stop sleeping and start parking, 0 or more");
+        bindFromConfig(Integer.class, InjectionKeys.TIME_PRECISE_SPIN_US,
+                "microseconds before the deadline to stop parking and start spinning, 0 or more");
+        final int parkUs = getConfig().getInt(InjectionKeys.TIME_PRECISE_PARK_US);
+        final int spinUs = getConfig().getInt(InjectionKeys.TIME_PRECISE_SPIN_US);
+        if (parkUs < 0) {
+            fail(InjectionKeys.TIME_PRECISE_PARK_US, "0 or more");
+        }
+        if (spinUs < 0 || spinUs > parkUs) {
+            fail(InjectionKeys.TIME_PRECISE_SPIN_US, "between 0 and " + InjectionKeys.TIME_PRECISE_PARK_US);
+        }
+        bindFromConfig(Integer.class, InjectionKeys.TIME_PRECISE_CATCHUP_MS,
+                "milliseconds an event can be late and still be caught up with, 0 or more");
+        if (getConfig().getInt(InjectionKeys.TIME_PRECISE_CATCHUP_MS) < 0) {
+            fail(InjectionKeys.TIME_PRECISE_CATCHUP_MS, "0 or more");
+        }
+        Multibinder.newSetBinder(binder(), new TypeLiteral<ArcticTweakableComponent>(){})
+                .addBinding().to(PreciseTimeController.class).in(Singleton.class);
+    }
 }
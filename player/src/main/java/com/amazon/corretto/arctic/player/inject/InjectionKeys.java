@@ -28,6 +28,14 @@ public final class InjectionKeys {
 
     public static final String CONFIRMATION_MODE = PREFIX + "confirmation.mode";
     public static final String FAST_MODE = PREFIX + "fast.mode";
+    public static final String PREFETCH_DEPTH = PREFIX + "prefetch.depth";
+
+    /**
+     * Results related keys.
+     */
+    public static final String RESULTS_SC_KEEPER = PREFIX + "results.sc.keeper";
+    public static final String RESULTS_SC_DISK_FOLDER = PREFIX + "results.sc.disk.folder";
+    public static final String RESULTS_SC_DISK_CACHE = PREFIX + "results.sc.disk.cache";
 
     /**
      * Backend related keys.
@@ -45,24 +53,41 @@ public final class InjectionKeys {
      * Pixel sc comparator related keys.
      */
     public static final String BACKEND_SC_COMPARATOR = PREFIX + "backend.sc.comparator";
+    public static final String BACKEND_SC_ADAPTIVE_POLL_MS = PREFIX + "backend.sc.adaptive.poll.ms";
+    public static final String BACKEND_SC_ADAPTIVE_STABLE_MS = PREFIX + "backend.sc.adaptive.stable.ms";
+    public static final String BACKEND_SC_CAPTURE_UNSHADED = PREFIX + "backend.sc.capture.unshaded";
     public static final String BACKEND_SC_PIXEL_CHECKS = PREFIX + "backend.sc.pixel.checks";
     public static final String BACKEND_SC_PIXEL_SAVE = PREFIX + "backend.sc.pixel.save";
     public static final String BACKEND_SC_PIXEL_SAVE_FOLDER = PREFIX + "backend.sc.pixel.save.folder";
     public static final String BACKEND_SC_PIXEL_SAVE_CLEAR = PREFIX + "backend.sc.pixel.save.clear";
     public static final String BACKEND_SC_PIXEL_SAVE_FORMAT = PREFIX + "backend.sc.pixel.save.format";
     public static final String BACKEND_SC_PIXEL_SAVE_EXTENSION = PREFIX + "backend.sc.pixel.save.extension";
+    public static final String BACKEND_SC_PIXEL_SAVE_PNG_LEVEL = PREFIX + "backend.sc.pixel.save.png.level";
+    public static final String BACKEND_SC_PIXEL_SAVE_PNG_FILTER = PREFIX + "backend.sc.pixel.save.png.filter";
+    public static final String BACKEND_SC_PIXEL_SAVE_PNG_THREADS = PREFIX + "backend.sc.pixel.save.png.threads";
+    public static final String BACKEND_SC_PIXEL_VERDICT_ONLY = PREFIX + "backend.sc.pixel.verdictOnly";
+    public static final String BACKEND_SC_PIXEL_ALTERNATIVES_THREADS = PREFIX + "backend.sc.pixel.alternatives.threads";
+    public static final String BACKEND_SC_PIXEL_PREFILTER_CANDIDATES = PREFIX + "backend.sc.pixel.prefilter.candidates";
     public static final String BACKEND_SC_PIXEL_HINT_FAST = PREFIX + "backend.sc.pixel.hint.fast";
     public static final String BACKEND_SC_PIXEL_HINT_MASK = PREFIX + "backend.sc.pixel.hint.mask";
     public static final String BACKEND_SC_PIXEL_CONFIDENCE_MIN = PREFIX + "backend.sc.pixel.confidence.min";
     public static final String BACKEND_SC_PIXEL_CHECK_SHADES = PREFIX + "backend.sc.pixel.checkShades";
     public static final String BACKEND_SC_PIXEL_SHADE_MARGIN = PREFIX + "backend.sc.pixel.shadeMargin";
     public static final String BACKEND_SC_PIXEL_FUZZY_TOLERANCE = PREFIX + "backend.sc.pixel.fuzzy.tolerance";
+    public static final String BACKEND_SC_PIXEL_CLUSTER_WINDOWS = PREFIX + "backend.sc.pixel.cluster.windows";
+    /**
+     * Legacy keys for the 3x3 and 5x5 cluster windows. If present, they override the limit of the matching window in
+     * {@link #BACKEND_SC_PIXEL_CLUSTER_WINDOWS}.
+     */
     public static final String BACKEND_SC_PIXEL_CLUSTER_9 = PREFIX + "backend.sc.pixel.cluster.9";
     public static final String BACKEND_SC_PIXEL_CLUSTER_25 = PREFIX + "backend.sc.pixel.cluster.25";
     public static final String BACKEND_SC_PIXEL_CLUSTER_MAX_DRAW = PREFIX + "backend.sc.pixel.cluster.max.draw";
     public static final String BACKEND_SC_PIXEL_CLUSTER_SOURCE_FUZZY = PREFIX + "backend.sc.pixel.cluster.source.fuzzy";
 
     public static final String TIME_CONTROLLER = PREFIX + "time.controller";
+    public static final String TIME_PRECISE_PARK_US = PREFIX + "time.precise.park.us";
+    public static final String TIME_PRECISE_SPIN_US = PREFIX + "time.precise.spin.us";
+    public static final String TIME_PRECISE_CATCHUP_MS = PREFIX + "time.precise.catchup.ms";
 
     /**
      * Pre-processing related keys.
@@ -71,6 +96,9 @@ public final class InjectionKeys {
     public static final String PRE_FIRST_TEST_DELAY_WAIT = PREFIX + "pre.firstTestDelay.wait";
     public static final String PRE_SC_VALIDATOR_WAIT_FOCUS = PREFIX + "pre.scValidator.wait.focus";
     public static final String PRE_SC_VALIDATOR_BYPASS = PREFIX + "pre.scValidator.bypass";
+    public static final String PRE_PATH_SIMPLIFY_MODE = PREFIX + "pre.pathSimplify.mode";
+    public static final String PRE_PATH_SIMPLIFY_EPSILON = PREFIX + "pre.pathSimplify.epsilon";
+    public static final String PRE_PATH_SIMPLIFY_BUCKET_MS = PREFIX + "pre.pathSimplify.bucket.ms";
     public static final String PRE_OVERRIDES_REPRODUCTION = PREFIX + "pre.overrides.reproduction";
     public static final String PRE_OVERRIDES_REPRODUCTION_MODE = PREFIX + "pre.overrides.reproduction.mode";
     public static final String PRE_OVERRIDES_TRUNCATIONS = PREFIX + "pre.overrides.truncations";
@@ -93,6 +121,7 @@ public final class InjectionKeys {
     public static final String POST_PROCESSORS = PREFIX + "post.processors";
     public static final String POST_AUTO_UPDATER_SAVE = PREFIX + "post.auto.updater.save";
     public static final String POST_MIGRATE = PREFIX + "post.migrate";
+    public static final String POST_MIGRATE_EVENTS_FORMAT = PREFIX + "post.migrate.events.format";
 
     /**
      * Review related keys
@@ -52,6 +52,7 @@ public final class ArcticDiffImages {
     private final Map<Path, PixelCheck.PixelCheckSummary> strictSummaries = new HashMap<>();
     private final Map<Path, PixelCheck.PixelCheckSummary> fuzzySummaries = new HashMap<>();
     private final List<ScreenArea> shades;
+    private final boolean partialCapture;
     private final float testConfidence;
     private final Map<String, ArcticDiffProperty<?>> globalProperties;
     private final Map<Path, Map<String, ArcticDiffProperty<?>>> properties;
@@ -70,6 +71,7 @@ public final class ArcticDiffImages {
         this.hashMode = failure.getHashMode();
         this.testConfidence = failure.getRequiredConfidence();
         this.shades = failure.getShades();
+        this.partialCapture = failure.isPartialCapture();
         this.globalProperties = new LinkedHashMap<>();
         this.properties = new LinkedHashMap<>();
         alternatives.forEach(it -> {
@@ -358,7 +360,13 @@ public final class ArcticDiffImages {
     }
 
     /**
-     * Returns the position of the shades (referenced to the workbench).
+     * Whether the current image was captured only for the part of the screen not covered by shades. The pixels under
+     * the shades were not read from the screen, so they can't be checked.
+     * @return True for a partial capture.
+     */
+    public boolean isPartialCapture() {
+        return partialCapture;
+    }
 
     /**
      * Returns the position of the shades (referenced to the workbench).
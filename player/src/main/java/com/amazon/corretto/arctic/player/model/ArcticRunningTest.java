@@ -28,6 +28,7 @@ public final class ArcticRunningTest {
     private final TestId testId;
     private final ArcticTest recording;
     private final ArcticPlayerTestStatus status;
+    private final EventLateness lateness = new EventLateness();
 
     /**
      * Creates a new instance for a test. This assumes the test execution will be starting.
@@ -91,4 +92,12 @@ public final class ArcticRunningTest {
     public ArcticPlayerTestStatus getStatus() {
         return status;
     }
+
+    /**
+     * How late the events of the test were replayed compared to when they were scheduled.
+     * @return Lateness of the events. Empty if the time controller does not measure it.
+     */
+    public EventLateness getLateness() {
+        return lateness;
+    }
 }
@@ -0,0 +1,180 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.player.model;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps how late each event of a test was replayed, compared to the moment the time controller scheduled it for. Only
+ * time controllers that schedule against deadlines record samples, so for other controllers this stays empty.
+ */
+public final class EventLateness {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int P50 = 50;
+    private static final int P99 = 99;
+
+    private long[] samples = new long[INITIAL_CAPACITY];
+    private int count;
+    private long max;
+
+    /**
+     * Adds the lateness of one event.
+     * @param lateNs How many nanoseconds after its deadline the event was released. Negative values count as 0.
+     */
+    public synchronized void add(final long lateNs) {
+        final long value = Math.max(0, lateNs);
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Removes all the samples.
+     */
+    public synchronized void clear() {
+        count = 0;
+        max = 0;
+    }
+
+    /**
+     * Number of events recorded.
+     * @return Number of samples.
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Median lateness of the events.
+     * @return Lateness in nanoseconds, 0 if there are no samples.
+     */
+    public long getP50Ns() {
+        return getPercentileNs(P50);
+    }
+
+    /**
+     * Lateness of the 99th percentile of the events.
+     * @return Lateness in nanoseconds, 0 if there are no samples.
+     */
+    public long getP99Ns() {
+        return getPercentileNs(P99);
+    }
+
+    /**
+     * Worst lateness of all the events.
+     * @return Lateness in nanoseconds, 0 if there are no samples.
+     */
+    public synchronized long getMaxNs() {
+        return max;
+    }
+
+    /**
+     * Lateness below which a percentage of the events fall, using the nearest rank method.
+     * @param percentile Percentile to calculate, between 0 and 100.
+     * @return Lateness in nanoseconds, 0 if there are no samples.
+     */
+    public synchronized long getPercentileNs(final int percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        final int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(0, Math.min(count, rank) - 1)];
+    }
+
+    /**
+     * Takes a snapshot of the current lateness, so it can be kept with the results of the test.
+     * @return Summary of the samples recorded so far.
+     */
+    public synchronized Summary getSummary() {
+        return new Summary(count, getP50Ns(), getP99Ns(), max);
+    }
+
+    @Override
+    public String toString() {
+        return getSummary().toString();
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Immutable summary of the lateness of the events of a test. This is what gets stored with the test results.
+     */
+    public static final class Summary {
+        private final int count;
+        private final long p50Ns;
+        private final long p99Ns;
+        private final long maxNs;
+
+        /**
+         * Creates a new summary.
+         * @param count Number of events recorded.
+         * @param p50Ns Median lateness in nanoseconds.
+         * @param p99Ns Lateness of the 99th percentile in nanoseconds.
+         * @param maxNs Worst lateness in nanoseconds.
+         */
+        public Summary(final int count, final long p50Ns, final long p99Ns, final long maxNs) {
+            this.count = count;
+            this.p50Ns = p50Ns;
+            this.p99Ns = p99Ns;
+            this.maxNs = maxNs;
+        }
+
+        /**
+         * Number of events recorded.
+         * @return Number of samples.
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Median lateness of the events.
+         * @return Lateness in nanoseconds.
+         */
+        public long getP50Ns() {
+            return p50Ns;
+        }
+
+        /**
+         * Lateness of the 99th percentile of the events.
+         * @return Lateness in nanoseconds.
+         */
+        public long getP99Ns() {
+            return p99Ns;
+        }
+
+        /**
+         * Worst lateness of all the events.
+         * @return Lateness in nanoseconds.
+         */
+        public long getMaxNs() {
+            return maxNs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("events=%d, p50=%.3fms, p99=%.3fms, max=%.3fms", count, toMillis(p50Ns),
+                    toMillis(p99Ns), toMillis(maxNs));
+        }
+    }
+}
@@ -38,6 +38,7 @@ public final class PixelCheckFailure {
     private final Path failuresFolder;
     private final float requiredConfidence;
     private final List<ScreenArea> shades;
+    private final boolean partialCapture;
     private final String scope;
     private final LinkedHashMap<PixelCheck.Type, Path> images = new LinkedHashMap<>();
 
@@ -58,9 +59,19 @@ public final class PixelCheckFailure {
         this.savedImagePaths = result.getSavedImagePaths();
         this.requiredConfidence = result.getTestConfidence();
         this.shades = result.getShades();
+        this.partialCapture = result.isPartialCapture();
         this.scope = result.getScope();
     }
 
+    /**
+     * Whether the current image was captured only for the part of the screen not covered by shades. The pixels under
+     * the shades were not read from the screen, so they can't be checked.
+     * @return True for a partial capture.
+     */
+    public boolean isPartialCapture() {
+        return partialCapture;
+    }
+
     /**
      * Returns the position of the shades (referenced to the workbench).
      * @return List of the shades positions
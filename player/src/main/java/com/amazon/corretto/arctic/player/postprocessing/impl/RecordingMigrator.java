@@ -16,13 +16,13 @@
 
 package com.amazon.corretto.arctic.player.postprocessing.impl;
 
-import java.nio.file.Path;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Stream;
 
 import com.amazon.corretto.arctic.common.model.ArcticTest;
 import com.amazon.corretto.arctic.common.repository.TestSaveRepository;
+import com.amazon.corretto.arctic.common.serialization.EventsBinaryFormat;
 import com.amazon.corretto.arctic.player.inject.InjectionKeys;
 import com.amazon.corretto.arctic.player.model.ArcticRunningTest;
 import com.amazon.corretto.arctic.player.model.TestStatusCode;
@@ -38,24 +38,33 @@ import org.slf4j.LoggerFactory;
  * - All alternatives are discarded
  * - Images for the test will be replaced with the ones captured on our current run
  * - Current overrides are applied to the test
+ * - Events file can be converted to a different format
  */
 public final class RecordingMigrator implements ArcticPlayerPostProcessor {
     private static final Logger log = LoggerFactory.getLogger(RecordingMigrator.class);
     private static final int PRIORITY = 90;
     public static final String NAME = "migrator";
+    public static final String EVENTS_FORMAT_KEEP = "keep";
+    public static final String EVENTS_FORMAT_JSON = "json";
+    public static final String EVENTS_FORMAT_BINARY = "binary";
     private final TestSaveRepository repository;
     private final boolean migrate;
+    private final String eventsFormat;
 
     /**
      * Creates a new instance of the migrator. Called by the dependency injection framework.
      * @param repository A repository to save the migrated tests to.
      * @param migrate True if we want to migrate the tests. False to disable migration.
+     * @param eventsFormat Format for the events file of the migrated tests. One of {@link #EVENTS_FORMAT_KEEP},
+     *                     {@link #EVENTS_FORMAT_JSON} or {@link #EVENTS_FORMAT_BINARY}.
      */
     @Inject
     public RecordingMigrator(final TestSaveRepository repository,
-                             @Named(InjectionKeys.POST_MIGRATE) final boolean migrate) {
+                             @Named(InjectionKeys.POST_MIGRATE) final boolean migrate,
+                             @Named(InjectionKeys.POST_MIGRATE_EVENTS_FORMAT) final String eventsFormat) {
         this.repository = repository;
         this.migrate = migrate;
+        this.eventsFormat = eventsFormat;
     }
 
     @Override
@@ -65,14 +74,19 @@ public final class RecordingMigrator implements ArcticPlayerPostProcessor {
             log.info("Migrating test {}", test.getTestId());
             ArcticTest recording = test.getRecording();
             repository.removeTestCase(recording.getTestId(), recording.getScope());
+            if (!EVENTS_FORMAT_KEEP.equals(eventsFormat)) {
+                // The old events file was removed with the rest of the test, so only the new one will remain
+                recording.setEventsFile(EventsBinaryFormat.toFormat(recording.getEventsFile(),
+                        EVENTS_FORMAT_BINARY.equals(eventsFormat)));
+            }
             Stream.concat(Stream.of(recording.getInitialSc()), recording.getScreenChecks().stream())
                     .filter(Objects::nonNull)
                     .filter(it -> it.getImage() != null)
                     .forEach(it -> {
                         it.getAlternativeImages().clear();
                         it.getAlternativeHashes().clear();
-                        repository.saveImage(recording.getTestName(), recording.getTestCase(),
-                                recording.getScope(), getScName(it.getFilename()), it.getImage());
+                        it.getAlternativeSignatures().clear();
+                        repository.updateImage(recording, it);
                     });
             return repository.saveTestCase(test.getRecording(), true);
         }
@@ -93,8 +107,4 @@ public final class RecordingMigrator implements ArcticPlayerPostProcessor {
     public Set<TestStatusCode> getRegisteredStatuses() {
         return Set.of(TestStatusCode.CONFIRMED, TestStatusCode.FAILED);
     }
-
-    private String getScName(final Path scPath) {
-        return (scPath.getFileName().toString().split("\\."))[0];
-    }
 }
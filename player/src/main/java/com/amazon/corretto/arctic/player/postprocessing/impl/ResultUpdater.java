@@ -20,8 +20,10 @@ import java.util.EnumSet;
 import java.util.Set;
 
 import com.amazon.corretto.arctic.player.model.ArcticRunningTest;
+import com.amazon.corretto.arctic.player.model.EventLateness;
 import com.amazon.corretto.arctic.player.model.TestStatusCode;
 import com.amazon.corretto.arctic.player.postprocessing.ArcticPlayerPostProcessor;
+import com.amazon.corretto.arctic.player.results.ArcticLatenessKeeper;
 import com.amazon.corretto.arctic.player.results.ArcticTestResultsKeeper;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
@@ -29,7 +31,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Updates the results of the test execution. This is done for all {@link TestStatusCode} at the end of the
- * postProcessing pipeline
+ * postProcessing pipeline. The lateness of the replayed events, if the time controller measured it, is kept with them.
  */
 public final class ResultUpdater implements ArcticPlayerPostProcessor {
     private static final Logger log = LoggerFactory.getLogger(ResultUpdater.class);
@@ -37,20 +39,31 @@ public final class ResultUpdater implements ArcticPlayerPostProcessor {
 
     public static final String NAME = "resultsUpdater";
     private final ArcticTestResultsKeeper resultsKeeper;
+    private final ArcticLatenessKeeper latenessKeeper;
 
     /**
      * Creates a new instance of the postProcessor.
      * @param resultsKeeper Object that will store the different test results.
+     * @param latenessKeeper Object that will store how late the events of the different tests were replayed.
      */
     @Inject
-    public ResultUpdater(final ArcticTestResultsKeeper resultsKeeper) {
+    public ResultUpdater(final ArcticTestResultsKeeper resultsKeeper, final ArcticLatenessKeeper latenessKeeper) {
         this.resultsKeeper = resultsKeeper;
+        this.latenessKeeper = latenessKeeper;
     }
 
     @Override
     public boolean postProcess(final ArcticRunningTest test) {
         log.debug("Updating result for {}:{} as {}", test.getTestId().getTestClass(), test.getTestId().getTestCase(),
                 test.getStatus().getStatusCode());
+        final EventLateness.Summary lateness = test.getLateness().getSummary();
+        if (lateness.getCount() > 0) {
+            log.debug("Event lateness for {}:{}: {}", test.getTestId().getTestClass(), test.getTestId().getTestCase(),
+                    lateness);
+            latenessKeeper.addValue(test.getTestId(), lateness);
+        } else {
+            latenessKeeper.clear(test.getTestId());
+        }
         resultsKeeper.addValue(test.getTestId(), test.getStatus().getStatusCode());
         return true;
     }
@@ -16,7 +16,6 @@
 
 package com.amazon.corretto.arctic.player.postprocessing.impl;
 
-import java.nio.file.Path;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -61,8 +60,7 @@ public final class TestAutoUpdater implements ArcticPlayerPostProcessor {
             Stream.concat(Stream.of(recording.getInitialSc()), recording.getScreenChecks().stream())
                     .filter(Objects::nonNull)
                     .filter(it -> it.getImage() != null)
-                    .forEach(it -> repository.saveImage(recording.getTestName(), recording.getTestCase(),
-                            recording.getScope(), getScName(it.getFilename()), it.getImage()));
+                    .forEach(it -> repository.updateImage(recording, it));
             return repository.saveTestCase(test.getRecording(), false);
         }
         return true;
@@ -82,8 +80,4 @@ public final class TestAutoUpdater implements ArcticPlayerPostProcessor {
     public Set<TestStatusCode> getRegisteredStatuses() {
         return Set.of(TestStatusCode.CONFIRMED);
     }
-
-    private String getScName(final Path scPath) {
-        return (scPath.getFileName().toString().split("\\."))[0];
-    }
 }
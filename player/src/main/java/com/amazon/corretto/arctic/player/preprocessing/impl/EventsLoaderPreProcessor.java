@@ -28,7 +28,8 @@ import jakarta.inject.Inject;
 /**
  * Most of the information of the test, like the actual events recording, is only loaded on demand, as it is
  * persisted in a different file. This will happen once the player has identified the current test case and it is
- * ready to start posting events.
+ * ready to start posting events. Tests prefetched by the
+ * {@link com.amazon.corretto.arctic.player.control.impl.TestPrefetcher} already have their events loaded.
  */
 public final class EventsLoaderPreProcessor implements ArcticPlayerPreProcessor {
     public static final String NAME = "eventsLoader";
@@ -43,6 +44,10 @@ public final class EventsLoaderPreProcessor implements ArcticPlayerPreProcessor
 
     @Override
     public boolean preProcess(final ArcticRunningTest test) {
+        if (test.getRecording().isEventsLoaded()) {
+            // Already loaded in advance by the TestPrefetcher
+            return true;
+        }
         try {
             testLoadRepository.loadTestEvents(test.getRecording());
             return true;
@@ -0,0 +1,85 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.player.preprocessing.impl;
+
+import java.util.List;
+import java.util.Set;
+
+import com.amazon.corretto.arctic.common.model.ArcticTest;
+import com.amazon.corretto.arctic.common.model.event.MouseEvent;
+import com.amazon.corretto.arctic.common.util.PathSimplifier;
+import com.amazon.corretto.arctic.player.inject.InjectionKeys;
+import com.amazon.corretto.arctic.player.model.ArcticRunningTest;
+import com.amazon.corretto.arctic.player.model.TestStatusCode;
+import com.amazon.corretto.arctic.player.preprocessing.ArcticPlayerPreProcessor;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Removes mouse movements that don't change the path of the mouse in a meaningful way before the test is replayed, so
+ * recordings done without the pathSimplify post processor of the recorder also benefit from it. It runs after the
+ * truncations, so they still refer to the events of the recording. See {@link PathSimplifier}.
+ */
+public final class PathSimplificationPreProcessor implements ArcticPlayerPreProcessor {
+    private static final Logger log = LoggerFactory.getLogger(PathSimplificationPreProcessor.class);
+
+    public static final String NAME = "pathSimplify";
+    private static final int PRIORITY = 75;
+
+    private final PathSimplifier simplifier;
+
+    /**
+     * Creates a new instance of the pre processor. Called by the dependency injection framework.
+     * @param mode Simplification algorithm, one of {@link PathSimplifier#MODES}.
+     * @param epsilon Maximum distance in pixels between a removed movement and the simplified path.
+     * @param bucketMs Duration of each time bucket in milliseconds.
+     */
+    @Inject
+    public PathSimplificationPreProcessor(@Named(InjectionKeys.PRE_PATH_SIMPLIFY_MODE) final String mode,
+                                          @Named(InjectionKeys.PRE_PATH_SIMPLIFY_EPSILON) final double epsilon,
+                                          @Named(InjectionKeys.PRE_PATH_SIMPLIFY_BUCKET_MS) final long bucketMs) {
+        this.simplifier = new PathSimplifier(mode, epsilon, bucketMs);
+    }
+
+    @Override
+    public boolean preProcess(final ArcticRunningTest test) {
+        final ArcticTest recording = test.getRecording();
+        final List<MouseEvent> mouseEvents = recording.getEvents().getMouseEvents();
+        // A new list is set instead of modifying the current one, as the recording may be cached and replayed again
+        final List<MouseEvent> simplified = simplifier.simplify(mouseEvents, recording.getScreenChecks(),
+                recording.getEvents().getKeyboardEvents());
+        log.debug("Simplified {} mouse events to {}", mouseEvents.size(), simplified.size());
+        recording.getEvents().setMouseEvents(simplified);
+        return true;
+    }
+
+    @Override
+    public int getPriority() {
+        return PRIORITY;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Set<TestStatusCode> getRegisteredStatuses() {
+        return Set.of(TestStatusCode.STARTING);
+    }
+}
@@ -40,7 +40,7 @@ public final class TimeControllerPreProcessor implements ArcticPlayerPreProcesso
 
     @Override
     public boolean preProcess(final ArcticRunningTest test) {
-        timeController.startTestCase(test.getRecording());
+        timeController.startTestCase(test);
         return true;
     }
 
@@ -0,0 +1,29 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.amazon.corretto.arctic.player.results;
+
+import com.amazon.corretto.arctic.common.model.TestId;
+import com.amazon.corretto.arctic.common.session.ArcticSessionKeeper;
+import com.amazon.corretto.arctic.player.model.EventLateness;
+
+/**
+ * Defines a ResultsKeeper for values of type {@link EventLateness.Summary}. This will keep how late the events of the
+ * different tests were replayed, so it can be reported together with their results.
+ */
+public interface ArcticLatenessKeeper extends ArcticSessionKeeper<TestId, EventLateness.Summary> {
+
+}
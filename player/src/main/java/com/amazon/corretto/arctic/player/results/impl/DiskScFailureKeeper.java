@@ -0,0 +1,487 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.amazon.corretto.arctic.player.results.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.common.command.impl.SessionCommand;
+import com.amazon.corretto.arctic.common.model.ArcticResultTuple;
+import com.amazon.corretto.arctic.common.model.TestId;
+import com.amazon.corretto.arctic.common.repository.TestRepository;
+import com.amazon.corretto.arctic.common.serialization.ArcticTypeAdapter;
+import com.amazon.corretto.arctic.common.serialization.GsonPathAdapter;
+import com.amazon.corretto.arctic.common.session.ArcticSessionKeeper;
+import com.amazon.corretto.arctic.common.session.SessionJournal;
+import com.amazon.corretto.arctic.player.inject.InjectionKeys;
+import com.amazon.corretto.arctic.player.model.FailureId;
+import com.amazon.corretto.arctic.player.model.PixelCheckFailure;
+import com.amazon.corretto.arctic.player.results.ArcticScFailureKeeper;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation for an ArcticScFailureKeeper backed by disk. It is meant for runs with a very large number of
+ * failures, where keeping all of them in memory makes the heap grow and slows down listing or saving them.
+ *
+ * Each failure is stored as a json file in a folder. Only a small entry per failure is kept in memory, with its id, the
+ * time it was last updated and the file it is stored in. Entries are indexed by test and by test class, so clearing the
+ * failures of a test doesn't need to go through all of them, and the review queue is a sorted set, so adding, removing
+ * and requeueing failures is O(log n). Failures are read from disk only when they are needed, and the most recently
+ * used ones are cached.
+ *
+ * The folder is emptied when the keeper is created, as failures only live for one run, like in
+ * {@link InMemoryScFailureKeeper}. Sessions can be persisted with the session command as usual.
+ */
+public final class DiskScFailureKeeper implements ArcticScFailureKeeper {
+    public static final String NAME = "disk";
+    private static final Logger log = LoggerFactory.getLogger(DiskScFailureKeeper.class);
+    private static final Type TUPLE_TYPE = new TypeToken<ArcticResultTuple<FailureId, PixelCheckFailure>>() { }
+            .getType();
+    private static final String EXTENSION = ".json";
+    private static final Comparator<Entry> QUEUE_ORDER = Comparator.comparingLong((Entry it) -> it.lastUpdated)
+            .thenComparingLong(it -> it.sequence);
+
+    private final TestRepository repository;
+    private final SessionJournal journal;
+    private final Path folder;
+    private final Gson gson;
+    private final Map<FailureId, Entry> entries = new LinkedHashMap<>();
+    private final NavigableSet<Entry> queue = new TreeSet<>(QUEUE_ORDER);
+    private final Map<TestId, Set<FailureId>> byTest = new HashMap<>();
+    private final Map<String, Set<TestId>> byTestClass = new HashMap<>();
+    private final Map<FailureId, ArcticResultTuple<FailureId, PixelCheckFailure>> cache;
+    private long nextSequence;
+
+    /**
+     * Creates a new instance. Usually called by the dependency injector.
+     * @param repository Test repository used to update the tests with new alternative images whenever they are approved
+     *                   during failures review.
+     * @param journal Records all the changes to the failures, so they can be recovered if Arctic stops unexpectedly.
+     * @param folder Folder where the failures are stored. Anything already in it is deleted.
+     * @param cacheSize Number of failures kept in memory after being read from disk.
+     * @param adapters Type adapters used to serialize the failures, the same ones used for sessions.
+     */
+    @Inject
+    public DiskScFailureKeeper(final TestRepository repository, final SessionJournal journal,
+                               @Named(InjectionKeys.RESULTS_SC_DISK_FOLDER) final String folder,
+                               @Named(InjectionKeys.RESULTS_SC_DISK_CACHE) final int cacheSize,
+                               @Named(SessionCommand.SESSION_GSON) final Set<ArcticTypeAdapter<?>> adapters) {
+        this.repository = repository;
+        this.journal = journal;
+        this.folder = Path.of(folder);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<FailureId,
+                    ArcticResultTuple<FailureId, PixelCheckFailure>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        final GsonBuilder builder = new GsonBuilder().registerTypeHierarchyAdapter(Path.class, new GsonPathAdapter());
+        adapters.forEach(it -> builder.registerTypeAdapter(it.getAdaptedClass(), it));
+        this.gson = builder.create();
+        deleteFiles();
+    }
+
+    @Override
+    public String getName() {
+        return this.getClass().getName();
+    }
+
+    @Override
+    public synchronized boolean hasData() {
+        return !entries.isEmpty();
+    }
+
+    /**
+     * Returns all the failures, in the order they were first added. Failures are read from disk while iterating, so
+     * the whole collection is never in memory unless the caller keeps it. Each failure is read while holding the lock
+     * of the keeper, and failures removed after the call are skipped, so the size is only an upper bound.
+     * @return A view of all the failures at the time of the call
+     */
+    @Override
+    public synchronized Collection<ArcticResultTuple<FailureId, PixelCheckFailure>> getResults() {
+        final List<Entry> snapshot = new ArrayList<>(entries.values());
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<ArcticResultTuple<FailureId, PixelCheckFailure>> iterator() {
+                final Iterator<Entry> it = snapshot.iterator();
+                return new Iterator<>() {
+                    private ArcticResultTuple<FailureId, PixelCheckFailure> next;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (next == null && it.hasNext()) {
+                            next = loadIfPresent(it.next());
+                        }
+                        return next != null;
+                    }
+
+                    @Override
+                    public ArcticResultTuple<FailureId, PixelCheckFailure> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        final ArcticResultTuple<FailureId, PixelCheckFailure> result = next;
+                        next = null;
+                        return result;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return snapshot.size();
+            }
+        };
+    }
+
+    @Override
+    public synchronized ArcticResultTuple<FailureId, PixelCheckFailure> getResult(final FailureId failureId) {
+        final Entry entry = entries.get(failureId);
+        return entry == null ? null : load(entry);
+    }
+
+    @Override
+    public synchronized PixelCheckFailure peek() {
+        return queue.isEmpty() ? null : load(queue.first()).getValue();
+    }
+
+    @Override
+    public synchronized PixelCheckFailure poll() {
+        final Entry entry = queue.pollFirst();
+        if (entry == null) {
+            return null;
+        }
+        // The failure is now under review, updates to it must not queue it again
+        entry.queued = false;
+        return load(entry).getValue();
+    }
+
+    @Override
+    public synchronized boolean acceptResult(final Result result, final FailureId failureId) {
+        final Entry entry = entries.get(failureId);
+        if (entry == null) {
+            log.warn("Attempted to process {} that is no longer present", failureId);
+            return false;
+        }
+        final ArcticResultTuple<FailureId, PixelCheckFailure> tuple = load(entry);
+        switch (result) {
+            case ACCEPT:
+                remove(entry);
+                return repository.addAlternative(tuple.getId().getTestId(), tuple.getId().getScope(),
+                        tuple.getValue().getMainSavedImagePath(), tuple.getValue().getMainImageHash(),
+                        tuple.getValue().getCurrentImageFullPath(), tuple.getValue().getCurrentImageHash());
+            case REJECT:
+                remove(entry);
+                break;
+            case IGNORE:
+            default:
+                // A dummy update will cause the time in the tuple to be changed, pushing it to the end of the queue
+                tuple.updateValue(it -> { });
+                store(entry, tuple, true);
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        queue.clear();
+        byTest.clear();
+        byTestClass.clear();
+        cache.clear();
+        deleteFiles();
+        journal.clear(this);
+    }
+
+    @Override
+    public synchronized void clear(final String testName) {
+        final Set<TestId> testIds = byTestClass.get(testName);
+        if (testIds != null) {
+            new ArrayList<>(testIds).forEach(this::clear);
+        }
+    }
+
+    @Override
+    public synchronized void clear(final TestId testId) {
+        final Set<FailureId> failureIds = byTest.get(testId);
+        if (failureIds != null) {
+            new ArrayList<>(failureIds).forEach(this::clear);
+        }
+    }
+
+    @Override
+    public synchronized void clear(final FailureId failureId) {
+        final Entry entry = entries.get(failureId);
+        if (entry != null) {
+            remove(entry);
+        }
+    }
+
+    @Override
+    public synchronized void addValue(final FailureId failureId, final PixelCheckFailure value) {
+        final Entry entry = entries.get(failureId);
+        if (entry == null) {
+            store(add(failureId), new ArcticResultTuple<>(failureId, value), true);
+        } else {
+            final ArcticResultTuple<FailureId, PixelCheckFailure> tuple = load(entry);
+            tuple.setValue(value);
+            // Like in memory, a failure that is being reviewed is not queued again
+            store(entry, tuple, entry.queued);
+        }
+    }
+
+    @Override
+    public synchronized void updateValue(final FailureId failureId, final Consumer<PixelCheckFailure> valueUpdater) {
+        final Entry entry = entries.get(failureId);
+        if (entry != null) {
+            final ArcticResultTuple<FailureId, PixelCheckFailure> tuple = load(entry);
+            tuple.updateValue(valueUpdater);
+            store(entry, tuple, entry.queued);
+        }
+    }
+
+    /**
+     * Returns the session with all the failures. This requires reading all of them from disk.
+     * @return Contents of the session kept by this keeper
+     */
+    @Override
+    public synchronized ArcticSessionKeeper.SessionObject getSession() {
+        final Map<FailureId, ArcticResultTuple<FailureId, PixelCheckFailure>> failures = new LinkedHashMap<>();
+        entries.values().forEach(it -> failures.put(it.id, load(it)));
+        return new SessionObject(failures);
+    }
+
+    @Override
+    public synchronized <S extends ArcticSessionKeeper.SessionObject> void restoreSession(final S sessionObject) {
+        if (sessionObject instanceof SessionObject) {
+            entries.clear();
+            queue.clear();
+            byTest.clear();
+            byTestClass.clear();
+            cache.clear();
+            deleteFiles();
+            ((SessionObject) sessionObject).getFailures().values().forEach(this::restore);
+        }
+    }
+
+    @Override
+    public Class<? extends ArcticSessionKeeper.SessionObject> getSessionObjectClass() {
+        return SessionObject.class;
+    }
+
+    @Override
+    public Type getTupleType() {
+        return TUPLE_TYPE;
+    }
+
+    @Override
+    public synchronized void restoreResult(final ArcticResultTuple<FailureId, PixelCheckFailure> tuple) {
+        restore(tuple);
+    }
+
+    private void restore(final ArcticResultTuple<FailureId, PixelCheckFailure> tuple) {
+        Entry entry = entries.get(tuple.getId());
+        if (entry == null) {
+            entry = add(tuple.getId());
+        }
+        write(entry, tuple);
+        requeue(entry, tuple.getLastUpdated());
+    }
+
+    private Entry add(final FailureId failureId) {
+        final Entry entry = new Entry(failureId, nextSequence++);
+        entries.put(failureId, entry);
+        final TestId testId = failureId.getTestId();
+        byTest.computeIfAbsent(testId, k -> new HashSet<>()).add(failureId);
+        byTestClass.computeIfAbsent(testId.getTestClass(), k -> new HashSet<>()).add(testId);
+        return entry;
+    }
+
+    private void remove(final Entry entry) {
+        entries.remove(entry.id);
+        if (entry.queued) {
+            queue.remove(entry);
+        }
+        cache.remove(entry.id);
+        final TestId testId = entry.id.getTestId();
+        final Set<FailureId> failureIds = byTest.get(testId);
+        if (failureIds != null && failureIds.remove(entry.id) && failureIds.isEmpty()) {
+            byTest.remove(testId);
+            final Set<TestId> testIds = byTestClass.get(testId.getTestClass());
+            if (testIds != null && testIds.remove(testId) && testIds.isEmpty()) {
+                byTestClass.remove(testId.getTestClass());
+            }
+        }
+        try {
+            Files.deleteIfExists(getPath(entry));
+        } catch (final IOException e) {
+            log.warn("Unable to delete {}", getPath(entry), e);
+        }
+        journal.remove(this, entry.id);
+    }
+
+    private void store(final Entry entry, final ArcticResultTuple<FailureId, PixelCheckFailure> tuple,
+                       final boolean queue) {
+        write(entry, tuple);
+        if (queue) {
+            requeue(entry, tuple.getLastUpdated());
+        } else {
+            entry.lastUpdated = tuple.getLastUpdated();
+        }
+        journal.put(this, tuple);
+    }
+
+    private void requeue(final Entry entry, final long lastUpdated) {
+        // The entry must leave the set before changing its position, or it would be lost in the tree
+        if (entry.queued) {
+            queue.remove(entry);
+        }
+        entry.lastUpdated = lastUpdated;
+        entry.queued = true;
+        queue.add(entry);
+    }
+
+    private synchronized ArcticResultTuple<FailureId, PixelCheckFailure> loadIfPresent(final Entry entry) {
+        // The failure may have been removed, and its file deleted, since the entry was taken
+        return entries.get(entry.id) == entry ? load(entry) : null;
+    }
+
+    private ArcticResultTuple<FailureId, PixelCheckFailure> load(final Entry entry) {
+        final ArcticResultTuple<FailureId, PixelCheckFailure> cached = cache.get(entry.id);
+        if (cached != null) {
+            return cached;
+        }
+        final Path path = getPath(entry);
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            final ArcticResultTuple<FailureId, PixelCheckFailure> tuple = gson.fromJson(reader, TUPLE_TYPE);
+            cache.put(entry.id, tuple);
+            return tuple;
+        } catch (final IOException | JsonParseException e) {
+            throw new ArcticException("Unable to read failure " + entry.id + " from " + path, e);
+        }
+    }
+
+    private void write(final Entry entry, final ArcticResultTuple<FailureId, PixelCheckFailure> tuple) {
+        final Path path = getPath(entry);
+        try {
+            Files.createDirectories(folder);
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                gson.toJson(tuple, TUPLE_TYPE, writer);
+            }
+        } catch (final IOException e) {
+            throw new ArcticException("Unable to write failure " + entry.id + " to " + path, e);
+        }
+        cache.put(entry.id, tuple);
+    }
+
+    private Path getPath(final Entry entry) {
+        return folder.resolve(entry.sequence + EXTENSION);
+    }
+
+    private void deleteFiles() {
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(folder)) {
+            files.filter(it -> it.getFileName().toString().endsWith(EXTENSION)).forEach(it -> {
+                try {
+                    Files.delete(it);
+                } catch (final IOException e) {
+                    log.warn("Unable to delete {}", it, e);
+                }
+            });
+        } catch (final IOException e) {
+            log.warn("Unable to clean {}", folder, e);
+        }
+    }
+
+    /**
+     * What is kept in memory for each failure.
+     */
+    private static final class Entry {
+        private final FailureId id;
+        private final long sequence;
+        private long lastUpdated;
+        private boolean queued;
+
+        private Entry(final FailureId id, final long sequence) {
+            this.id = id;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * SessionObject for the DiskScFailureKeeper. It has the same contents as the one of
+     * {@link InMemoryScFailureKeeper}, all the failures with their values.
+     */
+    public static final class SessionObject implements ArcticSessionKeeper.SessionObject {
+        private Map<FailureId, ArcticResultTuple<FailureId, PixelCheckFailure>> failures;
+
+        /**
+         * Creates a new SessionObject that will be used to persist information regarding ScreenCheck failures.
+         * @param failures List of failures that need to be persisted.
+         */
+        public SessionObject(final Map<FailureId, ArcticResultTuple<FailureId, PixelCheckFailure>> failures) {
+            this.failures = failures;
+        }
+
+        /**
+         * Empty constructor to use during deserialization.
+         */
+        public SessionObject() {
+
+        }
+
+        /**
+         * Returns the map of failures that were persisted in this SessionObject.
+         * @return Map of failures that were persisted
+         */
+        public Map<FailureId, ArcticResultTuple<FailureId, PixelCheckFailure>> getFailures() {
+            return failures;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.amazon.corretto.arctic.player.results.impl;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.amazon.corretto.arctic.common.model.ArcticResultTuple;
+import com.amazon.corretto.arctic.common.model.TestId;
+import com.amazon.corretto.arctic.common.session.ArcticSessionKeeper;
+import com.amazon.corretto.arctic.common.session.SessionJournal;
+import com.amazon.corretto.arctic.player.model.EventLateness;
+import com.amazon.corretto.arctic.player.results.ArcticLatenessKeeper;
+import com.google.gson.reflect.TypeToken;
+import jakarta.inject.Inject;
+
+/**
+ * Implementation for an ArcticLatenessKeeper backed by memory. All the access to the lateness is synchronized, as the
+ * session journal takes snapshots of it from its own thread.
+ */
+public final class InMemoryLatenessKeeper implements ArcticLatenessKeeper {
+    private static final Type TUPLE_TYPE =
+            new TypeToken<ArcticResultTuple<TestId, EventLateness.Summary>>() { }.getType();
+    private final Map<TestId, ArcticResultTuple<TestId, EventLateness.Summary>> results = new HashMap<>();
+    private final SessionJournal journal;
+
+    /**
+     * Creates a new instance. Usually called by the dependency injector.
+     * @param journal Records all the changes to the lateness, so they can be recovered if Arctic stops unexpectedly.
+     */
+    @Inject
+    public InMemoryLatenessKeeper(final SessionJournal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public String getName() {
+        return this.getClass().getName();
+    }
+
+    @Override
+    public synchronized boolean hasData() {
+        return !results.isEmpty();
+    }
+
+    @Override
+    public synchronized Collection<ArcticResultTuple<TestId, EventLateness.Summary>> getResults() {
+        return results.values().stream()
+                .sorted(Comparator.comparing(ArcticResultTuple::getLastUpdated))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized ArcticResultTuple<TestId, EventLateness.Summary> getResult(final TestId testId) {
+        return results.getOrDefault(testId, null);
+    }
+
+    @Override
+    public synchronized void clear(final TestId testId) {
+        if (results.remove(testId) != null) {
+            journal.remove(this, testId);
+        }
+    }
+
+    @Override
+    public synchronized void addValue(final TestId testId, final EventLateness.Summary value) {
+        final ArcticResultTuple<TestId, EventLateness.Summary> tuple =
+                results.computeIfAbsent(testId, ArcticResultTuple::new);
+        tuple.setValue(value);
+        journal.put(this, tuple);
+    }
+
+    @Override
+    public synchronized void updateValue(final TestId testId, final Consumer<EventLateness.Summary> value) {
+        if (results.containsKey(testId)) {
+            results.get(testId).updateValue(value);
+            journal.put(this, results.get(testId));
+        }
+    }
+
+    @Override
+    public synchronized ArcticSessionKeeper.SessionObject getSession() {
+        return new SessionObject(new HashMap<>(results));
+    }
+
+    @Override
+    public synchronized <S extends ArcticSessionKeeper.SessionObject> void restoreSession(final S sessionObject) {
+        if (sessionObject instanceof SessionObject) {
+            results.clear();
+            results.putAll(((SessionObject) sessionObject).results);
+        }
+    }
+
+    @Override
+    public Class<? extends ArcticSessionKeeper.SessionObject> getSessionObjectClass() {
+        return SessionObject.class;
+    }
+
+    @Override
+    public Type getTupleType() {
+        return TUPLE_TYPE;
+    }
+
+    @Override
+    public synchronized void restoreResult(final ArcticResultTuple<TestId, EventLateness.Summary> tuple) {
+        results.put(tuple.getId(), tuple);
+    }
+
+    @Override
+    public synchronized void clear(final String testName) {
+        final Iterator<TestId> it = results.keySet().iterator();
+        while (it.hasNext()) {
+            final TestId testId = it.next();
+            if (testId.getTestClass().equals(testName)) {
+                it.remove();
+                journal.remove(this, testId);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        results.clear();
+        journal.clear(this);
+    }
+
+    /**
+     * SessionObject for the InMemoryLatenessKeeper. It persists the lateness summary of each test. By persisting this
+     * information, we can retrieve the lateness of a previously run session.
+     */
+    public static final class SessionObject implements ArcticSessionKeeper.SessionObject {
+        private Map<TestId, ArcticResultTuple<TestId, EventLateness.Summary>> results;
+
+        /**
+         * Creates a new SessionObject that will be used to persist information regarding event lateness.
+         * @param results Lateness of each test that needs to be persisted
+         */
+        SessionObject(final Map<TestId, ArcticResultTuple<TestId, EventLateness.Summary>> results) {
+            this.results = results;
+        }
+
+        /**
+         * Empty constructor to use during deserialization.
+         */
+        public SessionObject() {
+
+        }
+
+        /**
+         * Returns the lateness of each test that was persisted in this SessionObject.
+         * @return Lateness of each test that was persisted
+         */
+        public Map<TestId, ArcticResultTuple<TestId, EventLateness.Summary>> getResults() {
+            return results;
+        }
+    }
+}
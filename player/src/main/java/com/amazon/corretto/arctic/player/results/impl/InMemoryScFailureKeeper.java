@@ -16,31 +16,43 @@
 
 package com.amazon.corretto.arctic.player.results.impl;
 
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import com.amazon.corretto.arctic.common.model.ArcticResultTuple;
 import com.amazon.corretto.arctic.common.model.TestId;
 import com.amazon.corretto.arctic.common.repository.TestRepository;
 import com.amazon.corretto.arctic.common.session.ArcticSessionKeeper;
+import com.amazon.corretto.arctic.common.session.SessionJournal;
 import com.amazon.corretto.arctic.player.model.FailureId;
 import com.amazon.corretto.arctic.player.model.PixelCheckFailure;
 import com.amazon.corretto.arctic.player.results.ArcticScFailureKeeper;
+import com.google.gson.reflect.TypeToken;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 /**
- * Implementation for an ArcticScFailureKeeper backed by memory.
+ * Implementation for an ArcticScFailureKeeper backed by memory. All the access to the failures is synchronized, as the
+ * session journal takes snapshots of them from its own thread.
  */
 public final class InMemoryScFailureKeeper implements ArcticScFailureKeeper {
+    public static final String NAME = "memory";
     private static final Logger log = LoggerFactory.getLogger(InMemoryScFailureKeeper.class);
+    private static final Type TUPLE_TYPE = new TypeToken<ArcticResultTuple<FailureId, PixelCheckFailure>>() { }
+            .getType();
     private final TestRepository repository;
+    private final SessionJournal journal;
     private final PriorityQueue<ArcticResultTuple<FailureId, PixelCheckFailure>> queue =
             new PriorityQueue<>(Comparator.comparing(ArcticResultTuple::getLastUpdated));
     private final Map<FailureId, ArcticResultTuple<FailureId, PixelCheckFailure>> failures = new LinkedHashMap<>();
@@ -49,10 +61,12 @@ public final class InMemoryScFailureKeeper implements ArcticScFailureKeeper {
      * Creates a new instance for an arcticScFailureKeeper.
      * @param repository Test repository used to update the tests with new alternative images whenever they are approved
      *                   during failures review.
+     * @param journal Records all the changes to the failures, so they can be recovered if Arctic stops unexpectedly.
      */
     @Inject
-    public InMemoryScFailureKeeper(final TestRepository repository) {
+    public InMemoryScFailureKeeper(final TestRepository repository, final SessionJournal journal) {
         this.repository = repository;
+        this.journal = journal;
     }
 
 
@@ -62,23 +76,23 @@ public final class InMemoryScFailureKeeper implements ArcticScFailureKeeper {
     }
 
     @Override
-    public boolean hasData() {
+    public synchronized boolean hasData() {
         return !failures.isEmpty();
     }
 
     @Override
-    public Collection<ArcticResultTuple<FailureId, PixelCheckFailure>> getResults() {
-        return failures.values();
+    public synchronized Collection<ArcticResultTuple<FailureId, PixelCheckFailure>> getResults() {
+        return new ArrayList<>(failures.values());
     }
 
     @Override
-    public ArcticResultTuple<FailureId, PixelCheckFailure> getResult(final FailureId failureId) {
+    public synchronized ArcticResultTuple<FailureId, PixelCheckFailure> getResult(final FailureId failureId) {
         return failures.getOrDefault(failureId, null);
     }
 
 
     @Override
-    public PixelCheckFailure peek() {
+    public synchronized PixelCheckFailure peek() {
         ArcticResultTuple<FailureId, PixelCheckFailure> tuple = queue.peek();
         if (tuple != null) {
             return tuple.getValue();
@@ -87,7 +101,7 @@ public final class InMemoryScFailureKeeper implements ArcticScFailureKeeper {
     }
 
     @Override
-    public PixelCheckFailure poll() {
+    public synchronized PixelCheckFailure poll() {
         ArcticResultTuple<FailureId, PixelCheckFailure> tuple = queue.poll();
         if (tuple != null) {
             return tuple.getValue();
@@ -96,7 +110,7 @@ public final class InMemoryScFailureKeeper implements ArcticScFailureKeeper {
     }
 
     @Override
-    public boolean acceptResult(final Result result, final FailureId failureId) {
+    public synchronized boolean acceptResult(final Result result, final FailureId failureId) {
         ArcticResultTuple<FailureId, PixelCheckFailure> tuple = failures.get(failureId);
         if (tuple == null) {
             log.warn("Attempted to process {} that is no longer present", failureId);
@@ -105,50 +119,69 @@ public final class InMemoryScFailureKeeper implements ArcticScFailureKeeper {
         switch (result) {
             case ACCEPT:
                 failures.remove(failureId);
+                journal.remove(this, failureId);
                 return repository.addAlternative(tuple.getId().getTestId(), tuple.getId().getScope(),
                         tuple.getValue().getMainSavedImagePath(), tuple.getValue().getMainImageHash(),
                         tuple.getValue().getCurrentImageFullPath(), tuple.getValue().getCurrentImageHash());
             case REJECT:
                 // Remove completely
                 failures.remove(failureId);
+                journal.remove(this, failureId);
                 break;
             case IGNORE:
             default:
                 // A dummy update will cause the time in the tuple to be changed, pushing it to the end of the queue
                 tuple.updateValue(it -> { });
                 queue.add(tuple);
+                journal.put(this, tuple);
                 // Add back to the list for future review
         }
         return false;
     }
 
     @Override
-    public void clear() {
+    public synchronized void clear() {
         failures.clear();
         queue.clear();
+        journal.clear(this);
     }
 
     @Override
-    public void clear(final String testName) {
-        failures.keySet().stream().filter(it -> it.getTestId().getTestClass().equals(testName)).forEach(this::clear);
+    public synchronized void clear(final String testName) {
+        clearIf(it -> it.getTestId().getTestClass().equals(testName));
     }
 
     @Override
-    public void clear(final TestId testId) {
-        failures.keySet().stream().filter(it -> it.getTestId().equals(testId)).forEach(this::clear);
+    public synchronized void clear(final TestId testId) {
+        clearIf(it -> it.getTestId().equals(testId));
+    }
+
+    /**
+     * Removes all the failures matching a filter with a single pass over the failures and the queue. Removing them one
+     * by one would modify the map while iterating it, and each removal from the queue is O(n) on its own.
+     */
+    private void clearIf(final Predicate<FailureId> filter) {
+        final List<FailureId> removed = failures.keySet().stream().filter(filter).collect(Collectors.toList());
+        if (removed.isEmpty()) {
+            return;
+        }
+        removed.forEach(failures::remove);
+        queue.removeIf(it -> filter.test(it.getId()));
+        removed.forEach(it -> journal.remove(this, it));
     }
 
     @Override
-    public void clear(final FailureId failureId) {
+    public synchronized void clear(final FailureId failureId) {
         if (failures.containsKey(failureId)) {
             ArcticResultTuple<FailureId, PixelCheckFailure> tuple = failures.get(failureId);
             failures.remove(tuple.getId());
             queue.remove(tuple);
+            journal.remove(this, failureId);
         }
     }
 
     @Override
-    public void addValue(final FailureId failureId, final PixelCheckFailure value) {
+    public synchronized void addValue(final FailureId failureId, final PixelCheckFailure value) {
         if (failures.containsKey(failureId)) {
             failures.get(failureId).setValue(value);
         } else {
@@ -156,22 +189,24 @@ public final class InMemoryScFailureKeeper implements ArcticScFailureKeeper {
             failures.put(tuple.getId(), tuple);
             queue.add(tuple);
         }
+        journal.put(this, failures.get(failureId));
     }
 
     @Override
-    public void updateValue(final FailureId failureId, final Consumer<PixelCheckFailure> valueUpdater) {
+    public synchronized void updateValue(final FailureId failureId, final Consumer<PixelCheckFailure> valueUpdater) {
         if (failures.containsKey(failureId)) {
             failures.get(failureId).updateValue(valueUpdater);
+            journal.put(this, failures.get(failureId));
         }
     }
 
     @Override
-    public ArcticSessionKeeper.SessionObject getSession() {
-        return new SessionObject(failures);
+    public synchronized ArcticSessionKeeper.SessionObject getSession() {
+        return new SessionObject(new LinkedHashMap<>(failures));
     }
 
     @Override
-    public <S extends ArcticSessionKeeper.SessionObject> void restoreSession(final S sessionObject) {
+    public synchronized <S extends ArcticSessionKeeper.SessionObject> void restoreSession(final S sessionObject) {
         if (sessionObject instanceof SessionObject) {
             failures.clear();
             queue.clear();
@@ -185,6 +220,20 @@ public final class InMemoryScFailureKeeper implements ArcticScFailureKeeper {
         return SessionObject.class;
     }
 
+    @Override
+    public Type getTupleType() {
+        return TUPLE_TYPE;
+    }
+
+    @Override
+    public synchronized void restoreResult(final ArcticResultTuple<FailureId, PixelCheckFailure> tuple) {
+        final ArcticResultTuple<FailureId, PixelCheckFailure> previous = failures.put(tuple.getId(), tuple);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        queue.add(tuple);
+    }
+
     /**
      * SessionObject for the InMemoryScFailureKeeper. It persists a list of PixelCheckFailures. By persisting this
      * information, we are able to do a review of failures that happened during a previous session.
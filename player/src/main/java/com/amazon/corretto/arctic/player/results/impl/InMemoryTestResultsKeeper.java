@@ -16,9 +16,11 @@
 
 package com.amazon.corretto.arctic.player.results.impl;
 
+import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -26,14 +28,29 @@ import java.util.stream.Collectors;
 import com.amazon.corretto.arctic.common.model.ArcticResultTuple;
 import com.amazon.corretto.arctic.common.model.TestId;
 import com.amazon.corretto.arctic.common.session.ArcticSessionKeeper;
+import com.amazon.corretto.arctic.common.session.SessionJournal;
 import com.amazon.corretto.arctic.player.model.TestStatusCode;
 import com.amazon.corretto.arctic.player.results.ArcticTestResultsKeeper;
+import com.google.gson.reflect.TypeToken;
+import jakarta.inject.Inject;
 
 /**
- * Implementation for an ArcticTestResultsKeeper backed by memory.
+ * Implementation for an ArcticTestResultsKeeper backed by memory. All the access to the results is synchronized, as the
+ * session journal takes snapshots of them from its own thread.
  */
 public final class InMemoryTestResultsKeeper implements ArcticTestResultsKeeper {
+    private static final Type TUPLE_TYPE = new TypeToken<ArcticResultTuple<TestId, TestStatusCode>>() { }.getType();
     private final Map<TestId, ArcticResultTuple<TestId, TestStatusCode>> results = new HashMap<>();
+    private final SessionJournal journal;
+
+    /**
+     * Creates a new instance. Usually called by the dependency injector.
+     * @param journal Records all the changes to the results, so they can be recovered if Arctic stops unexpectedly.
+     */
+    @Inject
+    public InMemoryTestResultsKeeper(final SessionJournal journal) {
+        this.journal = journal;
+    }
 
     @Override
     public String getName() {
@@ -41,46 +58,51 @@ public final class InMemoryTestResultsKeeper implements ArcticTestResultsKeeper
     }
 
     @Override
-    public boolean hasData() {
+    public synchronized boolean hasData() {
         return !results.isEmpty();
     }
 
     @Override
-    public Collection<ArcticResultTuple<TestId, TestStatusCode>> getResults() {
+    public synchronized Collection<ArcticResultTuple<TestId, TestStatusCode>> getResults() {
         return results.values().stream()
                 .sorted(Comparator.comparing(ArcticResultTuple::getLastUpdated))
                 .collect(Collectors.toList());
     }
 
     @Override
-    public ArcticResultTuple<TestId, TestStatusCode> getResult(final TestId testId) {
+    public synchronized ArcticResultTuple<TestId, TestStatusCode> getResult(final TestId testId) {
         return results.getOrDefault(testId, null);
     }
 
     @Override
-    public void clear(final TestId testId) {
-        results.remove(testId);
+    public synchronized void clear(final TestId testId) {
+        if (results.remove(testId) != null) {
+            journal.remove(this, testId);
+        }
     }
 
     @Override
-    public void addValue(final TestId testId, final TestStatusCode value) {
-        results.computeIfAbsent(testId, ArcticResultTuple::new).setValue(value);
+    public synchronized void addValue(final TestId testId, final TestStatusCode value) {
+        final ArcticResultTuple<TestId, TestStatusCode> tuple = results.computeIfAbsent(testId, ArcticResultTuple::new);
+        tuple.setValue(value);
+        journal.put(this, tuple);
     }
 
     @Override
-    public void updateValue(final TestId testId, final Consumer<TestStatusCode> value) {
+    public synchronized void updateValue(final TestId testId, final Consumer<TestStatusCode> value) {
         if (results.containsKey(testId)) {
             results.get(testId).updateValue(value);
+            journal.put(this, results.get(testId));
         }
     }
 
     @Override
-    public ArcticSessionKeeper.SessionObject getSession() {
-        return new SessionObject(results);
+    public synchronized ArcticSessionKeeper.SessionObject getSession() {
+        return new SessionObject(new HashMap<>(results));
     }
 
     @Override
-    public <S extends ArcticSessionKeeper.SessionObject> void restoreSession(final S sessionObject) {
+    public synchronized <S extends ArcticSessionKeeper.SessionObject> void restoreSession(final S sessionObject) {
         if (sessionObject instanceof SessionObject) {
             results.clear();
             results.putAll(((SessionObject) sessionObject).results);
@@ -93,13 +115,31 @@ public final class InMemoryTestResultsKeeper implements ArcticTestResultsKeeper
     }
 
     @Override
-    public void clear(final String testName) {
-        results.entrySet().removeIf(it -> it.getKey().getTestClass().equals(testName));
+    public Type getTupleType() {
+        return TUPLE_TYPE;
+    }
+
+    @Override
+    public synchronized void restoreResult(final ArcticResultTuple<TestId, TestStatusCode> tuple) {
+        results.put(tuple.getId(), tuple);
+    }
+
+    @Override
+    public synchronized void clear(final String testName) {
+        final Iterator<TestId> it = results.keySet().iterator();
+        while (it.hasNext()) {
+            final TestId testId = it.next();
+            if (testId.getTestClass().equals(testName)) {
+                it.remove();
+                journal.remove(this, testId);
+            }
+        }
     }
 
     @Override
-    public void clear() {
+    public synchronized void clear() {
         results.clear();
+        journal.clear(this);
     }
 
     /**
@@ -18,14 +18,18 @@ package com.amazon.corretto.arctic.player.results.impl;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.amazon.corretto.arctic.common.model.ArcticResultTuple;
 import com.amazon.corretto.arctic.common.model.TestId;
 import com.amazon.corretto.arctic.player.exception.ArcticNoResultsException;
 import com.amazon.corretto.arctic.player.inject.InjectionKeys;
+import com.amazon.corretto.arctic.player.model.EventLateness;
 import com.amazon.corretto.arctic.player.model.TestStatusCode;
+import com.amazon.corretto.arctic.player.results.ArcticLatenessKeeper;
 import com.amazon.corretto.arctic.player.results.ArcticResultsConverter;
 import com.amazon.corretto.arctic.player.results.ArcticTestResultsKeeper;
 import jakarta.inject.Inject;
@@ -34,11 +38,13 @@ import jakarta.inject.Named;
 /**
  * Converts ArcticResults into a tap file. Whether a test is considered ok or not ok depends on the value of
  * {@link InjectionKeys#CONFIRMATION_MODE}. If disabled, {@link TestStatusCode#UNCONFIRMED} are considered ok, but if
- * enabled, only {@link TestStatusCode#CONFIRMED} tests are considered ok.
+ * enabled, only {@link TestStatusCode#CONFIRMED} tests are considered ok. Tests with a recorded
+ * {@link EventLateness} get it as a yaml diagnostic block below their result line.
  * @see <a href='https://testanything.org/tap-version-13-specification.html'>Tap v13 specification</a>
  */
 public final class TapResultsConverter implements ArcticResultsConverter<String> {
     private final ArcticTestResultsKeeper resultsKeeper;
+    private final ArcticLatenessKeeper latenessKeeper;
     private final Set<TestStatusCode> okCodes;
 
     private static final Set<TestStatusCode> UNCONFIRMED_OK_CODES = Set.of(
@@ -53,12 +59,14 @@ public final class TapResultsConverter implements ArcticResultsConverter<String>
     /**
      * Creates a new instance of the converter.
      * @param resultsKeeper To fetch the results from
+     * @param latenessKeeper To fetch how late the events of each test were replayed
      * @param confirmationMode Whether we are executing in confirmation mode
      */
     @Inject
-    public TapResultsConverter(final ArcticTestResultsKeeper resultsKeeper,
+    public TapResultsConverter(final ArcticTestResultsKeeper resultsKeeper, final ArcticLatenessKeeper latenessKeeper,
                                @Named(InjectionKeys.CONFIRMATION_MODE) final boolean confirmationMode) {
         this.resultsKeeper = resultsKeeper;
+        this.latenessKeeper = latenessKeeper;
         this.okCodes = confirmationMode ? CONFIRMED_OK_CODES : UNCONFIRMED_OK_CODES;
 
     }
@@ -82,8 +90,26 @@ public final class TapResultsConverter implements ArcticResultsConverter<String>
             }
             out.append("ok ").append(count++).append(" ").append(result.getId());
             out.append(" # ").append(result.getValue()).append(System.lineSeparator());
+            final ArcticResultTuple<TestId, EventLateness.Summary> lateness = latenessKeeper.getResult(result.getId());
+            if (lateness != null) {
+                appendLateness(out, lateness.getValue());
+            }
         }
 
         return out.toString();
     }
+
+    private static void appendLateness(final StringBuilder out, final EventLateness.Summary lateness) {
+        out.append("  ---").append(System.lineSeparator());
+        out.append("  lateness:").append(System.lineSeparator());
+        out.append("    events: ").append(lateness.getCount()).append(System.lineSeparator());
+        out.append("    p50_ms: ").append(toMillis(lateness.getP50Ns())).append(System.lineSeparator());
+        out.append("    p99_ms: ").append(toMillis(lateness.getP99Ns())).append(System.lineSeparator());
+        out.append("    max_ms: ").append(toMillis(lateness.getMaxNs())).append(System.lineSeparator());
+        out.append("  ...").append(System.lineSeparator());
+    }
+
+    private static String toMillis(final long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.player.control.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.amazon.corretto.arctic.common.model.event.ArcticEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventMergeIteratorTest {
+    private static final int ALL = -1;
+
+    @Test
+    public void mergesListsByTimestamp() {
+        final List<Event> checks = List.of(event("c1", 1), event("c4", 4), event("c7", 7));
+        final List<Event> mouse = List.of(event("m2", 2), event("m5", 5));
+        final List<Event> keyboard = List.of(event("k3", 3), event("k6", 6), event("k8", 8));
+
+        assertEquals(List.of("c1", "m2", "k3", "c4", "m5", "k6", "c7", "k8"),
+                names(new EventMergeIterator(ALL, checks, mouse, keyboard)));
+    }
+
+    @Test
+    public void sameTimestampFollowsListOrder() {
+        final List<Event> first = List.of(event("a", 1), event("b", 2));
+        final List<Event> second = List.of(event("c", 1), event("d", 2));
+        final List<Event> third = List.of(event("e", 2));
+
+        assertEquals(List.of("a", "c", "b", "d", "e"), names(new EventMergeIterator(ALL, first, second, third)));
+        assertEquals(List.of("c", "a", "e", "d", "b"), names(new EventMergeIterator(ALL, third, second, first)));
+    }
+
+    @Test
+    public void skipsEventsOutsideThePlayMode() {
+        final int playMode = ArcticEvent.SubType.MOVE.getValue() | ArcticEvent.SubType.SCREENSHOT_CHECK.getValue();
+        final List<Event> mouse = List.of(event("click", 1, ArcticEvent.SubType.CLICK),
+                event("move", 2, ArcticEvent.SubType.MOVE), event("press", 5, ArcticEvent.SubType.PRESS));
+        final List<Event> keyboard = List.of(event("typed", 0, ArcticEvent.SubType.KEY_TYPED));
+        final List<Event> checks = List.of(event("check", 3));
+
+        assertEquals(List.of("move", "check"), names(new EventMergeIterator(playMode, mouse, keyboard, checks)));
+    }
+
+    @Test
+    public void emptyListsHaveNoEvents() {
+        final EventMergeIterator empty = new EventMergeIterator(ALL, Collections.emptyList(), Collections.emptyList());
+        assertFalse(empty.hasNext());
+        assertThrows(NoSuchElementException.class, empty::next);
+        assertFalse(new EventMergeIterator(ALL).hasNext());
+
+        final EventMergeIterator one = new EventMergeIterator(ALL, Collections.emptyList(), List.of(event("a", 1)));
+        assertTrue(one.hasNext());
+        assertTrue(one.hasNext());
+        assertEquals("a", ((Event) one.next()).name);
+        assertFalse(one.hasNext());
+        assertThrows(NoSuchElementException.class, one::next);
+    }
+
+    @Test
+    public void unsortedListKeepsItsOwnOrder() {
+        final List<Event> unsorted = List.of(event("a", 5), event("b", 2), event("c", 6));
+        final List<Event> sorted = List.of(event("d", 3), event("e", 4));
+
+        // The iterator only looks at the next event of each list, it does not fix the order of a list
+        assertEquals(List.of("d", "e", "a", "b", "c"), names(new EventMergeIterator(ALL, unsorted, sorted)));
+    }
+
+    private static List<String> names(final EventMergeIterator iterator) {
+        final List<String> names = new ArrayList<>();
+        iterator.forEachRemaining(it -> names.add(((Event) it).name));
+        return names;
+    }
+
+    private static Event event(final String name, final long timestamp) {
+        return event(name, timestamp, ArcticEvent.SubType.SCREENSHOT_CHECK);
+    }
+
+    private static Event event(final String name, final long timestamp, final ArcticEvent.SubType subType) {
+        return new Event(name, timestamp, subType);
+    }
+
+    /**
+     * An event that only has what the iterator looks at, plus a name to tell them apart.
+     */
+    private static final class Event implements ArcticEvent {
+        private final String name;
+        private final SubType subType;
+        private long timestamp;
+
+        private Event(final String name, final long timestamp, final SubType subType) {
+            this.name = name;
+            this.timestamp = timestamp;
+            this.subType = subType;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public void setTimestamp(final long value) {
+            timestamp = value;
+        }
+
+        @Override
+        public Type getType() {
+            if (subType == SubType.SCREENSHOT_CHECK) {
+                return Type.SCREENSHOT_CHECK;
+            }
+            return subType.getValue() < SubType.CLICK.getValue() ? Type.KEYBOARD_EVENT : Type.MOUSE_EVENT;
+        }
+
+        @Override
+        public SubType getSubType() {
+            return subType;
+        }
+    }
+}
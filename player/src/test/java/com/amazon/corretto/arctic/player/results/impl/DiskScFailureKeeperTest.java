@@ -0,0 +1,238 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.player.results.impl;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.amazon.corretto.arctic.common.model.ArcticResultTuple;
+import com.amazon.corretto.arctic.common.model.TestId;
+import com.amazon.corretto.arctic.common.model.event.ScreenshotCheck;
+import com.amazon.corretto.arctic.common.model.gui.ScreenArea;
+import com.amazon.corretto.arctic.common.repository.TestRepository;
+import com.amazon.corretto.arctic.common.session.SessionJournal;
+import com.amazon.corretto.arctic.player.backend.pixel.PixelCheckResult;
+import com.amazon.corretto.arctic.player.model.FailureId;
+import com.amazon.corretto.arctic.player.model.PixelCheckFailure;
+import com.amazon.corretto.arctic.player.results.ArcticScFailureKeeper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class DiskScFailureKeeperTest {
+    private static final String SCOPE = "default";
+    // Smaller than the number of failures, so most of them are read back from disk
+    private static final int CACHE_SIZE = 1;
+
+    private final TestRepository repository = mock(TestRepository.class);
+
+    @TempDir
+    Path folder;
+
+    private DiskScFailureKeeper keeper;
+    private FailureId first;
+    private FailureId second;
+    private FailureId third;
+
+    @BeforeEach
+    public void setUp() {
+        keeper = createKeeper();
+        first = failureId("TestA", "case1");
+        second = failureId("TestA", "case2");
+        third = failureId("TestB", "case1");
+    }
+
+    @Test
+    public void pollFollowsTheOrderFailuresWereAdded() {
+        addAll(first, second, third);
+
+        assertEquals(first, keeper.peek().getFailureId());
+        assertEquals(first, keeper.poll().getFailureId());
+        assertEquals(second, keeper.poll().getFailureId());
+        assertEquals(third, keeper.poll().getFailureId());
+        assertNull(keeper.poll());
+        assertNull(keeper.peek());
+        // Polling only takes failures out of the queue
+        assertTrue(keeper.hasData());
+        assertEquals(3, keeper.getResults().size());
+    }
+
+    @Test
+    public void polledFailureIsNotQueuedAgainByUpdates() {
+        addAll(first, second);
+
+        assertEquals(first, keeper.poll().getFailureId());
+        keeper.addValue(first, failure(first));
+        keeper.updateValue(first, it -> { });
+
+        assertEquals(second, keeper.poll().getFailureId());
+        assertNull(keeper.poll());
+    }
+
+    @Test
+    public void ignoreMovesFailureToTheEndOfTheQueue() {
+        addAll(first, second);
+        waitForNextMillisecond();
+
+        assertFalse(keeper.acceptResult(ArcticScFailureKeeper.Result.IGNORE, first));
+        assertEquals(second, keeper.poll().getFailureId());
+        assertEquals(first, keeper.poll().getFailureId());
+        assertNull(keeper.poll());
+    }
+
+    @Test
+    public void ignoreQueuesAPolledFailureAgain() {
+        addAll(first);
+
+        assertEquals(first, keeper.poll().getFailureId());
+        keeper.acceptResult(ArcticScFailureKeeper.Result.IGNORE, first);
+        assertEquals(first, keeper.poll().getFailureId());
+    }
+
+    @Test
+    public void rejectRemovesFailure() throws IOException {
+        addAll(first, second);
+
+        assertFalse(keeper.acceptResult(ArcticScFailureKeeper.Result.REJECT, first));
+        assertNull(keeper.getResult(first));
+        assertEquals(second, keeper.poll().getFailureId());
+        assertNull(keeper.poll());
+        assertEquals(1, countFiles());
+        assertFalse(keeper.acceptResult(ArcticScFailureKeeper.Result.REJECT, first));
+    }
+
+    @Test
+    public void acceptAddsAlternativeAndRemovesFailure() {
+        addAll(first, second);
+        final PixelCheckFailure failure = keeper.getResult(first).getValue();
+
+        keeper.acceptResult(ArcticScFailureKeeper.Result.ACCEPT, first);
+        verify(repository).addAlternative(first.getTestId(), SCOPE, failure.getMainSavedImagePath(),
+                failure.getMainImageHash(), failure.getCurrentImageFullPath(), failure.getCurrentImageHash());
+        assertNull(keeper.getResult(first));
+        assertEquals(second, keeper.poll().getFailureId());
+    }
+
+    @Test
+    public void clearRemovesFailuresOfTestsAndTestClasses() throws IOException {
+        addAll(first, second, third);
+
+        keeper.clear(third.getTestId());
+        assertEquals(List.of(first, second), ids(keeper.getResults()));
+
+        keeper.clear("TestA");
+        assertFalse(keeper.hasData());
+        assertNull(keeper.poll());
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    public void resultsSkipFailuresRemovedAfterTheCall() {
+        addAll(first, second, third);
+
+        final Collection<ArcticResultTuple<FailureId, PixelCheckFailure>> results = keeper.getResults();
+        keeper.clear(second);
+        assertEquals(List.of(first, third), ids(results));
+    }
+
+    @Test
+    public void restoredSessionKeepsQueueOrder() {
+        addAll(first, second, third);
+        waitForNextMillisecond();
+        keeper.acceptResult(ArcticScFailureKeeper.Result.IGNORE, first);
+        final DiskScFailureKeeper.SessionObject session = (DiskScFailureKeeper.SessionObject) keeper.getSession();
+
+        final DiskScFailureKeeper restored = createKeeper();
+        restored.restoreSession(session);
+        assertEquals(second, restored.poll().getFailureId());
+        assertEquals(third, restored.poll().getFailureId());
+        assertEquals(first, restored.poll().getFailureId());
+        assertNull(restored.poll());
+    }
+
+    @Test
+    public void newKeeperStartsEmpty() throws IOException {
+        addAll(first, second);
+
+        final DiskScFailureKeeper next = createKeeper();
+        assertFalse(next.hasData());
+        assertEquals(0, countFiles());
+    }
+
+    private DiskScFailureKeeper createKeeper() {
+        final SessionJournal journal = new SessionJournal(false, folder.resolve("session").toString(), 0, 1,
+                Collections::emptySet, Collections.emptySet());
+        return new DiskScFailureKeeper(repository, journal, folder.resolve("failures").toString(), CACHE_SIZE,
+                Collections.emptySet());
+    }
+
+    private void addAll(final FailureId... failureIds) {
+        for (final FailureId failureId : failureIds) {
+            keeper.addValue(failureId, failure(failureId));
+        }
+    }
+
+    private static FailureId failureId(final String testClass, final String testCase) {
+        return new FailureId(new TestId(null, testClass, testCase), SCOPE,
+                Path.of(testClass, testCase, "sc.png"));
+    }
+
+    private static PixelCheckFailure failure(final FailureId failureId) {
+        final ScreenshotCheck saved = new ScreenshotCheck();
+        saved.setFilename(failureId.getSavedImagePath());
+        saved.setHashValue("saved-" + failureId.getTestId().getTestCase());
+        saved.setSa(new ScreenArea(0, 0, 1, 1));
+        final ScreenshotCheck current = new ScreenshotCheck();
+        current.setImage(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB));
+        final PixelCheckResult result = new PixelCheckResult(current, saved, failureId.getTestId(),
+                failureId.getScope());
+        return new PixelCheckFailure(result, Path.of("failures"), Path.of("current.png"));
+    }
+
+    private static List<FailureId> ids(final Collection<ArcticResultTuple<FailureId, PixelCheckFailure>> results) {
+        final List<FailureId> ids = new ArrayList<>();
+        results.forEach(it -> ids.add(it.getId()));
+        return ids;
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(folder.resolve("failures"))) {
+            return files.count();
+        }
+    }
+
+    private static void waitForNextMillisecond() {
+        // The queue is ordered by the time failures were last updated, which has millisecond precision
+        final long now = System.currentTimeMillis();
+        while (System.currentTimeMillis() == now) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.amazon.corretto.arctic.recorder;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.amazon.corretto.arctic.common.control.TestController;
@@ -33,6 +34,7 @@ import com.amazon.corretto.arctic.recorder.backend.ArcticBackendRecorder;
 import com.amazon.corretto.arctic.recorder.control.ArcticController;
 import com.amazon.corretto.arctic.recorder.inject.InjectionKeys;
 import com.amazon.corretto.arctic.recorder.postprocessing.ArcticRecorderPostProcessor;
+import com.amazon.corretto.arctic.recorder.postprocessing.ScreenCheckStage;
 import com.amazon.corretto.arctic.recorder.preprocessing.ArcticRecorderPreProcessor;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
@@ -46,6 +48,7 @@ public final class ArcticRecorder implements ArcticController.Listener, TestCont
     private final ShadeManager shadeManager;
     private final List<ArcticRecorderPostProcessor> postProcessors;
     private final List<ArcticRecorderPreProcessor> preProcessors;
+    private final ScreenCheckStage screenCheckStage;
     private final String runningScope;
     private final boolean autoStopRecording;
     private ArcticTest currentTest;
@@ -55,6 +58,7 @@ public final class ArcticRecorder implements ArcticController.Listener, TestCont
     public ArcticRecorder(final ArcticBackendRecorder backendRecorder, final ShadeManager shadeManager,
                           final Set<ArcticRecorderPostProcessor> postProcessors,
                           final Set<ArcticRecorderPreProcessor> preProcessors,
+                          final ScreenCheckStage screenCheckStage,
                           @Named(CommonInjectionKeys.REPOSITORY_SCOPE) final String runningScope,
                           @Named(InjectionKeys.CONTROL_AUTO_STOP) final boolean autoStopRecording) {
         this.backendRecorder = backendRecorder;
@@ -65,6 +69,7 @@ public final class ArcticRecorder implements ArcticController.Listener, TestCont
         this.preProcessors = preProcessors.stream()
                 .sorted(Comparator.comparing(ArcticRecorderPreProcessor::getPriority))
                 .collect(Collectors.toList());
+        this.screenCheckStage = screenCheckStage;
         this.runningScope = runningScope;
         this.autoStopRecording = autoStopRecording;
     }
@@ -81,14 +86,26 @@ public final class ArcticRecorder implements ArcticController.Listener, TestCont
         recording = false;
         log.info("Stop recording of test: {}:{}", currentTest.getTestName(), currentTest.getTestCase());
         addEvents(backendRecorder.getRecordingBuffer());
-        for (final ArcticRecorderPostProcessor postProcessor : postProcessors) {
-            log.debug("Running post processor {}", postProcessor.getName());
-            if (!postProcessor.postProcess(currentTest)) {
-                log.warn("Aborting test as requested by {}", postProcessor.getName());
-                discard();
-                break;
+        final long start = System.nanoTime();
+        try {
+            for (final ArcticRecorderPostProcessor postProcessor : postProcessors) {
+                log.debug("Running post processor {}", postProcessor.getName());
+                final long postProcessorStart = System.nanoTime();
+                final boolean result = postProcessor.postProcess(currentTest);
+                log.debug("Post processor {} completed in {}ms", postProcessor.getName(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - postProcessorStart));
+                if (!result) {
+                    log.warn("Aborting test as requested by {}", postProcessor.getName());
+                    discard();
+                    break;
+                }
             }
+        } finally {
+            // Drain the stage whatever the post processors did, so no task of this recording is left behind to fail
+            // or be reported with the next one. Failures of the tasks are logged by the stage as they are collected
+            screenCheckStage.await();
         }
+        log.info("Post processing completed in {}ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
 
     void discard() {
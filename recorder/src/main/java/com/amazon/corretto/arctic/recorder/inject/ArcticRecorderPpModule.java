@@ -22,11 +22,14 @@ import java.util.function.Consumer;
 
 import com.amazon.corretto.arctic.common.backend.ArcticImageSaver;
 import com.amazon.corretto.arctic.common.backend.impl.JavaImageIoSaver;
+import com.amazon.corretto.arctic.common.backend.impl.PngImageSaver;
 import com.amazon.corretto.arctic.common.inject.ArcticModule;
+import com.amazon.corretto.arctic.common.util.PathSimplifier;
 import com.amazon.corretto.arctic.recorder.postprocessing.ArcticRecorderPostProcessor;
 import com.amazon.corretto.arctic.recorder.postprocessing.impl.DuplicateMovementPostProcessor;
 import com.amazon.corretto.arctic.recorder.postprocessing.impl.KeyboardCoherencePostProcessor;
 import com.amazon.corretto.arctic.recorder.postprocessing.impl.MouseCoherencePostProcessor;
+import com.amazon.corretto.arctic.recorder.postprocessing.impl.PathSimplificationPostProcessor;
 import com.amazon.corretto.arctic.recorder.postprocessing.impl.ScreenCheckHashPostProcessor;
 import com.amazon.corretto.arctic.recorder.postprocessing.impl.ScreenCheckSavePostProcessor;
 import com.amazon.corretto.arctic.recorder.postprocessing.impl.TailClearPostProcessor;
@@ -48,12 +51,14 @@ public final class ArcticRecorderPpModule extends ArcticModule {
                     TestSavePostProcessor.NAME, TestSavePostProcessor.class,
                     WorkbenchToBackPostProcessor.NAME, WorkbenchToBackPostProcessor.class,
                     KeyboardCoherencePostProcessor.NAME, KeyboardCoherencePostProcessor.class,
-                    MouseCoherencePostProcessor.NAME, MouseCoherencePostProcessor.class);
+                    MouseCoherencePostProcessor.NAME, MouseCoherencePostProcessor.class,
+                    PathSimplificationPostProcessor.NAME, PathSimplificationPostProcessor.class);
 
     private static final Map<String, Consumer<ArcticRecorderPpModule>> ADDITIONAL_CONFIGURATION = Map.of(
                 ScreenCheckHashPostProcessor.NAME, ArcticRecorderPpModule::configureScreenCheckHash,
                 ScreenCheckSavePostProcessor.NAME, ArcticRecorderPpModule::configureScreenCheckSave,
-                TestSavePostProcessor.NAME, ArcticRecorderPpModule::configureTestSave);
+                TestSavePostProcessor.NAME, ArcticRecorderPpModule::configureTestSave,
+                PathSimplificationPostProcessor.NAME, ArcticRecorderPpModule::configurePathSimplification);
 
     public ArcticRecorderPpModule(final Configuration config) {
         super(config);
@@ -67,6 +72,10 @@ public final class ArcticRecorderPpModule extends ArcticModule {
             log.error("Invalid key value {}", it);
             fail(InjectionKeys.POST_ENABLED, POST_PROCESSORS.keySet());
         });
+        bindFromConfig(Integer.class, InjectionKeys.POST_SC_THREADS, "a number of threads, 0 or higher");
+        if (getConfig().getInt(InjectionKeys.POST_SC_THREADS) < 0) {
+            fail(InjectionKeys.POST_SC_THREADS, "a number of threads, 0 or higher");
+        }
 
         final Multibinder<ArcticRecorderPostProcessor> multiBinder = Multibinder.newSetBinder(binder(), ArcticRecorderPostProcessor.class);
         processors.stream()
@@ -83,6 +92,21 @@ public final class ArcticRecorderPpModule extends ArcticModule {
         bindFromConfig(Boolean.class, InjectionKeys.POST_SAVE_TEST_ZIP, Arrays.asList(true, false));
     }
 
+    private void configurePathSimplification() {
+        bindFromConfig(String.class, InjectionKeys.POST_PATH_SIMPLIFY_MODE, PathSimplifier.MODES);
+        if (!PathSimplifier.MODES.contains(getConfig().getString(InjectionKeys.POST_PATH_SIMPLIFY_MODE))) {
+            fail(InjectionKeys.POST_PATH_SIMPLIFY_MODE, PathSimplifier.MODES);
+        }
+        bindFromConfig(Double.class, InjectionKeys.POST_PATH_SIMPLIFY_EPSILON, "a distance in pixels, 0 or more");
+        if (getConfig().getDouble(InjectionKeys.POST_PATH_SIMPLIFY_EPSILON) < 0) {
+            fail(InjectionKeys.POST_PATH_SIMPLIFY_EPSILON, "a distance in pixels, 0 or more");
+        }
+        bindFromConfig(Long.class, InjectionKeys.POST_PATH_SIMPLIFY_BUCKET_MS, "a duration in ms, 0 or more");
+        if (getConfig().getLong(InjectionKeys.POST_PATH_SIMPLIFY_BUCKET_MS) < 0) {
+            fail(InjectionKeys.POST_PATH_SIMPLIFY_BUCKET_MS, "a duration in ms, 0 or more");
+        }
+    }
+
     private void configureScreenCheckHash() {
         bindFromConfig(String.class, InjectionKeys.POST_SC_HASH_ALGORITHM, "a valid java security digest algorithm");
     }
@@ -92,7 +116,26 @@ public final class ArcticRecorderPpModule extends ArcticModule {
         check(InjectionKeys.POST_SC_SAVE_EXTENSION, "a valid java ImageIO format extension");
         final String imageFormat = getConfig().getString(InjectionKeys.POST_SC_SAVE_FORMAT);
         final String imageExtension = getConfig().getString(InjectionKeys.POST_SC_SAVE_EXTENSION);
-        bind(ArcticImageSaver.class).toInstance(new JavaImageIoSaver(imageFormat, imageExtension));
+        if (!PngImageSaver.FORMAT.equalsIgnoreCase(imageFormat)) {
+            bind(ArcticImageSaver.class).toInstance(new JavaImageIoSaver(imageFormat, imageExtension));
+            return;
+        }
+        check(InjectionKeys.POST_SC_SAVE_PNG_LEVEL, "0 <= x <= 9");
+        check(InjectionKeys.POST_SC_SAVE_PNG_FILTER, PngImageSaver.FILTERS);
+        check(InjectionKeys.POST_SC_SAVE_PNG_THREADS, "1 or more threads");
+        final int level = getConfig().getInt(InjectionKeys.POST_SC_SAVE_PNG_LEVEL);
+        final String filter = getConfig().getString(InjectionKeys.POST_SC_SAVE_PNG_FILTER);
+        final int threads = getConfig().getInt(InjectionKeys.POST_SC_SAVE_PNG_THREADS);
+        if (level < 0 || level > 9) {
+            fail(InjectionKeys.POST_SC_SAVE_PNG_LEVEL, "0 <= x <= 9");
+        }
+        if (!PngImageSaver.FILTERS.contains(filter)) {
+            fail(InjectionKeys.POST_SC_SAVE_PNG_FILTER, PngImageSaver.FILTERS);
+        }
+        if (threads < 1) {
+            fail(InjectionKeys.POST_SC_SAVE_PNG_THREADS, "1 or more threads");
+        }
+        bind(ArcticImageSaver.class).toInstance(new PngImageSaver(imageExtension, level, filter, threads));
     }
 
     private void addToBinder(final Multibinder<ArcticRecorderPostProcessor> multiBinder,
@@ -15,6 +15,7 @@
  */
 package com.amazon.corretto.arctic.recorder.inject;
 
+import com.amazon.corretto.arctic.recorder.postprocessing.impl.PathSimplificationPostProcessor;
 import com.amazon.corretto.arctic.recorder.postprocessing.impl.ScreenCheckHashPostProcessor;
 import com.amazon.corretto.arctic.recorder.postprocessing.impl.ScreenCheckSavePostProcessor;
 import com.amazon.corretto.arctic.recorder.postprocessing.impl.TestSavePostProcessor;
@@ -43,11 +44,24 @@ public class InjectionKeys {
     public static final String POST_SC_SAVE_FORMAT = PREFIX + "post." + ScreenCheckSavePostProcessor.NAME + ".format";
     public static final String POST_SC_SAVE_EXTENSION = PREFIX + "post." + ScreenCheckSavePostProcessor.NAME
             + ".extension";
+    public static final String POST_SC_SAVE_PNG_LEVEL = PREFIX + "post." + ScreenCheckSavePostProcessor.NAME
+            + ".png.level";
+    public static final String POST_SC_SAVE_PNG_FILTER = PREFIX + "post." + ScreenCheckSavePostProcessor.NAME
+            + ".png.filter";
+    public static final String POST_SC_SAVE_PNG_THREADS = PREFIX + "post." + ScreenCheckSavePostProcessor.NAME
+            + ".png.threads";
+    public static final String POST_SC_THREADS = PREFIX + "post.sc.threads";
     public static final String POST_SC_HASH_ALGORITHM = PREFIX + "post." + ScreenCheckHashPostProcessor.NAME
             + ".algorithm";
     public static final String POST_SAVE_TEST_ZIP = PREFIX + "post." + TestSavePostProcessor.NAME + ".zip";
     public static final String POST_SAVE_EVENTS_FILENAME = PREFIX + "post." + TestSavePostProcessor.NAME +
             ".eventsFile";
+    public static final String POST_PATH_SIMPLIFY_MODE = PREFIX + "post." + PathSimplificationPostProcessor.NAME
+            + ".mode";
+    public static final String POST_PATH_SIMPLIFY_EPSILON = PREFIX + "post." + PathSimplificationPostProcessor.NAME
+            + ".epsilon";
+    public static final String POST_PATH_SIMPLIFY_BUCKET_MS = PREFIX + "post." + PathSimplificationPostProcessor.NAME
+            + ".bucket.ms";
     public static final String PRE_ENABLED = PREFIX + "pre.enabled";
     public static final String PRE_FIRST_SC_MATCH = PREFIX + "pre." + FirstScCheckPreProcessor.NAME + ".match";
     public static final String PRE_FIRST_SC_DELAY = PREFIX + "pre." + FirstScCheckPreProcessor.NAME + ".delay";
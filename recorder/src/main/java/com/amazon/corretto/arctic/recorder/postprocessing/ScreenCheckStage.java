@@ -0,0 +1,151 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.recorder.postprocessing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazon.corretto.arctic.api.exception.ArcticException;
+import com.amazon.corretto.arctic.recorder.inject.InjectionKeys;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the per screenshot work of the postprocessors, like hashing or encoding the images, in a pool of threads.
+ * Postprocessors submit their tasks and return immediately, so the hashing and the encoding of all the screenshot
+ * checks of a recording overlap. Anything that depends on that work being completed, like persisting the test json that
+ * references the images, needs to call {@link #await()} first. The recorder also awaits the stage at the end of each
+ * recording, so tasks are always collected, and their failures reported, even if no postprocessor waits for them.
+ *
+ * With 0 threads, tasks are run directly by the caller when submitted, which is the same as the postprocessors running
+ * them by themselves.
+ */
+@Slf4j
+@Singleton
+public final class ScreenCheckStage {
+    private final ExecutorService executor;
+    private final List<Future<?>> pending = new ArrayList<>();
+    private final Map<String, AtomicLong> taskNanos = new LinkedHashMap<>();
+    private final Map<String, AtomicInteger> taskCount = new LinkedHashMap<>();
+    private long firstSubmit;
+
+    /**
+     * Creates a new instance. Called by the dependency injection framework.
+     * @param threads Number of threads used to run the tasks. 0 to run them on the thread that submits them.
+     */
+    @Inject
+    public ScreenCheckStage(@Named(InjectionKeys.POST_SC_THREADS) final int threads) {
+        if (threads > 0) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(threads, r -> {
+                final Thread thread = new Thread(r, "arctic-sc-stage-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Submits a task for a screenshot check. Tasks must only modify the fields of their own screenshot check, as they
+     * may run at the same time as other tasks on the same test.
+     * @param name Name of the postprocessor submitting the task, used for the timing metrics.
+     * @param task Work to perform.
+     */
+    public void submit(final String name, final Runnable task) {
+        final AtomicLong nanos;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                firstSubmit = System.nanoTime();
+            }
+            nanos = taskNanos.computeIfAbsent(name, k -> new AtomicLong());
+            taskCount.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet();
+        }
+        final Runnable timed = () -> {
+            final long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                nanos.addAndGet(System.nanoTime() - start);
+            }
+        };
+        if (executor == null) {
+            timed.run();
+            return;
+        }
+        synchronized (this) {
+            pending.add(executor.submit(timed));
+        }
+    }
+
+    /**
+     * Blocks until all the tasks submitted so far have completed. Metrics of the completed tasks are logged and reset.
+     * @throws ArcticException if any of the tasks failed. All the tasks are still waited for before throwing.
+     */
+    public void await() {
+        final List<Future<?>> tasks;
+        final long start;
+        synchronized (this) {
+            tasks = new ArrayList<>(pending);
+            pending.clear();
+            start = firstSubmit;
+        }
+        RuntimeException failure = null;
+        for (final Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ArcticException("Interrupted while waiting for the screenshot checks to be processed", e);
+            } catch (final ExecutionException e) {
+                log.error("Unable to process screenshot check", e.getCause());
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                            : new ArcticException("Unable to process screenshot check", e.getCause());
+                }
+            }
+        }
+        logMetrics(tasks.isEmpty() ? 0 : System.nanoTime() - start);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private synchronized void logMetrics(final long elapsed) {
+        if (taskCount.isEmpty()) {
+            return;
+        }
+        taskCount.forEach((name, count) -> log.debug("{}: {} screenshot checks, {}ms across all threads", name,
+                count.get(), TimeUnit.NANOSECONDS.toMillis(taskNanos.get(name).get())));
+        if (executor != null) {
+            log.debug("Screenshot checks processed in {}ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+        taskCount.clear();
+        taskNanos.clear();
+    }
+}
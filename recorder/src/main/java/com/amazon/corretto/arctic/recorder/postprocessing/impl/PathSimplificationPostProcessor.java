@@ -0,0 +1,73 @@
+/*
+ *   Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.amazon.corretto.arctic.recorder.postprocessing.impl;
+
+import java.util.List;
+
+import com.amazon.corretto.arctic.common.model.ArcticTest;
+import com.amazon.corretto.arctic.common.model.event.MouseEvent;
+import com.amazon.corretto.arctic.common.util.PathSimplifier;
+import com.amazon.corretto.arctic.recorder.inject.InjectionKeys;
+import com.amazon.corretto.arctic.recorder.postprocessing.ArcticRecorderPostProcessor;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Removes mouse movements that don't change the path of the mouse in a meaningful way, so fewer events are saved and
+ * replayed. Movements are never removed across clicks, screen checks or keyboard events. See {@link PathSimplifier}.
+ */
+@Slf4j
+public final class PathSimplificationPostProcessor implements ArcticRecorderPostProcessor {
+    public static final String NAME = "pathSimplify";
+    private static final int PRIORITY = 35;
+
+    private final PathSimplifier simplifier;
+
+    /**
+     * Creates a new instance of the post processor. Called by the dependency injection framework.
+     * @param mode Simplification algorithm, one of {@link PathSimplifier#MODES}.
+     * @param epsilon Maximum distance in pixels between a removed movement and the simplified path.
+     * @param bucketMs Duration of each time bucket in milliseconds.
+     */
+    @Inject
+    public PathSimplificationPostProcessor(@Named(InjectionKeys.POST_PATH_SIMPLIFY_MODE) final String mode,
+                                           @Named(InjectionKeys.POST_PATH_SIMPLIFY_EPSILON) final double epsilon,
+                                           @Named(InjectionKeys.POST_PATH_SIMPLIFY_BUCKET_MS) final long bucketMs) {
+        this.simplifier = new PathSimplifier(mode, epsilon, bucketMs);
+        log.debug("{} loaded", NAME);
+    }
+
+    @Override
+    public boolean postProcess(final ArcticTest test) {
+        final List<MouseEvent> mouseEvents = test.getEvents().getMouseEvents();
+        final List<MouseEvent> simplified = simplifier.simplify(mouseEvents, test.getScreenChecks(),
+                test.getEvents().getKeyboardEvents());
+        log.debug("Simplified {} mouse events to {}", mouseEvents.size(), simplified.size());
+        test.getEvents().setMouseEvents(simplified);
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int getPriority() {
+        return PRIORITY;
+    }
+}
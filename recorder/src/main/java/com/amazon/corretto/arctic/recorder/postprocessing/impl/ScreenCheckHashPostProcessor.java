@@ -21,8 +21,10 @@ import com.amazon.corretto.arctic.api.exception.ArcticException;
 import com.amazon.corretto.arctic.common.backend.ArcticHashCalculator;
 import com.amazon.corretto.arctic.common.model.ArcticTest;
 import com.amazon.corretto.arctic.common.model.event.ScreenshotCheck;
+import com.amazon.corretto.arctic.common.util.ImageSignature;
 import com.amazon.corretto.arctic.recorder.inject.InjectionKeys;
 import com.amazon.corretto.arctic.recorder.postprocessing.ArcticRecorderPostProcessor;
+import com.amazon.corretto.arctic.recorder.postprocessing.ScreenCheckStage;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import lombok.extern.slf4j.Slf4j;
@@ -34,27 +36,35 @@ public final class ScreenCheckHashPostProcessor implements ArcticRecorderPostPro
 
     private final ArcticHashCalculator digestCalculator;
     private final String hashAlgorithm;
+    private final ScreenCheckStage stage;
 
     @Inject
     public ScreenCheckHashPostProcessor(final ArcticHashCalculator digestCalculator,
-            @Named(InjectionKeys.POST_SC_HASH_ALGORITHM) final String hashAlgorithm) {
+            @Named(InjectionKeys.POST_SC_HASH_ALGORITHM) final String hashAlgorithm, final ScreenCheckStage stage) {
         this.digestCalculator = digestCalculator;
         this.hashAlgorithm = hashAlgorithm;
+        this.stage = stage;
         log.debug("{} loaded", NAME);
     }
 
     @Override
     public boolean postProcess(final ArcticTest test) {
-        if (test.getInitialSc() != null) postProcess(test.getInitialSc());
-        test.getScreenChecks().forEach(this::postProcess);
+        // Hashes are calculated in the background, alongside the images being saved
+        if (test.getInitialSc() != null) submit(test.getInitialSc());
+        test.getScreenChecks().forEach(this::submit);
         return true;
     }
 
+    private void submit(final ScreenshotCheck sc) {
+        stage.submit(NAME, () -> postProcess(sc));
+    }
+
     private void postProcess(final ScreenshotCheck it) {
         try {
             final String hashValue = digestCalculator.calculateHash(it.getImage(), hashAlgorithm);
             it.setHashValue(hashValue);
             it.setHashMode(hashAlgorithm);
+            it.setSignature(ImageSignature.of(it.getImage()));
         } catch (final NoSuchAlgorithmException e) {
             log.error("Invalid DigestAlgorithm provided: {}", hashAlgorithm, e);
             throw new ArcticException(hashAlgorithm + " is not a valid algorithm", e);
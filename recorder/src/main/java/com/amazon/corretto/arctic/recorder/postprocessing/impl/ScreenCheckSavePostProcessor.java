@@ -22,12 +22,14 @@ import com.amazon.corretto.arctic.common.model.event.ScreenshotCheck;
 import com.amazon.corretto.arctic.common.repository.TestSaveRepository;
 import com.amazon.corretto.arctic.common.util.Pair;
 import com.amazon.corretto.arctic.recorder.postprocessing.ArcticRecorderPostProcessor;
+import com.amazon.corretto.arctic.recorder.postprocessing.ScreenCheckStage;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * This postprocessor saves a copy of the ScreenChecks as images. They can be used for pixel by pixel comparison and
- * are useful for humans.
+ * are useful for humans. Images are encoded and written by the {@link ScreenCheckStage}, so several of them can be
+ * saved at the same time.
  */
 @Slf4j
 public final class ScreenCheckSavePostProcessor implements ArcticRecorderPostProcessor {
@@ -35,14 +37,17 @@ public final class ScreenCheckSavePostProcessor implements ArcticRecorderPostPro
     private static final int PRIORITY = 50;
 
     private final TestSaveRepository repository;
+    private final ScreenCheckStage stage;
 
     /**
      * Creates a new instance of the post processor. Called by the dependency injection framework.
      * @param repository A repository that is used to store the ScreenChecks.
+     * @param stage Runs the encoding of the images in parallel.
      */
     @Inject
-    public ScreenCheckSavePostProcessor(final TestSaveRepository repository) {
+    public ScreenCheckSavePostProcessor(final TestSaveRepository repository, final ScreenCheckStage stage) {
         this.repository = repository;
+        this.stage = stage;
         log.debug("{} loaded", NAME);
     }
 
@@ -60,6 +65,11 @@ public final class ScreenCheckSavePostProcessor implements ArcticRecorderPostPro
 
     private void postProcess(final ScreenshotCheck sc, final String testName, final String testCase, final String scope,
                              final String imgName) {
+        stage.submit(NAME, () -> save(sc, testName, testCase, scope, imgName));
+    }
+
+    private void save(final ScreenshotCheck sc, final String testName, final String testCase, final String scope,
+                      final String imgName) {
         final Pair<String, Path> savedImage = repository.saveImage(testName, testCase, scope, imgName, sc.getImage());
         sc.setFormat(savedImage.getKey());
         sc.setFilename(savedImage.getValue());
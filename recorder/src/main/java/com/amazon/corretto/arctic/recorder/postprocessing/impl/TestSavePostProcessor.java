@@ -19,6 +19,7 @@ import com.amazon.corretto.arctic.common.model.ArcticTest;
 import com.amazon.corretto.arctic.common.repository.TestSaveRepository;
 import com.amazon.corretto.arctic.recorder.inject.InjectionKeys;
 import com.amazon.corretto.arctic.recorder.postprocessing.ArcticRecorderPostProcessor;
+import com.amazon.corretto.arctic.recorder.postprocessing.ScreenCheckStage;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import lombok.extern.slf4j.Slf4j;
@@ -31,20 +32,24 @@ public final class TestSavePostProcessor implements ArcticRecorderPostProcessor
     private final boolean useCompression;
     private final String eventsFileName;
     private final TestSaveRepository repository;
+    private final ScreenCheckStage stage;
 
     @Inject
     public TestSavePostProcessor(@Named(InjectionKeys.POST_SAVE_TEST_ZIP) final boolean useCompression,
                                  @Named(InjectionKeys.POST_SAVE_EVENTS_FILENAME) final String eventsFileName,
-                                 final TestSaveRepository repository) {
+                                 final TestSaveRepository repository, final ScreenCheckStage stage) {
         this.useCompression = useCompression;
         this.eventsFileName = eventsFileName + (useCompression ? ".zip" : "");
         this.repository = repository;
+        this.stage = stage;
         log.debug("{} loaded", NAME);
 
     }
 
     @Override
     public boolean postProcess(final ArcticTest test) {
+        // The test json references the hashes and file names of the images, so they need to be ready
+        stage.await();
         log.debug("Saving test {}:{} with {}:{}:{} events", test.getTestName(), test.getTestCase(),
                 test.getScreenChecks().size(), test.getEvents().getMouseEvents().size(),
                 test.getEvents().getKeyboardEvents().size());